@@ -0,0 +1,118 @@
+package com.webank.wecube.plugins.alicloud.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @author howechen
+ */
+@ConfigurationProperties(prefix = "plugins.alicloud.acs-client")
+public class AcsClientProperties {
+    private int maxCachedClients = 256;
+    private int idleExpireMinutes = 30;
+    private int retiredClientGraceMinutes = 30;
+    private double permitsPerSecond = 20;
+    private double minPermitsPerSecond = 1;
+    private int maxAttempts = 5;
+    private long baseBackoffMillis = 500;
+    private long maxBackoffMillis = 20000;
+    private long maxRetryMillis = 120000;
+    private int asyncPoolSize = 32;
+    private int asyncQueueCapacity = 1024;
+    private long asyncTimeoutMillis = 180000;
+
+    public int getMaxCachedClients() {
+        return maxCachedClients;
+    }
+
+    public void setMaxCachedClients(int maxCachedClients) {
+        this.maxCachedClients = maxCachedClients;
+    }
+
+    public int getIdleExpireMinutes() {
+        return idleExpireMinutes;
+    }
+
+    public void setIdleExpireMinutes(int idleExpireMinutes) {
+        this.idleExpireMinutes = idleExpireMinutes;
+    }
+
+    public int getRetiredClientGraceMinutes() {
+        return retiredClientGraceMinutes;
+    }
+
+    public void setRetiredClientGraceMinutes(int retiredClientGraceMinutes) {
+        this.retiredClientGraceMinutes = retiredClientGraceMinutes;
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public void setPermitsPerSecond(double permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    public double getMinPermitsPerSecond() {
+        return minPermitsPerSecond;
+    }
+
+    public void setMinPermitsPerSecond(double minPermitsPerSecond) {
+        this.minPermitsPerSecond = minPermitsPerSecond;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getBaseBackoffMillis() {
+        return baseBackoffMillis;
+    }
+
+    public void setBaseBackoffMillis(long baseBackoffMillis) {
+        this.baseBackoffMillis = baseBackoffMillis;
+    }
+
+    public long getMaxBackoffMillis() {
+        return maxBackoffMillis;
+    }
+
+    public void setMaxBackoffMillis(long maxBackoffMillis) {
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    public long getMaxRetryMillis() {
+        return maxRetryMillis;
+    }
+
+    public void setMaxRetryMillis(long maxRetryMillis) {
+        this.maxRetryMillis = maxRetryMillis;
+    }
+
+    public int getAsyncPoolSize() {
+        return asyncPoolSize;
+    }
+
+    public void setAsyncPoolSize(int asyncPoolSize) {
+        this.asyncPoolSize = asyncPoolSize;
+    }
+
+    public int getAsyncQueueCapacity() {
+        return asyncQueueCapacity;
+    }
+
+    public void setAsyncQueueCapacity(int asyncQueueCapacity) {
+        this.asyncQueueCapacity = asyncQueueCapacity;
+    }
+
+    public long getAsyncTimeoutMillis() {
+        return asyncTimeoutMillis;
+    }
+
+    public void setAsyncTimeoutMillis(long asyncTimeoutMillis) {
+        this.asyncTimeoutMillis = asyncTimeoutMillis;
+    }
+}
@@ -0,0 +1,28 @@
+package com.webank.wecube.plugins.alicloud.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @author howechen
+ */
+@ConfigurationProperties(prefix = "plugins.alicloud.batch")
+public class BatchExecutorProperties {
+    private int maxConcurrency = 16;
+    private int maxConcurrencyPerAccount = 4;
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public int getMaxConcurrencyPerAccount() {
+        return maxConcurrencyPerAccount;
+    }
+
+    public void setMaxConcurrencyPerAccount(int maxConcurrencyPerAccount) {
+        this.maxConcurrencyPerAccount = maxConcurrencyPerAccount;
+    }
+}
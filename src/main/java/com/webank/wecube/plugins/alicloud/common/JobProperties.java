@@ -0,0 +1,80 @@
+package com.webank.wecube.plugins.alicloud.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author howechen
+ */
+@ConfigurationProperties(prefix = "plugins.alicloud.job")
+public class JobProperties {
+    private int poolSize = 4;
+    private int queueCapacity = 256;
+    private int retentionMinutes = 1440;
+    private int maxRetainedJobs = 10000;
+    private int callbackMaxAttempts = 3;
+    private long callbackBackoffMillis = 2000;
+    /**
+     * URL prefixes the job results may be posted to, such as http://platform:19090/callback. Callbacks are rejected
+     * when none is configured.
+     */
+    private List<String> allowedCallbackUrlPrefixes = new ArrayList<>();
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getRetentionMinutes() {
+        return retentionMinutes;
+    }
+
+    public void setRetentionMinutes(int retentionMinutes) {
+        this.retentionMinutes = retentionMinutes;
+    }
+
+    public int getMaxRetainedJobs() {
+        return maxRetainedJobs;
+    }
+
+    public void setMaxRetainedJobs(int maxRetainedJobs) {
+        this.maxRetainedJobs = maxRetainedJobs;
+    }
+
+    public int getCallbackMaxAttempts() {
+        return callbackMaxAttempts;
+    }
+
+    public void setCallbackMaxAttempts(int callbackMaxAttempts) {
+        this.callbackMaxAttempts = callbackMaxAttempts;
+    }
+
+    public long getCallbackBackoffMillis() {
+        return callbackBackoffMillis;
+    }
+
+    public void setCallbackBackoffMillis(long callbackBackoffMillis) {
+        this.callbackBackoffMillis = callbackBackoffMillis;
+    }
+
+    public List<String> getAllowedCallbackUrlPrefixes() {
+        return allowedCallbackUrlPrefixes;
+    }
+
+    public void setAllowedCallbackUrlPrefixes(List<String> allowedCallbackUrlPrefixes) {
+        this.allowedCallbackUrlPrefixes = allowedCallbackUrlPrefixes;
+    }
+}
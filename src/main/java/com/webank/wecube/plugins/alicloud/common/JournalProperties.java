@@ -0,0 +1,55 @@
+package com.webank.wecube.plugins.alicloud.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @author howechen
+ */
+@ConfigurationProperties(prefix = "plugins.alicloud.journal")
+public class JournalProperties {
+    private boolean enabled = true;
+    private String directory = "journal";
+    private int fileSizeBytes = 16 * 1024 * 1024;
+    private boolean syncOnWrite = false;
+    private int retentionMinutes = 1440;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getFileSizeBytes() {
+        return fileSizeBytes;
+    }
+
+    public void setFileSizeBytes(int fileSizeBytes) {
+        this.fileSizeBytes = fileSizeBytes;
+    }
+
+    public boolean isSyncOnWrite() {
+        return syncOnWrite;
+    }
+
+    public void setSyncOnWrite(boolean syncOnWrite) {
+        this.syncOnWrite = syncOnWrite;
+    }
+
+    public int getRetentionMinutes() {
+        return retentionMinutes;
+    }
+
+    public void setRetentionMinutes(int retentionMinutes) {
+        this.retentionMinutes = retentionMinutes;
+    }
+}
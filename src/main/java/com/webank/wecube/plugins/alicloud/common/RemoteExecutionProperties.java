@@ -0,0 +1,56 @@
+package com.webank.wecube.plugins.alicloud.common;
+
+import com.webank.wecube.plugins.alicloud.support.remote.RemoteTransportType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @author howechen
+ */
+@ConfigurationProperties(prefix = "plugins.alicloud.remote-execution")
+public class RemoteExecutionProperties {
+    private RemoteTransportType transport = RemoteTransportType.SSH;
+    private long cloudAssistantBatchWindowMillis = 200;
+    private long cloudAssistantPollIntervalMillis = 3000;
+    private long cloudAssistantTimeoutSeconds = 300;
+    private int cloudAssistantMaxInstancesPerInvocation = 50;
+
+    public RemoteTransportType getTransport() {
+        return transport;
+    }
+
+    public void setTransport(RemoteTransportType transport) {
+        this.transport = transport;
+    }
+
+    public long getCloudAssistantBatchWindowMillis() {
+        return cloudAssistantBatchWindowMillis;
+    }
+
+    public void setCloudAssistantBatchWindowMillis(long cloudAssistantBatchWindowMillis) {
+        this.cloudAssistantBatchWindowMillis = cloudAssistantBatchWindowMillis;
+    }
+
+    public long getCloudAssistantPollIntervalMillis() {
+        return cloudAssistantPollIntervalMillis;
+    }
+
+    public void setCloudAssistantPollIntervalMillis(long cloudAssistantPollIntervalMillis) {
+        this.cloudAssistantPollIntervalMillis = cloudAssistantPollIntervalMillis;
+    }
+
+    public long getCloudAssistantTimeoutSeconds() {
+        return cloudAssistantTimeoutSeconds;
+    }
+
+    public void setCloudAssistantTimeoutSeconds(long cloudAssistantTimeoutSeconds) {
+        this.cloudAssistantTimeoutSeconds = cloudAssistantTimeoutSeconds;
+    }
+
+    public int getCloudAssistantMaxInstancesPerInvocation() {
+        return cloudAssistantMaxInstancesPerInvocation;
+    }
+
+    public void setCloudAssistantMaxInstancesPerInvocation(int cloudAssistantMaxInstancesPerInvocation) {
+        this.cloudAssistantMaxInstancesPerInvocation = cloudAssistantMaxInstancesPerInvocation;
+    }
+}
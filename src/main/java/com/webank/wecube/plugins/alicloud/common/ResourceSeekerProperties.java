@@ -0,0 +1,64 @@
+package com.webank.wecube.plugins.alicloud.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @author howechen
+ */
+@ConfigurationProperties(prefix = "plugins.alicloud.resource-seeker")
+public class ResourceSeekerProperties {
+    private int instanceTypeExpireMinutes = 1440;
+    private int instanceTypeRefreshMinutes = 60;
+    private int maxCachedRegions = 64;
+    private int availabilityExpireSeconds = 30;
+    private int maxCachedAvailabilities = 1024;
+    private String rdsSpecLocation;
+
+    public int getInstanceTypeExpireMinutes() {
+        return instanceTypeExpireMinutes;
+    }
+
+    public void setInstanceTypeExpireMinutes(int instanceTypeExpireMinutes) {
+        this.instanceTypeExpireMinutes = instanceTypeExpireMinutes;
+    }
+
+    public int getInstanceTypeRefreshMinutes() {
+        return instanceTypeRefreshMinutes;
+    }
+
+    public void setInstanceTypeRefreshMinutes(int instanceTypeRefreshMinutes) {
+        this.instanceTypeRefreshMinutes = instanceTypeRefreshMinutes;
+    }
+
+    public int getMaxCachedRegions() {
+        return maxCachedRegions;
+    }
+
+    public void setMaxCachedRegions(int maxCachedRegions) {
+        this.maxCachedRegions = maxCachedRegions;
+    }
+
+    public int getAvailabilityExpireSeconds() {
+        return availabilityExpireSeconds;
+    }
+
+    public void setAvailabilityExpireSeconds(int availabilityExpireSeconds) {
+        this.availabilityExpireSeconds = availabilityExpireSeconds;
+    }
+
+    public int getMaxCachedAvailabilities() {
+        return maxCachedAvailabilities;
+    }
+
+    public void setMaxCachedAvailabilities(int maxCachedAvailabilities) {
+        this.maxCachedAvailabilities = maxCachedAvailabilities;
+    }
+
+    public String getRdsSpecLocation() {
+        return rdsSpecLocation;
+    }
+
+    public void setRdsSpecLocation(String rdsSpecLocation) {
+        this.rdsSpecLocation = rdsSpecLocation;
+    }
+}
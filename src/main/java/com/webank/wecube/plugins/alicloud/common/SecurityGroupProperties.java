@@ -0,0 +1,33 @@
+package com.webank.wecube.plugins.alicloud.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @author howechen
+ */
+@ConfigurationProperties(prefix = "plugins.alicloud.security-group")
+public class SecurityGroupProperties {
+    private int maxConcurrentRequestsPerGroup = 4;
+    /**
+     * Compact the rules of an authorization into the fewest rules covering the same traffic. The compacted rules no
+     * longer match the requested ones one to one, a revocation of a requested rule then splits the compacted rule
+     * when the revocation asks for it with splitCoveringRules.
+     */
+    private boolean compactAuthorizedRules = false;
+
+    public int getMaxConcurrentRequestsPerGroup() {
+        return maxConcurrentRequestsPerGroup;
+    }
+
+    public void setMaxConcurrentRequestsPerGroup(int maxConcurrentRequestsPerGroup) {
+        this.maxConcurrentRequestsPerGroup = maxConcurrentRequestsPerGroup;
+    }
+
+    public boolean isCompactAuthorizedRules() {
+        return compactAuthorizedRules;
+    }
+
+    public void setCompactAuthorizedRules(boolean compactAuthorizedRules) {
+        this.compactAuthorizedRules = compactAuthorizedRules;
+    }
+}
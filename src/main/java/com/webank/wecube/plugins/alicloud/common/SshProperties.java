@@ -0,0 +1,73 @@
+package com.webank.wecube.plugins.alicloud.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @author howechen
+ */
+@ConfigurationProperties(prefix = "plugins.alicloud.ssh")
+public class SshProperties {
+    private int maxConnectionsPerHost = 2;
+    private int maxSessionsPerConnection = 4;
+    private int idleTimeoutSeconds = 300;
+    private int healthCheckIdleSeconds = 30;
+    private int connectTimeoutMillis = 10000;
+    private long borrowTimeoutMillis = 60000;
+    private long commandTimeoutMillis = 300000;
+
+    public int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    public void setMaxConnectionsPerHost(int maxConnectionsPerHost) {
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+    }
+
+    public int getMaxSessionsPerConnection() {
+        return maxSessionsPerConnection;
+    }
+
+    public void setMaxSessionsPerConnection(int maxSessionsPerConnection) {
+        this.maxSessionsPerConnection = maxSessionsPerConnection;
+    }
+
+    public int getIdleTimeoutSeconds() {
+        return idleTimeoutSeconds;
+    }
+
+    public void setIdleTimeoutSeconds(int idleTimeoutSeconds) {
+        this.idleTimeoutSeconds = idleTimeoutSeconds;
+    }
+
+    public int getHealthCheckIdleSeconds() {
+        return healthCheckIdleSeconds;
+    }
+
+    public void setHealthCheckIdleSeconds(int healthCheckIdleSeconds) {
+        this.healthCheckIdleSeconds = healthCheckIdleSeconds;
+    }
+
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public void setConnectTimeoutMillis(int connectTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    public long getBorrowTimeoutMillis() {
+        return borrowTimeoutMillis;
+    }
+
+    public void setBorrowTimeoutMillis(long borrowTimeoutMillis) {
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+
+    public long getCommandTimeoutMillis() {
+        return commandTimeoutMillis;
+    }
+
+    public void setCommandTimeoutMillis(long commandTimeoutMillis) {
+        this.commandTimeoutMillis = commandTimeoutMillis;
+    }
+}
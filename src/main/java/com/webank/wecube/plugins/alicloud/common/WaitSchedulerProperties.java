@@ -0,0 +1,28 @@
+package com.webank.wecube.plugins.alicloud.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @author howechen
+ */
+@ConfigurationProperties(prefix = "plugins.alicloud.wait")
+public class WaitSchedulerProperties {
+    private int checkThreads = 8;
+    private long tickMillis = 100L;
+
+    public int getCheckThreads() {
+        return checkThreads;
+    }
+
+    public void setCheckThreads(int checkThreads) {
+        this.checkThreads = checkThreads;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    public void setTickMillis(long tickMillis) {
+        this.tickMillis = tickMillis;
+    }
+}
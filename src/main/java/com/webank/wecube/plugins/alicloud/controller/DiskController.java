@@ -4,7 +4,9 @@ import com.webank.wecube.plugins.alicloud.common.ApplicationConstants;
 import com.webank.wecube.plugins.alicloud.dto.CoreRequestDto;
 import com.webank.wecube.plugins.alicloud.dto.CoreResponseDto;
 import com.webank.wecube.plugins.alicloud.dto.ecs.disk.*;
+import com.webank.wecube.plugins.alicloud.dto.job.CoreJobAcceptedDto;
 import com.webank.wecube.plugins.alicloud.service.ecs.disk.DiskService;
+import com.webank.wecube.plugins.alicloud.support.job.PluginJobManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,10 +20,12 @@ import java.util.List;
 public class DiskController {
 
     private DiskService diskService;
+    private final PluginJobManager pluginJobManager;
 
     @Autowired
-    public DiskController(DiskService diskService) {
+    public DiskController(DiskService diskService, PluginJobManager pluginJobManager) {
         this.diskService = diskService;
+        this.pluginJobManager = pluginJobManager;
     }
 
     @PostMapping(path = "/create_attach")
@@ -31,10 +35,22 @@ public class DiskController {
         return new CoreResponseDto<CoreCreateAttachDiskResponseDto>().withErrorCheck(result);
     }
 
+    @PostMapping(path = "/create_attach", params = "async=true")
+    @ResponseBody
+    public CoreResponseDto<CoreJobAcceptedDto> createDiskAsync(@RequestBody CoreRequestDto<CoreCreateAttachDiskRequestDto> request, @RequestParam(value = "callbackUrl", required = false) String callbackUrl) {
+        return this.pluginJobManager.submit(request, callbackUrl, this.diskService::createAttachDisk);
+    }
+
     @PostMapping(path = "/detach_delete")
     @ResponseBody
     public CoreResponseDto<CoreDetachDeleteDiskResponseDto> deleteDisk(@RequestBody CoreRequestDto<CoreDetachDeleteDiskRequestDto> request) {
         List<CoreDetachDeleteDiskResponseDto> result = this.diskService.detachDeleteDisk(request.getInputs());
         return new CoreResponseDto<CoreDetachDeleteDiskResponseDto>().withErrorCheck(result);
     }
+
+    @PostMapping(path = "/detach_delete", params = "async=true")
+    @ResponseBody
+    public CoreResponseDto<CoreJobAcceptedDto> deleteDiskAsync(@RequestBody CoreRequestDto<CoreDetachDeleteDiskRequestDto> request, @RequestParam(value = "callbackUrl", required = false) String callbackUrl) {
+        return this.pluginJobManager.submit(request, callbackUrl, this.diskService::detachDeleteDisk);
+    }
 }
@@ -0,0 +1,33 @@
+package com.webank.wecube.plugins.alicloud.controller;
+
+import com.webank.wecube.plugins.alicloud.common.ApplicationConstants;
+import com.webank.wecube.plugins.alicloud.dto.job.PluginJobDto;
+import com.webank.wecube.plugins.alicloud.support.job.PluginJobManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * @author howechen
+ */
+@RestController
+@RequestMapping(ApplicationConstants.ApiInfo.URL_PREFIX + "/job")
+public class JobController {
+
+    private final PluginJobManager pluginJobManager;
+
+    @Autowired
+    public JobController(PluginJobManager pluginJobManager) {
+        this.pluginJobManager = pluginJobManager;
+    }
+
+    @GetMapping(path = "/{jobId}")
+    @ResponseBody
+    public ResponseEntity<PluginJobDto> getJob(@PathVariable("jobId") String jobId) {
+        final PluginJobDto job = this.pluginJobManager.getJob(jobId);
+        if (null == job) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job);
+    }
+}
@@ -3,6 +3,7 @@ package com.webank.wecube.plugins.alicloud.controller;
 import com.webank.wecube.plugins.alicloud.common.ApplicationConstants;
 import com.webank.wecube.plugins.alicloud.dto.CoreRequestDto;
 import com.webank.wecube.plugins.alicloud.dto.CoreResponseDto;
+import com.webank.wecube.plugins.alicloud.dto.job.CoreJobAcceptedDto;
 import com.webank.wecube.plugins.alicloud.dto.rds.backup.CoreCreateBackupRequestDto;
 import com.webank.wecube.plugins.alicloud.dto.rds.backup.CoreCreateBackupResponseDto;
 import com.webank.wecube.plugins.alicloud.dto.rds.backup.CoreDeleteBackupRequestDto;
@@ -16,6 +17,7 @@ import com.webank.wecube.plugins.alicloud.dto.rds.securityGroup.CoreModifyDBSecu
 import com.webank.wecube.plugins.alicloud.dto.rds.securityIP.CoreModifySecurityIPsRequestDto;
 import com.webank.wecube.plugins.alicloud.dto.rds.securityIP.CoreModifySecurityIPsResponseDto;
 import com.webank.wecube.plugins.alicloud.service.rds.RDSService;
+import com.webank.wecube.plugins.alicloud.support.job.PluginJobManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -29,10 +31,12 @@ import java.util.List;
 public class RDSController {
 
     private final RDSService rdsServcie;
+    private final PluginJobManager pluginJobManager;
 
     @Autowired
-    public RDSController(RDSService rdsServcie) {
+    public RDSController(RDSService rdsServcie, PluginJobManager pluginJobManager) {
         this.rdsServcie = rdsServcie;
+        this.pluginJobManager = pluginJobManager;
     }
 
     @PostMapping(path = "/db/create")
@@ -42,6 +46,12 @@ public class RDSController {
         return new CoreResponseDto<CoreCreateDBInstanceResponseDto>().withErrorCheck(result);
     }
 
+    @PostMapping(path = "/db/create", params = "async=true")
+    @ResponseBody
+    public CoreResponseDto<CoreJobAcceptedDto> createDBAsync(@RequestBody CoreRequestDto<CoreCreateDBInstanceRequestDto> request, @RequestParam(value = "callbackUrl", required = false) String callbackUrl) {
+        return this.pluginJobManager.submit(request, callbackUrl, this.rdsServcie::createDB);
+    }
+
     @PostMapping(path = "/db/delete")
     @ResponseBody
     public CoreResponseDto<CoreDeleteDBInstanceResponseDto> deleteDB(@RequestBody CoreRequestDto<CoreDeleteDBInstanceRequestDto> request) {
@@ -49,6 +59,12 @@ public class RDSController {
         return new CoreResponseDto<CoreDeleteDBInstanceResponseDto>().withErrorCheck(result);
     }
 
+    @PostMapping(path = "/db/delete", params = "async=true")
+    @ResponseBody
+    public CoreResponseDto<CoreJobAcceptedDto> deleteDBAsync(@RequestBody CoreRequestDto<CoreDeleteDBInstanceRequestDto> request, @RequestParam(value = "callbackUrl", required = false) String callbackUrl) {
+        return this.pluginJobManager.submit(request, callbackUrl, this.rdsServcie::deleteDB);
+    }
+
     @PostMapping(path = "/security_group/append")
     @ResponseBody
     public CoreResponseDto<CoreModifyDBSecurityGroupResponseDto> appendSecurityGroup(@RequestBody CoreRequestDto<CoreModifyDBSecurityGroupRequestDto> request) {
@@ -91,6 +107,12 @@ public class RDSController {
         return new CoreResponseDto<CoreCreateBackupResponseDto>().withErrorCheck(result);
     }
 
+    @PostMapping(path = "/backup/create", params = "async=true")
+    @ResponseBody
+    public CoreResponseDto<CoreJobAcceptedDto> createBackupAsync(@RequestBody CoreRequestDto<CoreCreateBackupRequestDto> request, @RequestParam(value = "callbackUrl", required = false) String callbackUrl) {
+        return this.pluginJobManager.submit(request, callbackUrl, this.rdsServcie::createBackup);
+    }
+
     @PostMapping(path = "/backup/delete")
     @ResponseBody
     public CoreResponseDto<CoreDeleteBackupResponseDto> deleteBackup(@RequestBody CoreRequestDto<CoreDeleteBackupRequestDto> request) {
@@ -3,8 +3,10 @@ package com.webank.wecube.plugins.alicloud.controller;
 import com.webank.wecube.plugins.alicloud.common.ApplicationConstants;
 import com.webank.wecube.plugins.alicloud.dto.CoreRequestDto;
 import com.webank.wecube.plugins.alicloud.dto.CoreResponseDto;
+import com.webank.wecube.plugins.alicloud.dto.job.CoreJobAcceptedDto;
 import com.webank.wecube.plugins.alicloud.dto.redis.*;
 import com.webank.wecube.plugins.alicloud.service.redis.RedisService;
+import com.webank.wecube.plugins.alicloud.support.job.PluginJobManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,10 +20,12 @@ import java.util.List;
 public class RedisController {
 
     private final RedisService redisService;
+    private final PluginJobManager pluginJobManager;
 
     @Autowired
-    public RedisController(RedisService redisService) {
+    public RedisController(RedisService redisService, PluginJobManager pluginJobManager) {
         this.redisService = redisService;
+        this.pluginJobManager = pluginJobManager;
     }
 
     @PostMapping(path = "/create")
@@ -31,6 +35,12 @@ public class RedisController {
         return new CoreResponseDto<CoreCreateInstanceResponseDto>().withErrorCheck(result);
     }
 
+    @PostMapping(path = "/create", params = "async=true")
+    @ResponseBody
+    public CoreResponseDto<CoreJobAcceptedDto> createInstanceAsync(@RequestBody CoreRequestDto<CoreCreateInstanceRequestDto> request, @RequestParam(value = "callbackUrl", required = false) String callbackUrl) {
+        return this.pluginJobManager.submit(request, callbackUrl, this.redisService::createInstance);
+    }
+
     @PostMapping(path = "/delete")
     @ResponseBody
     public CoreResponseDto<CoreDeleteInstanceResponseDto> deleteInstance(@RequestBody CoreRequestDto<CoreDeleteInstanceRequestDto> request) {
@@ -38,6 +48,12 @@ public class RedisController {
         return new CoreResponseDto<CoreDeleteInstanceResponseDto>().withErrorCheck(result);
     }
 
+    @PostMapping(path = "/delete", params = "async=true")
+    @ResponseBody
+    public CoreResponseDto<CoreJobAcceptedDto> deleteInstanceAsync(@RequestBody CoreRequestDto<CoreDeleteInstanceRequestDto> request, @RequestParam(value = "callbackUrl", required = false) String callbackUrl) {
+        return this.pluginJobManager.submit(request, callbackUrl, this.redisService::deleteInstance);
+    }
+
     @PostMapping(path = "/security_group/append")
     @ResponseBody
     public CoreResponseDto<CoreModifySecurityGroupResponseDto> appendSecurityGroup(@RequestBody CoreRequestDto<CoreModifySecurityGroupRequestDto> request) {
@@ -4,7 +4,9 @@ import com.webank.wecube.plugins.alicloud.common.ApplicationConstants;
 import com.webank.wecube.plugins.alicloud.dto.CoreRequestDto;
 import com.webank.wecube.plugins.alicloud.dto.CoreResponseDto;
 import com.webank.wecube.plugins.alicloud.dto.ecs.vm.*;
+import com.webank.wecube.plugins.alicloud.dto.job.CoreJobAcceptedDto;
 import com.webank.wecube.plugins.alicloud.service.ecs.vm.VMService;
+import com.webank.wecube.plugins.alicloud.support.job.PluginJobManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,10 +20,12 @@ import java.util.List;
 public class VMController {
 
     private VMService vmService;
+    private final PluginJobManager pluginJobManager;
 
     @Autowired
-    public VMController(VMService vmService) {
+    public VMController(VMService vmService, PluginJobManager pluginJobManager) {
         this.vmService = vmService;
+        this.pluginJobManager = pluginJobManager;
     }
 
     @PostMapping(path = "/create")
@@ -31,6 +35,12 @@ public class VMController {
         return new CoreResponseDto<CoreCreateVMResponseDto>().withErrorCheck(result);
     }
 
+    @PostMapping(path = "/create", params = "async=true")
+    @ResponseBody
+    public CoreResponseDto<CoreJobAcceptedDto> createVMAsync(@RequestBody CoreRequestDto<CoreCreateVMRequestDto> request, @RequestParam(value = "callbackUrl", required = false) String callbackUrl) {
+        return this.pluginJobManager.submit(request, callbackUrl, this.vmService::createVM);
+    }
+
     @PostMapping(path = "/delete")
     @ResponseBody
     public CoreResponseDto<CoreDeleteVMResponseDto> deleteVM(@RequestBody CoreRequestDto<CoreDeleteVMRequestDto> request) {
@@ -38,6 +48,12 @@ public class VMController {
         return new CoreResponseDto<CoreDeleteVMResponseDto>().withErrorCheck(result);
     }
 
+    @PostMapping(path = "/delete", params = "async=true")
+    @ResponseBody
+    public CoreResponseDto<CoreJobAcceptedDto> deleteVMAsync(@RequestBody CoreRequestDto<CoreDeleteVMRequestDto> request, @RequestParam(value = "callbackUrl", required = false) String callbackUrl) {
+        return this.pluginJobManager.submit(request, callbackUrl, this.vmService::deleteVM);
+    }
+
     @PostMapping(path = "/start")
     @ResponseBody
     public CoreResponseDto<CoreStartVMResponseDto> startVM(@RequestBody CoreRequestDto<CoreStartVMRequestDto> request) {
@@ -45,6 +61,12 @@ public class VMController {
         return new CoreResponseDto<CoreStartVMResponseDto>().withErrorCheck(result);
     }
 
+    @PostMapping(path = "/start", params = "async=true")
+    @ResponseBody
+    public CoreResponseDto<CoreJobAcceptedDto> startVMAsync(@RequestBody CoreRequestDto<CoreStartVMRequestDto> request, @RequestParam(value = "callbackUrl", required = false) String callbackUrl) {
+        return this.pluginJobManager.submit(request, callbackUrl, this.vmService::startVM);
+    }
+
     @PostMapping(path = "/stop")
     @ResponseBody
     public CoreResponseDto<CoreStopVMResponseDto> stopVM(@RequestBody CoreRequestDto<CoreStopVMRequestDto> request) {
@@ -52,6 +74,12 @@ public class VMController {
         return new CoreResponseDto<CoreStopVMResponseDto>().withErrorCheck(result);
     }
 
+    @PostMapping(path = "/stop", params = "async=true")
+    @ResponseBody
+    public CoreResponseDto<CoreJobAcceptedDto> stopVMAsync(@RequestBody CoreRequestDto<CoreStopVMRequestDto> request, @RequestParam(value = "callbackUrl", required = false) String callbackUrl) {
+        return this.pluginJobManager.submit(request, callbackUrl, this.vmService::stopVM);
+    }
+
     @PostMapping(path = "/security-group/bind")
     @ResponseBody
     public CoreResponseDto<CoreModifyInstanceAttributeResponesDto> bindSecurityGroup(@RequestBody CoreRequestDto<CoreModifyInstanceAttributeRequestDto> request) {
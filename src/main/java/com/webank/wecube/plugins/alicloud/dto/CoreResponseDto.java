@@ -72,7 +72,7 @@ public class CoreResponseDto<E extends CoreResponseOutputDto> {
         return okay().withData(data);
     }
 
-    static class Result<E extends CoreResponseOutputDto> {
+    public static class Result<E extends CoreResponseOutputDto> {
         @JsonProperty(value = "outputs")
         private List<E> results;
 
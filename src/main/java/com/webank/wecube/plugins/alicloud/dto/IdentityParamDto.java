@@ -1,26 +1,35 @@
 package com.webank.wecube.plugins.alicloud.dto;
 
+import com.google.common.hash.Hashing;
 import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.utils.CoreParamCache;
 import com.webank.wecube.plugins.alicloud.utils.PluginMapUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 /**
+ * Immutable, parsed identityParams, shared by all the items carrying the same string
+ *
  * @author howechen
  */
 public class IdentityParamDto {
-    private String accessKeyId;
-    private String secret;
+    private static final CoreParamCache<IdentityParamDto> PARSED_CACHE = new CoreParamCache<>(IdentityParamDto::parse);
+
+    private final String accessKeyId;
+    private final String secret;
+    private volatile String secretDigest;
 
     public IdentityParamDto(String accessKeyId, String secret) {
         this.accessKeyId = accessKeyId;
         this.secret = secret;
     }
 
-    public IdentityParamDto() {
+    public static IdentityParamDto convertFromString(String paramStr) throws PluginException {
+        return PARSED_CACHE.get(paramStr);
     }
 
-    public static IdentityParamDto convertFromString(String paramStr) throws PluginException {
+    private static IdentityParamDto parse(String paramStr) throws PluginException {
         final Map<String, String> map;
         try {
             map = PluginMapUtils.fromCoreParamString(paramStr);
@@ -35,15 +44,21 @@ public class IdentityParamDto {
         return accessKeyId;
     }
 
-    public void setAccessKeyId(String accessKeyId) {
-        this.accessKeyId = accessKeyId;
-    }
-
     public String getSecret() {
         return secret;
     }
 
-    public void setSecret(String secret) {
-        this.secret = secret;
+    /**
+     * SHA-256 of the secret, computed once per parsed identityParams
+     *
+     * @return hex digest of the secret
+     */
+    public String getSecretDigest() {
+        String digest = secretDigest;
+        if (null == digest) {
+            digest = Hashing.sha256().hashString(secret, StandardCharsets.UTF_8).toString();
+            secretDigest = digest;
+        }
+        return digest;
     }
 }
@@ -1,17 +1,12 @@
 package com.webank.wecube.plugins.alicloud.dto;
 
 import com.aliyuncs.AcsRequest;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.MapperFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.webank.wecube.plugins.alicloud.common.PluginException;
-
-import java.lang.reflect.ParameterizedType;
+import com.webank.wecube.plugins.alicloud.support.PluginSdkMapper;
 
 /**
  * @author howechen
  */
-@SuppressWarnings("unchecked")
 public interface PluginSdkInputBridge<K extends AcsRequest<?>> {
 
     /**
@@ -22,14 +17,8 @@ public interface PluginSdkInputBridge<K extends AcsRequest<?>> {
     default K toSdk() throws PluginException {
         adaptToAliCloud();
 
-        ObjectMapper mapper = new ObjectMapper()
-                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-                .configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
-        try {
-            return mapper.convertValue(this, (Class<K>) ((ParameterizedType) getClass().getGenericInterfaces()[0]).getActualTypeArguments()[0]);
-        } catch (IllegalArgumentException ex) {
-            throw new PluginException(ex.getMessage());
-        }
+        final Class<K> clazz = PluginSdkMapper.typeArgumentOf(getClass(), PluginSdkInputBridge.class);
+        return PluginSdkMapper.convert(this, clazz);
     }
 
     /**
@@ -43,21 +32,8 @@ public interface PluginSdkInputBridge<K extends AcsRequest<?>> {
     default <T extends AcsRequest<?>> T toSdkCrossLineage(Class<T> clazz) throws PluginException {
         adaptToAliCloud();
 
-        final T result;
-        ObjectMapper mapper = new ObjectMapper()
-                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-                .configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
-        try {
-            result = mapper.convertValue(this, clazz);
-        } catch (IllegalArgumentException ex) {
-            throw new PluginException(ex.getMessage());
-        }
-
-        try {
-            result.setSysActionName(clazz.newInstance().getSysActionName());
-        } catch (IllegalAccessException | InstantiationException e) {
-            throw new PluginException(e.getMessage());
-        }
+        final T result = PluginSdkMapper.convert(this, clazz);
+        result.setSysActionName(PluginSdkMapper.actionNameOf(clazz));
         return result;
     }
 
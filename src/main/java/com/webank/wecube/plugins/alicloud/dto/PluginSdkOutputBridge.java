@@ -1,17 +1,12 @@
 package com.webank.wecube.plugins.alicloud.dto;
 
 import com.aliyuncs.AcsResponse;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.MapperFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.webank.wecube.plugins.alicloud.common.PluginException;
-
-import java.lang.reflect.ParameterizedType;
+import com.webank.wecube.plugins.alicloud.support.PluginSdkMapper;
 
 /**
  * @author howechen
  */
-@SuppressWarnings("unchecked")
 public interface PluginSdkOutputBridge<T extends CoreResponseOutputDto, K extends AcsResponse> {
 
     /**
@@ -20,19 +15,9 @@ public interface PluginSdkOutputBridge<T extends CoreResponseOutputDto, K extend
      * @param response SDK response DTO
      * @return transferred CoreResponseOutputDto
      */
-    default T fromSdk(K response) {
-
-        ObjectMapper mapper = new ObjectMapper()
-                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-                .configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
-        T result;
-        try {
-            result = mapper.convertValue(response, (Class<T>) ((ParameterizedType) getClass().getGenericInterfaces()[0]).getActualTypeArguments()[0]);
-        } catch (IllegalArgumentException exception) {
-            throw new PluginException(exception.getMessage());
-        }
-
-        return result;
+    default T fromSdk(K response) throws PluginException {
+        final Class<T> clazz = PluginSdkMapper.typeArgumentOf(getClass(), PluginSdkOutputBridge.class);
+        return PluginSdkMapper.convert(response, clazz);
     }
 
     /**
@@ -42,21 +27,8 @@ public interface PluginSdkOutputBridge<T extends CoreResponseOutputDto, K extend
      * @param <V>      Cross lineage class
      * @return CoreResponseOutputDto
      */
-    default <V> T fromSdkCrossLineage(V response) {
-
-
-        ObjectMapper mapper = new ObjectMapper()
-                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-                .configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
-
-        T result;
-        try {
-            result = mapper.convertValue(response, (Class<T>) ((ParameterizedType) getClass().getGenericInterfaces()[0]).getActualTypeArguments()[0]);
-        } catch (IllegalArgumentException exception) {
-            throw new PluginException(exception.getMessage());
-        }
-
-
-        return result;
+    default <V> T fromSdkCrossLineage(V response) throws PluginException {
+        final Class<T> clazz = PluginSdkMapper.typeArgumentOf(getClass(), PluginSdkOutputBridge.class);
+        return PluginSdkMapper.convert(response, clazz);
     }
 }
@@ -1,17 +1,21 @@
 package com.webank.wecube.plugins.alicloud.dto.cloudParam;
 
 import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.utils.CoreParamCache;
 import com.webank.wecube.plugins.alicloud.utils.PluginMapUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.Map;
 
 /**
+ * Immutable, parsed cloudParams, shared by all the items carrying the same string
+ *
  * @author howechen
  */
 public class CloudParamDto {
+    private static final CoreParamCache<CloudParamDto> PARSED_CACHE = new CoreParamCache<>(CloudParamDto::parse);
 
-    String regionId;
+    private final String regionId;
 
     public CloudParamDto(String regionId) {
         this.regionId = regionId;
@@ -21,22 +25,27 @@ public class CloudParamDto {
         return regionId;
     }
 
-    public void setRegionId(String regionId) {
-        this.regionId = regionId;
+    public static CloudParamDto convertFromString(String paramStr) throws PluginException {
+        return PARSED_CACHE.get(paramStr);
     }
 
-    public static CloudParamDto convertFromString(String paramStr) throws PluginException {
-        final Map<String, String> map;
+    private static CloudParamDto parse(String paramStr) throws PluginException {
+        return new CloudParamDto(requireRegionId(parseParamString(paramStr)));
+    }
+
+    static Map<String, String> parseParamString(String paramStr) throws PluginException {
         try {
-            map = PluginMapUtils.fromCoreParamString(paramStr);
+            return PluginMapUtils.fromCoreParamString(paramStr);
         } catch (PluginException ex) {
             throw new PluginException("Error when handling cloudParam, please check your request.");
         }
+    }
 
+    static String requireRegionId(Map<String, String> map) throws PluginException {
         final String regionId = map.get("regionId");
         if (StringUtils.isEmpty(regionId)) {
             throw new PluginException("Cannot get field: [regionId] through the given cloudParams string");
         }
-        return new CloudParamDto(regionId);
+        return regionId;
     }
 }
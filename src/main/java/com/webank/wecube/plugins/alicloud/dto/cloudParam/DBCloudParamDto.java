@@ -1,17 +1,19 @@
 package com.webank.wecube.plugins.alicloud.dto.cloudParam;
 
 import com.webank.wecube.plugins.alicloud.common.PluginException;
-import com.webank.wecube.plugins.alicloud.utils.PluginMapUtils;
-import org.apache.commons.lang3.StringUtils;
+import com.webank.wecube.plugins.alicloud.utils.CoreParamCache;
 
 import java.util.Map;
 
 /**
+ * Immutable, parsed cloudParams of the RDS requests, shared by all the items carrying the same string
+ *
  * @author howechen
  */
 public class DBCloudParamDto extends CloudParamDto {
+    private static final CoreParamCache<DBCloudParamDto> PARSED_CACHE = new CoreParamCache<>(DBCloudParamDto::parse);
 
-    private String regionGroup;
+    private final String regionGroup;
 
     public DBCloudParamDto(String regionId, String regionGroup) {
         super(regionId);
@@ -19,30 +21,16 @@ public class DBCloudParamDto extends CloudParamDto {
     }
 
     public static DBCloudParamDto convertFromString(String paramStr) throws PluginException {
-        final Map<String, String> map;
-        try {
-            map = PluginMapUtils.fromCoreParamString(paramStr);
-        } catch (PluginException ex) {
-            throw new PluginException("Error when handling cloudParam, please check your request.");
-        }
-
-        final String regionId = map.get("regionId");
-        if (StringUtils.isEmpty(regionId)) {
-            throw new PluginException("Cannot get field: [regionId] through the given cloudParams string");
-        }
-        final String regionGroup = map.get("regionGroup");
-        if (StringUtils.isEmpty(regionId)) {
-            throw new PluginException("Cannot get field: [regionGroup] through the given cloudParams string");
-        }
-        return new DBCloudParamDto(regionId, regionGroup);
+        return PARSED_CACHE.get(paramStr);
     }
 
-    public String getRegionGroup() {
-        return regionGroup;
+    private static DBCloudParamDto parse(String paramStr) throws PluginException {
+        final Map<String, String> map = parseParamString(paramStr);
+        return new DBCloudParamDto(requireRegionId(map), map.get("regionGroup"));
     }
 
-    public void setRegionGroup(String regionGroup) {
-        this.regionGroup = regionGroup;
+    public String getRegionGroup() {
+        return regionGroup;
     }
 
 }
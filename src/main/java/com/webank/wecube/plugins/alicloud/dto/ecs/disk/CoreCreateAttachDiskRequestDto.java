@@ -1,11 +1,13 @@
 package com.webank.wecube.plugins.alicloud.dto.ecs.disk;
 
+import com.aliyuncs.ecs.model.v20140526.AttachDiskRequest;
 import com.aliyuncs.ecs.model.v20140526.CreateDiskRequest;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.webank.wecube.plugins.alicloud.dto.CoreRequestInputDto;
 import com.webank.wecube.plugins.alicloud.dto.PluginSdkInputBridge;
+import com.webank.wecube.plugins.alicloud.support.converter.CrossLineage;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
@@ -15,6 +17,7 @@ import java.util.List;
 /**
  * @author howechen
  */
+@CrossLineage(toSdk = AttachDiskRequest.class)
 public class CoreCreateAttachDiskRequestDto extends CoreRequestInputDto implements PluginSdkInputBridge<CreateDiskRequest> {
     private String diskId;
 
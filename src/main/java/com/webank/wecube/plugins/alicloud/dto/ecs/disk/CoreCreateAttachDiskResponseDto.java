@@ -1,14 +1,17 @@
 package com.webank.wecube.plugins.alicloud.dto.ecs.disk;
 
 import com.aliyuncs.ecs.model.v20140526.CreateDiskResponse;
+import com.aliyuncs.ecs.model.v20140526.DescribeDisksResponse;
 import com.webank.wecube.plugins.alicloud.dto.CoreResponseOutputDto;
 import com.webank.wecube.plugins.alicloud.dto.PluginSdkOutputBridge;
+import com.webank.wecube.plugins.alicloud.support.converter.CrossLineage;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
 /**
  * @author howechen
  */
+@CrossLineage(fromSdk = DescribeDisksResponse.Disk.class)
 public class CoreCreateAttachDiskResponseDto extends CoreResponseOutputDto implements PluginSdkOutputBridge<CoreCreateAttachDiskResponseDto, CreateDiskResponse> {
     private String requestId;
     private String diskId;
@@ -1,9 +1,11 @@
 package com.webank.wecube.plugins.alicloud.dto.ecs.disk;
 
 import com.aliyuncs.ecs.model.v20140526.DeleteDiskRequest;
+import com.aliyuncs.ecs.model.v20140526.DetachDiskRequest;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.webank.wecube.plugins.alicloud.dto.CoreRequestInputDto;
 import com.webank.wecube.plugins.alicloud.dto.PluginSdkInputBridge;
+import com.webank.wecube.plugins.alicloud.support.converter.CrossLineage;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
@@ -12,6 +14,7 @@ import javax.validation.constraints.NotEmpty;
 /**
  * @author howechen
  */
+@CrossLineage(toSdk = DetachDiskRequest.class)
 public class CoreDetachDeleteDiskRequestDto extends CoreRequestInputDto implements PluginSdkInputBridge<DeleteDiskRequest> {
     private String resourceOwnerId;
     @NotEmpty(message = "diskId is mandatory.")
@@ -1,11 +1,15 @@
 package com.webank.wecube.plugins.alicloud.dto.ecs.securityGroup;
 
+import com.aliyuncs.ecs.model.v20140526.AuthorizeSecurityGroupEgressRequest;
 import com.aliyuncs.ecs.model.v20140526.AuthorizeSecurityGroupRequest;
+import com.aliyuncs.ecs.model.v20140526.RevokeSecurityGroupEgressRequest;
+import com.aliyuncs.ecs.model.v20140526.RevokeSecurityGroupRequest;
 import com.webank.wecube.plugins.alicloud.common.PluginException;
 import com.webank.wecube.plugins.alicloud.dto.CoreRequestInputDto;
 import com.webank.wecube.plugins.alicloud.dto.ForkableDto;
 import com.webank.wecube.plugins.alicloud.dto.PluginSdkInputBridge;
 import com.webank.wecube.plugins.alicloud.service.ecs.securityGroup.SecurityGroupServiceImpl;
+import com.webank.wecube.plugins.alicloud.support.converter.CrossLineage;
 import com.webank.wecube.plugins.alicloud.utils.PluginStringUtils;
 import org.apache.commons.lang3.EnumUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -20,6 +24,7 @@ import java.util.NoSuchElementException;
 /**
  * @author howechen
  */
+@CrossLineage(toSdk = {AuthorizeSecurityGroupEgressRequest.class, RevokeSecurityGroupEgressRequest.class, RevokeSecurityGroupRequest.class})
 public class CoreAuthorizeSecurityGroupRequestDto extends CoreRequestInputDto implements PluginSdkInputBridge<AuthorizeSecurityGroupRequest>, ForkableDto<CoreAuthorizeSecurityGroupRequestDto> {
 
     public static final String CORE_PORT_RANGE_DELIMITER = "-";
@@ -1,14 +1,17 @@
 package com.webank.wecube.plugins.alicloud.dto.ecs.securityGroup;
 
+import com.aliyuncs.ecs.model.v20140526.AuthorizeSecurityGroupEgressResponse;
 import com.aliyuncs.ecs.model.v20140526.AuthorizeSecurityGroupResponse;
 import com.webank.wecube.plugins.alicloud.dto.CoreResponseOutputDto;
 import com.webank.wecube.plugins.alicloud.dto.PluginSdkOutputBridge;
+import com.webank.wecube.plugins.alicloud.support.converter.CrossLineage;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
 /**
  * @author howechen
  */
+@CrossLineage(fromSdk = AuthorizeSecurityGroupEgressResponse.class)
 public class CoreAuthorizeSecurityGroupResponseDto extends CoreResponseOutputDto implements PluginSdkOutputBridge<CoreAuthorizeSecurityGroupResponseDto, AuthorizeSecurityGroupResponse> {
     private String requestId;
 
@@ -1,14 +1,17 @@
 package com.webank.wecube.plugins.alicloud.dto.ecs.securityGroup;
 
 import com.aliyuncs.ecs.model.v20140526.CreateSecurityGroupResponse;
+import com.aliyuncs.ecs.model.v20140526.DescribeSecurityGroupsResponse;
 import com.webank.wecube.plugins.alicloud.dto.CoreResponseOutputDto;
 import com.webank.wecube.plugins.alicloud.dto.PluginSdkOutputBridge;
+import com.webank.wecube.plugins.alicloud.support.converter.CrossLineage;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
 /**
  * @author howechen
  */
+@CrossLineage(fromSdk = DescribeSecurityGroupsResponse.SecurityGroup.class)
 public class CoreCreateSecurityGroupResponseDto extends CoreResponseOutputDto implements PluginSdkOutputBridge<CoreCreateSecurityGroupResponseDto, CreateSecurityGroupResponse> {
 
     private String requestId;
@@ -1,11 +1,15 @@
 package com.webank.wecube.plugins.alicloud.dto.ecs.securityGroup;
 
+import com.aliyuncs.ecs.model.v20140526.AuthorizeSecurityGroupEgressRequest;
+import com.aliyuncs.ecs.model.v20140526.AuthorizeSecurityGroupRequest;
+import com.aliyuncs.ecs.model.v20140526.RevokeSecurityGroupEgressRequest;
 import com.aliyuncs.ecs.model.v20140526.RevokeSecurityGroupRequest;
 import com.webank.wecube.plugins.alicloud.common.PluginException;
 import com.webank.wecube.plugins.alicloud.dto.CoreRequestInputDto;
 import com.webank.wecube.plugins.alicloud.dto.ForkableDto;
 import com.webank.wecube.plugins.alicloud.dto.PluginSdkInputBridge;
 import com.webank.wecube.plugins.alicloud.service.ecs.securityGroup.SecurityGroupServiceImpl;
+import com.webank.wecube.plugins.alicloud.support.converter.CrossLineage;
 import com.webank.wecube.plugins.alicloud.utils.PluginStringUtils;
 import org.apache.commons.lang3.EnumUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -23,6 +27,7 @@ import static com.webank.wecube.plugins.alicloud.dto.ecs.securityGroup.CoreAutho
 /**
  * @author howechen
  */
+@CrossLineage(toSdk = {AuthorizeSecurityGroupEgressRequest.class, AuthorizeSecurityGroupRequest.class, RevokeSecurityGroupEgressRequest.class})
 public class CoreRevokeSecurityGroupRequestDto extends CoreRequestInputDto implements PluginSdkInputBridge<RevokeSecurityGroupRequest>, ForkableDto<CoreRevokeSecurityGroupRequestDto> {
 
     @NotEmpty(message = "policyType field is mandatory")
@@ -53,6 +58,8 @@ public class CoreRevokeSecurityGroupRequestDto extends CoreRequestInputDto imple
     private String priority;
     private String destCidrIp;
     private String sourceGroupId;
+    // if split the existing rules covering the revoked one
+    private String splitCoveringRules;
 
     public CoreRevokeSecurityGroupRequestDto() {
     }
@@ -225,6 +232,18 @@ public class CoreRevokeSecurityGroupRequestDto extends CoreRequestInputDto imple
         this.sourceGroupId = sourceGroupId;
     }
 
+    public String getSplitCoveringRules() {
+        return splitCoveringRules;
+    }
+
+    public void setSplitCoveringRules(String splitCoveringRules) {
+        this.splitCoveringRules = splitCoveringRules;
+    }
+
+    public boolean ifSplitCoveringRules() {
+        return StringUtils.equalsIgnoreCase("Y", this.getSplitCoveringRules());
+    }
+
     public String getCidrIp() {
         return cidrIp;
     }
@@ -259,6 +278,7 @@ public class CoreRevokeSecurityGroupRequestDto extends CoreRequestInputDto imple
                 .append("priority", priority)
                 .append("destCidrIp", destCidrIp)
                 .append("sourceGroupId", sourceGroupId)
+                .append("splitCoveringRules", splitCoveringRules)
                 .toString();
     }
 
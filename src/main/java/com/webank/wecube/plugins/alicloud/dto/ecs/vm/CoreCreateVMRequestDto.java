@@ -1,11 +1,13 @@
 package com.webank.wecube.plugins.alicloud.dto.ecs.vm;
 
 import com.aliyuncs.ecs.model.v20140526.CreateInstanceRequest;
+import com.aliyuncs.ecs.model.v20140526.RunInstancesRequest;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.webank.wecube.plugins.alicloud.common.PluginException;
 import com.webank.wecube.plugins.alicloud.dto.CoreRequestInputDto;
 import com.webank.wecube.plugins.alicloud.dto.PluginSdkInputBridge;
 import com.webank.wecube.plugins.alicloud.service.ecs.vm.InstanceChargeType;
+import com.webank.wecube.plugins.alicloud.support.converter.CrossLineage;
 import com.webank.wecube.plugins.alicloud.utils.PluginStringUtils;
 import org.apache.commons.lang3.EnumUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -20,6 +22,7 @@ import java.util.List;
 /**
  * @author howechen
  */
+@CrossLineage(toSdk = RunInstancesRequest.class)
 public class CoreCreateVMRequestDto extends CoreRequestInputDto implements PluginSdkInputBridge<CreateInstanceRequest> {
     @NotEmpty
     private String seed;
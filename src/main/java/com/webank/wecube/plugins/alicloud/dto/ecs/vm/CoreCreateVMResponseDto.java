@@ -1,9 +1,11 @@
 package com.webank.wecube.plugins.alicloud.dto.ecs.vm;
 
 import com.aliyuncs.ecs.model.v20140526.CreateInstanceResponse;
+import com.aliyuncs.ecs.model.v20140526.DescribeInstancesResponse;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.webank.wecube.plugins.alicloud.dto.CoreResponseOutputDto;
 import com.webank.wecube.plugins.alicloud.dto.PluginSdkOutputBridge;
+import com.webank.wecube.plugins.alicloud.support.converter.CrossLineage;
 import com.webank.wecube.plugins.alicloud.support.resourceSeeker.specs.SpecInfo;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
@@ -11,6 +13,7 @@ import org.apache.commons.lang3.builder.ToStringStyle;
 /**
  * @author howechen
  */
+@CrossLineage(fromSdk = DescribeInstancesResponse.Instance.class)
 public class CoreCreateVMResponseDto extends CoreResponseOutputDto implements PluginSdkOutputBridge<CoreCreateVMResponseDto, CreateInstanceResponse> {
     private String requestId;
     private String instanceId;
@@ -0,0 +1,27 @@
+package com.webank.wecube.plugins.alicloud.dto.job;
+
+import com.webank.wecube.plugins.alicloud.dto.CoreResponseOutputDto;
+
+/**
+ * @author howechen
+ */
+public class CoreJobAcceptedDto extends CoreResponseOutputDto {
+    private String jobId;
+
+    public CoreJobAcceptedDto() {
+    }
+
+    public CoreJobAcceptedDto(String jobId, String guid, String callbackParameter) {
+        this.jobId = jobId;
+        this.setGuid(guid);
+        this.setCallbackParameter(callbackParameter);
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+}
@@ -0,0 +1,116 @@
+package com.webank.wecube.plugins.alicloud.dto.job;
+
+import com.webank.wecube.plugins.alicloud.dto.CoreResponseDto;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * Status of an asynchronous job, also the body posted to the job's callback URL.
+ *
+ * @author howechen
+ */
+public class PluginJobDto {
+    private String jobId;
+    private String requestId;
+    private String operator;
+    private PluginJobStatus status;
+    private Long submitTime;
+    private Long finishTime;
+    private CoreResponseDto<?> response;
+
+    public PluginJobDto() {
+    }
+
+    public PluginJobDto(String jobId, String requestId, String operator) {
+        this.jobId = jobId;
+        this.requestId = requestId;
+        this.operator = operator;
+        this.status = PluginJobStatus.QUEUED;
+        this.submitTime = System.currentTimeMillis();
+    }
+
+    public PluginJobDto withStatus(PluginJobStatus status) {
+        final PluginJobDto result = new PluginJobDto();
+        result.jobId = this.jobId;
+        result.requestId = this.requestId;
+        result.operator = this.operator;
+        result.submitTime = this.submitTime;
+        result.status = status;
+        return result;
+    }
+
+    public PluginJobDto withResponse(PluginJobStatus status, CoreResponseDto<?> response) {
+        final PluginJobDto result = withStatus(status);
+        result.finishTime = System.currentTimeMillis();
+        result.response = response;
+        return result;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(String requestId) {
+        this.requestId = requestId;
+    }
+
+    public String getOperator() {
+        return operator;
+    }
+
+    public void setOperator(String operator) {
+        this.operator = operator;
+    }
+
+    public PluginJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PluginJobStatus status) {
+        this.status = status;
+    }
+
+    public Long getSubmitTime() {
+        return submitTime;
+    }
+
+    public void setSubmitTime(Long submitTime) {
+        this.submitTime = submitTime;
+    }
+
+    public Long getFinishTime() {
+        return finishTime;
+    }
+
+    public void setFinishTime(Long finishTime) {
+        this.finishTime = finishTime;
+    }
+
+    public CoreResponseDto<?> getResponse() {
+        return response;
+    }
+
+    public void setResponse(CoreResponseDto<?> response) {
+        this.response = response;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.JSON_STYLE)
+                .append("jobId", jobId)
+                .append("requestId", requestId)
+                .append("operator", operator)
+                .append("status", status)
+                .append("submitTime", submitTime)
+                .append("finishTime", finishTime)
+                .toString();
+    }
+}
@@ -0,0 +1,20 @@
+package com.webank.wecube.plugins.alicloud.dto.job;
+
+/**
+ * @author howechen
+ */
+public enum PluginJobStatus {
+    /**
+     * accepted and waiting for a job worker
+     */
+    QUEUED,
+    RUNNING,
+    /**
+     * the batch has finished, item errors are reported in the response outputs
+     */
+    COMPLETED,
+    /**
+     * the batch itself has failed
+     */
+    FAILED
+}
@@ -1,14 +1,17 @@
 package com.webank.wecube.plugins.alicloud.dto.loadBalancer;
 
 import com.aliyuncs.slb.model.v20140515.CreateLoadBalancerResponse;
+import com.aliyuncs.slb.model.v20140515.DescribeLoadBalancersResponse;
 import com.webank.wecube.plugins.alicloud.dto.CoreResponseOutputDto;
 import com.webank.wecube.plugins.alicloud.dto.PluginSdkOutputBridge;
+import com.webank.wecube.plugins.alicloud.support.converter.CrossLineage;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
 /**
  * @author howechen
  */
+@CrossLineage(fromSdk = DescribeLoadBalancersResponse.LoadBalancer.class)
 public class CoreCreateLoadBalancerResponseDto extends CoreResponseOutputDto implements PluginSdkOutputBridge<CoreCreateLoadBalancerResponseDto, CreateLoadBalancerResponse> {
 
     private String requestId;
@@ -20,6 +20,7 @@ public class CoreAddBackendServerRequestDto extends CoreRequestInputDto implemen
     private String hostIds;
     @NotEmpty(message = "hostPorts field is mandatory.")
     private String hostPorts;
+    private String hostWeights;
 
     // alicloud fields
     private String listenerPort;
@@ -144,12 +145,21 @@ public class CoreAddBackendServerRequestDto extends CoreRequestInputDto implemen
         this.hostPorts = hostPorts;
     }
 
+    public String getHostWeights() {
+        return hostWeights;
+    }
+
+    public void setHostWeights(String hostWeights) {
+        this.hostWeights = hostWeights;
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this, ToStringStyle.JSON_STYLE)
                 .appendSuper(super.toString())
                 .append("hostIds", hostIds)
                 .append("hostPorts", hostPorts)
+                .append("hostWeights", hostWeights)
                 .append("listenerPort", listenerPort)
                 .append("listenerProtocol", listenerProtocol)
                 .append("bandwidth", bandwidth)
@@ -1,14 +1,18 @@
 package com.webank.wecube.plugins.alicloud.dto.rds.backup;
 
 import com.aliyuncs.rds.model.v20140815.CreateBackupResponse;
+import com.aliyuncs.rds.model.v20140815.DescribeBackupTasksResponse;
+import com.aliyuncs.rds.model.v20140815.DescribeBackupsResponse;
 import com.webank.wecube.plugins.alicloud.dto.CoreResponseOutputDto;
 import com.webank.wecube.plugins.alicloud.dto.PluginSdkOutputBridge;
+import com.webank.wecube.plugins.alicloud.support.converter.CrossLineage;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
 /**
  * @author howechen
  */
+@CrossLineage(fromSdk = {DescribeBackupsResponse.Backup.class, DescribeBackupTasksResponse.BackupJob.class})
 public class CoreCreateBackupResponseDto extends CoreResponseOutputDto implements PluginSdkOutputBridge<CoreCreateBackupResponseDto, CreateBackupResponse> {
     private String requestId;
     private String backupJobId;
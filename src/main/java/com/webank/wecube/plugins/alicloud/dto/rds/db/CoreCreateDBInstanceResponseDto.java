@@ -1,9 +1,11 @@
 package com.webank.wecube.plugins.alicloud.dto.rds.db;
 
 import com.aliyuncs.rds.model.v20140815.CreateDBInstanceResponse;
+import com.aliyuncs.rds.model.v20140815.DescribeDBInstancesResponse;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.webank.wecube.plugins.alicloud.dto.CoreResponseOutputDto;
 import com.webank.wecube.plugins.alicloud.dto.PluginSdkOutputBridge;
+import com.webank.wecube.plugins.alicloud.support.converter.CrossLineage;
 import com.webank.wecube.plugins.alicloud.support.resourceSeeker.specs.SpecInfo;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
@@ -11,6 +13,7 @@ import org.apache.commons.lang3.builder.ToStringStyle;
 /**
  * @author howechen
  */
+@CrossLineage(fromSdk = DescribeDBInstancesResponse.DBInstance.class)
 public class CoreCreateDBInstanceResponseDto extends CoreResponseOutputDto implements PluginSdkOutputBridge<CoreCreateDBInstanceResponseDto, CreateDBInstanceResponse> {
 
     private String requestId;
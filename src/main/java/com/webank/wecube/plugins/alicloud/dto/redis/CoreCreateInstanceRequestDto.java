@@ -21,16 +21,11 @@ public class CoreCreateInstanceRequestDto extends CoreRequestInputDto implements
 
     private String instanceId;
 
-//    // redis instance spec
-//    @NotEmpty(message = "seriesType field is mandatory")
-//    private String seriesType;
-//    @NotEmpty(message = "architecture field is mandatory")
-//    private String architecture;
-//    @NotEmpty(message = "shardNumber field is mandatory")
-//    private String shardNumber;
-//    @NotEmpty(message = "supportedNodeType field is mandatory")
-//    private String supportedNodeType;
-//
+    // redis instance spec, used to seek the instance class by capacity when instanceClass is not designated
+    private String seriesType;
+    private String architecture;
+    private String shardNumber;
+    private String supportedNodeType;
 
     // redis password generation
     @NotEmpty(message = "seed field is mandatory")
@@ -350,48 +345,48 @@ public class CoreCreateInstanceRequestDto extends CoreRequestInputDto implements
     public void setSecurityGroupId(String securityGroupId) {
         this.securityGroupId = securityGroupId;
     }
-//
-//    public String getSeriesType() {
-//        return seriesType;
-//    }
-//
-//    public void setSeriesType(String seriesType) {
-//        this.seriesType = seriesType;
-//    }
-//
-//    public String getShardNumber() {
-//        return shardNumber;
-//    }
-//
-//    public void setShardNumber(String shardNumber) {
-//        this.shardNumber = shardNumber;
-//    }
-//
-//    public String getArchitecture() {
-//        return architecture;
-//    }
-//
-//    public void setArchitecture(String architecture) {
-//        this.architecture = architecture;
-//    }
-//
-//    public String getSupportedNodeType() {
-//        return supportedNodeType;
-//    }
-//
-//    public void setSupportedNodeType(String supportedNodeType) {
-//        this.supportedNodeType = supportedNodeType;
-//    }
+
+    public String getSeriesType() {
+        return seriesType;
+    }
+
+    public void setSeriesType(String seriesType) {
+        this.seriesType = seriesType;
+    }
+
+    public String getShardNumber() {
+        return shardNumber;
+    }
+
+    public void setShardNumber(String shardNumber) {
+        this.shardNumber = shardNumber;
+    }
+
+    public String getArchitecture() {
+        return architecture;
+    }
+
+    public void setArchitecture(String architecture) {
+        this.architecture = architecture;
+    }
+
+    public String getSupportedNodeType() {
+        return supportedNodeType;
+    }
+
+    public void setSupportedNodeType(String supportedNodeType) {
+        this.supportedNodeType = supportedNodeType;
+    }
 
     @Override
     public String toString() {
         return new ToStringBuilder(this, ToStringStyle.JSON_STYLE)
                 .appendSuper(super.toString())
                 .append("instanceId", instanceId)
-//                .append("seriesType", seriesType)
-//                .append("architecture", architecture)
-//                .append("shardNumber", shardNumber)
-//                .append("supportedNodeType", supportedNodeType)
+                .append("seriesType", seriesType)
+                .append("architecture", architecture)
+                .append("shardNumber", shardNumber)
+                .append("supportedNodeType", supportedNodeType)
                 .append("seed", seed)
                 .append("resourceOwnerId", resourceOwnerId)
                 .append("couponNo", couponNo)
@@ -1,15 +1,18 @@
 package com.webank.wecube.plugins.alicloud.dto.redis;
 
 import com.aliyuncs.r_kvstore.model.v20150101.CreateInstanceResponse;
+import com.aliyuncs.r_kvstore.model.v20150101.DescribeInstancesResponse;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.webank.wecube.plugins.alicloud.dto.CoreResponseOutputDto;
 import com.webank.wecube.plugins.alicloud.dto.PluginSdkOutputBridge;
+import com.webank.wecube.plugins.alicloud.support.converter.CrossLineage;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
 /**
  * @author howechen
  */
+@CrossLineage(fromSdk = DescribeInstancesResponse.KVStoreInstance.class)
 public class CoreCreateInstanceResponseDto extends CoreResponseOutputDto implements PluginSdkOutputBridge<CoreCreateInstanceResponseDto, CreateInstanceResponse> {
 
     @JsonProperty(value = "password")
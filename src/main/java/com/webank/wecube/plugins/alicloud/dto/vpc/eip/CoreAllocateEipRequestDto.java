@@ -1,15 +1,18 @@
 package com.webank.wecube.plugins.alicloud.dto.vpc.eip;
 
 import com.aliyuncs.vpc.model.v20160428.AllocateEipAddressRequest;
+import com.aliyuncs.vpc.model.v20160428.CreateCommonBandwidthPackageRequest;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.webank.wecube.plugins.alicloud.dto.CoreRequestInputDto;
 import com.webank.wecube.plugins.alicloud.dto.PluginSdkInputBridge;
+import com.webank.wecube.plugins.alicloud.support.converter.CrossLineage;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
 /**
  * @author howechen
  */
+@CrossLineage(toSdk = CreateCommonBandwidthPackageRequest.class)
 public class CoreAllocateEipRequestDto extends CoreRequestInputDto implements PluginSdkInputBridge<AllocateEipAddressRequest> {
     private String allocationId;
 
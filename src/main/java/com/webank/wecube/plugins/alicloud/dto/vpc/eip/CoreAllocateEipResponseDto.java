@@ -1,14 +1,17 @@
 package com.webank.wecube.plugins.alicloud.dto.vpc.eip;
 
 import com.aliyuncs.vpc.model.v20160428.AllocateEipAddressResponse;
+import com.aliyuncs.vpc.model.v20160428.DescribeEipAddressesResponse;
 import com.webank.wecube.plugins.alicloud.dto.CoreResponseOutputDto;
 import com.webank.wecube.plugins.alicloud.dto.PluginSdkOutputBridge;
+import com.webank.wecube.plugins.alicloud.support.converter.CrossLineage;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
 /**
  * @author howechen
  */
+@CrossLineage(fromSdk = DescribeEipAddressesResponse.EipAddress.class)
 public class CoreAllocateEipResponseDto extends CoreResponseOutputDto implements PluginSdkOutputBridge<CoreAllocateEipResponseDto, AllocateEipAddressResponse> {
 
     private String requestId;
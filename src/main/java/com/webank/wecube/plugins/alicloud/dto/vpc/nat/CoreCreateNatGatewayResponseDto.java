@@ -1,12 +1,12 @@
 package com.webank.wecube.plugins.alicloud.dto.vpc.nat;
 
 import com.aliyuncs.vpc.model.v20160428.CreateNatGatewayResponse;
+import com.aliyuncs.vpc.model.v20160428.DescribeNatGatewaysResponse;
 import com.fasterxml.jackson.annotation.JsonIgnore;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.MapperFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.webank.wecube.plugins.alicloud.dto.CoreResponseOutputDto;
 import com.webank.wecube.plugins.alicloud.dto.PluginSdkOutputBridge;
+import com.webank.wecube.plugins.alicloud.support.PluginSdkMapper;
+import com.webank.wecube.plugins.alicloud.support.converter.CrossLineage;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
@@ -15,6 +15,7 @@ import java.util.List;
 /**
  * @author howechen
  */
+@CrossLineage(fromSdk = DescribeNatGatewaysResponse.NatGateway.class)
 public class CoreCreateNatGatewayResponseDto extends CoreResponseOutputDto implements PluginSdkOutputBridge<CoreCreateNatGatewayResponseDto, CreateNatGatewayResponse> {
     private String requestId;
     private String natGatewayId;
@@ -83,11 +84,7 @@ public class CoreCreateNatGatewayResponseDto extends CoreResponseOutputDto imple
 
     @Override
     public CoreCreateNatGatewayResponseDto fromSdk(CreateNatGatewayResponse response) {
-        ObjectMapper mapper = new ObjectMapper()
-                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-                .configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
-
-        final CoreCreateNatGatewayResponseDto result = mapper.convertValue(response, CoreCreateNatGatewayResponseDto.class);
+        final CoreCreateNatGatewayResponseDto result = PluginSdkMapper.convert(response, CoreCreateNatGatewayResponseDto.class);
 
         if (!response.getForwardTableIds().isEmpty()) {
             result.setForwardTableId(response.getForwardTableIds().get(0));
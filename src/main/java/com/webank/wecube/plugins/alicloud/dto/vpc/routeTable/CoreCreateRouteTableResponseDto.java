@@ -1,14 +1,17 @@
 package com.webank.wecube.plugins.alicloud.dto.vpc.routeTable;
 
 import com.aliyuncs.vpc.model.v20160428.CreateRouteTableResponse;
+import com.aliyuncs.vpc.model.v20160428.DescribeRouteTablesResponse;
 import com.webank.wecube.plugins.alicloud.dto.CoreResponseOutputDto;
 import com.webank.wecube.plugins.alicloud.dto.PluginSdkOutputBridge;
+import com.webank.wecube.plugins.alicloud.support.converter.CrossLineage;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
 /**
  * @author howechen
  */
+@CrossLineage(fromSdk = DescribeRouteTablesResponse.RouteTable.class)
 public class CoreCreateRouteTableResponseDto extends CoreResponseOutputDto implements PluginSdkOutputBridge<CoreCreateRouteTableResponseDto, CreateRouteTableResponse> {
 
     private String requestId;
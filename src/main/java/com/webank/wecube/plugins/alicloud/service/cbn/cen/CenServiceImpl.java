@@ -10,6 +10,7 @@ import com.webank.wecube.plugins.alicloud.dto.cloudParam.CloudParamDto;
 import com.webank.wecube.plugins.alicloud.support.AcsClientStub;
 import com.webank.wecube.plugins.alicloud.support.AliCloudException;
 import com.webank.wecube.plugins.alicloud.support.DtoValidator;
+import com.webank.wecube.plugins.alicloud.support.PluginBatchExecutor;
 import com.webank.wecube.plugins.alicloud.support.PluginSdkBridge;
 import com.webank.wecube.plugins.alicloud.support.timer.PluginTimer;
 import com.webank.wecube.plugins.alicloud.support.timer.PluginTimerTask;
@@ -19,7 +20,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
@@ -35,17 +35,18 @@ public class CenServiceImpl implements CenService {
 
     private final AcsClientStub acsClientStub;
     private final DtoValidator validator;
+    private final PluginBatchExecutor pluginBatchExecutor;
 
     @Autowired
-    public CenServiceImpl(AcsClientStub acsClientStub, DtoValidator validator) {
+    public CenServiceImpl(AcsClientStub acsClientStub, DtoValidator validator, PluginBatchExecutor pluginBatchExecutor) {
         this.acsClientStub = acsClientStub;
         this.validator = validator;
+        this.pluginBatchExecutor = pluginBatchExecutor;
     }
 
     @Override
     public List<CoreCreateCenResponseDto> createCen(List<CoreCreateCenRequestDto> requestDtoList) {
-        List<CoreCreateCenResponseDto> resultList = new ArrayList<>();
-        for (CoreCreateCenRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.execute(requestDtoList, requestDto -> {
             CoreCreateCenResponseDto result = new CoreCreateCenResponseDto();
             try {
 
@@ -64,7 +65,7 @@ public class CenServiceImpl implements CenService {
                         final DescribeCensResponse.Cen cen = foundCenList.get(0);
                         result = result.fromSdkCrossLineage(cen);
                         result.setRequestId(describeCensResponse.getRequestId());
-                        continue;
+                        return result;
                     }
 
                 }
@@ -90,16 +91,14 @@ public class CenServiceImpl implements CenService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreDeleteCenResponseDto> deleteCen(List<CoreDeleteCenRequestDto> requestDtoList) {
-        List<CoreDeleteCenResponseDto> resultList = new ArrayList<>();
-        for (CoreDeleteCenRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.execute(requestDtoList, requestDto -> {
             CoreDeleteCenResponseDto result = new CoreDeleteCenResponseDto();
 
             try {
@@ -118,7 +117,7 @@ public class CenServiceImpl implements CenService {
                     if (foundCenList.isEmpty()) {
                         logger.info("The cen given by ID: [{}] has already been deleted.", cenId);
                         result.setRequestId(describeCensResponse.getRequestId());
-                        continue;
+                        return result;
                     }
                 }
 
@@ -150,10 +149,9 @@ public class CenServiceImpl implements CenService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
-        }
-        return resultList;
+            return result;
+        });
 
     }
 
@@ -172,8 +170,7 @@ public class CenServiceImpl implements CenService {
 
     @Override
     public List<CoreAttachCenChildResponseDto> attachCenChild(List<CoreAttachCenChildRequestDto> requestDtoList) {
-        List<CoreAttachCenChildResponseDto> resultList = new ArrayList<>();
-        for (CoreAttachCenChildRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.execute(requestDtoList, requestDto -> {
             CoreAttachCenChildResponseDto result = new CoreAttachCenChildResponseDto();
 
             try {
@@ -200,16 +197,14 @@ public class CenServiceImpl implements CenService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreDetachCenChildResponseDto> detachCenChild(List<CoreDetachCenChildRequestDto> requestDtoList) {
-        List<CoreDetachCenChildResponseDto> resultList = new ArrayList<>();
-        for (CoreDetachCenChildRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.execute(requestDtoList, requestDto -> {
             CoreDetachCenChildResponseDto result = new CoreDetachCenChildResponseDto();
 
             try {
@@ -236,10 +231,9 @@ public class CenServiceImpl implements CenService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
-        }
-        return resultList;
+            return result;
+        });
     }
 
 
@@ -4,6 +4,7 @@ import com.aliyuncs.IAcsClient;
 import com.aliyuncs.ecs.model.v20140526.*;
 import com.google.common.collect.Lists;
 import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.common.RemoteExecutionProperties;
 import com.webank.wecube.plugins.alicloud.dto.CoreResponseDto;
 import com.webank.wecube.plugins.alicloud.dto.IdentityParamDto;
 import com.webank.wecube.plugins.alicloud.dto.cloudParam.CloudParamDto;
@@ -11,22 +12,26 @@ import com.webank.wecube.plugins.alicloud.dto.ecs.disk.*;
 import com.webank.wecube.plugins.alicloud.service.ecs.vm.VMService;
 import com.webank.wecube.plugins.alicloud.support.*;
 import com.webank.wecube.plugins.alicloud.support.password.PasswordManager;
-import com.webank.wecube.plugins.alicloud.support.timer.PluginTimer;
-import com.webank.wecube.plugins.alicloud.support.timer.PluginTimerTask;
+import com.webank.wecube.plugins.alicloud.support.remote.RemoteExecutionTransport;
+import com.webank.wecube.plugins.alicloud.support.remote.RemoteShell;
+import com.webank.wecube.plugins.alicloud.support.remote.RemoteTarget;
+import com.webank.wecube.plugins.alicloud.support.watcher.ResourceStatusWatcher;
+import com.webank.wecube.plugins.alicloud.support.watcher.WatchedResourceType;
 import com.webank.wecube.plugins.alicloud.utils.PluginObjectUtils;
 import com.webank.wecube.plugins.alicloud.utils.PluginStringUtils;
 import org.apache.commons.lang3.EnumUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.function.Function;
 
 import static com.webank.wecube.plugins.alicloud.service.ecs.disk.DiskScriptHelper.*;
 
@@ -42,27 +47,31 @@ public class DiskServiceImpl implements DiskService {
     private final AcsClientStub acsClientStub;
     private final DtoValidator dtoValidator;
     private final VMService vmService;
-    private final PluginScpClient pluginScpClient;
-    private final PluginSshdClient pluginSshdClient;
+    private final RemoteExecutionTransport remoteExecutionTransport;
     private final PasswordManager passwordManager;
     private final DiskScriptHelper diskScriptHelper;
+    private final ResourceStatusWatcher resourceStatusWatcher;
+    private final PluginBatchExecutor pluginBatchExecutor;
 
 
     @Autowired
-    public DiskServiceImpl(AcsClientStub acsClientStub, DtoValidator dtoValidator, VMService vmService, PluginScpClient pluginScpClient, PluginSshdClient pluginSshdClient, PasswordManager passwordManager, DiskScriptHelper diskScriptHelper) {
+    public DiskServiceImpl(AcsClientStub acsClientStub, DtoValidator dtoValidator, VMService vmService, List<RemoteExecutionTransport> remoteExecutionTransports, RemoteExecutionProperties remoteExecutionProperties, PasswordManager passwordManager, DiskScriptHelper diskScriptHelper, ResourceStatusWatcher resourceStatusWatcher, PluginBatchExecutor pluginBatchExecutor) {
         this.acsClientStub = acsClientStub;
         this.dtoValidator = dtoValidator;
         this.vmService = vmService;
-        this.pluginScpClient = pluginScpClient;
-        this.pluginSshdClient = pluginSshdClient;
+        this.remoteExecutionTransport = remoteExecutionTransports.stream()
+                .filter(transport -> transport.getType() == remoteExecutionProperties.getTransport())
+                .findFirst()
+                .orElseThrow(() -> new PluginException(String.format("Un-supported remote execution transport: [%s]", remoteExecutionProperties.getTransport())));
         this.passwordManager = passwordManager;
         this.diskScriptHelper = diskScriptHelper;
+        this.resourceStatusWatcher = resourceStatusWatcher;
+        this.pluginBatchExecutor = pluginBatchExecutor;
     }
 
     @Override
     public List<CoreCreateAttachDiskResponseDto> createAttachDisk(List<CoreCreateAttachDiskRequestDto> coreCreateAttachDiskRequestDtoList) {
-        List<CoreCreateAttachDiskResponseDto> resultList = new ArrayList<>();
-        for (CoreCreateAttachDiskRequestDto requestDto : coreCreateAttachDiskRequestDtoList) {
+        return pluginBatchExecutor.execute(coreCreateAttachDiskRequestDtoList, requestDto -> {
 
             CoreCreateAttachDiskResponseDto result = new CoreCreateAttachDiskResponseDto();
             try {
@@ -90,7 +99,7 @@ public class DiskServiceImpl implements DiskService {
                         final DescribeDisksResponse.Disk foundDisk = retrieveDiskResponse.getDisks().get(0);
                         result.fromSdkCrossLineage(foundDisk);
                         result.setRequestId(retrieveDiskResponse.getRequestId());
-                        continue;
+                        return result;
                     }
                 }
 
@@ -102,8 +111,7 @@ public class DiskServiceImpl implements DiskService {
                 result = result.fromSdk(response);
 
                 // setup a task to poll the the status of created disk until it is available
-                Function<?, Boolean> func = o -> this.ifDiskInStatus(client, regionId, response.getDiskId(), DiskStatus.AVAILABLE);
-                PluginTimer.runTask(new PluginTimerTask(func));
+                resourceStatusWatcher.awaitStatus(client, regionId, WatchedResourceType.ECS_DISK, response.getDiskId(), status -> StringUtils.equals(DiskStatus.AVAILABLE.getStatus(), status), this::fetchDiskStatuses);
 
                 // attach disk, reset instanceId back
                 requestDto.setDiskId(response.getDiskId());
@@ -122,16 +130,14 @@ public class DiskServiceImpl implements DiskService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreDetachDeleteDiskResponseDto> detachDeleteDisk(List<CoreDetachDeleteDiskRequestDto> coreDetachDeleteDiskRequestDtoList) {
-        List<CoreDetachDeleteDiskResponseDto> resultList = new ArrayList<>();
-        for (CoreDetachDeleteDiskRequestDto requestDto : coreDetachDeleteDiskRequestDtoList) {
+        return pluginBatchExecutor.execute(coreDetachDeleteDiskRequestDtoList, requestDto -> {
 
             CoreDetachDeleteDiskResponseDto result = new CoreDetachDeleteDiskResponseDto();
 
@@ -151,7 +157,7 @@ public class DiskServiceImpl implements DiskService {
 
                 // check if disk already deleted
                 if (0 == foundDiskInfo.getTotalCount()) {
-                    continue;
+                    return result;
                 }
 
                 // detach disk from instance
@@ -183,10 +189,9 @@ public class DiskServiceImpl implements DiskService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
-        }
-        return resultList;
+            return result;
+        });
     }
 
     private String attachDisk(IAcsClient client, String regionId, CoreCreateAttachDiskRequestDto requestDto) throws PluginException, AliCloudException {
@@ -195,22 +200,9 @@ public class DiskServiceImpl implements DiskService {
             throw new PluginException("The given file system type is un-supported.");
         }
 
-        final String vmInstanceIp = vmService.getVMIpAddress(client, regionId, requestDto.getInstanceId());
-        final String password = passwordManager.decryptPassword(requestDto.getInstanceGuid(), requestDto.getSeed(), requestDto.getHostPassword());
-
-        // scp diskScripts
-        final ArrayList<Pair<String, byte[]>> nameToDataPairList = Lists.newArrayList(
-                diskScriptHelper.getUnFormattedDiskScriptPair(),
-                diskScriptHelper.getMountDiskScriptPair()
-        );
-        for (Pair<String, byte[]> nameToDataPair : nameToDataPairList) {
-            final String fileName = nameToDataPair.getKey();
-            final byte[] data = nameToDataPair.getValue();
-            pluginScpClient.put(vmInstanceIp, PluginScpClient.PORT, PluginScpClient.DEFAULT_USER, password, data, fileName, DEFAULT_REMOTE_DIRECTORY_PATH);
-        }
-
-        // ssh to host and execute the getUnformattedDiskInfo script
-        List<String> unformattedVolumeListBefore = getUnformattedDisk(vmInstanceIp, password).getVolumns();
+        final RemoteTarget target = new RemoteTarget(client, regionId, requestDto.getInstanceId(),
+                () -> vmService.getVMIpAddress(client, regionId, requestDto.getInstanceId()),
+                () -> passwordManager.decryptPassword(requestDto.getInstanceGuid(), requestDto.getSeed(), requestDto.getHostPassword()));
 
         // attach disk request
         final AttachDiskRequest request = requestDto.toSdkCrossLineage(AttachDiskRequest.class);
@@ -218,36 +210,48 @@ public class DiskServiceImpl implements DiskService {
             throw new PluginException("Either disk ID or instance ID cannot be empty or null.");
         }
 
-        this.acsClientStub.request(client, request, regionId);
+        // all the uploads and commands to the VM go through one shell of the configured transport
+        return remoteExecutionTransport.withShell(target, shell -> {
+            // upload diskScripts unless the remote copies are up to date
+            shell.putIfChanged(Lists.newArrayList(
+                    diskScriptHelper.getUnFormattedDiskScriptPair(),
+                    diskScriptHelper.getMountDiskScriptPair()
+            ), DEFAULT_REMOTE_DIRECTORY_PATH);
 
-        // check if the disk is in use
-        Function<?, Boolean> func = o -> this.ifDiskInStatus(client, regionId, requestDto.getDiskId(), DiskStatus.IN_USE);
-        PluginTimer.runTask(new PluginTimerTask(func));
+            // execute the getUnformattedDiskInfo script
+            List<String> unformattedVolumeListBefore = getUnformattedDisk(shell).getVolumns();
 
+            this.acsClientStub.request(client, request, regionId);
+
+            // check if the disk is in use
+            resourceStatusWatcher.awaitStatus(client, regionId, WatchedResourceType.ECS_DISK, requestDto.getDiskId(), status -> StringUtils.equals(DiskStatus.IN_USE.getStatus(), status), this::fetchDiskStatuses);
 
-        // ssh to host and execute the getUnformattedDiskInfo script again to check the difference
-        // then can get the new attached disk to be formatted and mount that disk volume
-        List<String> unformattedVolumeListAfter = getUnformattedDisk(vmInstanceIp, password).getVolumns();
-        if (unformattedVolumeListAfter.size() <= unformattedVolumeListBefore.size()) {
-            throw new PluginException("The new created disk hasn't added on to the VM instance");
-        }
 
-        // calculate the list difference
-        unformattedVolumeListAfter.removeAll(unformattedVolumeListBefore);
-        // get only one un-formatted disk
-        final String needToFormatVolumeName = unformattedVolumeListAfter.get(0);
+            // execute the getUnformattedDiskInfo script again to check the difference
+            // then can get the new attached disk to be formatted and mount that disk volume
+            List<String> unformattedVolumeListAfter = getUnformattedDisk(shell).getVolumns();
+            if (unformattedVolumeListAfter.size() <= unformattedVolumeListBefore.size()) {
+                throw new PluginException("The new created disk hasn't added on to the VM instance");
+            }
 
-        // ssh to host and execute the format then mount script
-        formatThenMountDisk(requestDto.getFileSystemType(), requestDto.getMountDir(), vmInstanceIp, password, needToFormatVolumeName);
+            // calculate the list difference
+            unformattedVolumeListAfter.removeAll(unformattedVolumeListBefore);
+            // get only one un-formatted disk
+            final String needToFormatVolumeName = unformattedVolumeListAfter.get(0);
 
-        return needToFormatVolumeName;
+            // execute the format then mount script
+            formatThenMountDisk(requestDto.getFileSystemType(), requestDto.getMountDir(), shell, needToFormatVolumeName);
+
+            return needToFormatVolumeName;
+        });
     }
 
     private void detachDisk(IAcsClient client, String regionId, CoreDetachDeleteDiskRequestDto requestDto) throws PluginException, AliCloudException {
 
 
-        final String vmInstanceIp = vmService.getVMIpAddress(client, regionId, requestDto.getInstanceId());
-        final String password = passwordManager.decryptPassword(requestDto.getInstanceGuid(), requestDto.getSeed(), requestDto.getHostPassword());
+        final RemoteTarget target = new RemoteTarget(client, regionId, requestDto.getInstanceId(),
+                () -> vmService.getVMIpAddress(client, regionId, requestDto.getInstanceId()),
+                () -> passwordManager.decryptPassword(requestDto.getInstanceGuid(), requestDto.getSeed(), requestDto.getHostPassword()));
 
         final DetachDiskRequest request = requestDto.toSdkCrossLineage(DetachDiskRequest.class);
 
@@ -255,20 +259,19 @@ public class DiskServiceImpl implements DiskService {
             throw new PluginException("Either disk ID or instance ID cannot be empty or null.");
         }
 
-        // scp the unmount script to target server
-        final Pair<String, byte[]> nameToDataPair = diskScriptHelper.getUnmountDiskScriptPair();
-        final String fileName = nameToDataPair.getKey();
-        final byte[] data = nameToDataPair.getValue();
-        pluginScpClient.put(vmInstanceIp, PluginScpClient.PORT, PluginScpClient.DEFAULT_USER, password, data, fileName, DEFAULT_REMOTE_DIRECTORY_PATH);
+        remoteExecutionTransport.withShell(target, shell -> {
+            // upload the unmount script to target server unless the remote copy is up to date
+            shell.putIfChanged(Collections.singletonList(diskScriptHelper.getUnmountDiskScriptPair()), DEFAULT_REMOTE_DIRECTORY_PATH);
 
-        // ssh to host and execute the unmount script
-        unmountDisk(vmInstanceIp, password, requestDto.getVolumeName(), requestDto.getUnmountDir());
+            // execute the unmount script
+            unmountDisk(shell, requestDto.getVolumeName(), requestDto.getUnmountDir());
+            return null;
+        });
 
         this.acsClientStub.request(client, request, regionId);
 
         // wait detaching process to finish
-        Function<?, Boolean> func = o -> this.ifDiskInStatus(client, regionId, requestDto.getDiskId(), DiskStatus.AVAILABLE);
-        PluginTimer.runTask(new PluginTimerTask(func));
+        resourceStatusWatcher.awaitStatus(client, regionId, WatchedResourceType.ECS_DISK, requestDto.getDiskId(), status -> StringUtils.equals(DiskStatus.AVAILABLE.getStatus(), status), this::fetchDiskStatuses);
     }
 
     @Override
@@ -304,31 +307,46 @@ public class DiskServiceImpl implements DiskService {
     }
 
 
-    private void formatThenMountDisk(String fileSystemType, String mountDir, String vmInstanceIp, String password, String volumeName) throws PluginException {
+    private void formatThenMountDisk(String fileSystemType, String mountDir, RemoteShell shell, String volumeName) throws PluginException, IOException {
         String command = "python "
                 .concat(DEFAULT_REMOTE_DIRECTORY_PATH).concat(MOUNT_SCRIPT_NAME)
                 .concat(" -d ").concat(volumeName)
                 .concat(" -f ").concat(fileSystemType.toLowerCase())
                 .concat(" -m ").concat(mountDir);
-        pluginSshdClient.runWithReturn(vmInstanceIp, PluginSshdClient.DEFAULT_USER, password, PluginSshdClient.PORT, command);
+        shell.runWithReturn(command);
     }
 
-    private UnformattedDiskDto getUnformattedDisk(String vmInstanceIp, String password) {
-        final String runDiskInfoScriptResult = pluginSshdClient.runWithReturn(vmInstanceIp, PluginSshdClient.DEFAULT_USER, password, PluginSshdClient.PORT, "python ".concat(DEFAULT_REMOTE_DIRECTORY_PATH).concat(UNFORMATTED_DISK_INFO_SCRIPT_NAME));
+    private UnformattedDiskDto getUnformattedDisk(RemoteShell shell) throws IOException {
+        final String runDiskInfoScriptResult = shell.runWithReturn("python ".concat(DEFAULT_REMOTE_DIRECTORY_PATH).concat(UNFORMATTED_DISK_INFO_SCRIPT_NAME));
         return PluginObjectUtils.mapJsonStringToObject(runDiskInfoScriptResult, UnformattedDiskDto.class);
     }
 
-    private void unmountDisk(String vmInstanceIp, String password, String volumeName, String unmountDir) throws PluginException {
+    private void unmountDisk(RemoteShell shell, String volumeName, String unmountDir) throws PluginException, IOException {
         String command = "python "
                 .concat(DEFAULT_REMOTE_DIRECTORY_PATH).concat(UNMOUNT_SCRIPT_NAME)
                 .concat(" -d ").concat(volumeName)
                 .concat(" -m ").concat(unmountDir);
-        pluginSshdClient.run(vmInstanceIp, PluginSshdClient.DEFAULT_USER, password, PluginSshdClient.PORT, command);
+        shell.run(command);
     }
 
-    private Boolean ifDiskAttached(List<String> before, String vmInstanceIp, String password) {
-        List<String> after = getUnformattedDisk(vmInstanceIp, password).getVolumns();
+    private Boolean ifDiskAttached(List<String> before, RemoteShell shell) throws IOException {
+        List<String> after = getUnformattedDisk(shell).getVolumns();
         return after.size() > before.size();
     }
 
+    private Map<String, String> fetchDiskStatuses(IAcsClient client, String regionId, List<String> diskIds) throws PluginException, AliCloudException {
+        DescribeDisksRequest request = new DescribeDisksRequest();
+        request.setDiskIds(PluginStringUtils.stringifyList(diskIds));
+        request.setPageSize(WatchedResourceType.ECS_DISK.getMaxBatchSize());
+
+        Map<String, String> result = new HashMap<>();
+        DescribeDisksResponse response;
+        int pageNumber = 1;
+        do {
+            request.setPageNumber(pageNumber++);
+            response = this.acsClientStub.request(client, request, regionId);
+            response.getDisks().forEach(disk -> result.put(disk.getDiskId(), disk.getStatus()));
+        } while (!response.getDisks().isEmpty() && result.size() < response.getTotalCount());
+        return result;
+    }
 }
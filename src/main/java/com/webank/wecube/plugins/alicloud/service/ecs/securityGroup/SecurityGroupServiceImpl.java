@@ -1,16 +1,25 @@
 package com.webank.wecube.plugins.alicloud.service.ecs.securityGroup;
 
+import com.aliyuncs.AcsResponse;
 import com.aliyuncs.IAcsClient;
 import com.aliyuncs.ecs.model.v20140526.*;
 import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.common.SecurityGroupProperties;
 import com.webank.wecube.plugins.alicloud.dto.CoreResponseDto;
 import com.webank.wecube.plugins.alicloud.dto.ForkableDto;
 import com.webank.wecube.plugins.alicloud.dto.IdentityParamDto;
+import com.webank.wecube.plugins.alicloud.dto.PluginSdkInputBridge;
 import com.webank.wecube.plugins.alicloud.dto.cloudParam.CloudParamDto;
 import com.webank.wecube.plugins.alicloud.dto.ecs.securityGroup.*;
 import com.webank.wecube.plugins.alicloud.support.AcsClientStub;
 import com.webank.wecube.plugins.alicloud.support.AliCloudException;
 import com.webank.wecube.plugins.alicloud.support.DtoValidator;
+import com.webank.wecube.plugins.alicloud.support.PluginBatchExecutor;
+import com.webank.wecube.plugins.alicloud.support.securityGroup.SecurityGroupRule;
+import com.webank.wecube.plugins.alicloud.support.securityGroup.SecurityGroupRuleCompactor;
+import com.webank.wecube.plugins.alicloud.support.securityGroup.SecurityGroupRuleSyncer;
+import com.webank.wecube.plugins.alicloud.support.securityGroup.SecurityGroupRuleSyncer.RuleChange;
+import com.webank.wecube.plugins.alicloud.support.securityGroup.SecurityGroupRuleSyncer.SyncResult;
 import com.webank.wecube.plugins.alicloud.utils.PluginStringUtils;
 import org.apache.commons.lang3.EnumUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -19,8 +28,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
 
 /**
  * @author howechen
@@ -32,17 +41,22 @@ public class SecurityGroupServiceImpl implements SecurityGroupService {
 
     private final AcsClientStub acsClientStub;
     private final DtoValidator dtoValidator;
+    private final PluginBatchExecutor pluginBatchExecutor;
+    private final SecurityGroupRuleSyncer securityGroupRuleSyncer;
+    private final SecurityGroupProperties securityGroupProperties;
 
     @Autowired
-    public SecurityGroupServiceImpl(AcsClientStub acsClientStub, DtoValidator dtoValidator) {
+    public SecurityGroupServiceImpl(AcsClientStub acsClientStub, DtoValidator dtoValidator, PluginBatchExecutor pluginBatchExecutor, SecurityGroupRuleSyncer securityGroupRuleSyncer, SecurityGroupProperties securityGroupProperties) {
         this.acsClientStub = acsClientStub;
         this.dtoValidator = dtoValidator;
+        this.pluginBatchExecutor = pluginBatchExecutor;
+        this.securityGroupRuleSyncer = securityGroupRuleSyncer;
+        this.securityGroupProperties = securityGroupProperties;
     }
 
     @Override
     public List<CoreCreateSecurityGroupResponseDto> createSecurityGroup(List<CoreCreateSecurityGroupRequestDto> coreCreateSecurityGroupRequestDtoList) throws PluginException {
-        List<CoreCreateSecurityGroupResponseDto> resultList = new ArrayList<>();
-        for (CoreCreateSecurityGroupRequestDto requestDto : coreCreateSecurityGroupRequestDtoList) {
+        return pluginBatchExecutor.execute(coreCreateSecurityGroupRequestDtoList, requestDto -> {
             CoreCreateSecurityGroupResponseDto result = new CoreCreateSecurityGroupResponseDto();
 
             try {
@@ -63,7 +77,7 @@ public class SecurityGroupServiceImpl implements SecurityGroupService {
                         final DescribeSecurityGroupsResponse.SecurityGroup securityGroup = foundSecurityGroup.getSecurityGroups().get(0);
                         result = result.fromSdkCrossLineage(securityGroup);
                         result.setRequestId(foundSecurityGroup.getRequestId());
-                        continue;
+                        return result;
                     }
                 }
 
@@ -82,18 +96,15 @@ public class SecurityGroupServiceImpl implements SecurityGroupService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
 
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreDeleteSecurityGroupResponseDto> deleteSecurityGroup(List<CoreDeleteSecurityGroupRequestDto> coreDeleteSecurityGroupRequestDtoList) throws PluginException {
-        List<CoreDeleteSecurityGroupResponseDto> resultList = new ArrayList<>();
-
-        for (CoreDeleteSecurityGroupRequestDto requestDto : coreDeleteSecurityGroupRequestDtoList) {
+        return pluginBatchExecutor.execute(coreDeleteSecurityGroupRequestDtoList, requestDto -> {
             CoreDeleteSecurityGroupResponseDto result = new CoreDeleteSecurityGroupResponseDto();
 
             try {
@@ -126,16 +137,14 @@ public class SecurityGroupServiceImpl implements SecurityGroupService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreAuthorizeSecurityGroupResponseDto> authorizeSecurityGroup(List<CoreAuthorizeSecurityGroupRequestDto> coreAuthorizeSecurityGroupRequestDtoList) throws PluginException {
-        List<CoreAuthorizeSecurityGroupResponseDto> resultList = new ArrayList<>();
-        for (CoreAuthorizeSecurityGroupRequestDto requestDto : coreAuthorizeSecurityGroupRequestDtoList) {
+        return pluginBatchExecutor.execute(coreAuthorizeSecurityGroupRequestDtoList, requestDto -> {
             CoreAuthorizeSecurityGroupResponseDto result = new CoreAuthorizeSecurityGroupResponseDto();
             try {
 
@@ -149,28 +158,29 @@ public class SecurityGroupServiceImpl implements SecurityGroupService {
                 final IAcsClient client = this.acsClientStub.generateAcsClient(identityParamDto, cloudParamDto);
 
                 // according to WeCMDB's data, one request will be separated to multiple sub-requests
+                // then compacted into the fewest rules covering the same traffic when enabled, the compacted rules no longer match WeCMDB's one to one
                 List<CoreAuthorizeSecurityGroupRequestDto> subRequestDtoList = mapToMultipleRequest(requestDto);
+                if (securityGroupProperties.isCompactAuthorizedRules()) {
+                    subRequestDtoList = compact(subRequestDtoList, this::toRule);
+                }
 
-                List<CoreAuthorizeSecurityGroupRequestDto> succeededRequestList = new ArrayList<>();
+                final List<RuleChange> authorizations = new ArrayList<>();
                 for (CoreAuthorizeSecurityGroupRequestDto subRequestDto : subRequestDtoList) {
+                    authorizations.add(toRuleChange(subRequestDto));
+                }
 
-                    logger.info("Authorizing security group sub-request: {}", subRequestDto.toString());
-                    try {
-                        result = authorizeSecurityGroup(regionId, client, subRequestDto);
-                        succeededRequestList.add(subRequestDto);
-                    } catch (AliCloudException ex) {
-                        // once there is AliCloudException, roll back all succeeded request
-                        try {
-                            for (CoreAuthorizeSecurityGroupRequestDto rollBackDto : succeededRequestList) {
-                                revokeSecurityGroup(regionId, client, rollBackDto);
-                            }
-                        } catch (AliCloudException | PluginException iex) {
-                            logger.info("Error when rolling back security group: [{}].", iex.getMessage());
-                        }
-
-                        throw new PluginException(String.format("Error when authorizing security group, error msg: [%s]", ex.getMessage()));
-
-                    }
+                final SyncResult syncResult;
+                try {
+                    syncResult = securityGroupRuleSyncer.sync(client, regionId, requestDto.getSecurityGroupId(), authorizations, Collections.emptyList());
+                } catch (AliCloudException ex) {
+                    // the succeeded sub-requests have been rolled back
+                    throw new PluginException(String.format("Error when authorizing security group, error msg: [%s]", ex.getMessage()));
+                }
+                final AcsResponse lastResponse = syncResult.getLastResponse();
+                if (lastResponse instanceof AuthorizeSecurityGroupResponse) {
+                    result = result.fromSdk((AuthorizeSecurityGroupResponse) lastResponse);
+                } else if (lastResponse instanceof AuthorizeSecurityGroupEgressResponse) {
+                    result = result.fromSdkCrossLineage(lastResponse);
                 }
             } catch (PluginException | AliCloudException ex) {
                 result.setErrorCode(CoreResponseDto.STATUS_ERROR);
@@ -182,16 +192,14 @@ public class SecurityGroupServiceImpl implements SecurityGroupService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreRevokeSecurityGroupResponseDto> revokeSecurityGroup(List<CoreRevokeSecurityGroupRequestDto> coreRevokeSecurityGroupRequestDtoList) throws PluginException {
-        List<CoreRevokeSecurityGroupResponseDto> resultList = new ArrayList<>();
-        for (CoreRevokeSecurityGroupRequestDto requestDto : coreRevokeSecurityGroupRequestDtoList) {
+        return pluginBatchExecutor.execute(coreRevokeSecurityGroupRequestDtoList, requestDto -> {
 
             CoreRevokeSecurityGroupResponseDto result = new CoreRevokeSecurityGroupResponseDto();
 
@@ -208,26 +216,25 @@ public class SecurityGroupServiceImpl implements SecurityGroupService {
 
 
                 // according to WeCMDB's data, one request will be separated to multiple sub-requests
+                // which are never compacted, only the exactly matched rules are revoked unless the caller asks to split
+                // the covering ones, which compacted authorizations create
                 List<CoreRevokeSecurityGroupRequestDto> subRequestDtoList = mapToMultipleRequest(requestDto);
 
-                List<CoreRevokeSecurityGroupRequestDto> succeededRequestList = new ArrayList<>();
+                final List<RuleChange> revocations = new ArrayList<>();
+                final Map<String, CoreRevokeSecurityGroupRequestDto> templateByProtocol = new HashMap<>();
                 for (CoreRevokeSecurityGroupRequestDto subRequestDto : subRequestDtoList) {
+                    final RuleChange revocation = toRuleChange(subRequestDto);
+                    revocations.add(revocation);
+                    templateByProtocol.putIfAbsent(revocation.getRule().getIpProtocol(), subRequestDto);
+                }
 
-                    logger.info("Revoking security group sub-request: {}", subRequestDto.toString());
-                    try {
-                        revokeSecurityGroup(regionId, client, subRequestDto);
-                        succeededRequestList.add(subRequestDto);
-                    } catch (AliCloudException ex) {
-                        // once there is AliCloudException, roll back all succeeded request
-                        try {
-                            for (CoreRevokeSecurityGroupRequestDto rollBackDto : succeededRequestList) {
-                                authorizeSecurityGroup(regionId, client, rollBackDto);
-                            }
-                        } catch (AliCloudException | PluginException iex) {
-                            logger.info("Error when rolling back security group: [{}].", iex.getMessage());
-                        }
-                        throw new PluginException(String.format("Error when revoking security group, error msg: [%s]", ex.getMessage()));
-                    }
+                final boolean splitCoveringRules = securityGroupProperties.isCompactAuthorizedRules() && requestDto.ifSplitCoveringRules();
+                try {
+                    securityGroupRuleSyncer.sync(client, regionId, requestDto.getSecurityGroupId(), Collections.emptyList(), revocations,
+                            splitCoveringRules ? rule -> revocationOf(templateByProtocol.get(rule.getIpProtocol()), rule) : null);
+                } catch (AliCloudException ex) {
+                    // the succeeded sub-requests have been rolled back
+                    throw new PluginException(String.format("Error when revoking security group, error msg: [%s]", ex.getMessage()));
                 }
 
             } catch (PluginException | AliCloudException ex) {
@@ -240,63 +247,113 @@ public class SecurityGroupServiceImpl implements SecurityGroupService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
-        }
-        return resultList;
+            return result;
+        });
     }
 
-    private CoreAuthorizeSecurityGroupResponseDto authorizeSecurityGroup(String regionId, IAcsClient client, CoreAuthorizeSecurityGroupRequestDto singleRequestDto) throws PluginException, AliCloudException {
-        final PolicyType policyType = EnumUtils.getEnumIgnoreCase(PolicyType.class, singleRequestDto.getPolicyType());
-
-        if (null == policyType) {
-            throw new PluginException(String.format("Invalid policy type: [%s]", policyType));
+    private RuleChange toRuleChange(CoreAuthorizeSecurityGroupRequestDto singleRequestDto) throws PluginException {
+        // the SDK requests are built first, as building them adapts the fields the rule is keyed on
+        switch (policyTypeOf(singleRequestDto.getPolicyType())) {
+            case EGRESS:
+                // egress authorization, rolled back by egress revocation
+                final AuthorizeSecurityGroupEgressRequest egressRequest = singleRequestDto.toSdkCrossLineage(AuthorizeSecurityGroupEgressRequest.class);
+                final RevokeSecurityGroupEgressRequest egressRollbackRequest = singleRequestDto.toSdkCrossLineage(RevokeSecurityGroupEgressRequest.class);
+                return new RuleChange(toRule(singleRequestDto), egressRequest, egressRollbackRequest);
+            case INGRESS:
+            default:
+                // ingress authorization, rolled back by ingress revocation
+                final AuthorizeSecurityGroupRequest request = singleRequestDto.toSdk();
+                final RevokeSecurityGroupRequest rollbackRequest = singleRequestDto.toSdkCrossLineage(RevokeSecurityGroupRequest.class);
+                return new RuleChange(toRule(singleRequestDto), request, rollbackRequest);
         }
+    }
 
-        CoreAuthorizeSecurityGroupResponseDto result = new CoreAuthorizeSecurityGroupResponseDto();
-        switch (policyType) {
+    private RuleChange toRuleChange(CoreRevokeSecurityGroupRequestDto singleRequestDto) throws PluginException {
+        // the SDK requests are built first, as building them adapts the fields the rule is keyed on
+        switch (policyTypeOf(singleRequestDto.getPolicyType())) {
             case EGRESS:
-                // egress authorization
-                AuthorizeSecurityGroupEgressRequest egressRequest = singleRequestDto.toSdkCrossLineage(AuthorizeSecurityGroupEgressRequest.class);
-                AuthorizeSecurityGroupEgressResponse egressResponse;
-                egressResponse = this.acsClientStub.request(client, egressRequest, regionId);
-                result = result.fromSdkCrossLineage(egressResponse);
-                break;
+                // egress revocation, rolled back by egress authorization
+                final RevokeSecurityGroupEgressRequest egressRequest = singleRequestDto.toSdkCrossLineage(RevokeSecurityGroupEgressRequest.class);
+                final AuthorizeSecurityGroupEgressRequest egressRollbackRequest = singleRequestDto.toSdkCrossLineage(AuthorizeSecurityGroupEgressRequest.class);
+                return new RuleChange(toRule(singleRequestDto), egressRequest, egressRollbackRequest);
             case INGRESS:
-                // ingress authorization
-                AuthorizeSecurityGroupRequest request = singleRequestDto.toSdk();
-                AuthorizeSecurityGroupResponse response;
-                response = this.acsClientStub.request(client, request, regionId);
-                result = result.fromSdk(response);
-                break;
             default:
-                break;
+                // ingress revocation, rolled back by ingress authorization
+                final RevokeSecurityGroupRequest request = singleRequestDto.toSdk();
+                final AuthorizeSecurityGroupRequest rollbackRequest = singleRequestDto.toSdkCrossLineage(AuthorizeSecurityGroupRequest.class);
+                return new RuleChange(toRule(singleRequestDto), request, rollbackRequest);
         }
-        return result;
     }
 
-    private void authorizeSecurityGroup(String regionId, IAcsClient client, CoreRevokeSecurityGroupRequestDto singleRequestDto) throws PluginException, AliCloudException {
-        final PolicyType policyType = EnumUtils.getEnumIgnoreCase(PolicyType.class, singleRequestDto.getPolicyType());
+    /**
+     * Revocation of an existing rule of the same kind as the sub-request, forked from the sub-request
+     */
+    private RuleChange revocationOf(CoreRevokeSecurityGroupRequestDto templateDto, SecurityGroupRule rule) throws PluginException {
+        // the port range of the portless protocols is kept as requested, like the compacted rules do
+        final String portRange = StringUtils.startsWith(rule.getPortRange(), "-") ? templateDto.getPortRange() : rule.getPortRange();
+        return toRuleChange(templateDto.forkThenUpdateFields(rule.getCidrIp(), portRange, rule.getIpProtocol()));
+    }
+
+    /**
+     * Key of an adapted sub-request
+     */
+    private SecurityGroupRule toRule(CoreAuthorizeSecurityGroupRequestDto singleRequestDto) throws PluginException {
+        final PolicyType policyType = policyTypeOf(singleRequestDto.getPolicyType());
+        final boolean egress = PolicyType.EGRESS == policyType;
+        return SecurityGroupRule.of(policyType.name(), singleRequestDto.getIpProtocol(), singleRequestDto.getPortRange(),
+                egress ? singleRequestDto.getDestCidrIp() : singleRequestDto.getSourceCidrIp(), egress ? null : singleRequestDto.getSourceGroupId(),
+                singleRequestDto.getPolicy(), singleRequestDto.getPriority(), singleRequestDto.getNicType());
+    }
 
+    /**
+     * Key of an adapted sub-request
+     */
+    private SecurityGroupRule toRule(CoreRevokeSecurityGroupRequestDto singleRequestDto) throws PluginException {
+        final PolicyType policyType = policyTypeOf(singleRequestDto.getPolicyType());
+        final boolean egress = PolicyType.EGRESS == policyType;
+        return SecurityGroupRule.of(policyType.name(), singleRequestDto.getIpProtocol(), singleRequestDto.getPortRange(),
+                egress ? singleRequestDto.getDestCidrIp() : singleRequestDto.getSourceCidrIp(), egress ? null : singleRequestDto.getSourceGroupId(),
+                singleRequestDto.getPolicy(), singleRequestDto.getPriority(), singleRequestDto.getNicType());
+    }
+
+    private PolicyType policyTypeOf(String policyTypeStr) throws PluginException {
+        final PolicyType policyType = EnumUtils.getEnumIgnoreCase(PolicyType.class, policyTypeStr);
         if (null == policyType) {
-            throw new PluginException(String.format("Invalid policy type: [%s]", policyType));
+            throw new PluginException(String.format("Invalid policy type: [%s]", policyTypeStr));
         }
+        return policyType;
+    }
 
-        CoreAuthorizeSecurityGroupResponseDto result = new CoreAuthorizeSecurityGroupResponseDto();
-        switch (policyType) {
-            case EGRESS:
-                // egress authorization
-                AuthorizeSecurityGroupEgressRequest egressRequest = singleRequestDto.toSdkCrossLineage(AuthorizeSecurityGroupEgressRequest.class);
-                this.acsClientStub.request(client, egressRequest, regionId);
-                break;
-            case INGRESS:
-                // ingress authorization
-                AuthorizeSecurityGroupRequest request = singleRequestDto.toSdkCrossLineage(AuthorizeSecurityGroupRequest.class);
-                this.acsClientStub.request(client, request, regionId);
-                break;
-            default:
-                break;
+    /**
+     * Replace the sub-requests by the sub-requests of their compacted rules, forked from the sub-requests of the same
+     * protocol. The sub-requests whose rule survives the compaction are kept as they are.
+     */
+    private <T extends PluginSdkInputBridge<?> & ForkableDto<T>> List<T> compact(List<T> subRequestDtoList, Function<T, SecurityGroupRule> ruleOf) throws PluginException {
+        final Map<SecurityGroupRule, T> subRequestByRule = new HashMap<>();
+        final Map<String, T> templateByProtocol = new HashMap<>();
+        final List<SecurityGroupRule> rules = new ArrayList<>(subRequestDtoList.size());
+        for (T subRequestDto : subRequestDtoList) {
+            subRequestDto.adaptToAliCloud();
+            final SecurityGroupRule rule = ruleOf.apply(subRequestDto);
+            rules.add(rule);
+            subRequestByRule.putIfAbsent(rule, subRequestDto);
+            templateByProtocol.putIfAbsent(rule.getIpProtocol(), subRequestDto);
+        }
+
+        final List<SecurityGroupRule> compactedRules = SecurityGroupRuleCompactor.compact(rules);
+        if (compactedRules.size() == rules.size()) {
+            return subRequestDtoList;
         }
+        logger.info("Compacted [{}] security group rule(s) into [{}].", rules.size(), compactedRules.size());
+
+        final List<T> result = new ArrayList<>(compactedRules.size());
+        for (SecurityGroupRule rule : compactedRules) {
+            final T subRequestDto = subRequestByRule.get(rule);
+            result.add(null != subRequestDto ? subRequestDto
+                    : templateByProtocol.get(rule.getIpProtocol()).forkThenUpdateFields(rule.getCidrIp(), rule.getPortRange(), rule.getIpProtocol()));
+        }
+        return result;
     }
 
     private DescribeSecurityGroupsResponse retrieveSecurityGroup(IAcsClient client, String regionId, String securityGroupId) throws PluginException, AliCloudException {
@@ -316,52 +373,6 @@ public class SecurityGroupServiceImpl implements SecurityGroupService {
 
     }
 
-    private void revokeSecurityGroup(String regionId, IAcsClient client, CoreAuthorizeSecurityGroupRequestDto rollBackDto) throws AliCloudException {
-        final PolicyType policyType = EnumUtils.getEnumIgnoreCase(PolicyType.class, rollBackDto.getPolicyType());
-
-        if (null == policyType) {
-            throw new PluginException(String.format("Invalid policy type: [%s]", policyType));
-        }
-
-        switch (policyType) {
-            case EGRESS:
-                // egress authorization
-                RevokeSecurityGroupEgressRequest egressRequest = rollBackDto.toSdkCrossLineage(RevokeSecurityGroupEgressRequest.class);
-                this.acsClientStub.request(client, egressRequest, regionId);
-                break;
-            case INGRESS:
-                // ingress authorization
-                RevokeSecurityGroupRequest request = rollBackDto.toSdkCrossLineage(RevokeSecurityGroupRequest.class);
-                this.acsClientStub.request(client, request, regionId);
-                break;
-            default:
-                break;
-        }
-    }
-
-    private void revokeSecurityGroup(String regionId, IAcsClient client, CoreRevokeSecurityGroupRequestDto requestDto) throws AliCloudException {
-        final PolicyType policyType = EnumUtils.getEnumIgnoreCase(PolicyType.class, requestDto.getPolicyType());
-
-        if (null == policyType) {
-            throw new PluginException(String.format("Invalid policy type: [%s]", policyType));
-        }
-
-        switch (policyType) {
-            case EGRESS:
-                // egress authorization
-                RevokeSecurityGroupEgressRequest egressRequest = requestDto.toSdkCrossLineage(RevokeSecurityGroupEgressRequest.class);
-                this.acsClientStub.request(client, egressRequest, regionId);
-                break;
-            case INGRESS:
-                // ingress authorization
-                RevokeSecurityGroupRequest request = requestDto.toSdk();
-                this.acsClientStub.request(client, request, regionId);
-                break;
-            default:
-                break;
-        }
-    }
-
     @SuppressWarnings("unchecked")
     private <T extends ForkableDto<?>> List<T> mapToMultipleRequest(T requestDto) throws PluginException {
         List<T> result = new ArrayList<>();
@@ -379,7 +390,6 @@ public class SecurityGroupServiceImpl implements SecurityGroupService {
             portRange = ((CoreRevokeSecurityGroupRequestDto) requestDto).getPortRange();
             ipProtocol = ((CoreRevokeSecurityGroupRequestDto) requestDto).getIpProtocol();
         }
-        // TODO: need to optimize
         if (PluginStringUtils.isListStr(cidrIp)) {
             // list cidr ip
             final List<String> splittedIpList = PluginStringUtils.splitStringList(cidrIp);
@@ -2,6 +2,11 @@ package com.webank.wecube.plugins.alicloud.service.ecs.vm;
 
 import com.aliyuncs.IAcsClient;
 import com.aliyuncs.ecs.model.v20140526.*;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.hash.Hashing;
 import com.webank.wecube.plugins.alicloud.common.PluginException;
 import com.webank.wecube.plugins.alicloud.dto.CoreResponseDto;
 import com.webank.wecube.plugins.alicloud.dto.IdentityParamDto;
@@ -10,11 +15,21 @@ import com.webank.wecube.plugins.alicloud.dto.ecs.vm.*;
 import com.webank.wecube.plugins.alicloud.support.AcsClientStub;
 import com.webank.wecube.plugins.alicloud.support.AliCloudException;
 import com.webank.wecube.plugins.alicloud.support.DtoValidator;
+import com.webank.wecube.plugins.alicloud.support.PluginBatchExecutor;
+import com.webank.wecube.plugins.alicloud.support.PluginSdkMapper;
+import com.webank.wecube.plugins.alicloud.support.journal.JournalProgress;
+import com.webank.wecube.plugins.alicloud.support.journal.PluginJournal;
 import com.webank.wecube.plugins.alicloud.support.password.PasswordManager;
+import com.webank.wecube.plugins.alicloud.support.resourceSeeker.AvailableResourceCache;
 import com.webank.wecube.plugins.alicloud.support.resourceSeeker.ECSResourceSeeker;
 import com.webank.wecube.plugins.alicloud.support.resourceSeeker.specs.SpecInfo;
+import com.webank.wecube.plugins.alicloud.support.step.StepExecutor;
+import com.webank.wecube.plugins.alicloud.support.step.StepGraph;
+import com.webank.wecube.plugins.alicloud.support.step.StepResults;
 import com.webank.wecube.plugins.alicloud.support.timer.PluginTimer;
 import com.webank.wecube.plugins.alicloud.support.timer.PluginTimerTask;
+import com.webank.wecube.plugins.alicloud.support.watcher.ResourceStatusWatcher;
+import com.webank.wecube.plugins.alicloud.support.watcher.WatchedResourceType;
 import com.webank.wecube.plugins.alicloud.utils.PluginStringUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -22,10 +37,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Optional;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -38,106 +54,401 @@ public class VMServiceImpl implements VMService {
 
 
     private static final Logger logger = LoggerFactory.getLogger(VMService.class);
+    private static final int MAX_RUN_INSTANCES_AMOUNT = 100;
+    private static final Set<String> PER_VM_FIELDS = ImmutableSet.of("guid", "callbackParameter", "seed", "password", "hostName", "instanceName", "instanceId", "clientToken");
+    private static final ObjectMapper LAUNCH_KEY_MAPPER = PluginSdkMapper.getStrictMapper();
+    private static final String CREATE_VM_OPERATION = "vm.createVM";
+    private static final String STEP_ENCRYPTED_PASSWORD = "encryptedPassword";
+    private static final String STEP_INSTANCE_ID = "instanceId";
+    private static final String STEP_CONFIGURED = "configured";
 
     private final AcsClientStub acsClientStub;
     private final DtoValidator dtoValidator;
     private final PasswordManager passwordManager;
     private final ECSResourceSeeker ecsResourceSeeker;
+    private final ResourceStatusWatcher resourceStatusWatcher;
+    private final PluginBatchExecutor pluginBatchExecutor;
+    private final PluginJournal pluginJournal;
+    private final StepExecutor stepExecutor;
+    private final AvailableResourceCache availableResourceCache;
 
     @Autowired
-    public VMServiceImpl(AcsClientStub acsClientStub, DtoValidator dtoValidator, PasswordManager passwordManager, ECSResourceSeeker ecsResourceSeeker) {
+    public VMServiceImpl(AcsClientStub acsClientStub, DtoValidator dtoValidator, PasswordManager passwordManager, ECSResourceSeeker ecsResourceSeeker, ResourceStatusWatcher resourceStatusWatcher, PluginBatchExecutor pluginBatchExecutor, PluginJournal pluginJournal, StepExecutor stepExecutor, AvailableResourceCache availableResourceCache) {
         this.acsClientStub = acsClientStub;
         this.dtoValidator = dtoValidator;
         this.passwordManager = passwordManager;
         this.ecsResourceSeeker = ecsResourceSeeker;
+        this.resourceStatusWatcher = resourceStatusWatcher;
+        this.pluginBatchExecutor = pluginBatchExecutor;
+        this.pluginJournal = pluginJournal;
+        this.stepExecutor = stepExecutor;
+        this.availableResourceCache = availableResourceCache;
     }
 
     @Override
     public List<CoreCreateVMResponseDto> createVM(List<CoreCreateVMRequestDto> coreCreateVMRequestDtoList) throws PluginException {
-        List<CoreCreateVMResponseDto> resultList = new ArrayList<>();
-        for (CoreCreateVMRequestDto requestDto : coreCreateVMRequestDtoList) {
-            CoreCreateVMResponseDto result = new CoreCreateVMResponseDto();
-            try {
-
-                dtoValidator.validate(requestDto);
+        // validate, reuse the existing instance and seek the spec for each VM
+        final List<VMLaunchItem> launchItems = pluginBatchExecutor.execute(coreCreateVMRequestDtoList, this::prepareVMLaunch);
+
+        // VMs with identical spec are launched together by RunInstances
+        final Map<String, List<VMLaunchItem>> launchGroups = launchItems.stream()
+                .filter(VMLaunchItem::isPending)
+                .collect(Collectors.groupingBy(VMLaunchItem::getLaunchKey, LinkedHashMap::new, Collectors.toList()));
+        List<List<VMLaunchItem>> launchBatches = new ArrayList<>();
+        launchGroups.values().forEach(group -> launchBatches.addAll(Lists.partition(group, MAX_RUN_INSTANCES_AMOUNT)));
+
+        pluginBatchExecutor.execute(launchBatches, batch -> PluginBatchExecutor.accountOf(batch.get(0).getRequestDto()), batch -> {
+            assignPasswords(batch);
+            if (batch.stream().noneMatch(VMLaunchItem::isPending)) {
+                return batch;
+            }
+            if (null != batch.get(0).getInstanceId()) {
+                resumeVM(batch.get(0));
+            } else if (batch.size() == 1) {
+                createSingleVM(batch.get(0));
+            } else {
+                runInstances(batch);
+            }
+            return batch;
+        });
 
-                final IdentityParamDto identityParamDto = IdentityParamDto.convertFromString(requestDto.getIdentityParams());
-                final CloudParamDto cloudParamDto = CloudParamDto.convertFromString(requestDto.getCloudParams());
-                final String regionId = cloudParamDto.getRegionId();
-                final IAcsClient client = this.acsClientStub.generateAcsClient(identityParamDto, cloudParamDto);
-                String password = requestDto.getPassword();
+        return launchItems.stream().map(VMLaunchItem::complete).collect(Collectors.toList());
+    }
 
-                final String instanceId = requestDto.getInstanceId();
-                if (StringUtils.isNotEmpty(instanceId)) {
-                    final DescribeInstancesResponse response = this.retrieveVM(client, regionId, requestDto.getInstanceId());
-                    if (response.getTotalCount() == 1) {
-                        final DescribeInstancesResponse.Instance foundInstance = response.getInstances().get(0);
-                        result = result.fromSdkCrossLineage(foundInstance);
-                        result.setRequestId(response.getRequestId());
-                        continue;
-                    }
+    private VMLaunchItem prepareVMLaunch(CoreCreateVMRequestDto requestDto) {
+        VMLaunchItem launchItem = new VMLaunchItem(requestDto);
+        try {
+
+            dtoValidator.validate(requestDto);
+
+            final IdentityParamDto identityParamDto = IdentityParamDto.convertFromString(requestDto.getIdentityParams());
+            final CloudParamDto cloudParamDto = CloudParamDto.convertFromString(requestDto.getCloudParams());
+            final String regionId = cloudParamDto.getRegionId();
+            final IAcsClient client = this.acsClientStub.generateAcsClient(identityParamDto, cloudParamDto);
+            String password = requestDto.getPassword();
+
+            final String instanceId = requestDto.getInstanceId();
+            if (StringUtils.isNotEmpty(instanceId)) {
+                final DescribeInstancesResponse response = this.retrieveVM(client, regionId, requestDto.getInstanceId());
+                if (response.getTotalCount() == 1) {
+                    final DescribeInstancesResponse.Instance foundInstance = response.getInstances().get(0);
+                    CoreCreateVMResponseDto result = launchItem.getResult().fromSdkCrossLineage(foundInstance);
+                    result.setRequestId(response.getRequestId());
+                    launchItem.setResult(result);
+                    return launchItem;
                 }
+            }
+
+            // resume from the journaled steps when the plugin restarted in the middle of this VM
+            final JournalProgress progress = pluginJournal.progressOf(CREATE_VM_OPERATION, requestDto);
+
+            // seek available resource when instanceType is not designated
+            SpecInfo fitSpec = new SpecInfo();
+            if (!StringUtils.isEmpty(requestDto.getInstanceSpec()) && StringUtils.isEmpty(requestDto.getInstanceType())) {
+                fitSpec = ecsResourceSeeker.findAvailableInstance(client, regionId, requestDto.getZoneId(), requestDto.getInstanceChargeType(), requestDto.getInstanceSpec(), requestDto.getInstanceFamily());
+                requestDto.setInstanceType(fitSpec.getResourceClass());
+            }
 
-                // check password field, if empty, generate one
-                if (StringUtils.isEmpty(password)) {
-                    password = passwordManager.generatePassword();
+            String launchKey = launchKeyOf(requestDto);
+            if (progress.has(STEP_INSTANCE_ID)) {
+                // the VM has been launched before the restart, don't launch it again, and keep the password it was launched with
+                launchItem.setInstanceId(progress.get(STEP_INSTANCE_ID));
+                if (progress.has(STEP_ENCRYPTED_PASSWORD)) {
+                    password = passwordManager.decryptPassword(requestDto.getGuid(), requestDto.getSeed(), progress.get(STEP_ENCRYPTED_PASSWORD));
                     requestDto.setPassword(password);
                 }
+                launchKey = String.join("|", CREATE_VM_OPERATION, requestDto.getGuid());
+            }
+
+            launchItem.readyToLaunch(client, regionId, password, fitSpec, launchKey, progress);
+
+        } catch (PluginException | AliCloudException ex) {
+            launchItem.fail(ex);
+        } catch (Exception ex) {
+            launchItem.failUnhandled(ex);
+        }
+        return launchItem;
+    }
+
+    /**
+     * Generate a password of its own for each VM of the launch batch which has none. The password is journaled along
+     * with the instance ID once the VM is launched.
+     *
+     * @param batch launch items with the same launch key
+     */
+    private void assignPasswords(List<VMLaunchItem> batch) {
+        forEachPending(batch, item -> {
+            if (StringUtils.isEmpty(item.getPassword())) {
+                final String generatedPassword = passwordManager.generatePassword();
+                item.setPassword(generatedPassword);
+                item.getRequestDto().setPassword(generatedPassword);
+            }
+        });
+    }
+
+    /**
+     * Journal the launched VM, the password goes first so a journaled instance ID always comes with its password
+     */
+    private void recordLaunched(VMLaunchItem launchItem, String instanceId) {
+        final CoreCreateVMRequestDto requestDto = launchItem.getRequestDto();
+        launchItem.getProgress().record(STEP_ENCRYPTED_PASSWORD, passwordManager.encryptPassword(requestDto.getGuid(), requestDto.getSeed(), launchItem.getPassword()));
+        launchItem.getProgress().record(STEP_INSTANCE_ID, instanceId);
+        launchItem.setInstanceId(instanceId);
+    }
+
+    private void createSingleVM(VMLaunchItem launchItem) {
+        try {
+            final CoreCreateVMRequestDto requestDto = launchItem.getRequestDto();
+            final IAcsClient client = launchItem.getClient();
+            final String regionId = launchItem.getRegionId();
+
+            // create VM instance
+            logger.info("Creating VM instance: {}", requestDto.toString());
+
+            final CreateInstanceRequest request = requestDto.toSdk();
+
+            // the private ip and host name are assigned on creation, look them up while the VM is starting
+            final StepResults stepResults = stepExecutor.run(StepGraph.of(CREATE_VM_OPERATION)
+                    .supplyStep("create", r -> {
+                        final CreateInstanceResponse response = availableResourceCache.create(client, regionId, requestDto.getZoneId(), () -> this.acsClientStub.request(client, request, regionId));
+                        recordLaunched(launchItem, response.getInstanceId());
+                        launchItem.getProgress().record(STEP_CONFIGURED, Boolean.TRUE.toString());
+                        return response;
+                    })
+                    // wait till VM instance finish its create process
+                    .runStep("await", r -> resourceStatusWatcher.awaitStatus(client, regionId, WatchedResourceType.ECS_INSTANCE, launchItem.getInstanceId(), status -> !StringUtils.equals(InstanceStatus.PENDING.getStatus(), status), this::fetchVMStatuses), "create")
+                    // start the vm
+                    .runStep("start", r -> startVM(client, regionId, launchItem.getInstanceId()), "await")
+                    .supplyStep("describe", r -> queryVM(client, regionId, launchItem.getInstanceId()), "await"));
+
+            completeVMLaunch(launchItem, stepResults.get("create"), stepResults.get("describe"));
+
+        } catch (PluginException | AliCloudException ex) {
+            launchItem.fail(ex);
+        } catch (Exception ex) {
+            launchItem.failUnhandled(ex);
+        }
+    }
+
+    /**
+     * Launch VMs of the same spec with one RunInstances call, then apply each VM's own password, host name and
+     * instance name.
+     * <p>
+     * RunInstances starts the instances right away, and a new password or host name only takes effect after a
+     * restart, so those VMs are launched without a password, then stopped, modified and started again. Only when all
+     * VMs are given exactly the same password and don't designate host names, the password is passed to RunInstances
+     * and nothing needs to be restarted.
+     *
+     * @param batch launch items with the same launch key
+     */
+    private void runInstances(List<VMLaunchItem> batch) {
+        final VMLaunchItem first = batch.get(0);
+        final IAcsClient client = first.getClient();
+        final String regionId = first.getRegionId();
+        final boolean sharedCredential = batch.stream().allMatch(item -> StringUtils.equals(first.getPassword(), item.getPassword()) && StringUtils.isEmpty(item.getRequestDto().getHostName()));
+
+        final RunInstancesResponse response;
+        try {
+            final RunInstancesRequest request = first.getRequestDto().toSdkCrossLineage(RunInstancesRequest.class);
+            request.setAmount(batch.size());
+            request.setPassword(sharedCredential ? first.getPassword() : null);
+            request.setHostName(null);
+            request.setInstanceName(null);
+            // the same VMs are launched with the same token, so a retried RunInstances can't launch them twice
+            request.setClientToken(clientTokenOf(batch));
+
+            logger.info("Launching [{}] VM instances with RunInstances: {}", batch.size(), first.getRequestDto().toString());
+            response = availableResourceCache.create(client, regionId, first.getRequestDto().getZoneId(), () -> this.acsClientStub.request(client, request, regionId));
+
+            if (response.getInstanceIdSets().size() != batch.size()) {
+                throw new PluginException(String.format("RunInstances returned [%d] instances while [%d] were requested.", response.getInstanceIdSets().size(), batch.size()));
+            }
+        } catch (PluginException | AliCloudException ex) {
+            batch.forEach(item -> item.fail(ex));
+            return;
+        } catch (Exception ex) {
+            batch.forEach(item -> item.failUnhandled(ex));
+            return;
+        }
+
+        // all instances share the same spec, assign them to the items in order
+        for (int i = 0; i < batch.size(); i++) {
+            recordLaunched(batch.get(i), response.getInstanceIdSets().get(i));
+        }
 
-                // seek available resource when instanceType is not designated
-                SpecInfo fitSpec = new SpecInfo();
-                if (!StringUtils.isEmpty(requestDto.getInstanceSpec()) && StringUtils.isEmpty(requestDto.getInstanceType())) {
-                    fitSpec = ecsResourceSeeker.findAvailableInstance(client, regionId, requestDto.getZoneId(), requestDto.getInstanceChargeType(), requestDto.getInstanceSpec(), requestDto.getInstanceFamily());
-                    requestDto.setInstanceType(fitSpec.getResourceClass());
+        awaitVMsInStatus(client, regionId, batch, InstanceStatus.RUNNING);
+
+        if (!sharedCredential) {
+            applyVMAttributes(client, regionId, batch, false);
+        } else {
+            forEachPending(batch, item -> {
+                if (StringUtils.isNotEmpty(item.getRequestDto().getInstanceName())) {
+                    ModifyInstanceAttributeRequest modifyRequest = new ModifyInstanceAttributeRequest();
+                    modifyRequest.setInstanceId(item.getInstanceId());
+                    modifyRequest.setInstanceName(item.getRequestDto().getInstanceName());
+                    this.acsClientStub.request(client, modifyRequest, regionId);
                 }
+                item.getProgress().record(STEP_CONFIGURED, Boolean.TRUE.toString());
+            });
+        }
 
+        forEachPending(batch, item -> {
+            CreateInstanceResponse createInstanceResponse = new CreateInstanceResponse();
+            createInstanceResponse.setRequestId(response.getRequestId());
+            createInstanceResponse.setInstanceId(item.getInstanceId());
+            createInstanceResponse.setTradePrice(response.getTradePrice());
+            completeVMLaunch(item, createInstanceResponse);
+        });
+    }
 
-                // create VM instance
-                logger.info("Creating VM instance: {}", requestDto.toString());
+    /**
+     * Stop the VMs, apply each VM's own password, host name and instance name, then start them again
+     *
+     * @param alreadyStopped whether the VMs are stopped already
+     */
+    private void applyVMAttributes(IAcsClient client, String regionId, List<VMLaunchItem> batch, boolean alreadyStopped) {
+        if (!alreadyStopped) {
+            forEachPending(batch, item -> {
+                StopInstanceRequest stopInstanceRequest = new StopInstanceRequest();
+                stopInstanceRequest.setInstanceId(item.getInstanceId());
+                this.acsClientStub.request(client, stopInstanceRequest, regionId);
+            });
+            awaitVMsInStatus(client, regionId, batch, InstanceStatus.STOPPED);
+        }
 
-                final CreateInstanceRequest request = requestDto.toSdk();
+        forEachPending(batch, item -> {
+            ModifyInstanceAttributeRequest modifyRequest = new ModifyInstanceAttributeRequest();
+            modifyRequest.setInstanceId(item.getInstanceId());
+            modifyRequest.setPassword(item.getPassword());
+            if (StringUtils.isNotEmpty(item.getRequestDto().getHostName())) {
+                modifyRequest.setHostName(item.getRequestDto().getHostName());
+            }
+            if (StringUtils.isNotEmpty(item.getRequestDto().getInstanceName())) {
+                modifyRequest.setInstanceName(item.getRequestDto().getInstanceName());
+            }
+            this.acsClientStub.request(client, modifyRequest, regionId);
+            item.getProgress().record(STEP_CONFIGURED, Boolean.TRUE.toString());
+
+            StartInstanceRequest startInstanceRequest = new StartInstanceRequest();
+            startInstanceRequest.setInstanceId(item.getInstanceId());
+            this.acsClientStub.request(client, startInstanceRequest, regionId);
+        });
+        awaitVMsInStatus(client, regionId, batch, InstanceStatus.RUNNING);
+    }
 
-                CreateInstanceResponse response;
-                response = this.acsClientStub.request(client, request, regionId);
+    /**
+     * Resume the VM which was launched before the plugin restarted, from its pending wait
+     *
+     * @param launchItem launch item with the journaled instance id
+     */
+    private void resumeVM(VMLaunchItem launchItem) {
+        try {
+            final IAcsClient client = launchItem.getClient();
+            final String regionId = launchItem.getRegionId();
+            final String instanceId = launchItem.getInstanceId();
+            logger.info("Resuming VM instance: [{}] from the journal.", instanceId);
+
+            // wait till the VM leaves the transitional status it was left in
+            resourceStatusWatcher.awaitStatus(client, regionId, WatchedResourceType.ECS_INSTANCE, instanceId, status -> StringUtils.equalsAny(status, InstanceStatus.RUNNING.getStatus(), InstanceStatus.STOPPED.getStatus()), this::fetchVMStatuses);
+
+            final boolean stopped = StringUtils.equals(InstanceStatus.STOPPED.getStatus(), queryVM(client, regionId, instanceId).getStatus());
+            if (!launchItem.getProgress().has(STEP_CONFIGURED)) {
+                applyVMAttributes(client, regionId, Collections.singletonList(launchItem), stopped);
+                if (!launchItem.isPending()) {
+                    return;
+                }
+            } else if (stopped) {
+                startVM(client, regionId, instanceId);
+            }
 
-                // wait till VM instance finish its create process
-                Function<?, Boolean> checkIfVMFinishCreation = o -> !this.checkIfVMInStatus(client, regionId, response.getInstanceId(), InstanceStatus.PENDING);
-                PluginTimer.runTask(new PluginTimerTask(checkIfVMFinishCreation));
+            CreateInstanceResponse response = new CreateInstanceResponse();
+            response.setInstanceId(instanceId);
+            completeVMLaunch(launchItem, response);
 
-                // start the vm
-                startVM(client, regionId, response.getInstanceId());
+        } catch (PluginException | AliCloudException ex) {
+            launchItem.fail(ex);
+        } catch (Exception ex) {
+            launchItem.failUnhandled(ex);
+        }
+    }
 
-                // encrypt the password then
-                final String guid = requestDto.getGuid();
-                final String seed = requestDto.getSeed();
-                final String encryptedPassword = passwordManager.encryptPassword(guid, seed, password);
+    private void completeVMLaunch(VMLaunchItem launchItem, CreateInstanceResponse response) throws PluginException, AliCloudException {
+        // query created instance
+        completeVMLaunch(launchItem, response, queryVM(launchItem.getClient(), launchItem.getRegionId(), response.getInstanceId()));
+    }
 
-                // query created instance
-                final DescribeInstancesResponse.Instance instance = queryVM(client, regionId, response.getInstanceId());
+    private void completeVMLaunch(VMLaunchItem launchItem, CreateInstanceResponse response, DescribeInstancesResponse.Instance instance) throws PluginException, AliCloudException {
+        final CoreCreateVMRequestDto requestDto = launchItem.getRequestDto();
 
-                // get the private ip
-                final String instancePrivateIp = getInstancePrivateIp(instance);
+        // encrypt the password then
+        final String guid = requestDto.getGuid();
+        final String seed = requestDto.getSeed();
+        final String encryptedPassword = passwordManager.encryptPassword(guid, seed, launchItem.getPassword());
 
-                // get hostName
-                final String hostName = instance.getHostName();
+        // get the private ip
+        final String instancePrivateIp = getInstancePrivateIp(instance);
 
+        // get hostName
+        final String hostName = instance.getHostName();
 
-                result = result.fromSdk(response, encryptedPassword, instancePrivateIp, fitSpec, hostName);
+        launchItem.setResult(launchItem.getResult().fromSdk(response, encryptedPassword, instancePrivateIp, launchItem.getFitSpec(), hostName));
+        launchItem.launched();
+        launchItem.getProgress().complete();
+    }
+
+    private void awaitVMsInStatus(IAcsClient client, String regionId, List<VMLaunchItem> batch, InstanceStatus status) {
+        Map<VMLaunchItem, CompletableFuture<Void>> futureMap = new LinkedHashMap<>();
+        for (VMLaunchItem item : batch) {
+            if (item.isPending()) {
+                futureMap.put(item, resourceStatusWatcher.watch(client, regionId, WatchedResourceType.ECS_INSTANCE, item.getInstanceId(), found -> StringUtils.equals(status.getStatus(), found), this::fetchVMStatuses, TimeUnit.MINUTES.toMillis(PluginTimer.TIMEOUT)));
+            }
+        }
+        futureMap.forEach((item, future) -> {
+            try {
+                PluginTimer.join(future);
+            } catch (PluginException ex) {
+                item.fail(ex);
+            }
+        });
+    }
 
+    private void forEachPending(List<VMLaunchItem> batch, Consumer<VMLaunchItem> action) {
+        for (VMLaunchItem item : batch) {
+            if (!item.isPending()) {
+                continue;
+            }
+            try {
+                action.accept(item);
             } catch (PluginException | AliCloudException ex) {
-                result.setErrorCode(CoreResponseDto.STATUS_ERROR);
-                result.setErrorMessage(ex.getMessage());
+                item.fail(ex);
             } catch (Exception ex) {
-                result.setErrorCode(CoreResponseDto.STATUS_ERROR);
-                result.setUnhandledErrorMessage(ex.getMessage());
-            } finally {
-                result.setGuid(requestDto.getGuid());
-                result.setCallbackParameter(requestDto.getCallbackParameter());
-                logger.info("Result: {}", result.toString());
-                resultList.add(result);
+                item.failUnhandled(ex);
             }
         }
-        return resultList;
+    }
+
+    /**
+     * ClientToken of a RunInstances call, derived from the launch key and the guids of the VMs
+     */
+    private String clientTokenOf(List<VMLaunchItem> batch) {
+        final String launch = batch.get(0).getLaunchKey() + batch.stream().map(item -> item.getRequestDto().getGuid()).collect(Collectors.joining(","));
+        // ClientToken has 64 characters at most
+        return Hashing.sha256().hashString(launch, StandardCharsets.UTF_8).toString();
+    }
+
+    /**
+     * VMs with the same launch key can be launched by one RunInstances call.
+     * Password, host name and instance name are applied per VM afterwards.
+     */
+    private String launchKeyOf(CoreCreateVMRequestDto requestDto) {
+        if (StringUtils.isNotEmpty(requestDto.getPrivateIpAddress()) || StringUtils.isNotEmpty(requestDto.getInnerIpAddress())) {
+            // a designated private ip cannot be shared by several instances
+            return String.format("single@%d", System.identityHashCode(requestDto));
+        }
+        final Map<String, Object> fields = LAUNCH_KEY_MAPPER.convertValue(requestDto, new TypeReference<TreeMap<String, Object>>() {
+        });
+        fields.keySet().removeAll(PER_VM_FIELDS);
+        return fields.toString();
     }
 
     @Override
@@ -161,8 +472,7 @@ public class VMServiceImpl implements VMService {
 
     @Override
     public List<CoreDeleteVMResponseDto> deleteVM(List<CoreDeleteVMRequestDto> coreDeleteVMRequestDtoList) throws PluginException {
-        List<CoreDeleteVMResponseDto> resultList = new ArrayList<>();
-        for (CoreDeleteVMRequestDto requestDto : coreDeleteVMRequestDtoList) {
+        return pluginBatchExecutor.execute(coreDeleteVMRequestDtoList, requestDto -> {
             CoreDeleteVMResponseDto result = new CoreDeleteVMResponseDto();
             try {
 
@@ -178,7 +488,7 @@ public class VMServiceImpl implements VMService {
 
                 // check if VM instance already deleted
                 if (0 == foundInstanceResponse.getTotalCount()) {
-                    continue;
+                    return result;
                 }
 
 
@@ -207,17 +517,15 @@ public class VMServiceImpl implements VMService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
 
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreStartVMResponseDto> startVM(List<CoreStartVMRequestDto> coreStartVMRequestDtoList) throws PluginException {
-        List<CoreStartVMResponseDto> resultList = new ArrayList<>();
-        for (CoreStartVMRequestDto requestDto : coreStartVMRequestDtoList) {
+        return pluginBatchExecutor.execute(coreStartVMRequestDtoList, requestDto -> {
 
             CoreStartVMResponseDto result = new CoreStartVMResponseDto();
 
@@ -236,8 +544,7 @@ public class VMServiceImpl implements VMService {
                 StartInstanceResponse response;
                 response = this.acsClientStub.request(client, startInstanceRequest, regionId);
 
-                Function<?, Boolean> checkIfVMFinishCreation = o -> this.checkIfVMInStatus(client, regionId, requestDto.getInstanceId(), InstanceStatus.RUNNING);
-                PluginTimer.runTask(new PluginTimerTask(checkIfVMFinishCreation));
+                resourceStatusWatcher.awaitStatus(client, regionId, WatchedResourceType.ECS_INSTANCE, requestDto.getInstanceId(), status -> StringUtils.equals(InstanceStatus.RUNNING.getStatus(), status), this::fetchVMStatuses);
 
                 result = result.fromSdk(response);
 
@@ -251,16 +558,14 @@ public class VMServiceImpl implements VMService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreStopVMResponseDto> stopVM(List<CoreStopVMRequestDto> coreStopVMRequestDtoList) throws PluginException {
-        List<CoreStopVMResponseDto> resultList = new ArrayList<>();
-        for (CoreStopVMRequestDto requestDto : coreStopVMRequestDtoList) {
+        return pluginBatchExecutor.execute(coreStopVMRequestDtoList, requestDto -> {
             CoreStopVMResponseDto result = new CoreStopVMResponseDto();
             try {
 
@@ -278,8 +583,7 @@ public class VMServiceImpl implements VMService {
                 StopInstanceResponse response;
                 response = this.acsClientStub.request(client, stopInstanceRequest, regionId);
 
-                Function<?, Boolean> checkIfVMFinishCreation = o -> this.checkIfVMInStatus(client, regionId, requestDto.getInstanceId(), InstanceStatus.STOPPED);
-                PluginTimer.runTask(new PluginTimerTask(checkIfVMFinishCreation));
+                resourceStatusWatcher.awaitStatus(client, regionId, WatchedResourceType.ECS_INSTANCE, requestDto.getInstanceId(), status -> StringUtils.equals(InstanceStatus.STOPPED.getStatus(), status), this::fetchVMStatuses);
 
                 result = result.fromSdk(response);
             } catch (PluginException | AliCloudException ex) {
@@ -292,17 +596,15 @@ public class VMServiceImpl implements VMService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
 
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreModifyInstanceAttributeResponesDto> bindSecurityGroup(List<CoreModifyInstanceAttributeRequestDto> coreModifyInstanceAttributeRequestDtoList) throws PluginException {
-        List<CoreModifyInstanceAttributeResponesDto> resultList = new ArrayList<>();
-        for (CoreModifyInstanceAttributeRequestDto requestDto : coreModifyInstanceAttributeRequestDtoList) {
+        return pluginBatchExecutor.executePerResource(coreModifyInstanceAttributeRequestDtoList, CoreModifyInstanceAttributeRequestDto::getInstanceId, requestDto -> {
             CoreModifyInstanceAttributeResponesDto result = new CoreModifyInstanceAttributeResponesDto();
 
             try {
@@ -347,18 +649,16 @@ public class VMServiceImpl implements VMService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
 
 
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreModifyInstanceAttributeResponesDto> unbindSecurityGroup(List<CoreModifyInstanceAttributeRequestDto> coreModifyInstanceAttributeRequestDtoList) {
-        List<CoreModifyInstanceAttributeResponesDto> resultList = new ArrayList<>();
-        for (CoreModifyInstanceAttributeRequestDto requestDto : coreModifyInstanceAttributeRequestDtoList) {
+        return pluginBatchExecutor.executePerResource(coreModifyInstanceAttributeRequestDtoList, CoreModifyInstanceAttributeRequestDto::getInstanceId, requestDto -> {
             CoreModifyInstanceAttributeResponesDto result = new CoreModifyInstanceAttributeResponesDto();
 
             try {
@@ -407,12 +707,11 @@ public class VMServiceImpl implements VMService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
 
 
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
@@ -450,8 +749,7 @@ public class VMServiceImpl implements VMService {
 
         this.acsClientStub.request(client, request, regionId);
 
-        Function<?, Boolean> checkIfVMFinishCreation = o -> this.checkIfVMInStatus(client, regionId, instanceId, InstanceStatus.RUNNING);
-        PluginTimer.runTask(new PluginTimerTask(checkIfVMFinishCreation));
+        resourceStatusWatcher.awaitStatus(client, regionId, WatchedResourceType.ECS_INSTANCE, instanceId, status -> StringUtils.equals(InstanceStatus.RUNNING.getStatus(), status), this::fetchVMStatuses);
     }
 
     @Override
@@ -515,4 +813,122 @@ public class VMServiceImpl implements VMService {
 
         return foundInstance.getInstances().get(0);
     }
+
+    private Map<String, String> fetchVMStatuses(IAcsClient client, String regionId, List<String> instanceIds) throws PluginException, AliCloudException {
+        DescribeInstanceStatusRequest request = new DescribeInstanceStatusRequest();
+        request.setInstanceIds(instanceIds);
+        request.setPageSize(WatchedResourceType.ECS_INSTANCE.getMaxBatchSize());
+
+        Map<String, String> result = new HashMap<>();
+        DescribeInstanceStatusResponse response;
+        int pageNumber = 1;
+        do {
+            request.setPageNumber(pageNumber++);
+            response = this.acsClientStub.request(client, request, regionId);
+            response.getInstanceStatuses().forEach(instanceStatus -> result.put(instanceStatus.getInstanceId(), instanceStatus.getStatus()));
+        } while (!response.getInstanceStatuses().isEmpty() && result.size() < response.getTotalCount());
+        return result;
+    }
+
+    private static final class VMLaunchItem {
+        private final CoreCreateVMRequestDto requestDto;
+        private CoreCreateVMResponseDto result = new CoreCreateVMResponseDto();
+        private boolean pending = false;
+        private IAcsClient client;
+        private String regionId;
+        private String password;
+        private SpecInfo fitSpec;
+        private String launchKey;
+        private String instanceId;
+        private JournalProgress progress;
+
+        private VMLaunchItem(CoreCreateVMRequestDto requestDto) {
+            this.requestDto = requestDto;
+        }
+
+        private void readyToLaunch(IAcsClient client, String regionId, String password, SpecInfo fitSpec, String launchKey, JournalProgress progress) {
+            this.client = client;
+            this.regionId = regionId;
+            this.password = password;
+            this.fitSpec = fitSpec;
+            this.launchKey = launchKey;
+            this.progress = progress;
+            this.pending = true;
+        }
+
+        private void setPassword(String password) {
+            this.password = password;
+        }
+
+        private void launched() {
+            this.pending = false;
+        }
+
+        private void fail(RuntimeException ex) {
+            this.pending = false;
+            result.setErrorCode(CoreResponseDto.STATUS_ERROR);
+            result.setErrorMessage(ex.getMessage());
+        }
+
+        private void failUnhandled(Exception ex) {
+            this.pending = false;
+            result.setErrorCode(CoreResponseDto.STATUS_ERROR);
+            result.setUnhandledErrorMessage(ex.getMessage());
+        }
+
+        private CoreCreateVMResponseDto complete() {
+            result.setGuid(requestDto.getGuid());
+            result.setCallbackParameter(requestDto.getCallbackParameter());
+            logger.info("Result: {}", result.toString());
+            return result;
+        }
+
+        private boolean isPending() {
+            return pending;
+        }
+
+        private CoreCreateVMRequestDto getRequestDto() {
+            return requestDto;
+        }
+
+        private CoreCreateVMResponseDto getResult() {
+            return result;
+        }
+
+        private void setResult(CoreCreateVMResponseDto result) {
+            this.result = result;
+        }
+
+        private IAcsClient getClient() {
+            return client;
+        }
+
+        private String getRegionId() {
+            return regionId;
+        }
+
+        private String getPassword() {
+            return password;
+        }
+
+        private SpecInfo getFitSpec() {
+            return fitSpec;
+        }
+
+        private String getLaunchKey() {
+            return launchKey;
+        }
+
+        private String getInstanceId() {
+            return instanceId;
+        }
+
+        private void setInstanceId(String instanceId) {
+            this.instanceId = instanceId;
+        }
+
+        private JournalProgress getProgress() {
+            return progress;
+        }
+    }
 }
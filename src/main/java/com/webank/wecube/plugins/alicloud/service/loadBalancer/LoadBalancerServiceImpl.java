@@ -3,8 +3,11 @@ package com.webank.wecube.plugins.alicloud.service.loadBalancer;
 import com.aliyuncs.AcsRequest;
 import com.aliyuncs.IAcsClient;
 import com.aliyuncs.slb.model.v20140515.*;
+import com.google.common.collect.Lists;
 import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.dto.CoreRequestInputDto;
 import com.webank.wecube.plugins.alicloud.dto.CoreResponseDto;
+import com.webank.wecube.plugins.alicloud.dto.CoreResponseOutputDto;
 import com.webank.wecube.plugins.alicloud.dto.IdentityParamDto;
 import com.webank.wecube.plugins.alicloud.dto.cloudParam.CloudParamDto;
 import com.webank.wecube.plugins.alicloud.dto.loadBalancer.CoreCreateLoadBalancerRequestDto;
@@ -15,6 +18,7 @@ import com.webank.wecube.plugins.alicloud.dto.loadBalancer.backendServer.*;
 import com.webank.wecube.plugins.alicloud.support.AcsClientStub;
 import com.webank.wecube.plugins.alicloud.support.AliCloudException;
 import com.webank.wecube.plugins.alicloud.support.DtoValidator;
+import com.webank.wecube.plugins.alicloud.support.PluginBatchExecutor;
 import com.webank.wecube.plugins.alicloud.support.PluginSdkBridge;
 import com.webank.wecube.plugins.alicloud.utils.PluginMapUtils;
 import com.webank.wecube.plugins.alicloud.utils.PluginStringUtils;
@@ -27,7 +31,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * @author howechen
@@ -36,21 +51,23 @@ import java.util.List;
 public class LoadBalancerServiceImpl implements LoadBalancerService {
 
     private static final Logger logger = LoggerFactory.getLogger(LoadBalancerService.class);
+    private static final int MAX_BACKEND_SERVERS_PER_REQUEST = 20;
 
     private final AcsClientStub acsClientStub;
     private final DtoValidator dtoValidator;
+    private final PluginBatchExecutor pluginBatchExecutor;
 
 
     @Autowired
-    public LoadBalancerServiceImpl(AcsClientStub acsClientStub, DtoValidator dtoValidator) {
+    public LoadBalancerServiceImpl(AcsClientStub acsClientStub, DtoValidator dtoValidator, PluginBatchExecutor pluginBatchExecutor) {
         this.acsClientStub = acsClientStub;
         this.dtoValidator = dtoValidator;
+        this.pluginBatchExecutor = pluginBatchExecutor;
     }
 
     @Override
     public List<CoreCreateLoadBalancerResponseDto> createLoadBalancer(List<CoreCreateLoadBalancerRequestDto> coreCreateLoadBalancerRequestDtoList) {
-        List<CoreCreateLoadBalancerResponseDto> resultList = new ArrayList<>();
-        for (CoreCreateLoadBalancerRequestDto requestDto : coreCreateLoadBalancerRequestDtoList) {
+        return pluginBatchExecutor.execute(coreCreateLoadBalancerRequestDtoList, requestDto -> {
 
             CoreCreateLoadBalancerResponseDto result = new CoreCreateLoadBalancerResponseDto();
 
@@ -80,7 +97,7 @@ public class LoadBalancerServiceImpl implements LoadBalancerService {
                         final DescribeLoadBalancersResponse.LoadBalancer foundLoadBalancer = foundLoadBalancerResponse.getLoadBalancers().get(0);
                         result = result.fromSdkCrossLineage(foundLoadBalancer);
                         result.setRequestId(foundLoadBalancerResponse.getRequestId());
-                        continue;
+                        return result;
                     }
                 }
 
@@ -100,11 +117,10 @@ public class LoadBalancerServiceImpl implements LoadBalancerService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
 
-        }
-        return resultList;
+            return result;
+        });
     }
 
     private DescribeLoadBalancersResponse retrieveLoadBalancer(IAcsClient client, String regionId, String loadBalancerId) throws PluginException, AliCloudException {
@@ -127,8 +143,7 @@ public class LoadBalancerServiceImpl implements LoadBalancerService {
 
     @Override
     public List<CoreDeleteLoadBalancerResponseDto> deleteLoadBalancer(List<CoreDeleteLoadBalancerRequestDto> coreDeleteLoadBalancerRequestDtoList) {
-        List<CoreDeleteLoadBalancerResponseDto> resultList = new ArrayList<>();
-        for (CoreDeleteLoadBalancerRequestDto requestDto : coreDeleteLoadBalancerRequestDtoList) {
+        return pluginBatchExecutor.execute(coreDeleteLoadBalancerRequestDtoList, requestDto -> {
 
             CoreDeleteLoadBalancerResponseDto result = new CoreDeleteLoadBalancerResponseDto();
             try {
@@ -148,7 +163,7 @@ public class LoadBalancerServiceImpl implements LoadBalancerService {
                 // check if load balancer already deleted
                 if (0 == foundLoadBalancerInfo.getTotalCount()) {
                     result.setRequestId(foundLoadBalancerInfo.getRequestId());
-                    continue;
+                    return result;
                 }
 
                 // delete VPC
@@ -176,31 +191,26 @@ public class LoadBalancerServiceImpl implements LoadBalancerService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
 
 
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreAddBackendServerResponseDto> addBackendServer(List<CoreAddBackendServerRequestDto> coreAddBackendServerRequestDtoList) {
-        List<CoreAddBackendServerResponseDto> resultList = new ArrayList<>();
-        for (CoreAddBackendServerRequestDto requestDto : coreAddBackendServerRequestDtoList) {
-
-            CoreAddBackendServerResponseDto result = new CoreAddBackendServerResponseDto();
-
+        final List<BackendServerItem<CoreAddBackendServerRequestDto, CoreAddBackendServerResponseDto>> items = pluginBatchExecutor.execute(coreAddBackendServerRequestDtoList, requestDto -> {
+            BackendServerItem<CoreAddBackendServerRequestDto, CoreAddBackendServerResponseDto> item = new BackendServerItem<>(requestDto, new CoreAddBackendServerResponseDto());
             try {
 
                 dtoValidator.validate(requestDto);
+                logger.info("Adding backend server to load balancer: {}", requestDto.toString());
 
-                final IdentityParamDto identityParamDto = IdentityParamDto.convertFromString(requestDto.getIdentityParams());
-                final CloudParamDto cloudParamDto = CloudParamDto.convertFromString(requestDto.getCloudParams());
-                final String regionId = cloudParamDto.getRegionId();
-                final IAcsClient client = this.acsClientStub.generateAcsClient(identityParamDto, cloudParamDto);
-                final String loadBalancerId = requestDto.getLoadBalancerId();
-                final String listenerProtocol = requestDto.getListenerProtocol();
+                final ListenerProtocolType listenerProtocolType = EnumUtils.getEnumIgnoreCase(ListenerProtocolType.class, requestDto.getListenerProtocol());
+                if (null == listenerProtocolType) {
+                    throw new PluginException("The listenerProtocol is an invalid type.");
+                }
                 final Integer listenerPort;
                 try {
                     listenerPort = Integer.parseInt(requestDto.getListenerPort());
@@ -208,97 +218,117 @@ public class LoadBalancerServiceImpl implements LoadBalancerService {
                     throw new PluginException(ex.getMessage());
                 }
 
-                logger.info("Adding backend server to load balancer: {}", requestDto.toString());
+                prepareBackendServerItem(item, requestDto.getHostIds(), requestDto.getHostPorts(), requestDto.getLoadBalancerId(), listenerProtocolType, listenerPort, StringUtils.EMPTY);
+                if (StringUtils.isNotEmpty(requestDto.getHostWeights())) {
+                    applyWeights(item.getBackendServers(), requestDto.getHostWeights());
+                }
 
-                final String backendServersString = getBackendServersString(requestDto.getHostIds(), requestDto.getHostPorts());
-                requestDto.setBackendServers(backendServersString);
+            } catch (PluginException | AliCloudException ex) {
+                item.fail(ex);
+            } catch (Exception ex) {
+                item.failUnhandled(ex);
+            }
+            return item;
+        });
 
-                if (!EnumUtils.isValidEnumIgnoreCase(ListenerProtocolType.class, listenerProtocol.toUpperCase())) {
-                    throw new PluginException("The listenerProtocol is an invalid type.");
-                }
+        runByListener(items, this::addBackendServers);
 
-                // check if there is a listener exists
-                boolean ifListenerExists = checkIfListenerExists(client, regionId, listenerPort, loadBalancerId, listenerProtocol);
-
-                if (ifListenerExists) {
-                    // check if listener is already bind the VServerGroup
-                    String listenerBondVServerGroupId = retrieveVServerGroupId(client, regionId, listenerPort, loadBalancerId, listenerProtocol);
-                    if (StringUtils.isNotEmpty(listenerBondVServerGroupId)) {
-                        // VServerGroup already bound with that listener
-
-                        // add backendServer on that VServerGroup
-                        logger.info("Adding backend server on existed VServerGroup");
-                        final AddVServerGroupBackendServersResponse modifyResponse = this.addBackendServerOnVServerGroup(client, regionId, requestDto.getBackendServers(), listenerBondVServerGroupId);
-
-                        result.setRequestId(modifyResponse.getRequestId());
-                        result.setvServerGroupId(listenerBondVServerGroupId);
-                        result.setBackendServers(PluginSdkBridge.fromSdkList(modifyResponse.getBackendServers(), CreateVServerGroupResponse.BackendServer.class));
-                    } else {
-                        // create VServerGroup with backendServer info
-                        logger.info("Creating new VServerGroup...");
-                        final CreateVServerGroupResponse createdVServerGroup = createVServerGroup(requestDto, client, regionId);
-
-                        // bind VServerGroup to that listener
-                        logger.info("Binding created VServerGroup to the existed listener...");
-                        final String createdVServerGroupId = createdVServerGroup.getVServerGroupId();
-                        this.bindVServerGroupToListener(client, regionId, requestDto, createdVServerGroupId);
-
-                        result = result.fromSdk(createdVServerGroup);
-                    }
-                } else {
-                    // listener doesn't exist
+        return items.stream().map(BackendServerItem::complete).collect(Collectors.toList());
+    }
+
+    private void addBackendServers(ListenerMap listenerMap, List<BackendServerItem<CoreAddBackendServerRequestDto, CoreAddBackendServerResponseDto>> group) {
+        final BackendServerItem<CoreAddBackendServerRequestDto, CoreAddBackendServerResponseDto> firstItem = group.get(0);
+        final CoreAddBackendServerRequestDto requestDto = firstItem.getRequestDto();
+        final IAcsClient client = firstItem.getClient();
+        final String regionId = firstItem.getRegionId();
+        final ListenerProtocolType listenerProtocolType = firstItem.getListenerProtocolType();
+        final Integer listenerPort = firstItem.getListenerPort();
+        try {
+            // the listener and its VServerGroup are created from the first request, so the others must ask for the same
+            checkSameSettings(group, dto -> Arrays.asList(dto.getBandwidth(), dto.getvServerGroupName(), dto.getServerId(),
+                    dto.getResourceOwnerId(), dto.getResourceOwnerAccount(), dto.getOwnerAccount(), dto.getOwnerId()));
+
+            final List<List<BackendServerDto>> chunks = Lists.partition(mergeBackendServers(group), MAX_BACKEND_SERVERS_PER_REQUEST);
+            if (chunks.isEmpty()) {
+                throw new PluginException("The backend servers cannot be empty.");
+            }
+            logger.info("Adding backend servers of [{}] request(s) to listener: [{}:{}] of load balancer: [{}] in [{}] call(s)",
+                    group.size(), listenerProtocolType, listenerPort, firstItem.getLoadBalancerId(), chunks.size());
+
+            // check if listener is already bind the VServerGroup
+            String vServerGroupId = listenerMap.vServerGroupIdOf(listenerProtocolType, listenerPort);
+            final boolean createVServerGroup = StringUtils.isEmpty(vServerGroupId);
+            final Map<BackendServerItem<CoreAddBackendServerRequestDto, CoreAddBackendServerResponseDto>, String> requestIds = new HashMap<>();
+            final List<CreateVServerGroupResponse.BackendServer> backendServers = new ArrayList<>();
+            if (createVServerGroup) {
+                // create VServerGroup with the first chunk of backendServer info, none of the requests can go on without it
+                logger.info("Creating new VServerGroup...");
+                final CreateVServerGroupResponse createdVServerGroup = createVServerGroup(requestDto, toBackendServersString(chunks.get(0)), client, regionId);
+                vServerGroupId = createdVServerGroup.getVServerGroupId();
+                itemsOf(group, chunks.get(0)).forEach(item -> requestIds.put(item, createdVServerGroup.getRequestId()));
+                if (null != createdVServerGroup.getBackendServers()) {
+                    backendServers.addAll(createdVServerGroup.getBackendServers());
+                }
+            }
 
-                    // create VServerGroup with backendServer info
-                    logger.info("Creating new VServerGroup...");
-                    final CreateVServerGroupResponse createdVServerGroup = createVServerGroup(requestDto, client, regionId);
+            // add the other backendServers on that VServerGroup, a failed chunk only fails the requests of its backend servers
+            final Set<String> addedKeys = new HashSet<>(backendServerKeysOf(createVServerGroup ? chunks.get(0) : Collections.emptyList()));
+            final Map<BackendServerItem<CoreAddBackendServerRequestDto, CoreAddBackendServerResponseDto>, Exception> chunkFailures = new LinkedHashMap<>();
+            for (List<BackendServerDto> chunk : chunks.subList(createVServerGroup ? 1 : 0, chunks.size())) {
+                final List<BackendServerItem<CoreAddBackendServerRequestDto, CoreAddBackendServerResponseDto>> chunkItems = itemsOf(group, chunk);
+                try {
+                    final AddVServerGroupBackendServersResponse modifyResponse = this.addBackendServerOnVServerGroup(client, regionId, toBackendServersString(chunk), vServerGroupId);
+                    chunkItems.forEach(item -> requestIds.put(item, modifyResponse.getRequestId()));
+                    backendServers.addAll(PluginSdkBridge.fromSdkList(modifyResponse.getBackendServers(), CreateVServerGroupResponse.BackendServer.class));
+                    addedKeys.addAll(backendServerKeysOf(chunk));
+                } catch (Exception ex) {
+                    chunkItems.forEach(item -> chunkFailures.putIfAbsent(item, ex));
+                }
+            }
+            failPartiallyApplied(chunkFailures, addedKeys, "added to");
 
+            if (createVServerGroup) {
+                if (listenerMap.exists(listenerProtocolType, listenerPort)) {
+                    // bind VServerGroup to that listener
+                    logger.info("Binding created VServerGroup to the existed listener...");
+                    this.bindVServerGroupToListener(client, regionId, requestDto, vServerGroupId);
+                } else {
                     // add the new listener with created VServerGroupId
                     logger.info("Creating new listener with just created new VServerGroup...");
-                    this.createNewListener(client, regionId, requestDto, createdVServerGroup.getVServerGroupId());
-
-                    result = result.fromSdk(createdVServerGroup);
+                    this.createNewListener(client, regionId, requestDto, vServerGroupId);
                 }
+                listenerMap.bind(listenerProtocolType, listenerPort, vServerGroupId);
+            } else if (group.stream().noneMatch(BackendServerItem::isPending)) {
+                return;
+            }
 
-                // start the created listener
-                this.startListener(client, listenerPort, loadBalancerId, regionId);
+            // start the created listener
+            this.startListener(client, listenerPort, firstItem.getLoadBalancerId(), regionId);
 
-            } catch (PluginException | AliCloudException ex) {
-                result.setErrorCode(CoreResponseDto.STATUS_ERROR);
-                result.setErrorMessage(ex.getMessage());
-            } catch (Exception ex) {
-                result.setErrorCode(CoreResponseDto.STATUS_ERROR);
-                result.setUnhandledErrorMessage(ex.getMessage());
-            } finally {
-                result.setGuid(requestDto.getGuid());
-                result.setCallbackParameter(requestDto.getCallbackParameter());
-                logger.info("Result: {}", result.toString());
-                resultList.add(result);
+            for (BackendServerItem<CoreAddBackendServerRequestDto, CoreAddBackendServerResponseDto> item : pendingItemsOf(group)) {
+                CoreAddBackendServerResponseDto result = new CoreAddBackendServerResponseDto();
+                result.setRequestId(requestIds.get(item));
+                result.setvServerGroupId(vServerGroupId);
+                result.setBackendServers(backendServersOf(item, backendServers, CreateVServerGroupResponse.BackendServer::getServerId, CreateVServerGroupResponse.BackendServer::getPort));
+                item.succeed(result);
             }
 
-
+        } catch (PluginException | AliCloudException ex) {
+            pendingItemsOf(group).forEach(item -> item.fail(ex));
+        } catch (Exception ex) {
+            pendingItemsOf(group).forEach(item -> item.failUnhandled(ex));
         }
-        return resultList;
     }
 
     @Override
     public List<CoreRemoveBackendServerResponseDto> removeBackendServer(List<CoreRemoveBackendServerRequestDto> coreRemoveBackendServerRequestDtoList) {
-        List<CoreRemoveBackendServerResponseDto> resultList = new ArrayList<>();
-        for (CoreRemoveBackendServerRequestDto requestDto : coreRemoveBackendServerRequestDtoList) {
-
-            CoreRemoveBackendServerResponseDto result = new CoreRemoveBackendServerResponseDto();
-
+        final List<BackendServerItem<CoreRemoveBackendServerRequestDto, CoreRemoveBackendServerResponseDto>> items = pluginBatchExecutor.execute(coreRemoveBackendServerRequestDtoList, requestDto -> {
+            BackendServerItem<CoreRemoveBackendServerRequestDto, CoreRemoveBackendServerResponseDto> item = new BackendServerItem<>(requestDto, new CoreRemoveBackendServerResponseDto());
             try {
 
                 dtoValidator.validate(requestDto);
                 logger.info("Removing backend server from load balancer: {}", requestDto.toString());
 
-                final IdentityParamDto identityParamDto = IdentityParamDto.convertFromString(requestDto.getIdentityParams());
-                final CloudParamDto cloudParamDto = CloudParamDto.convertFromString(requestDto.getCloudParams());
-                final String regionId = cloudParamDto.getRegionId();
-                final IAcsClient client = this.acsClientStub.generateAcsClient(identityParamDto, cloudParamDto);
-                final String backendServersString = getBackendServersString(requestDto.getHostIds(), requestDto.getHostPorts());
-                requestDto.setBackendServers(backendServersString);
-                String vServerGroupId = requestDto.getvServerGroupId();
                 Integer listenerPort;
                 try {
                     listenerPort = Integer.parseInt(requestDto.getListenerPort());
@@ -311,59 +341,239 @@ public class LoadBalancerServiceImpl implements LoadBalancerService {
                     throw new PluginException("Invalid listener protocol");
                 }
 
-                if (StringUtils.isEmpty(requestDto.getvServerGroupId())) {
+                // the items deleting the listener are kept apart from the ones only removing backend servers
+                final String listenerKeySuffix = String.join("|", StringUtils.defaultString(requestDto.getvServerGroupId()), String.valueOf(requestDto.ifDeleteListener()));
+                prepareBackendServerItem(item, requestDto.getHostIds(), requestDto.getHostPorts(), requestDto.getLoadBalancerId(), listenerProtocolType, listenerPort, listenerKeySuffix);
+
+            } catch (PluginException | AliCloudException ex) {
+                item.fail(ex);
+            } catch (Exception ex) {
+                item.failUnhandled(ex);
+            }
+            return item;
+        });
+
+        // the listeners are deleted once the backend servers of the other items have been removed from them
+        final List<BackendServerItem<CoreRemoveBackendServerRequestDto, CoreRemoveBackendServerResponseDto>> orderedItems = new ArrayList<>(items);
+        orderedItems.sort(Comparator.comparing(item -> item.getRequestDto().ifDeleteListener()));
+        runByListener(orderedItems, this::removeBackendServers);
+
+        return items.stream().map(BackendServerItem::complete).collect(Collectors.toList());
+    }
 
+    private void removeBackendServers(ListenerMap listenerMap, List<BackendServerItem<CoreRemoveBackendServerRequestDto, CoreRemoveBackendServerResponseDto>> group) {
+        final BackendServerItem<CoreRemoveBackendServerRequestDto, CoreRemoveBackendServerResponseDto> firstItem = group.get(0);
+        final CoreRemoveBackendServerRequestDto requestDto = firstItem.getRequestDto();
+        final IAcsClient client = firstItem.getClient();
+        final String regionId = firstItem.getRegionId();
+        final ListenerProtocolType listenerProtocolType = firstItem.getListenerProtocolType();
+        final Integer listenerPort = firstItem.getListenerPort();
+        try {
+            // every removal is sent with the owner settings of the first request, so the others must ask for the same
+            checkSameSettings(group, dto -> Arrays.asList(dto.getResourceOwnerId(), dto.getResourceOwnerAccount(), dto.getOwnerAccount(), dto.getOwnerId()));
 
-                    final String listenerProtocol = requestDto.getListenerProtocol();
-                    final String loadBalancerId = requestDto.getLoadBalancerId();
+            String vServerGroupId = requestDto.getvServerGroupId();
+            if (StringUtils.isEmpty(vServerGroupId)) {
+                logger.info("Retrieving the vServerGroupId bound on listener port: [{}] with protocol: [{}] from load balancer ID: [{}]", listenerPort, listenerProtocolType, firstItem.getLoadBalancerId());
 
-                    if (StringUtils.isAnyEmpty(listenerProtocol, loadBalancerId)) {
-                        throw new PluginException("Either the listener protocol or loadBalancerId cannot be empty or null");
-                    }
+                vServerGroupId = listenerMap.vServerGroupIdOf(listenerProtocolType, listenerPort);
 
-                    logger.info("Retrieving the vServerGroupId bound on listener port: [{}] with protocol: [{}] from load balancer ID: [{}]", listenerPort, listenerProtocol, loadBalancerId);
+                if (StringUtils.isEmpty(vServerGroupId)) {
+                    throw new PluginException("Cannot find vServerGroup ID by the given info.");
+                }
+            }
 
-                    String foundVServerGroupId = this.retrieveVServerGroupId(client, regionId, listenerPort, loadBalancerId, listenerProtocol);
+            final List<List<BackendServerDto>> chunks = Lists.partition(mergeBackendServers(group), MAX_BACKEND_SERVERS_PER_REQUEST);
+            logger.info("The vServerGroupId found: [{}], removing backendServers of [{}] request(s) from that vServerGroup in [{}] call(s)", vServerGroupId, group.size(), chunks.size());
 
-                    if (StringUtils.isEmpty(foundVServerGroupId)) {
-                        throw new PluginException("Cannot find vServerGroup ID by the given info.");
+            // a failed chunk only fails the requests of its backend servers
+            final Map<BackendServerItem<CoreRemoveBackendServerRequestDto, CoreRemoveBackendServerResponseDto>, RemoveVServerGroupBackendServersResponse> responses = new HashMap<>();
+            final List<RemoveVServerGroupBackendServersResponse.BackendServer> backendServers = new ArrayList<>();
+            final Set<String> removedKeys = new HashSet<>();
+            final Map<BackendServerItem<CoreRemoveBackendServerRequestDto, CoreRemoveBackendServerResponseDto>, Exception> chunkFailures = new LinkedHashMap<>();
+            for (List<BackendServerDto> chunk : chunks) {
+                final List<BackendServerItem<CoreRemoveBackendServerRequestDto, CoreRemoveBackendServerResponseDto>> chunkItems = itemsOf(group, chunk);
+                try {
+                    RemoveVServerGroupBackendServersRequest request = requestDto.toSdk();
+                    request.setVServerGroupId(vServerGroupId);
+                    request.setBackendServers(toBackendServersString(chunk));
+                    final RemoveVServerGroupBackendServersResponse response = this.acsClientStub.request(client, request, regionId);
+                    chunkItems.forEach(item -> responses.put(item, response));
+                    if (null != response.getBackendServers()) {
+                        backendServers.addAll(response.getBackendServers());
                     }
+                    removedKeys.addAll(backendServerKeysOf(chunk));
+                } catch (Exception ex) {
+                    chunkItems.forEach(item -> chunkFailures.putIfAbsent(item, ex));
+                }
+            }
+            failPartiallyApplied(chunkFailures, removedKeys, "removed from");
 
-                    vServerGroupId = foundVServerGroupId;
+            // delete listener according to the request
+            // if delete listener, delete the vServerGroup as well
+            if (requestDto.ifDeleteListener()) {
+                if (pendingItemsOf(group).size() < group.size()) {
+                    throw new PluginException("The listener is kept since the backend servers of other requests on it cannot be removed.");
                 }
+                deleteListener(requestDto, regionId, client, listenerPort);
+                deleteVSwitchGroup(client, regionId, vServerGroupId);
+                listenerMap.unbind(listenerProtocolType, listenerPort);
+            }
 
+            for (BackendServerItem<CoreRemoveBackendServerRequestDto, CoreRemoveBackendServerResponseDto> item : pendingItemsOf(group)) {
+                CoreRemoveBackendServerResponseDto result = new CoreRemoveBackendServerResponseDto();
+                if (responses.containsKey(item)) {
+                    result = result.fromSdk(responses.get(item));
+                }
+                result.setvServerGroupId(vServerGroupId);
+                result.setBackendServers(backendServersOf(item, backendServers, RemoveVServerGroupBackendServersResponse.BackendServer::getServerId, RemoveVServerGroupBackendServersResponse.BackendServer::getPort));
+                item.succeed(result);
+            }
 
-                logger.info("The vServerGroupId found: [{}], removing backendServers from that vServerGroup", vServerGroupId);
+        } catch (PluginException | AliCloudException ex) {
+            pendingItemsOf(group).forEach(item -> item.fail(ex));
+        } catch (Exception ex) {
+            pendingItemsOf(group).forEach(item -> item.failUnhandled(ex));
+        }
+    }
 
-                RemoveVServerGroupBackendServersRequest request = requestDto.toSdk();
-                request.setVServerGroupId(vServerGroupId);
-                request.setBackendServers(requestDto.getBackendServers());
-                RemoveVServerGroupBackendServersResponse response;
-                response = this.acsClientStub.request(client, request, regionId);
+    private <D extends CoreRequestInputDto, R extends CoreResponseOutputDto> void prepareBackendServerItem(BackendServerItem<D, R> item, String hostIds, String hostPorts, String loadBalancerId,
+                                                                                                         ListenerProtocolType listenerProtocolType, Integer listenerPort, String listenerKeySuffix) throws PluginException, AliCloudException {
+        final D requestDto = item.getRequestDto();
+        final IdentityParamDto identityParamDto = IdentityParamDto.convertFromString(requestDto.getIdentityParams());
+        final CloudParamDto cloudParamDto = CloudParamDto.convertFromString(requestDto.getCloudParams());
+        final String regionId = cloudParamDto.getRegionId();
+        final IAcsClient client = this.acsClientStub.generateAcsClient(identityParamDto, cloudParamDto);
+
+        final List<BackendServerDto> backendServers = getBackendServers(hostIds, hostPorts);
+        final String loadBalancerKey = String.join("|", PluginBatchExecutor.accountOf(requestDto), regionId, StringUtils.defaultString(loadBalancerId));
+        final String listenerKey = String.join("|", loadBalancerKey, listenerProtocolType.name(), String.valueOf(listenerPort), listenerKeySuffix);
+        item.readyToModify(client, regionId, loadBalancerId, listenerProtocolType, listenerPort, backendServers, loadBalancerKey, listenerKey);
+    }
 
-                result = result.fromSdk(response);
+    /**
+     * Run the task for the pending items of each listener, the listeners of a load balancer are handled one after another
+     * and share the listener map of their load balancer
+     */
+    private <D extends CoreRequestInputDto, R extends CoreResponseOutputDto> void runByListener(List<BackendServerItem<D, R>> items, BiConsumer<ListenerMap, List<BackendServerItem<D, R>>> task) {
+        final Map<String, Map<String, List<BackendServerItem<D, R>>>> loadBalancerGroups = new LinkedHashMap<>();
+        items.stream().filter(BackendServerItem::isPending).forEach(item -> loadBalancerGroups
+                .computeIfAbsent(item.getLoadBalancerKey(), k -> new LinkedHashMap<>())
+                .computeIfAbsent(item.getListenerKey(), k -> new ArrayList<>())
+                .add(item));
+
+        final List<List<List<BackendServerItem<D, R>>>> loadBalancerBatches = loadBalancerGroups.values().stream()
+                .map(listenerGroups -> new ArrayList<>(listenerGroups.values()))
+                .collect(Collectors.toList());
+        pluginBatchExecutor.execute(loadBalancerBatches, batch -> PluginBatchExecutor.accountOf(batch.get(0).get(0).getRequestDto()), batch -> {
+            final BackendServerItem<D, R> firstItem = batch.get(0).get(0);
+            final ListenerMap listenerMap = new ListenerMap(firstItem.getClient(), firstItem.getRegionId(), firstItem.getLoadBalancerId());
+            batch.forEach(group -> task.accept(listenerMap, group));
+            return batch;
+        });
+    }
 
-                // delete listener according to the request
-                // if delete listener, delete the vServerGroup as well
-                if (requestDto.ifDeleteListener()) {
-                    deleteListener(requestDto, regionId, client, listenerPort);
-                    deleteVSwitchGroup(client, regionId, requestDto.getvServerGroupId());
+    /**
+     * Merge the backend servers of the pending items, each (serverId, port) only once. An item asking for a backend
+     * server which an earlier item or the item itself asks for with a different weight, type or description fails,
+     * and none of its backend servers is merged.
+     *
+     * @return the merged backend servers
+     */
+    private static <D extends CoreRequestInputDto, R extends CoreResponseOutputDto> List<BackendServerDto> mergeBackendServers(List<BackendServerItem<D, R>> group) {
+        final Map<String, BackendServerDto> backendServers = new LinkedHashMap<>();
+        for (BackendServerItem<D, R> item : pendingItemsOf(group)) {
+            final Map<String, BackendServerDto> itemBackendServers = new LinkedHashMap<>();
+            BackendServerDto conflict = null;
+            for (BackendServerDto backendServer : item.getBackendServers()) {
+                final String key = backendServerKeyOf(backendServer.getServerId(), backendServer.getPort());
+                final BackendServerDto merged = backendServers.containsKey(key) ? backendServers.get(key) : itemBackendServers.get(key);
+                if (null != merged && !backendServerSettingsOf(merged).equals(backendServerSettingsOf(backendServer))) {
+                    conflict = backendServer;
+                    break;
                 }
+                itemBackendServers.putIfAbsent(key, backendServer);
+            }
+            if (null != conflict) {
+                item.fail(new PluginException(String.format("The backend server: [%s] is asked for with weight: [%s] while another request on listener: [%s:%s] of load balancer: [%s] asks for it with different settings, please send them in separate batches.",
+                        backendServerKeyOf(conflict.getServerId(), conflict.getPort()), conflict.getWeight(), item.getListenerProtocolType(), item.getListenerPort(), item.getLoadBalancerId())));
+                continue;
+            }
+            itemBackendServers.forEach(backendServers::putIfAbsent);
+        }
+        return new ArrayList<>(backendServers.values());
+    }
 
-            } catch (PluginException | AliCloudException ex) {
-                result.setErrorCode(CoreResponseDto.STATUS_ERROR);
-                result.setErrorMessage(ex.getMessage());
-            } catch (Exception ex) {
-                result.setErrorCode(CoreResponseDto.STATUS_ERROR);
-                result.setUnhandledErrorMessage(ex.getMessage());
-            } finally {
-                result.setGuid(requestDto.getGuid());
-                result.setCallbackParameter(requestDto.getCallbackParameter());
-                logger.info("Result: {}", result.toString());
-                resultList.add(result);
+    private static List<String> backendServerSettingsOf(BackendServerDto backendServer) {
+        return Arrays.asList(backendServer.getWeight(), backendServer.getType(), backendServer.getDescription());
+    }
+
+    /**
+     * Fail the items of the failed chunks. An item whose backend servers span several chunks may have had some of
+     * them applied by the other chunks, which is stated in its error message so that the caller can reconcile them.
+     *
+     * @param chunkFailures first failure of each item
+     * @param appliedKeys   keys of the backend servers applied by the succeeded chunks
+     * @param action        what was done to the applied backend servers, e.g. "added to"
+     */
+    private static <D extends CoreRequestInputDto, R extends CoreResponseOutputDto> void failPartiallyApplied(Map<BackendServerItem<D, R>, Exception> chunkFailures, Set<String> appliedKeys, String action) {
+        chunkFailures.forEach((item, ex) -> {
+            final List<String> applied = backendServerKeysOf(item.getBackendServers()).stream().filter(appliedKeys::contains).distinct().collect(Collectors.toList());
+            final Exception failure = applied.isEmpty() ? ex : new PluginException(String.format("%s The backend servers: [%s] have already been %s the VServerGroup.",
+                    ex.getMessage(), String.join(",", applied), action), ex);
+            if (ex instanceof PluginException || ex instanceof AliCloudException) {
+                item.fail((RuntimeException) failure);
+            } else {
+                item.failUnhandled(failure);
+            }
+        });
+    }
+
+    private static List<String> backendServerKeysOf(List<BackendServerDto> backendServers) {
+        return backendServers.stream().map(backendServer -> backendServerKeyOf(backendServer.getServerId(), backendServer.getPort())).collect(Collectors.toList());
+    }
+
+    private static String backendServerKeyOf(String serverId, Object port) {
+        return serverId + ":" + port;
+    }
+
+    /**
+     * @return the pending items which have at least one of their backend servers in the chunk
+     */
+    private static <D extends CoreRequestInputDto, R extends CoreResponseOutputDto> List<BackendServerItem<D, R>> itemsOf(List<BackendServerItem<D, R>> group, List<BackendServerDto> chunk) {
+        final Set<String> chunkKeys = chunk.stream().map(backendServer -> backendServerKeyOf(backendServer.getServerId(), backendServer.getPort())).collect(Collectors.toSet());
+        return pendingItemsOf(group).stream()
+                .filter(item -> item.getBackendServers().stream().anyMatch(backendServer -> chunkKeys.contains(backendServerKeyOf(backendServer.getServerId(), backendServer.getPort()))))
+                .collect(Collectors.toList());
+    }
+
+    private static <D extends CoreRequestInputDto, R extends CoreResponseOutputDto> List<BackendServerItem<D, R>> pendingItemsOf(List<BackendServerItem<D, R>> group) {
+        return group.stream().filter(BackendServerItem::isPending).collect(Collectors.toList());
+    }
+
+    /**
+     * @return the backend servers returned by the cloud which belong to the item
+     */
+    private static <D extends CoreRequestInputDto, R extends CoreResponseOutputDto, S> List<S> backendServersOf(BackendServerItem<D, R> item, List<S> backendServers,
+                                                                                                             Function<S, String> serverIdOf, Function<S, Integer> portOf) {
+        final Set<String> itemKeys = item.getBackendServers().stream().map(backendServer -> backendServerKeyOf(backendServer.getServerId(), backendServer.getPort())).collect(Collectors.toSet());
+        return backendServers.stream()
+                .filter(backendServer -> itemKeys.contains(backendServerKeyOf(serverIdOf.apply(backendServer), portOf.apply(backendServer))))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Fail the group when its requests ask for different settings of the listener they share
+     */
+    private static <D extends CoreRequestInputDto, R extends CoreResponseOutputDto> void checkSameSettings(List<BackendServerItem<D, R>> group, Function<D, List<String>> settingsOf) throws PluginException {
+        final BackendServerItem<D, R> firstItem = group.get(0);
+        final List<String> settings = settingsOf.apply(firstItem.getRequestDto());
+        for (BackendServerItem<D, R> item : group) {
+            if (!settings.equals(settingsOf.apply(item.getRequestDto()))) {
+                throw new PluginException(String.format("The requests on listener: [%s:%s] of load balancer: [%s] ask for different listener settings, please send them in separate batches.",
+                        firstItem.getListenerProtocolType(), firstItem.getListenerPort(), firstItem.getLoadBalancerId()));
             }
         }
-        return resultList;
     }
 
     private void deleteVSwitchGroup(IAcsClient client, String regionId, String vServerGroupId) throws AliCloudException {
@@ -382,11 +592,21 @@ public class LoadBalancerServiceImpl implements LoadBalancerService {
         acsClientStub.request(client, deleteLoadBalancerListenerRequest, regionId);
     }
 
-    private String getBackendServersString(String hostIds, String hostPorts) throws PluginException, AliCloudException {
+    private List<BackendServerDto> getBackendServers(String hostIds, String hostPorts) throws PluginException, AliCloudException {
         final String formattedHostIds = PluginStringUtils.handleCoreListStr(hostIds);
         final String formattedHostPorts = PluginStringUtils.handleCoreListStr(hostPorts);
 
-        final List<BackendServerDto> backendServerDtos = fromRawStringList(formattedHostIds, formattedHostPorts);
+        return fromRawStringList(formattedHostIds, formattedHostPorts);
+    }
+
+    private void applyWeights(List<BackendServerDto> backendServers, String hostWeights) throws PluginException {
+        final List<String> weightList = PluginStringUtils.splitStringList(PluginStringUtils.handleCoreListStr(hostWeights));
+        for (Pair<BackendServerDto, String> backendServerToWeightPair : PluginMapUtils.zipToPairList(backendServers, weightList)) {
+            backendServerToWeightPair.getKey().setWeight(backendServerToWeightPair.getValue().trim());
+        }
+    }
+
+    private String toBackendServersString(List<BackendServerDto> backendServerDtos) throws PluginException {
         List<String> backendServerStringList = new ArrayList<>();
         for (BackendServerDto backendServerDto : backendServerDtos) {
             final String singleServerString = backendServerDto.toString();
@@ -434,8 +654,16 @@ public class LoadBalancerServiceImpl implements LoadBalancerService {
         }
         switch (listenerProtocolType) {
             case HTTP:
+                DescribeLoadBalancerHTTPListenerAttributeRequest httpListenerAttributeRequest = new DescribeLoadBalancerHTTPListenerAttributeRequest();
+                httpListenerAttributeRequest.setLoadBalancerId(loadBalancerId);
+                httpListenerAttributeRequest.setListenerPort(listenerPort);
+                vServerGroupId = this.acsClientStub.request(client, httpListenerAttributeRequest, regionId).getVServerGroupId();
                 break;
             case UDP:
+                DescribeLoadBalancerUDPListenerAttributeRequest udpListenerAttributeRequest = new DescribeLoadBalancerUDPListenerAttributeRequest();
+                udpListenerAttributeRequest.setLoadBalancerId(loadBalancerId);
+                udpListenerAttributeRequest.setListenerPort(listenerPort);
+                vServerGroupId = this.acsClientStub.request(client, udpListenerAttributeRequest, regionId).getVServerGroupId();
                 break;
             case TCP:
                 DescribeLoadBalancerTCPListenerAttributeRequest tcpListenerAttributeRequest = new DescribeLoadBalancerTCPListenerAttributeRequest();
@@ -446,6 +674,10 @@ public class LoadBalancerServiceImpl implements LoadBalancerService {
                 vServerGroupId = describeLoadBalancerTCPListenerAttributeResponse.getVServerGroupId();
                 break;
             case HTTPS:
+                DescribeLoadBalancerHTTPSListenerAttributeRequest httpsListenerAttributeRequest = new DescribeLoadBalancerHTTPSListenerAttributeRequest();
+                httpsListenerAttributeRequest.setLoadBalancerId(loadBalancerId);
+                httpsListenerAttributeRequest.setListenerPort(listenerPort);
+                vServerGroupId = this.acsClientStub.request(client, httpsListenerAttributeRequest, regionId).getVServerGroupId();
                 break;
             default:
                 break;
@@ -453,9 +685,9 @@ public class LoadBalancerServiceImpl implements LoadBalancerService {
         return vServerGroupId;
     }
 
-    private CreateVServerGroupResponse createVServerGroup(CoreAddBackendServerRequestDto requestDto, IAcsClient client, String regionId) throws AliCloudException {
+    private CreateVServerGroupResponse createVServerGroup(CoreAddBackendServerRequestDto requestDto, String backendServers, IAcsClient client, String regionId) throws AliCloudException {
         CreateVServerGroupRequest createVServerGroupRequest = requestDto.toSdk();
-        createVServerGroupRequest.setBackendServers(requestDto.getBackendServers());
+        createVServerGroupRequest.setBackendServers(backendServers);
 
         CreateVServerGroupResponse createVServerGroupResponse;
         createVServerGroupResponse = this.acsClientStub.request(client, createVServerGroupRequest, regionId);
@@ -551,52 +783,30 @@ public class LoadBalancerServiceImpl implements LoadBalancerService {
         this.acsClientStub.request(client, request, regionId);
     }
 
-    private boolean checkIfListenerExists(IAcsClient client, String regionId, Integer listenerPort, String loadBalancerId, String listenerProtocol) throws AliCloudException {
-        boolean ifListenerExists = true;
-        final ListenerProtocolType listenerProtocolType = EnumUtils.getEnumIgnoreCase(ListenerProtocolType.class, listenerProtocol);
-        if (null == listenerProtocolType) {
-            throw new PluginException("Invalid listener protocol");
-        }
-        try {
-            switch (listenerProtocolType) {
-                case HTTP:
-                    DescribeLoadBalancerHTTPListenerAttributeRequest httpListenerAttributeRequest = new DescribeLoadBalancerHTTPListenerAttributeRequest();
-                    httpListenerAttributeRequest.setLoadBalancerId(loadBalancerId);
-                    httpListenerAttributeRequest.setListenerPort(listenerPort);
-                    this.acsClientStub.request(client, httpListenerAttributeRequest, regionId);
-                    break;
-                case UDP:
-                    DescribeLoadBalancerUDPListenerAttributeRequest udpListenerAttributeRequest = new DescribeLoadBalancerUDPListenerAttributeRequest();
-                    udpListenerAttributeRequest.setLoadBalancerId(loadBalancerId);
-                    udpListenerAttributeRequest.setListenerPort(listenerPort);
-                    this.acsClientStub.request(client, udpListenerAttributeRequest, regionId);
-                    break;
-                case TCP:
-                    DescribeLoadBalancerTCPListenerAttributeRequest tcpListenerAttributeRequest = new DescribeLoadBalancerTCPListenerAttributeRequest();
-                    tcpListenerAttributeRequest.setLoadBalancerId(loadBalancerId);
-                    tcpListenerAttributeRequest.setListenerPort(listenerPort);
-                    this.acsClientStub.request(client, tcpListenerAttributeRequest, regionId);
-                    break;
-                case HTTPS:
-                    DescribeLoadBalancerHTTPSListenerAttributeRequest httpsListenerAttributeRequest = new DescribeLoadBalancerHTTPSListenerAttributeRequest();
-                    httpsListenerAttributeRequest.setLoadBalancerId(loadBalancerId);
-                    httpsListenerAttributeRequest.setListenerPort(listenerPort);
-                    this.acsClientStub.request(client, httpsListenerAttributeRequest, regionId);
-                    break;
-                default:
-                    break;
-            }
-        } catch (AliCloudException ex) {
-            if (ex.getMessage().contains("The specified resource does not exist.")) {
-                ifListenerExists = false;
-            } else {
-                throw ex;
-            }
+    /**
+     * @return the listeners of the load balancer as protocol and port
+     */
+    private Set<String> retrieveListeners(IAcsClient client, String regionId, String loadBalancerId) throws PluginException, AliCloudException {
+        if (StringUtils.isAnyEmpty(regionId, loadBalancerId)) {
+            throw new PluginException("Either regionId or loadBalancerId cannot be empty or null");
         }
 
-        return ifListenerExists;
+        logger.info("Retrieving the listeners of load balancer: [{}]", loadBalancerId);
+
+        DescribeLoadBalancerAttributeRequest request = new DescribeLoadBalancerAttributeRequest();
+        request.setLoadBalancerId(loadBalancerId);
+        final DescribeLoadBalancerAttributeResponse response = this.acsClientStub.request(client, request, regionId);
+
+        Set<String> listeners = new HashSet<>();
+        if (null != response.getListenerPortsAndProtocol()) {
+            response.getListenerPortsAndProtocol().forEach(listener -> listeners.add(listenerOf(listener.getListenerProtocol(), listener.getListenerPort())));
+        }
+        return listeners;
     }
 
+    private static String listenerOf(String listenerProtocol, Integer listenerPort) {
+        return StringUtils.upperCase(listenerProtocol) + ":" + listenerPort;
+    }
 
     private void startListener(IAcsClient client, Integer listenerPort, String loadBalancerId, String regionId) throws PluginException, AliCloudException {
         if (null == listenerPort) {
@@ -625,4 +835,155 @@ public class LoadBalancerServiceImpl implements LoadBalancerService {
         // https
         HTTPS
     }
+
+    /**
+     * Listeners of a load balancer, described once by DescribeLoadBalancerAttribute, and the VServerGroups bound to them,
+     * looked up once per listener
+     */
+    private final class ListenerMap {
+        private final IAcsClient client;
+        private final String regionId;
+        private final String loadBalancerId;
+        private final Map<String, String> vServerGroupIds = new HashMap<>();
+        private Set<String> listeners;
+
+        private ListenerMap(IAcsClient client, String regionId, String loadBalancerId) {
+            this.client = client;
+            this.regionId = regionId;
+            this.loadBalancerId = loadBalancerId;
+        }
+
+        private boolean exists(ListenerProtocolType listenerProtocolType, Integer listenerPort) throws PluginException, AliCloudException {
+            if (null == listeners) {
+                listeners = retrieveListeners(client, regionId, loadBalancerId);
+            }
+            return listeners.contains(listenerOf(listenerProtocolType.name(), listenerPort));
+        }
+
+        /**
+         * @return ID of the VServerGroup bound to the listener, empty when the listener doesn't exist or has none bound
+         */
+        private String vServerGroupIdOf(ListenerProtocolType listenerProtocolType, Integer listenerPort) throws PluginException, AliCloudException {
+            if (!exists(listenerProtocolType, listenerPort)) {
+                return StringUtils.EMPTY;
+            }
+            final String listener = listenerOf(listenerProtocolType.name(), listenerPort);
+            String vServerGroupId = vServerGroupIds.get(listener);
+            if (null == vServerGroupId) {
+                vServerGroupId = StringUtils.defaultString(retrieveVServerGroupId(client, regionId, listenerPort, loadBalancerId, listenerProtocolType.name()));
+                vServerGroupIds.put(listener, vServerGroupId);
+            }
+            return vServerGroupId;
+        }
+
+        private void bind(ListenerProtocolType listenerProtocolType, Integer listenerPort, String vServerGroupId) {
+            final String listener = listenerOf(listenerProtocolType.name(), listenerPort);
+            listeners.add(listener);
+            vServerGroupIds.put(listener, vServerGroupId);
+        }
+
+        private void unbind(ListenerProtocolType listenerProtocolType, Integer listenerPort) {
+            final String listener = listenerOf(listenerProtocolType.name(), listenerPort);
+            if (null != listeners) {
+                listeners.remove(listener);
+            }
+            vServerGroupIds.remove(listener);
+        }
+    }
+
+    private static final class BackendServerItem<D extends CoreRequestInputDto, R extends CoreResponseOutputDto> {
+        private final D requestDto;
+        private R result;
+        private boolean pending = false;
+        private IAcsClient client;
+        private String regionId;
+        private String loadBalancerId;
+        private ListenerProtocolType listenerProtocolType;
+        private Integer listenerPort;
+        private List<BackendServerDto> backendServers;
+        private String loadBalancerKey;
+        private String listenerKey;
+
+        private BackendServerItem(D requestDto, R result) {
+            this.requestDto = requestDto;
+            this.result = result;
+        }
+
+        private void readyToModify(IAcsClient client, String regionId, String loadBalancerId, ListenerProtocolType listenerProtocolType, Integer listenerPort,
+                                   List<BackendServerDto> backendServers, String loadBalancerKey, String listenerKey) {
+            this.client = client;
+            this.regionId = regionId;
+            this.loadBalancerId = loadBalancerId;
+            this.listenerProtocolType = listenerProtocolType;
+            this.listenerPort = listenerPort;
+            this.backendServers = backendServers;
+            this.loadBalancerKey = loadBalancerKey;
+            this.listenerKey = listenerKey;
+            this.pending = true;
+        }
+
+        private void succeed(R result) {
+            this.pending = false;
+            this.result = result;
+        }
+
+        private void fail(RuntimeException ex) {
+            this.pending = false;
+            result.setErrorCode(CoreResponseDto.STATUS_ERROR);
+            result.setErrorMessage(ex.getMessage());
+        }
+
+        private void failUnhandled(Exception ex) {
+            this.pending = false;
+            result.setErrorCode(CoreResponseDto.STATUS_ERROR);
+            result.setUnhandledErrorMessage(ex.getMessage());
+        }
+
+        private R complete() {
+            result.setGuid(requestDto.getGuid());
+            result.setCallbackParameter(requestDto.getCallbackParameter());
+            logger.info("Result: {}", result.toString());
+            return result;
+        }
+
+        private boolean isPending() {
+            return pending;
+        }
+
+        private D getRequestDto() {
+            return requestDto;
+        }
+
+        private IAcsClient getClient() {
+            return client;
+        }
+
+        private String getRegionId() {
+            return regionId;
+        }
+
+        private String getLoadBalancerId() {
+            return loadBalancerId;
+        }
+
+        private ListenerProtocolType getListenerProtocolType() {
+            return listenerProtocolType;
+        }
+
+        private Integer getListenerPort() {
+            return listenerPort;
+        }
+
+        private List<BackendServerDto> getBackendServers() {
+            return backendServers;
+        }
+
+        private String getLoadBalancerKey() {
+            return loadBalancerKey;
+        }
+
+        private String getListenerKey() {
+            return listenerKey;
+        }
+    }
 }
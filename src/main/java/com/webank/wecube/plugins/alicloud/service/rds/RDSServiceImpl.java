@@ -21,11 +21,20 @@ import com.webank.wecube.plugins.alicloud.dto.rds.securityGroup.CoreModifyDBSecu
 import com.webank.wecube.plugins.alicloud.dto.rds.securityIP.CoreModifySecurityIPsRequestDto;
 import com.webank.wecube.plugins.alicloud.dto.rds.securityIP.CoreModifySecurityIPsResponseDto;
 import com.webank.wecube.plugins.alicloud.support.*;
+import com.webank.wecube.plugins.alicloud.support.journal.JournalProgress;
+import com.webank.wecube.plugins.alicloud.support.journal.PluginJournal;
 import com.webank.wecube.plugins.alicloud.support.password.PasswordManager;
+import com.webank.wecube.plugins.alicloud.support.resourceSeeker.AvailableResourceCache;
 import com.webank.wecube.plugins.alicloud.support.resourceSeeker.RDSResourceSeeker;
 import com.webank.wecube.plugins.alicloud.support.resourceSeeker.specs.SpecInfo;
+import com.webank.wecube.plugins.alicloud.support.securityIp.SecurityIpWhitelist;
+import com.webank.wecube.plugins.alicloud.support.step.StepExecutor;
+import com.webank.wecube.plugins.alicloud.support.step.StepGraph;
+import com.webank.wecube.plugins.alicloud.support.step.StepResults;
 import com.webank.wecube.plugins.alicloud.support.timer.PluginTimer;
 import com.webank.wecube.plugins.alicloud.support.timer.PluginTimerTask;
+import com.webank.wecube.plugins.alicloud.support.watcher.ResourceStatusWatcher;
+import com.webank.wecube.plugins.alicloud.support.watcher.WatchedResourceType;
 import com.webank.wecube.plugins.alicloud.utils.PluginObjectUtils;
 import com.webank.wecube.plugins.alicloud.utils.PluginStringUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -36,8 +45,13 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -47,6 +61,14 @@ import java.util.stream.Collectors;
 @Service
 public class RDSServiceImpl implements RDSService {
     private static final String TOLERABLE_DB_NOT_FOUND_CODE = "InvalidDBInstanceId.NotFound";
+    private static final String CREATE_DB_OPERATION = "rds.createDB";
+    private static final String STEP_DB_INSTANCE_ID = "dBInstanceId";
+    private static final String STEP_ORDER_ID = "orderId";
+    private static final String STEP_CONNECTION_STRING = "connectionString";
+    private static final String STEP_PORT = "port";
+    private static final String STEP_ENCRYPTED_PASSWORD = "encryptedPassword";
+    private static final String STEP_ACCOUNT = "account";
+    private static final String STEP_SECURITY_GROUP = "securityGroup";
 
     private static final Logger logger = LoggerFactory.getLogger(RDSService.class);
 
@@ -54,19 +76,28 @@ public class RDSServiceImpl implements RDSService {
     private final DtoValidator dtoValidator;
     private final PasswordManager passwordManager;
     private final RDSResourceSeeker rdsResourceSeeker;
+    private final ResourceStatusWatcher resourceStatusWatcher;
+    private final PluginBatchExecutor pluginBatchExecutor;
+    private final PluginJournal pluginJournal;
+    private final StepExecutor stepExecutor;
+    private final AvailableResourceCache availableResourceCache;
 
     @Autowired
-    public RDSServiceImpl(AcsClientStub acsClientStub, DtoValidator dtoValidator, PasswordManager passwordManager, RDSResourceSeeker rdsResourceSeeker) {
+    public RDSServiceImpl(AcsClientStub acsClientStub, DtoValidator dtoValidator, PasswordManager passwordManager, RDSResourceSeeker rdsResourceSeeker, ResourceStatusWatcher resourceStatusWatcher, PluginBatchExecutor pluginBatchExecutor, PluginJournal pluginJournal, StepExecutor stepExecutor, AvailableResourceCache availableResourceCache) {
         this.acsClientStub = acsClientStub;
         this.dtoValidator = dtoValidator;
         this.passwordManager = passwordManager;
         this.rdsResourceSeeker = rdsResourceSeeker;
+        this.resourceStatusWatcher = resourceStatusWatcher;
+        this.pluginBatchExecutor = pluginBatchExecutor;
+        this.pluginJournal = pluginJournal;
+        this.stepExecutor = stepExecutor;
+        this.availableResourceCache = availableResourceCache;
     }
 
     @Override
     public List<CoreCreateDBInstanceResponseDto> createDB(List<CoreCreateDBInstanceRequestDto> requestDtoList) {
-        List<CoreCreateDBInstanceResponseDto> resultList = new ArrayList<>();
-        for (CoreCreateDBInstanceRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.execute(requestDtoList, requestDto -> {
 
             CoreCreateDBInstanceResponseDto result = new CoreCreateDBInstanceResponseDto();
 
@@ -91,7 +122,7 @@ public class RDSServiceImpl implements RDSService {
                             final DescribeDBInstancesResponse.DBInstance dbInstance = retrieveDBInstance.getItems().get(0);
                             result = result.fromSdkCrossLineage(dbInstance);
                             result.setRequestId(retrieveDBInstance.getRequestId());
-                            continue;
+                            return result;
                         }
                     } catch (AliCloudException ex) {
                         if (!TOLERABLE_DB_NOT_FOUND_CODE.equalsIgnoreCase(ex.getErrCode())) {
@@ -101,57 +132,57 @@ public class RDSServiceImpl implements RDSService {
 
                 }
 
-                // get Parameter group from current account
-                final String parameterGroupId = fetchParameterGroupId(client, regionId, requestDto.getEngine(), requestDto.getEngineVersion());
-                requestDto.setdBParamGroupId(parameterGroupId);
-
-                logger.info("Creating DB instance: {}", requestDto.toString());
-
-                // find available resource according to AliCloud's stock and return the result that match the wecube's dBInstanceSpec
-                SpecInfo foundSpecInfo = new SpecInfo();
-                if (!StringUtils.isEmpty(requestDto.getdBInstanceSpec()) && StringUtils.isEmpty(requestDto.getDBInstanceClass())) {
-                    foundSpecInfo = rdsResourceSeeker.findAvailableResource(client,
-                            requestDto.getEngine(),
-                            requestDto.getdBInstanceSpec(),
-                            regionId,
-                            requestDto.getZoneId(),
-                            requestDto.getEngineVersion(),
-                            requestDto.getPayType(),
-                            requestDto.getDBInstanceStorageType(),
-                            requestDto.getCategory());
-                    requestDto.setDBInstanceClass(foundSpecInfo.getResourceClass());
-                }
-
-                final CreateDBInstanceRequest createDBInstanceRequest = requestDto.toSdk();
-                CreateDBInstanceResponse response;
-                response = this.acsClientStub.request(client, createDBInstanceRequest, regionId);
-
-                // set up Plugin Timer to check if the resource is not creating any more
-                final String createdDBInstanceId = response.getDBInstanceId();
-                Function<?, Boolean> func = o -> !ifDBInstanceInStatus(client, regionId, createdDBInstanceId, RDSStatus.CREATING);
-                PluginTimer.runTask(new PluginTimerTask(func));
+                // resume from the journaled steps when the plugin restarted in the middle of this item
+                final JournalProgress progress = pluginJournal.progressOf(CREATE_DB_OPERATION, requestDto);
 
-
-                // generate and encrypt password
-                if (StringUtils.isEmpty(requestDto.getAccountPassword())) {
+                // generate and encrypt password, reuse the journaled one so that it matches the created account
+                if (progress.has(STEP_ENCRYPTED_PASSWORD)) {
+                    requestDto.setAccountPassword(passwordManager.decryptPassword(requestDto.getGuid(), requestDto.getSeed(), progress.get(STEP_ENCRYPTED_PASSWORD)));
+                } else if (StringUtils.isEmpty(requestDto.getAccountPassword())) {
                     requestDto.setAccountPassword(passwordManager.generateRDSPassword());
                 }
                 final String encryptedPassword = passwordManager.encryptPassword(requestDto.getGuid(), requestDto.getSeed(), requestDto.getAccountPassword());
 
-                // create an RDS account with just created DB instance bound onto
-                createRDSAccount(requestDto, regionId, client, createdDBInstanceId);
-
-                // bind security group to the created RDS instance
-                if (StringUtils.isNotEmpty(requestDto.getSecurityGroupId())) {
-                    bindSecurityGroupToInstance(client, regionId, requestDto.getSecurityGroupId(), response.getDBInstanceId());
-                }
-
-                // get instance's private ip address
-                final String dbInstancePrivateIpAddr = getDBInstancePrivateIpAddr(client, regionId, response.getDBInstanceId());
+                // the parameter group and the spec lookup don't depend on each other, neither does the private ip on
+                // the account once the instance is created; the account and the security group both modify the
+                // instance, so they run one after another
+                final StepResults stepResults = stepExecutor.run(StepGraph.of(CREATE_DB_OPERATION)
+                        .supplyStep("parameterGroup", r -> fetchParameterGroupId(client, regionId, requestDto.getEngine(), requestDto.getEngineVersion()))
+                        .supplyStep("spec", r -> seekDBInstanceSpec(client, regionId, requestDto))
+                        .supplyStep("create", r -> {
+                            requestDto.setdBParamGroupId(r.get("parameterGroup"));
+                            final SpecInfo foundSpecInfo = r.get("spec");
+                            if (null != foundSpecInfo.getResourceClass()) {
+                                requestDto.setDBInstanceClass(foundSpecInfo.getResourceClass());
+                            }
+                            return createDBInstance(client, regionId, requestDto, progress);
+                        }, "parameterGroup", "spec")
+                        // set up Plugin Timer to check if the resource is not creating any more
+                        .runStep("await", r -> resourceStatusWatcher.awaitStatus(client, regionId, WatchedResourceType.RDS_INSTANCE, r.<CreateDBInstanceResponse>get("create").getDBInstanceId(), status -> !StringUtils.equals(RDSStatus.CREATING.getStatus(), status), this::fetchDBInstanceStatuses), "create")
+                        // create an RDS account with just created DB instance bound onto
+                        .runStep("account", r -> {
+                            if (!progress.has(STEP_ENCRYPTED_PASSWORD)) {
+                                progress.record(STEP_ENCRYPTED_PASSWORD, encryptedPassword);
+                            }
+                            if (!progress.has(STEP_ACCOUNT)) {
+                                createRDSAccount(requestDto, regionId, client, r.<CreateDBInstanceResponse>get("create").getDBInstanceId());
+                                progress.record(STEP_ACCOUNT, requestDto.getAccountName());
+                            }
+                        }, "await")
+                        // bind security group to the created RDS instance
+                        .runStep("securityGroup", r -> {
+                            if (StringUtils.isNotEmpty(requestDto.getSecurityGroupId()) && !progress.has(STEP_SECURITY_GROUP)) {
+                                bindSecurityGroupToInstance(client, regionId, requestDto.getSecurityGroupId(), r.<CreateDBInstanceResponse>get("create").getDBInstanceId());
+                                progress.record(STEP_SECURITY_GROUP, requestDto.getSecurityGroupId());
+                            }
+                        }, "account")
+                        // get instance's private ip address
+                        .supplyStep("privateIp", r -> getDBInstancePrivateIpAddr(client, regionId, r.<CreateDBInstanceResponse>get("create").getDBInstanceId()), "await"));
 
                 // return result
-                result = result.fromSdk(response, requestDto.getAccountName(), encryptedPassword, foundSpecInfo);
-                result.setPrivateIpAddress(dbInstancePrivateIpAddr);
+                result = result.fromSdk(stepResults.get("create"), requestDto.getAccountName(), encryptedPassword, stepResults.get("spec"));
+                result.setPrivateIpAddress(stepResults.get("privateIp"));
+                progress.complete();
 
 
             } catch (PluginException | AliCloudException ex) {
@@ -164,10 +195,47 @@ public class RDSServiceImpl implements RDSService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
+            return result;
+        });
+    }
+
+    private SpecInfo seekDBInstanceSpec(IAcsClient client, String regionId, CoreCreateDBInstanceRequestDto requestDto) throws PluginException, AliCloudException {
+        if (StringUtils.isEmpty(requestDto.getdBInstanceSpec()) || StringUtils.isNotEmpty(requestDto.getDBInstanceClass())) {
+            return new SpecInfo();
         }
-        return resultList;
+        // find available resource according to AliCloud's stock and return the result that match the wecube's dBInstanceSpec
+        return rdsResourceSeeker.findAvailableResource(client,
+                requestDto.getEngine(),
+                requestDto.getdBInstanceSpec(),
+                regionId,
+                requestDto.getZoneId(),
+                requestDto.getEngineVersion(),
+                requestDto.getPayType(),
+                requestDto.getDBInstanceStorageType(),
+                requestDto.getCategory());
+    }
+
+    private CreateDBInstanceResponse createDBInstance(IAcsClient client, String regionId, CoreCreateDBInstanceRequestDto requestDto, JournalProgress progress) throws PluginException, AliCloudException {
+        CreateDBInstanceResponse response;
+        if (progress.has(STEP_DB_INSTANCE_ID)) {
+            logger.info("Resuming DB instance: [{}] from the journal.", progress.get(STEP_DB_INSTANCE_ID));
+            response = new CreateDBInstanceResponse();
+            response.setDBInstanceId(progress.get(STEP_DB_INSTANCE_ID));
+            response.setOrderId(progress.get(STEP_ORDER_ID));
+            response.setConnectionString(progress.get(STEP_CONNECTION_STRING));
+            response.setPort(progress.get(STEP_PORT));
+            return response;
+        }
+
+        logger.info("Creating DB instance: {}", requestDto.toString());
+        final CreateDBInstanceRequest createDBInstanceRequest = requestDto.toSdk();
+        response = availableResourceCache.create(client, regionId, requestDto.getZoneId(), () -> this.acsClientStub.request(client, createDBInstanceRequest, regionId));
+        progress.record(STEP_DB_INSTANCE_ID, response.getDBInstanceId());
+        progress.record(STEP_ORDER_ID, response.getOrderId());
+        progress.record(STEP_CONNECTION_STRING, response.getConnectionString());
+        progress.record(STEP_PORT, response.getPort());
+        return response;
     }
 
     private void createRDSAccount(CoreCreateDBInstanceRequestDto requestDto, String regionId, IAcsClient client, String createdDBInstanceId) throws PluginException, AliCloudException {
@@ -187,8 +255,7 @@ public class RDSServiceImpl implements RDSService {
 
     @Override
     public List<CoreDeleteDBInstanceResponseDto> deleteDB(List<CoreDeleteDBInstanceRequestDto> requestDtoList) {
-        List<CoreDeleteDBInstanceResponseDto> resultList = new ArrayList<>();
-        for (CoreDeleteDBInstanceRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.execute(requestDtoList, requestDto -> {
 
             CoreDeleteDBInstanceResponseDto result = new CoreDeleteDBInstanceResponseDto();
 
@@ -207,7 +274,7 @@ public class RDSServiceImpl implements RDSService {
                 if (0 == describeDBInstancesResponse.getTotalRecordCount()) {
                     logger.info("The given db instance has already been released...");
                     result.setRequestId(describeDBInstancesResponse.getRequestId());
-                    continue;
+                    return result;
                 }
 
                 logger.info("Deleting DB instance: {}", requestDto.toString());
@@ -233,16 +300,14 @@ public class RDSServiceImpl implements RDSService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreModifySecurityIPsResponseDto> modifySecurityIPs(List<CoreModifySecurityIPsRequestDto> requestDtoList) {
-        List<CoreModifySecurityIPsResponseDto> resultList = new ArrayList<>();
-        for (CoreModifySecurityIPsRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.executePerResource(requestDtoList, CoreModifySecurityIPsRequestDto::getdBInstanceId, requestDto -> {
 
             CoreModifySecurityIPsResponseDto result = new CoreModifySecurityIPsResponseDto();
             try {
@@ -270,115 +335,96 @@ public class RDSServiceImpl implements RDSService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreModifySecurityIPsResponseDto> appendSecurityIps(List<CoreModifySecurityIPsRequestDto> requestDtoList) {
+        return modifyWhitelists(requestDtoList, SecurityIpWhitelist::append);
+    }
 
-        List<CoreModifySecurityIPsResponseDto> resultList = new ArrayList<>();
-        for (CoreModifySecurityIPsRequestDto requestDto : requestDtoList) {
-
-            CoreModifySecurityIPsResponseDto result = new CoreModifySecurityIPsResponseDto();
-            try {
-
-                dtoValidator.validate(requestDto);
-
-                final IdentityParamDto identityParamDto = IdentityParamDto.convertFromString(requestDto.getIdentityParams());
-                final CloudParamDto cloudParamDto = CloudParamDto.convertFromString(requestDto.getCloudParams());
-                final IAcsClient client = this.acsClientStub.generateAcsClient(identityParamDto, cloudParamDto);
-                final String regionId = cloudParamDto.getRegionId();
-
-                final DescribeDBInstanceIPArrayListResponse.DBInstanceIPArray foundDBInstance = queryDBInstance(requestDto.getdBInstanceId(), client, regionId);
+    @Override
+    public List<CoreModifySecurityIPsResponseDto> deleteSecurityIps(List<CoreModifySecurityIPsRequestDto> requestDtoList) {
+        return modifyWhitelists(requestDtoList, SecurityIpWhitelist::delete);
+    }
 
-                // remove the exist element in new ip list
-                final List<String> currentIpList = Arrays.asList(foundDBInstance.getSecurityIPList().split(","));
-                final List<String> newIpList = PluginStringUtils.splitStringList(requestDto.getSecurityIps()).stream().distinct().collect(Collectors.toList());
-                newIpList.removeAll(currentIpList);
-                requestDto.setSecurityIps(PluginStringUtils.stringifyObjectList(newIpList));
-                requestDto.setModifyMode("Append");
+    private List<CoreModifySecurityIPsResponseDto> modifyWhitelists(List<CoreModifySecurityIPsRequestDto> requestDtoList, BiFunction<SecurityIpWhitelist, List<String>, SecurityIpWhitelist.Modification> planner) {
+        // validate and create the client for each item
+        final List<SecurityIpItem> items = pluginBatchExecutor.execute(requestDtoList, this::prepareSecurityIpItem);
 
-                final ModifySecurityIpsResponse response = modifySecurityIps(requestDto, client, regionId);
+        // the items of the same whitelist are applied together by one ModifySecurityIps call
+        final Map<String, List<SecurityIpItem>> whitelistGroups = items.stream()
+                .filter(SecurityIpItem::isPending)
+                .collect(Collectors.groupingBy(SecurityIpItem::getWhitelistKey, LinkedHashMap::new, Collectors.toList()));
 
-                result = result.fromSdk(response);
+        pluginBatchExecutor.execute(new ArrayList<>(whitelistGroups.values()), group -> PluginBatchExecutor.accountOf(group.get(0).getRequestDto()), group -> {
+            modifyWhitelist(group, planner);
+            return group;
+        });
 
-            } catch (PluginException | AliCloudException ex) {
-                result.setErrorCode(CoreResponseDto.STATUS_ERROR);
-                result.setErrorMessage(ex.getMessage());
-            } catch (Exception ex) {
-                result.setErrorCode(CoreResponseDto.STATUS_ERROR);
-                result.setUnhandledErrorMessage(ex.getMessage());
-            } finally {
-                result.setGuid(requestDto.getGuid());
-                result.setCallbackParameter(requestDto.getCallbackParameter());
-                logger.info("Result: {}", result.toString());
-                resultList.add(result);
-            }
-        }
-        return resultList;
+        return items.stream().map(SecurityIpItem::complete).collect(Collectors.toList());
     }
 
-    @Override
-    public List<CoreModifySecurityIPsResponseDto> deleteSecurityIps(List<CoreModifySecurityIPsRequestDto> requestDtoList) {
-        List<CoreModifySecurityIPsResponseDto> resultList = new ArrayList<>();
-        for (CoreModifySecurityIPsRequestDto requestDto : requestDtoList) {
+    private SecurityIpItem prepareSecurityIpItem(CoreModifySecurityIPsRequestDto requestDto) {
+        SecurityIpItem item = new SecurityIpItem(requestDto);
+        try {
 
-            CoreModifySecurityIPsResponseDto result = new CoreModifySecurityIPsResponseDto();
-            try {
+            dtoValidator.validate(requestDto);
 
-                dtoValidator.validate(requestDto);
+            final IdentityParamDto identityParamDto = IdentityParamDto.convertFromString(requestDto.getIdentityParams());
+            final CloudParamDto cloudParamDto = CloudParamDto.convertFromString(requestDto.getCloudParams());
+            final IAcsClient client = this.acsClientStub.generateAcsClient(identityParamDto, cloudParamDto);
+            final String regionId = cloudParamDto.getRegionId();
 
-                final IdentityParamDto identityParamDto = IdentityParamDto.convertFromString(requestDto.getIdentityParams());
-                final CloudParamDto cloudParamDto = CloudParamDto.convertFromString(requestDto.getCloudParams());
-                final IAcsClient client = this.acsClientStub.generateAcsClient(identityParamDto, cloudParamDto);
-                final String regionId = cloudParamDto.getRegionId();
+            final String whitelistKey = String.join("|", PluginBatchExecutor.accountOf(requestDto), regionId, requestDto.getdBInstanceId(),
+                    StringUtils.defaultString(requestDto.getdBInstanceIPArrayName()),
+                    StringUtils.defaultString(requestDto.getdBInstanceIPArrayAttribute()),
+                    StringUtils.defaultString(requestDto.getWhitelistNetworkType()),
+                    StringUtils.defaultString(requestDto.getSecurityIPType()));
 
-                final DescribeDBInstanceIPArrayListResponse.DBInstanceIPArray foundDBInstance = queryDBInstance(requestDto.getdBInstanceId(), client, regionId);
-
-                // retain the common eleement in two lists
-                final List<String> currentIpList = Arrays.asList(foundDBInstance.getSecurityIPList().split(","));
-                List<String> newIpList = PluginStringUtils.splitStringList(requestDto.getSecurityIps()).stream().distinct().collect(Collectors.toList());
-                // newIpList now is the intersection of both current ip list and request ip list
-                newIpList = currentIpList.stream().filter(newIpList::contains).collect(Collectors.toList());
-
-                if (newIpList.size() == currentIpList.size()) {
-                    // AliCloud doesn't allow delete all securityIps
-                    // set a default security ip as AliCloud officially do
-                    requestDto.setSecurityIps("127.0.0.1");
-                    requestDto.setModifyMode("Cover");
-                } else {
-                    requestDto.setSecurityIps(PluginStringUtils.stringifyObjectList(newIpList));
-                    requestDto.setModifyMode("Delete");
-                }
+            item.readyToModify(client, regionId, PluginStringUtils.splitStringList(requestDto.getSecurityIps()), whitelistKey);
 
+        } catch (PluginException | AliCloudException ex) {
+            item.fail(ex);
+        } catch (Exception ex) {
+            item.failUnhandled(ex);
+        }
+        return item;
+    }
 
-                final ModifySecurityIpsResponse response = modifySecurityIps(requestDto, client, regionId);
+    private void modifyWhitelist(List<SecurityIpItem> group, BiFunction<SecurityIpWhitelist, List<String>, SecurityIpWhitelist.Modification> planner) {
+        final SecurityIpItem firstItem = group.get(0);
+        final CoreModifySecurityIPsRequestDto requestDto = firstItem.getRequestDto();
+        try {
+            final DescribeDBInstanceIPArrayListResponse.DBInstanceIPArray foundIPArray = queryDBInstance(requestDto.getdBInstanceId(), requestDto.getdBInstanceIPArrayName(), firstItem.getClient(), firstItem.getRegionId());
+            final SecurityIpWhitelist whitelist = SecurityIpWhitelist.of(null == foundIPArray ? Collections.emptyList() : PluginStringUtils.splitStringList(StringUtils.defaultString(foundIPArray.getSecurityIPList())));
+
+            final List<String> securityIps = group.stream().flatMap(item -> item.getSecurityIps().stream()).collect(Collectors.toList());
+            final SecurityIpWhitelist.Modification modification = planner.apply(whitelist, securityIps);
+            logger.info("Modifying the security ips of rds instance: [{}] for [{}] request(s), current size: [{}], modification: {}",
+                    requestDto.getdBInstanceId(), group.size(), whitelist.size(), modification);
+            if (modification.isNone()) {
+                group.forEach(SecurityIpItem::modified);
+                return;
+            }
 
-                result = result.fromSdk(response);
+            requestDto.setSecurityIps(PluginStringUtils.stringifyObjectList(modification.getSecurityIps()));
+            requestDto.setModifyMode(modification.getModifyMode());
+            final ModifySecurityIpsResponse response = modifySecurityIps(requestDto, firstItem.getClient(), firstItem.getRegionId());
 
-            } catch (PluginException | AliCloudException ex) {
-                result.setErrorCode(CoreResponseDto.STATUS_ERROR);
-                result.setErrorMessage(ex.getMessage());
-            } catch (Exception ex) {
-                result.setErrorCode(CoreResponseDto.STATUS_ERROR);
-                result.setUnhandledErrorMessage(ex.getMessage());
-            } finally {
-                result.setGuid(requestDto.getGuid());
-                result.setCallbackParameter(requestDto.getCallbackParameter());
-                logger.info("Result: {}", result.toString());
-                resultList.add(result);
-            }
+            group.forEach(item -> item.modified(response));
+        } catch (PluginException | AliCloudException ex) {
+            group.forEach(item -> item.fail(ex));
+        } catch (Exception ex) {
+            group.forEach(item -> item.failUnhandled(ex));
         }
-        return resultList;
     }
 
     @Override
     public List<CoreModifyDBSecurityGroupResponseDto> appendSecurityGroup(List<CoreModifyDBSecurityGroupRequestDto> requestDtoList) {
-        List<CoreModifyDBSecurityGroupResponseDto> resultList = new ArrayList<>();
-        for (CoreModifyDBSecurityGroupRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.executePerResource(requestDtoList, CoreModifyDBSecurityGroupRequestDto::getdBInstanceId, requestDto -> {
 
             CoreModifyDBSecurityGroupResponseDto result = new CoreModifyDBSecurityGroupResponseDto();
             try {
@@ -412,16 +458,14 @@ public class RDSServiceImpl implements RDSService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreModifyDBSecurityGroupResponseDto> removeSecurityGroup(List<CoreModifyDBSecurityGroupRequestDto> requestDtoList) {
-        List<CoreModifyDBSecurityGroupResponseDto> resultList = new ArrayList<>();
-        for (CoreModifyDBSecurityGroupRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.executePerResource(requestDtoList, CoreModifyDBSecurityGroupRequestDto::getdBInstanceId, requestDto -> {
 
             CoreModifyDBSecurityGroupResponseDto result = new CoreModifyDBSecurityGroupResponseDto();
             try {
@@ -454,16 +498,14 @@ public class RDSServiceImpl implements RDSService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreCreateBackupResponseDto> createBackup(List<CoreCreateBackupRequestDto> requestDtoList) {
-        List<CoreCreateBackupResponseDto> resultList = new ArrayList<>();
-        for (CoreCreateBackupRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.execute(requestDtoList, requestDto -> {
 
             CoreCreateBackupResponseDto result = new CoreCreateBackupResponseDto();
 
@@ -485,7 +527,7 @@ public class RDSServiceImpl implements RDSService {
                         final DescribeBackupsResponse.Backup foundBackup = describeBackupsResponse.getItems().get(0);
                         result = result.fromSdkCrossLineage(foundBackup);
                         result.setRequestId(describeBackupsResponse.getRequestId());
-                        continue;
+                        return result;
                     }
 
                 }
@@ -524,16 +566,14 @@ public class RDSServiceImpl implements RDSService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreDeleteBackupResponseDto> deleteBackup(List<CoreDeleteBackupRequestDto> requestDtoList) {
-        List<CoreDeleteBackupResponseDto> resultList = new ArrayList<>();
-        for (CoreDeleteBackupRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.execute(requestDtoList, requestDto -> {
 
             CoreDeleteBackupResponseDto result = new CoreDeleteBackupResponseDto();
             try {
@@ -586,11 +626,10 @@ public class RDSServiceImpl implements RDSService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
 
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
@@ -822,7 +861,10 @@ public class RDSServiceImpl implements RDSService {
 
     }
 
-    private DescribeDBInstanceIPArrayListResponse.DBInstanceIPArray queryDBInstance(String dBInstanceId, IAcsClient client, String regionId) throws PluginException, AliCloudException {
+    /**
+     * @return the IP array of the given name, the first one when no name is given, or null when the named one doesn't exist yet
+     */
+    private DescribeDBInstanceIPArrayListResponse.DBInstanceIPArray queryDBInstance(String dBInstanceId, String dBInstanceIPArrayName, IAcsClient client, String regionId) throws PluginException, AliCloudException {
         DescribeDBInstanceIPArrayListRequest queryRequest = new DescribeDBInstanceIPArrayListRequest();
         queryRequest.setDBInstanceId(dBInstanceId);
         final DescribeDBInstanceIPArrayListResponse queryResponse = acsClientStub.request(client, queryRequest, regionId);
@@ -832,7 +874,13 @@ public class RDSServiceImpl implements RDSService {
             throw new PluginException(String.format("Cannot find dBInstance by given instanceId: [%s]", dBInstanceId));
         }
 
-        return queryResponse.getItems().get(0);
+        if (StringUtils.isEmpty(dBInstanceIPArrayName)) {
+            return queryResponse.getItems().get(0);
+        }
+        return queryResponse.getItems().stream()
+                .filter(ipArray -> StringUtils.equals(dBInstanceIPArrayName, ipArray.getDBInstanceIPArrayName()))
+                .findFirst()
+                .orElse(null);
     }
 
     private boolean ifAccountIsAvailable(IAcsClient client, String regionId, String dBInstanceId, String accountName) throws PluginException, AliCloudException {
@@ -928,4 +976,97 @@ public class RDSServiceImpl implements RDSService {
         // private
         Private
     }
+
+    private Map<String, String> fetchDBInstanceStatuses(IAcsClient client, String regionId, List<String> dbInstanceIds) throws PluginException, AliCloudException {
+        DescribeDBInstancesRequest request = new DescribeDBInstancesRequest();
+        request.setDBInstanceId(PluginStringUtils.stringifyListWithoutBracket(dbInstanceIds));
+        request.setPageSize(WatchedResourceType.RDS_INSTANCE.getMaxBatchSize());
+
+        Map<String, String> result = new HashMap<>();
+        DescribeDBInstancesResponse response;
+        int pageNumber = 1;
+        do {
+            request.setPageNumber(pageNumber++);
+            response = this.acsClientStub.request(client, request, regionId);
+            response.getItems().forEach(dbInstance -> result.put(dbInstance.getDBInstanceId(), dbInstance.getDBInstanceStatus()));
+        } while (!response.getItems().isEmpty() && result.size() < response.getTotalRecordCount());
+        return result;
+    }
+
+    private static final class SecurityIpItem {
+        private final CoreModifySecurityIPsRequestDto requestDto;
+        private CoreModifySecurityIPsResponseDto result = new CoreModifySecurityIPsResponseDto();
+        private boolean pending = false;
+        private IAcsClient client;
+        private String regionId;
+        private List<String> securityIps;
+        private String whitelistKey;
+
+        private SecurityIpItem(CoreModifySecurityIPsRequestDto requestDto) {
+            this.requestDto = requestDto;
+        }
+
+        private void readyToModify(IAcsClient client, String regionId, List<String> securityIps, String whitelistKey) {
+            this.client = client;
+            this.regionId = regionId;
+            this.securityIps = securityIps;
+            this.whitelistKey = whitelistKey;
+            this.pending = true;
+        }
+
+        /**
+         * The whitelist already was as requested
+         */
+        private void modified() {
+            this.pending = false;
+        }
+
+        private void modified(ModifySecurityIpsResponse response) {
+            this.pending = false;
+            this.result = new CoreModifySecurityIPsResponseDto().fromSdk(response);
+        }
+
+        private void fail(RuntimeException ex) {
+            this.pending = false;
+            result.setErrorCode(CoreResponseDto.STATUS_ERROR);
+            result.setErrorMessage(ex.getMessage());
+        }
+
+        private void failUnhandled(Exception ex) {
+            this.pending = false;
+            result.setErrorCode(CoreResponseDto.STATUS_ERROR);
+            result.setUnhandledErrorMessage(ex.getMessage());
+        }
+
+        private CoreModifySecurityIPsResponseDto complete() {
+            result.setGuid(requestDto.getGuid());
+            result.setCallbackParameter(requestDto.getCallbackParameter());
+            logger.info("Result: {}", result.toString());
+            return result;
+        }
+
+        private boolean isPending() {
+            return pending;
+        }
+
+        private CoreModifySecurityIPsRequestDto getRequestDto() {
+            return requestDto;
+        }
+
+        private IAcsClient getClient() {
+            return client;
+        }
+
+        private String getRegionId() {
+            return regionId;
+        }
+
+        private List<String> getSecurityIps() {
+            return securityIps;
+        }
+
+        private String getWhitelistKey() {
+            return whitelistKey;
+        }
+    }
 }
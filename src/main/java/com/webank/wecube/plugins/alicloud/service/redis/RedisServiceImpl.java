@@ -10,9 +10,15 @@ import com.webank.wecube.plugins.alicloud.dto.cloudParam.DBCloudParamDto;
 import com.webank.wecube.plugins.alicloud.dto.redis.*;
 import com.webank.wecube.plugins.alicloud.support.*;
 import com.webank.wecube.plugins.alicloud.support.password.PasswordManager;
+import com.webank.wecube.plugins.alicloud.support.resourceSeeker.AvailableResourceCache;
 import com.webank.wecube.plugins.alicloud.support.resourceSeeker.RedisResourceSeeker;
+import com.webank.wecube.plugins.alicloud.support.step.StepExecutor;
+import com.webank.wecube.plugins.alicloud.support.step.StepGraph;
+import com.webank.wecube.plugins.alicloud.support.step.StepResults;
 import com.webank.wecube.plugins.alicloud.support.timer.PluginTimer;
 import com.webank.wecube.plugins.alicloud.support.timer.PluginTimerTask;
+import com.webank.wecube.plugins.alicloud.support.watcher.ResourceStatusWatcher;
+import com.webank.wecube.plugins.alicloud.support.watcher.WatchedResourceType;
 import com.webank.wecube.plugins.alicloud.utils.PluginStringUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -20,9 +26,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -39,19 +46,26 @@ public class RedisServiceImpl implements RedisService {
     private final DtoValidator dtoValidator;
     private final PasswordManager passwordManager;
     private final RedisResourceSeeker redisResourceSeeker;
+    private final ResourceStatusWatcher resourceStatusWatcher;
+    private final PluginBatchExecutor pluginBatchExecutor;
+    private final StepExecutor stepExecutor;
+    private final AvailableResourceCache availableResourceCache;
 
     @Autowired
-    public RedisServiceImpl(AcsClientStub acsClientStub, DtoValidator dtoValidator, PasswordManager passwordManager, RedisResourceSeeker redisResourceSeeker) {
+    public RedisServiceImpl(AcsClientStub acsClientStub, DtoValidator dtoValidator, PasswordManager passwordManager, RedisResourceSeeker redisResourceSeeker, ResourceStatusWatcher resourceStatusWatcher, PluginBatchExecutor pluginBatchExecutor, StepExecutor stepExecutor, AvailableResourceCache availableResourceCache) {
         this.acsClientStub = acsClientStub;
         this.dtoValidator = dtoValidator;
         this.passwordManager = passwordManager;
         this.redisResourceSeeker = redisResourceSeeker;
+        this.resourceStatusWatcher = resourceStatusWatcher;
+        this.pluginBatchExecutor = pluginBatchExecutor;
+        this.stepExecutor = stepExecutor;
+        this.availableResourceCache = availableResourceCache;
     }
 
     @Override
     public List<CoreCreateInstanceResponseDto> createInstance(List<CoreCreateInstanceRequestDto> coreCreateInstanceRequestDtoList) {
-        List<CoreCreateInstanceResponseDto> resultList = new ArrayList<>();
-        for (CoreCreateInstanceRequestDto requestDto : coreCreateInstanceRequestDtoList) {
+        return pluginBatchExecutor.execute(coreCreateInstanceRequestDtoList, requestDto -> {
             CoreCreateInstanceResponseDto result = new CoreCreateInstanceResponseDto();
 
             try {
@@ -77,7 +91,7 @@ public class RedisServiceImpl implements RedisService {
                         final DescribeInstancesResponse.KVStoreInstance foundRedisInstance = describeInstancesResponse.getInstances().get(0);
                         result = result.fromSdkCrossLineage(foundRedisInstance);
                         result.setRequestId(describeInstancesResponse.getRequestId());
-                        continue;
+                        return result;
                     }
                 }
 
@@ -88,47 +102,53 @@ public class RedisServiceImpl implements RedisService {
                 }
                 String encryptedPassword = passwordManager.encryptPassword(requestDto.getGuid(), requestDto.getSeed(), requestDto.getPassword());
 
-                // create redis instance
-//                logger.info("Creating instance: {}", requestDto.toString());
-//                final String foundAvailableResource = redisResourceSeeker.findAvailableResource(
-//                        client,
-//                        regionId,
-//                        requestDto.getZoneId(),
-//                        requestDto.getChargeType(),
-//                        RedisResourceSeeker.Engine.REDIS.toString(),
-//                        RedisResourceSeeker.EditionType.COMMUNITY.toString(),
-//                        requestDto.getSeriesType(),
-//                        requestDto.getEngineVersion(),
-//                        requestDto.getArchitecture(),
-//                        requestDto.getShardNumber(),
-//                        requestDto.getSupportedNodeType(),
-//                        requestDto.getCapacity());
-//                requestDto.setInstanceClass(foundAvailableResource);
-
-                final CreateInstanceRequest createInstanceRequest = requestDto.toSdk();
-                CreateInstanceResponse response;
-                response = this.acsClientStub.request(client, createInstanceRequest, regionId);
-
-                logger.info("Retrieving created redis until it's available to be used.");
-
-                Function<?, Boolean> func = o -> ifRedisInStatus(client, regionId, response.getInstanceId(), InstanceStatus.NORMAL);
-                PluginTimer.runTask(new PluginTimerTask(func));
-
-
-                // append security ips to the created instance
-                if (StringUtils.isNotEmpty(requestDto.getSecurityIps())) {
-                    appendSecurityIps(client, regionId, requestDto.getSecurityIps(), response.getInstanceId(), requestDto.getModifyMode());
+                // seek available instance class by capacity when instanceClass is not designated
+                if (StringUtils.isEmpty(requestDto.getInstanceClass()) && StringUtils.isNotEmpty(requestDto.getCapacity())) {
+                    // normalize the charge type before querying the available resources
+                    requestDto.adaptToAliCloud();
+                    final String foundAvailableResource = redisResourceSeeker.findAvailableResource(
+                            client,
+                            regionId,
+                            requestDto.getZoneId(),
+                            requestDto.getChargeType(),
+                            RedisResourceSeeker.Engine.REDIS.getEngine(),
+                            RedisResourceSeeker.EditionType.COMMUNITY.getEditionType(),
+                            requestDto.getSeriesType(),
+                            requestDto.getEngineVersion(),
+                            requestDto.getArchitecture(),
+                            requestDto.getShardNumber(),
+                            requestDto.getSupportedNodeType(),
+                            requestDto.getCapacity());
+                    requestDto.setInstanceClass(foundAvailableResource);
                 }
 
-                // bind security group to the created instance
-                if (StringUtils.isNotEmpty(requestDto.getSecurityGroupId())) {
-                    bindSecurityGroup(client, regionId, requestDto.getSecurityGroupId(), response.getInstanceId());
-                }
-
-
-                final DescribeInstancesResponse.KVStoreInstance foundInstance = retrieveRedis(client, regionId, response.getInstanceId());
+                // create redis instance
+                logger.info("Creating instance: {}", requestDto.toString());
+                final CreateInstanceRequest createInstanceRequest = requestDto.toSdk();
 
-                result = result.fromSdk(response, encryptedPassword, foundInstance.getPrivateIp());
+                // the private ip doesn't depend on the security settings once the instance is available; the security
+                // ips and the security group both modify the instance, so they run one after another
+                final StepResults stepResults = stepExecutor.run(StepGraph.of("redis.createInstance")
+                        .supplyStep("create", r -> availableResourceCache.create(client, regionId, requestDto.getZoneId(), () -> this.acsClientStub.request(client, createInstanceRequest, regionId)))
+                        .runStep("await", r -> {
+                            logger.info("Retrieving created redis until it's available to be used.");
+                            resourceStatusWatcher.awaitStatus(client, regionId, WatchedResourceType.REDIS_INSTANCE, r.<CreateInstanceResponse>get("create").getInstanceId(), status -> StringUtils.equals(InstanceStatus.NORMAL.getStatus(), status), this::fetchRedisStatuses);
+                        }, "create")
+                        // append security ips to the created instance
+                        .runStep("securityIps", r -> {
+                            if (StringUtils.isNotEmpty(requestDto.getSecurityIps())) {
+                                appendSecurityIps(client, regionId, requestDto.getSecurityIps(), r.<CreateInstanceResponse>get("create").getInstanceId(), requestDto.getModifyMode());
+                            }
+                        }, "await")
+                        // bind security group to the created instance
+                        .runStep("securityGroup", r -> {
+                            if (StringUtils.isNotEmpty(requestDto.getSecurityGroupId())) {
+                                bindSecurityGroup(client, regionId, requestDto.getSecurityGroupId(), r.<CreateInstanceResponse>get("create").getInstanceId());
+                            }
+                        }, "securityIps")
+                        .supplyStep("privateIp", r -> retrieveRedis(client, regionId, r.<CreateInstanceResponse>get("create").getInstanceId()).getPrivateIp(), "await"));
+
+                result = result.fromSdk(stepResults.<CreateInstanceResponse>get("create"), encryptedPassword, stepResults.get("privateIp"));
 
 
             } catch (PluginException | AliCloudException ex) {
@@ -141,11 +161,10 @@ public class RedisServiceImpl implements RedisService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
 
-        }
-        return resultList;
+            return result;
+        });
     }
 
     private void zoneIdAdaption(IAcsClient client, DBCloudParamDto dbCloudParamDto, CoreCreateInstanceRequestDto requestDto) throws PluginException, AliCloudException {
@@ -197,8 +216,7 @@ public class RedisServiceImpl implements RedisService {
 
     @Override
     public List<CoreDeleteInstanceResponseDto> deleteInstance(List<CoreDeleteInstanceRequestDto> coreDeleteInstanceRequestDtoList) throws PluginException {
-        List<CoreDeleteInstanceResponseDto> resultList = new ArrayList<>();
-        for (CoreDeleteInstanceRequestDto requestDto : coreDeleteInstanceRequestDtoList) {
+        return pluginBatchExecutor.execute(coreDeleteInstanceRequestDtoList, requestDto -> {
             CoreDeleteInstanceResponseDto result = new CoreDeleteInstanceResponseDto();
 
             try {
@@ -252,11 +270,10 @@ public class RedisServiceImpl implements RedisService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
 
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
@@ -272,8 +289,7 @@ public class RedisServiceImpl implements RedisService {
 
     @Override
     public List<CoreModifySecurityGroupResponseDto> appendSecurityGroup(List<CoreModifySecurityGroupRequestDto> requestDtoList) {
-        List<CoreModifySecurityGroupResponseDto> resultList = new ArrayList<>();
-        for (CoreModifySecurityGroupRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.executePerResource(requestDtoList, CoreModifySecurityGroupRequestDto::getdBInstanceId, requestDto -> {
             CoreModifySecurityGroupResponseDto result = new CoreModifySecurityGroupResponseDto();
 
             try {
@@ -308,17 +324,15 @@ public class RedisServiceImpl implements RedisService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
 
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreModifySecurityGroupResponseDto> removeSecurityGroup(List<CoreModifySecurityGroupRequestDto> requestDtoList) {
-        List<CoreModifySecurityGroupResponseDto> resultList = new ArrayList<>();
-        for (CoreModifySecurityGroupRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.executePerResource(requestDtoList, CoreModifySecurityGroupRequestDto::getdBInstanceId, requestDto -> {
             CoreModifySecurityGroupResponseDto result = new CoreModifySecurityGroupResponseDto();
 
             try {
@@ -352,11 +366,10 @@ public class RedisServiceImpl implements RedisService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
 
-        }
-        return resultList;
+            return result;
+        });
     }
 
     private List<String> queryRedisSecurityGroup(String instanceId, IAcsClient client, String regionId) throws AliCloudException {
@@ -423,4 +436,20 @@ public class RedisServiceImpl implements RedisService {
 
         acsClientStub.request(client, request, regionId);
     }
+
+    private Map<String, String> fetchRedisStatuses(IAcsClient client, String regionId, List<String> instanceIds) throws PluginException, AliCloudException {
+        DescribeInstancesRequest request = new DescribeInstancesRequest();
+        request.setInstanceIds(PluginStringUtils.stringifyListWithoutBracket(instanceIds));
+        request.setPageSize(WatchedResourceType.REDIS_INSTANCE.getMaxBatchSize());
+
+        Map<String, String> result = new HashMap<>();
+        DescribeInstancesResponse response;
+        int pageNumber = 1;
+        do {
+            request.setPageNumber(pageNumber++);
+            response = this.acsClientStub.request(client, request, regionId);
+            response.getInstances().forEach(instance -> result.put(instance.getInstanceId(), instance.getInstanceStatus()));
+        } while (!response.getInstances().isEmpty() && result.size() < response.getTotalCount());
+        return result;
+    }
 }
@@ -13,6 +13,7 @@ import com.webank.wecube.plugins.alicloud.dto.vpc.CoreDeleteVpcResponseDto;
 import com.webank.wecube.plugins.alicloud.support.AcsClientStub;
 import com.webank.wecube.plugins.alicloud.support.AliCloudException;
 import com.webank.wecube.plugins.alicloud.support.DtoValidator;
+import com.webank.wecube.plugins.alicloud.support.PluginBatchExecutor;
 import com.webank.wecube.plugins.alicloud.support.timer.PluginTimer;
 import com.webank.wecube.plugins.alicloud.support.timer.PluginTimerTask;
 import org.apache.commons.lang3.StringUtils;
@@ -21,7 +22,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
@@ -37,17 +37,18 @@ public class VpcServiceImpl implements VpcService {
 
     private final AcsClientStub acsClientStub;
     private final DtoValidator dtoValidator;
+    private final PluginBatchExecutor pluginBatchExecutor;
 
     @Autowired
-    public VpcServiceImpl(AcsClientStub acsClientStub, DtoValidator dtoValidator) {
+    public VpcServiceImpl(AcsClientStub acsClientStub, DtoValidator dtoValidator, PluginBatchExecutor pluginBatchExecutor) {
         this.acsClientStub = acsClientStub;
         this.dtoValidator = dtoValidator;
+        this.pluginBatchExecutor = pluginBatchExecutor;
     }
 
     @Override
     public List<CoreCreateVpcResponseDto> createVpc(List<CoreCreateVpcRequestDto> coreCreateVpcRequestDtoList) {
-        List<CoreCreateVpcResponseDto> resultList = new ArrayList<>();
-        for (CoreCreateVpcRequestDto requestDto : coreCreateVpcRequestDtoList) {
+        return pluginBatchExecutor.execute(coreCreateVpcRequestDtoList, requestDto -> {
             CoreCreateVpcResponseDto result = new CoreCreateVpcResponseDto();
             try {
 
@@ -72,7 +73,7 @@ public class VpcServiceImpl implements VpcService {
                         final DescribeVpcsResponse.Vpc foundVpc = retrieveVpcResponse.getVpcs().get(0);
                         result = result.fromSdkCrossLineage(foundVpc);
                         result.setRequestId(retrieveVpcResponse.getRequestId());
-                        continue;
+                        return result;
                     }
                 }
 
@@ -96,10 +97,9 @@ public class VpcServiceImpl implements VpcService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Create VPC result: {}", result.toString());
-                resultList.add(result);
             }
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
@@ -120,8 +120,7 @@ public class VpcServiceImpl implements VpcService {
 
     @Override
     public List<CoreDeleteVpcResponseDto> deleteVpc(List<CoreDeleteVpcRequestDto> coreDeleteVpcRequestDtoList) {
-        List<CoreDeleteVpcResponseDto> resultList = new ArrayList<>();
-        for (CoreDeleteVpcRequestDto requestDto : coreDeleteVpcRequestDtoList) {
+        return pluginBatchExecutor.execute(coreDeleteVpcRequestDtoList, requestDto -> {
             CoreDeleteVpcResponseDto result = new CoreDeleteVpcResponseDto();
             try {
 
@@ -140,7 +139,7 @@ public class VpcServiceImpl implements VpcService {
 
                 // check if VPC already deleted
                 if (0 == foundedVpcInfo.getTotalCount()) {
-                    continue;
+                    return result;
                 }
 
                 // delete VPC
@@ -164,10 +163,9 @@ public class VpcServiceImpl implements VpcService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Delete VPC result: {}", result.toString());
-                resultList.add(result);
             }
-        }
-        return resultList;
+            return result;
+        });
     }
 
     private boolean ifVpcInStatus(IAcsClient client, String regionId, String vpcId, VpcStatus... statusArray) throws PluginException, AliCloudException {
@@ -2,16 +2,23 @@ package com.webank.wecube.plugins.alicloud.service.vpc.eip;
 
 import com.aliyuncs.IAcsClient;
 import com.aliyuncs.vpc.model.v20160428.*;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.dto.CoreRequestInputDto;
 import com.webank.wecube.plugins.alicloud.dto.CoreResponseDto;
 import com.webank.wecube.plugins.alicloud.dto.IdentityParamDto;
 import com.webank.wecube.plugins.alicloud.dto.cloudParam.CloudParamDto;
 import com.webank.wecube.plugins.alicloud.dto.vpc.eip.*;
+import com.webank.wecube.plugins.alicloud.support.AcsAsyncExecutor;
 import com.webank.wecube.plugins.alicloud.support.AcsClientStub;
 import com.webank.wecube.plugins.alicloud.support.AliCloudException;
 import com.webank.wecube.plugins.alicloud.support.DtoValidator;
-import com.webank.wecube.plugins.alicloud.support.timer.PluginTimer;
-import com.webank.wecube.plugins.alicloud.support.timer.PluginTimerTask;
+import com.webank.wecube.plugins.alicloud.support.PluginBatchExecutor;
+import com.webank.wecube.plugins.alicloud.support.watcher.ResourceStatusWatcher;
+import com.webank.wecube.plugins.alicloud.support.watcher.WatchedResourceType;
+import com.webank.wecube.plugins.alicloud.utils.PluginStringUtils;
 import org.apache.commons.lang3.EnumUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -19,9 +26,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.function.Function;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * @author howechen
@@ -30,88 +39,193 @@ import java.util.function.Function;
 public class EipServiceImpl implements EipService {
 
     private static final Logger logger = LoggerFactory.getLogger(EipService.class);
+    private static final int MAX_CACHED_CBP_IDS = 1024;
+    private static final int CBP_ID_EXPIRE_MINUTES = 30;
 
     private final AcsClientStub acsClientStub;
     private final DtoValidator dtoValidator;
+    private final ResourceStatusWatcher resourceStatusWatcher;
+    private final PluginBatchExecutor pluginBatchExecutor;
+    /**
+     * CBP id by (account, region, CBP name), filled when a CBP is found or created
+     */
+    private final Cache<String, String> cbpIds = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_CBP_IDS)
+            .expireAfterWrite(CBP_ID_EXPIRE_MINUTES, TimeUnit.MINUTES)
+            .build();
 
     @Autowired
-    public EipServiceImpl(AcsClientStub acsClientStub, DtoValidator dtoValidator) {
+    public EipServiceImpl(AcsClientStub acsClientStub, DtoValidator dtoValidator, ResourceStatusWatcher resourceStatusWatcher, PluginBatchExecutor pluginBatchExecutor) {
         this.acsClientStub = acsClientStub;
         this.dtoValidator = dtoValidator;
+        this.resourceStatusWatcher = resourceStatusWatcher;
+        this.pluginBatchExecutor = pluginBatchExecutor;
     }
 
     @Override
     public List<CoreAllocateEipResponseDto> allocateEipAddress(List<CoreAllocateEipRequestDto> requestDtoList) {
-        List<CoreAllocateEipResponseDto> resultList = new ArrayList<>();
-        for (CoreAllocateEipRequestDto requestDto : requestDtoList) {
-            CoreAllocateEipResponseDto result = new CoreAllocateEipResponseDto();
-            try {
-                this.dtoValidator.validate(requestDto);
+        // validate, create the client and look up the given allocation id of each item
+        final List<EipAllocationItem> items = pluginBatchExecutor.execute(requestDtoList, this::prepareEipAllocationItem);
+
+        // the items sharing a CBP are allocated and added to it together, each item without CBP name gets a CBP of its own
+        final List<List<EipAllocationItem>> cbpGroups = new ArrayList<>();
+        final Map<String, List<EipAllocationItem>> namedCbpGroups = new HashMap<>();
+        items.stream().filter(EipAllocationItem::isPending).forEach(item -> {
+            if (null == item.getCbpKey()) {
+                cbpGroups.add(Collections.singletonList(item));
+                return;
+            }
+            final List<EipAllocationItem> group = namedCbpGroups.computeIfAbsent(item.getCbpKey(), key -> {
+                final List<EipAllocationItem> newGroup = new ArrayList<>();
+                cbpGroups.add(newGroup);
+                return newGroup;
+            });
+            // the CBP is created from the first item of the group, so the items asking for another one are rejected
+            if (!group.isEmpty() && !cbpSettingsOf(group.get(0).getRequestDto()).equals(cbpSettingsOf(item.getRequestDto()))) {
+                item.fail(new PluginException(String.format("The CBP: [%s] is asked for with different bandwidth, ISP, charge type, resource group or owner settings in the same batch.",
+                        item.getRequestDto().getName())));
+                return;
+            }
+            group.add(item);
+        });
 
-                logger.info("Allocating EIP address: {}", requestDto.toString());
+        pluginBatchExecutor.execute(cbpGroups, group -> PluginBatchExecutor.accountOf(group.get(0).getRequestDto()), group -> {
+            allocateInCBP(group);
+            return group;
+        });
 
-                final IdentityParamDto identityParamDto = IdentityParamDto.convertFromString(requestDto.getIdentityParams());
-                final CloudParamDto cloudParamDto = CloudParamDto.convertFromString(requestDto.getCloudParams());
-                final IAcsClient client = this.acsClientStub.generateAcsClient(identityParamDto, cloudParamDto);
-                final String regionId = cloudParamDto.getRegionId();
+        return items.stream().map(EipAllocationItem::complete).collect(Collectors.toList());
+    }
 
-                if (StringUtils.isNotEmpty(requestDto.getAllocationId())) {
-                    final DescribeEipAddressesResponse describeEipAddressesResponse = retrieveEipByAllocationId(client, regionId, requestDto.getAllocationId(), true);
-                    if (!describeEipAddressesResponse.getEipAddresses().isEmpty()) {
-                        final DescribeEipAddressesResponse.EipAddress eipAddress = describeEipAddressesResponse.getEipAddresses().get(0);
-                        result = result.fromSdkCrossLineage(eipAddress);
-                        result.setRequestId(describeEipAddressesResponse.getRequestId());
-                        continue;
-                    }
-                }
+    private EipAllocationItem prepareEipAllocationItem(CoreAllocateEipRequestDto requestDto) {
+        EipAllocationItem item = new EipAllocationItem(requestDto);
+        try {
+            this.dtoValidator.validate(requestDto);
 
+            logger.info("Allocating EIP address: {}", requestDto.toString());
 
-                AllocateEipAddressRequest allocateEipAddressRequest = requestDto.toSdk();
-                AllocateEipAddressResponse createEipResponse = this.acsClientStub.request(client, allocateEipAddressRequest);
+            final IdentityParamDto identityParamDto = IdentityParamDto.convertFromString(requestDto.getIdentityParams());
+            final CloudParamDto cloudParamDto = CloudParamDto.convertFromString(requestDto.getCloudParams());
+            final IAcsClient client = this.acsClientStub.generateAcsClient(identityParamDto, cloudParamDto);
+            final String regionId = cloudParamDto.getRegionId();
 
-                // if cbpName is empty, create CBP
-                String cbpId = StringUtils.EMPTY;
-                if (!StringUtils.isEmpty(requestDto.getName())) {
-                    DescribeCommonBandwidthPackagesRequest queryCBPRequest = new DescribeCommonBandwidthPackagesRequest();
-                    queryCBPRequest.setName(requestDto.getName());
-                    cbpId = queryCBP(client, queryCBPRequest, regionId);
+            if (StringUtils.isNotEmpty(requestDto.getAllocationId())) {
+                final DescribeEipAddressesResponse describeEipAddressesResponse = retrieveEipByAllocationId(client, regionId, requestDto.getAllocationId(), true);
+                if (!describeEipAddressesResponse.getEipAddresses().isEmpty()) {
+                    item.found(describeEipAddressesResponse);
+                    return item;
                 }
+            }
 
-                if (StringUtils.isEmpty(cbpId)) {
-                    final CreateCommonBandwidthPackageRequest createCommonBandwidthPackageRequest = requestDto.toSdkCrossLineage(CreateCommonBandwidthPackageRequest.class);
-                    createCommonBandwidthPackageRequest.setName(requestDto.getName());
-                    cbpId = createCBP(client, createCommonBandwidthPackageRequest, regionId);
-                }
+            final AllocateEipAddressRequest allocateEipAddressRequest = requestDto.toSdk();
+            final String cbpKey = StringUtils.isEmpty(requestDto.getName()) ? null : cbpKeyOf(requestDto, regionId, requestDto.getName());
+            item.readyToAllocate(client, regionId, allocateEipAddressRequest, cbpKey);
+
+        } catch (PluginException | AliCloudException ex) {
+            item.fail(ex);
+        } catch (Exception ex) {
+            item.failUnhandled(ex);
+        }
+        return item;
+    }
 
-                final String allocationId = createEipResponse.getAllocationId();
-                addEipToCBP(client, cbpId, allocationId);
+    /**
+     * Resolve the CBP of the group, then allocate the EIPs concurrently and add each of them to the CBP as soon as it is allocated
+     */
+    private void allocateInCBP(List<EipAllocationItem> group) {
+        final EipAllocationItem firstItem = group.get(0);
+        final String cbpId;
+        try {
+            cbpId = resolveCBP(firstItem);
+        } catch (PluginException | AliCloudException ex) {
+            group.forEach(item -> item.fail(ex));
+            return;
+        } catch (Exception ex) {
+            group.forEach(item -> item.failUnhandled(ex));
+            return;
+        }
+
+        logger.info("Allocating [{}] EIP address(es) into CBP: [{}]", group.size(), cbpId);
 
-                result = result.fromSdk(createEipResponse);
-                result.setCbpId(cbpId);
-                result.setCbpName(requestDto.getName());
+        final List<CompletableFuture<AllocateEipAddressResponse>> allocations = new ArrayList<>(group.size());
+        for (EipAllocationItem item : group) {
+            allocations.add(acsClientStub.requestAsync(item.getClient(), item.getAllocateEipAddressRequest(), item.getRegionId()));
+        }
 
+        final List<CompletableFuture<AddCommonBandwidthPackageIpResponse>> additions = new ArrayList<>(group.size());
+        for (int i = 0; i < group.size(); i++) {
+            final EipAllocationItem item = group.get(i);
+            try {
+                final AllocateEipAddressResponse response = AcsAsyncExecutor.join(allocations.get(i));
+                item.allocated(response, cbpId);
+                additions.add(acsClientStub.requestAsync(item.getClient(), addEipToCBPRequest(cbpId, response.getAllocationId()), item.getRegionId()));
             } catch (PluginException | AliCloudException ex) {
-                result.setErrorCode(CoreResponseDto.STATUS_ERROR);
-                result.setErrorMessage(ex.getMessage());
-            } catch (Exception ex) {
-                result.setErrorCode(CoreResponseDto.STATUS_ERROR);
-                result.setUnhandledErrorMessage(ex.getMessage());
-            } finally {
-                result.setGuid(requestDto.getGuid());
-                result.setCallbackParameter(requestDto.getCallbackParameter());
-                logger.info("Result: {}", result.toString());
-                resultList.add(result);
+                item.fail(ex);
+                additions.add(null);
+            }
+        }
+
+        boolean addFailed = false;
+        for (int i = 0; i < group.size(); i++) {
+            if (null == additions.get(i)) {
+                continue;
+            }
+            try {
+                AcsAsyncExecutor.join(additions.get(i));
+            } catch (PluginException | AliCloudException ex) {
+                group.get(i).fail(ex);
+                addFailed = true;
             }
+        }
+
+        if (addFailed && null != firstItem.getCbpKey()) {
+            // the cached CBP may have been deleted, look it up again next time
+            cbpIds.invalidate(firstItem.getCbpKey());
+        }
+    }
+
+    /**
+     * @return the CBP of the item's name, created when there is none yet, or a new CBP when the item has no CBP name
+     */
+    private String resolveCBP(EipAllocationItem item) throws PluginException, AliCloudException {
+        final CoreAllocateEipRequestDto requestDto = item.getRequestDto();
+        if (null == item.getCbpKey()) {
+            return createCBP(item.getClient(), requestDto, item.getRegionId());
+        }
 
+        try {
+            // concurrent misses of the same CBP wait for a single lookup, so the CBP is never created twice
+            return cbpIds.get(item.getCbpKey(), () -> {
+                DescribeCommonBandwidthPackagesRequest queryCBPRequest = new DescribeCommonBandwidthPackagesRequest();
+                queryCBPRequest.setName(requestDto.getName());
+                final String foundCBPId = queryCBP(item.getClient(), queryCBPRequest, item.getRegionId());
+                return StringUtils.isEmpty(foundCBPId) ? createCBP(item.getClient(), requestDto, item.getRegionId()) : foundCBPId;
+            });
+        } catch (UncheckedExecutionException ex) {
+            if (ex.getCause() instanceof PluginException || ex.getCause() instanceof AliCloudException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new PluginException(String.format("Cannot resolve CBP: [%s]", requestDto.getName()), ex.getCause());
+        } catch (ExecutionException ex) {
+            throw new PluginException(String.format("Cannot resolve CBP: [%s]", requestDto.getName()), ex.getCause());
         }
-        return resultList;
     }
 
+    /**
+     * @return the settings the CBP is created with, other than its name
+     */
+    private static List<String> cbpSettingsOf(CoreAllocateEipRequestDto requestDto) {
+        return Arrays.asList(requestDto.getBandwidth(), requestDto.getISP(), requestDto.getInternetChargeType(), requestDto.getResourceGroupId(),
+                requestDto.getResourceOwnerId(), requestDto.getResourceOwnerAccount(), requestDto.getOwnerAccount(), requestDto.getOwnerId());
+    }
+
+    private static String cbpKeyOf(CoreRequestInputDto requestDto, String regionId, String cbpName) {
+        return String.join("|", PluginBatchExecutor.accountOf(requestDto), regionId, cbpName);
+    }
 
     @Override
     public List<CoreReleaseEipResponseDto> releaseEipAddress(List<CoreReleaseEipRequestDto> requestDtoList) {
-        List<CoreReleaseEipResponseDto> resultList = new ArrayList<>();
-        for (CoreReleaseEipRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.execute(requestDtoList, requestDto -> {
             CoreReleaseEipResponseDto result = new CoreReleaseEipResponseDto();
             try {
                 this.dtoValidator.validate(requestDto);
@@ -127,21 +241,35 @@ public class EipServiceImpl implements EipService {
                 if (describeEipAddressesResponse.getEipAddresses().isEmpty()) {
                     result.setRequestId(describeEipAddressesResponse.getRequestId());
                     logger.info("The Eip address doesn't exist or has been released already.");
-                    continue;
+                    return result;
                 }
 
                 // remove eip from cbp
                 String foundCBPId;
-                if (!StringUtils.isEmpty(requestDto.getName())) {
-                    DescribeCommonBandwidthPackagesRequest queryCBP = new DescribeCommonBandwidthPackagesRequest();
-                    queryCBP.setName(requestDto.getName());
-                    foundCBPId = queryCBP(client, queryCBP, regionId);
+                final String cbpKey = StringUtils.isEmpty(requestDto.getName()) ? null : cbpKeyOf(requestDto, regionId, requestDto.getName());
+                if (null != cbpKey) {
+                    foundCBPId = cbpIds.getIfPresent(cbpKey);
+                    if (null == foundCBPId) {
+                        DescribeCommonBandwidthPackagesRequest queryCBP = new DescribeCommonBandwidthPackagesRequest();
+                        queryCBP.setName(requestDto.getName());
+                        foundCBPId = queryCBP(client, queryCBP, regionId);
+                        if (!StringUtils.isEmpty(foundCBPId)) {
+                            cbpIds.put(cbpKey, foundCBPId);
+                        }
+                    }
                 } else {
                     foundCBPId = queryCBPByEip(client, regionId, requestDto.getAllocationId());
                 }
 
                 if (!StringUtils.isEmpty(foundCBPId)) {
-                    removeFromCBP(client, requestDto.getAllocationId(), regionId, foundCBPId);
+                    try {
+                        removeFromCBP(client, requestDto.getAllocationId(), regionId, foundCBPId);
+                    } catch (AliCloudException ex) {
+                        if (null != cbpKey) {
+                            cbpIds.invalidate(cbpKey);
+                        }
+                        throw ex;
+                    }
                 }
 
                 // release eip
@@ -159,11 +287,10 @@ public class EipServiceImpl implements EipService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
 
-        }
-        return resultList;
+            return result;
+        });
     }
 
     private String queryCBPByEip(IAcsClient client, String regionId, String allocationId) throws PluginException, AliCloudException {
@@ -215,8 +342,7 @@ public class EipServiceImpl implements EipService {
 
     @Override
     public List<CoreAssociateEipResponseDto> associateEipAddress(List<CoreAssociateEipRequestDto> requestDtoList) {
-        List<CoreAssociateEipResponseDto> resultList = new ArrayList<>();
-        for (CoreAssociateEipRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.execute(requestDtoList, requestDto -> {
             CoreAssociateEipResponseDto result = new CoreAssociateEipResponseDto();
             try {
                 this.dtoValidator.validate(requestDto);
@@ -232,8 +358,7 @@ public class EipServiceImpl implements EipService {
                 AssociateEipAddressResponse response = this.acsClientStub.request(client, request, regionId);
 
                 // wait till the eip is not in associating status
-                Function<?, Boolean> func = o -> ifEipNotInStatus(client, regionId, requestDto.getAllocationId(), EipStatus.Associating);
-                PluginTimer.runTask(new PluginTimerTask(func));
+                resourceStatusWatcher.awaitStatus(client, regionId, WatchedResourceType.EIP, requestDto.getAllocationId(), status -> !StringUtils.equals(EipStatus.Associating.toString(), status), this::fetchEipStatuses);
 
                 result = result.fromSdk(response);
 
@@ -247,17 +372,15 @@ public class EipServiceImpl implements EipService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
 
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreUnAssociateEipResponseDto> unAssociateEipAddress(List<CoreUnAssociateEipRequestDto> requestDtoList) {
-        List<CoreUnAssociateEipResponseDto> resultList = new ArrayList<>();
-        for (CoreUnAssociateEipRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.execute(requestDtoList, requestDto -> {
             CoreUnAssociateEipResponseDto result = new CoreUnAssociateEipResponseDto();
             try {
                 this.dtoValidator.validate(requestDto);
@@ -273,8 +396,7 @@ public class EipServiceImpl implements EipService {
                 UnassociateEipAddressResponse response = this.acsClientStub.request(client, request, regionId);
 
                 // wait till the eip is not in un-associating status
-                Function<?, Boolean> func = o -> ifEipNotInStatus(client, regionId, requestDto.getAllocationId(), EipStatus.Unassociating);
-                PluginTimer.runTask(new PluginTimerTask(func));
+                resourceStatusWatcher.awaitStatus(client, regionId, WatchedResourceType.EIP, requestDto.getAllocationId(), status -> !StringUtils.equals(EipStatus.Unassociating.toString(), status), this::fetchEipStatuses);
 
                 result = result.fromSdk(response);
             } catch (PluginException | AliCloudException ex) {
@@ -287,11 +409,10 @@ public class EipServiceImpl implements EipService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
 
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
@@ -344,8 +465,7 @@ public class EipServiceImpl implements EipService {
             acsClientStub.request(client, request, regionId);
 
             // wait till the eip is not in associating status
-            Function<?, Boolean> func = o -> ifEipNotInStatus(client, regionId, allocationId, EipStatus.Associating);
-            PluginTimer.runTask(new PluginTimerTask(func));
+            resourceStatusWatcher.awaitStatus(client, regionId, WatchedResourceType.EIP, allocationId, status -> !StringUtils.equals(EipStatus.Associating.toString(), status), this::fetchEipStatuses);
         }
 
     }
@@ -374,8 +494,7 @@ public class EipServiceImpl implements EipService {
             acsClientStub.request(client, request, regionId);
 
             // wait till the eip not in un-associating status
-            Function<?, Boolean> func = o -> ifEipNotInStatus(client, regionId, allocationId, EipStatus.Unassociating);
-            PluginTimer.runTask(new PluginTimerTask(func));
+            resourceStatusWatcher.awaitStatus(client, regionId, WatchedResourceType.EIP, allocationId, status -> !StringUtils.equals(EipStatus.Unassociating.toString(), status), this::fetchEipStatuses);
         }
     }
 
@@ -396,12 +515,11 @@ public class EipServiceImpl implements EipService {
         return response;
     }
 
-    private void addEipToCBP(IAcsClient client, String cbpId, String allocationId) throws AliCloudException {
+    private AddCommonBandwidthPackageIpRequest addEipToCBPRequest(String cbpId, String allocationId) {
         AddCommonBandwidthPackageIpRequest request = new AddCommonBandwidthPackageIpRequest();
         request.setBandwidthPackageId(cbpId);
         request.setIpInstanceId(allocationId);
-
-        acsClientStub.request(client, request);
+        return request;
     }
 
     private String queryCBP(IAcsClient client, DescribeCommonBandwidthPackagesRequest queryCBPRequest, String regionId) throws PluginException, AliCloudException {
@@ -414,7 +532,11 @@ public class EipServiceImpl implements EipService {
 
     }
 
-    private String createCBP(IAcsClient client, CreateCommonBandwidthPackageRequest createCommonBandwidthPackageRequest, String regionId) throws AliCloudException {
+    private String createCBP(IAcsClient client, CoreAllocateEipRequestDto requestDto, String regionId) throws PluginException, AliCloudException {
+        final CreateCommonBandwidthPackageRequest createCommonBandwidthPackageRequest = requestDto.toSdkCrossLineage(CreateCommonBandwidthPackageRequest.class);
+        createCommonBandwidthPackageRequest.setName(requestDto.getName());
+
+        logger.info("Creating CBP: [{}]", requestDto.getName());
 
         final CreateCommonBandwidthPackageResponse response = acsClientStub.request(client, createCommonBandwidthPackageRequest, regionId);
         return response.getBandwidthPackageId();
@@ -443,11 +565,100 @@ public class EipServiceImpl implements EipService {
         return StringUtils.equals(status.toString(), response.getEipAddresses().get(0).getStatus());
     }
 
-    private boolean ifEipNotInStatus(IAcsClient client, String regionId, String allocationId, EipStatus status) throws AliCloudException {
-        final DescribeEipAddressesResponse response = retrieveEipByAllocationId(client, regionId, allocationId, false);
+    private Map<String, String> fetchEipStatuses(IAcsClient client, String regionId, List<String> allocationIds) throws PluginException, AliCloudException {
+        DescribeEipAddressesRequest request = new DescribeEipAddressesRequest();
+        request.setAllocationId(PluginStringUtils.stringifyListWithoutBracket(allocationIds));
+        request.setPageSize(WatchedResourceType.EIP.getMaxBatchSize());
 
-        return !StringUtils.equals(status.toString(), response.getEipAddresses().get(0).getStatus());
+        Map<String, String> result = new HashMap<>();
+        DescribeEipAddressesResponse response;
+        int pageNumber = 1;
+        do {
+            request.setPageNumber(pageNumber++);
+            response = acsClientStub.request(client, request, regionId);
+            response.getEipAddresses().forEach(eipAddress -> result.put(eipAddress.getAllocationId(), eipAddress.getStatus()));
+        } while (!response.getEipAddresses().isEmpty() && result.size() < response.getTotalCount());
+        return result;
     }
 
+    private static final class EipAllocationItem {
+        private final CoreAllocateEipRequestDto requestDto;
+        private CoreAllocateEipResponseDto result = new CoreAllocateEipResponseDto();
+        private boolean pending = false;
+        private IAcsClient client;
+        private String regionId;
+        private AllocateEipAddressRequest allocateEipAddressRequest;
+        private String cbpKey;
+
+        private EipAllocationItem(CoreAllocateEipRequestDto requestDto) {
+            this.requestDto = requestDto;
+        }
+
+        private void readyToAllocate(IAcsClient client, String regionId, AllocateEipAddressRequest allocateEipAddressRequest, String cbpKey) {
+            this.client = client;
+            this.regionId = regionId;
+            this.allocateEipAddressRequest = allocateEipAddressRequest;
+            this.cbpKey = cbpKey;
+            this.pending = true;
+        }
+
+        /**
+         * The EIP of the given allocation id already exists
+         */
+        private void found(DescribeEipAddressesResponse response) {
+            this.pending = false;
+            this.result = new CoreAllocateEipResponseDto().fromSdkCrossLineage(response.getEipAddresses().get(0));
+            this.result.setRequestId(response.getRequestId());
+        }
 
+        private void allocated(AllocateEipAddressResponse response, String cbpId) {
+            this.pending = false;
+            this.result = new CoreAllocateEipResponseDto().fromSdk(response);
+            this.result.setCbpId(cbpId);
+            this.result.setCbpName(requestDto.getName());
+        }
+
+        private void fail(RuntimeException ex) {
+            this.pending = false;
+            result.setErrorCode(CoreResponseDto.STATUS_ERROR);
+            result.setErrorMessage(ex.getMessage());
+        }
+
+        private void failUnhandled(Exception ex) {
+            this.pending = false;
+            result.setErrorCode(CoreResponseDto.STATUS_ERROR);
+            result.setUnhandledErrorMessage(ex.getMessage());
+        }
+
+        private CoreAllocateEipResponseDto complete() {
+            result.setGuid(requestDto.getGuid());
+            result.setCallbackParameter(requestDto.getCallbackParameter());
+            logger.info("Result: {}", result.toString());
+            return result;
+        }
+
+        private boolean isPending() {
+            return pending;
+        }
+
+        private CoreAllocateEipRequestDto getRequestDto() {
+            return requestDto;
+        }
+
+        private IAcsClient getClient() {
+            return client;
+        }
+
+        private String getRegionId() {
+            return regionId;
+        }
+
+        private AllocateEipAddressRequest getAllocateEipAddressRequest() {
+            return allocateEipAddressRequest;
+        }
+
+        private String getCbpKey() {
+            return cbpKey;
+        }
+    }
 }
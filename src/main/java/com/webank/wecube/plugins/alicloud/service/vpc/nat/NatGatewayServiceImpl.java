@@ -13,6 +13,7 @@ import com.webank.wecube.plugins.alicloud.service.vpc.eip.EipService;
 import com.webank.wecube.plugins.alicloud.support.AcsClientStub;
 import com.webank.wecube.plugins.alicloud.support.AliCloudException;
 import com.webank.wecube.plugins.alicloud.support.DtoValidator;
+import com.webank.wecube.plugins.alicloud.support.PluginBatchExecutor;
 import com.webank.wecube.plugins.alicloud.support.timer.PluginTimer;
 import com.webank.wecube.plugins.alicloud.support.timer.PluginTimerTask;
 import com.webank.wecube.plugins.alicloud.utils.PluginStringUtils;
@@ -38,18 +39,19 @@ public class NatGatewayServiceImpl implements NatGatewayService {
     private final AcsClientStub acsClientStub;
     private final DtoValidator dtoValidator;
     private final EipService eipService;
+    private final PluginBatchExecutor pluginBatchExecutor;
 
     @Autowired
-    public NatGatewayServiceImpl(AcsClientStub acsClientStub, DtoValidator dtoValidator, EipService eipService) {
+    public NatGatewayServiceImpl(AcsClientStub acsClientStub, DtoValidator dtoValidator, EipService eipService, PluginBatchExecutor pluginBatchExecutor) {
         this.acsClientStub = acsClientStub;
         this.dtoValidator = dtoValidator;
         this.eipService = eipService;
+        this.pluginBatchExecutor = pluginBatchExecutor;
     }
 
     @Override
     public List<CoreCreateNatGatewayResponseDto> createNatGateway(List<CoreCreateNatGatewayRequestDto> requestDtoList) {
-        List<CoreCreateNatGatewayResponseDto> resultList = new ArrayList<>();
-        for (CoreCreateNatGatewayRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.execute(requestDtoList, requestDto -> {
             CoreCreateNatGatewayResponseDto result = new CoreCreateNatGatewayResponseDto();
             try {
 
@@ -70,7 +72,7 @@ public class NatGatewayServiceImpl implements NatGatewayService {
                     if (!describeNatGatewaysResponse.getNatGateways().isEmpty()) {
                         result = result.fromSdkCrossLineage(describeNatGatewaysResponse.getNatGateways().get(0));
                         result.setRequestId(describeNatGatewaysResponse.getRequestId());
-                        continue;
+                        return result;
                     }
                 }
 
@@ -90,17 +92,15 @@ public class NatGatewayServiceImpl implements NatGatewayService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
 
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreDeleteNatGatewayResponseDto> deleteNatGateway(List<CoreDeleteNatGatewayRequestDto> requestDtoList) {
-        List<CoreDeleteNatGatewayResponseDto> resultList = new ArrayList<>();
-        for (CoreDeleteNatGatewayRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.execute(requestDtoList, requestDto -> {
             CoreDeleteNatGatewayResponseDto result = new CoreDeleteNatGatewayResponseDto();
             try {
 
@@ -151,17 +151,15 @@ public class NatGatewayServiceImpl implements NatGatewayService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
 
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreCreateSnatEntryResponseDto> createSnatEntry(List<CoreCreateSnatEntryRequestDto> requestDtoList) {
-        List<CoreCreateSnatEntryResponseDto> resultList = new ArrayList<>();
-        for (CoreCreateSnatEntryRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.execute(requestDtoList, requestDto -> {
             CoreCreateSnatEntryResponseDto result = new CoreCreateSnatEntryResponseDto();
             try {
 
@@ -201,17 +199,15 @@ public class NatGatewayServiceImpl implements NatGatewayService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
 
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreDeleteSnatEntryResponseDto> deleteSnatEntry(List<CoreDeleteSnatEntryRequestDto> requestDtoList) {
-        List<CoreDeleteSnatEntryResponseDto> resultList = new ArrayList<>();
-        for (CoreDeleteSnatEntryRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.execute(requestDtoList, requestDto -> {
             CoreDeleteSnatEntryResponseDto result = new CoreDeleteSnatEntryResponseDto();
             try {
 
@@ -248,16 +244,14 @@ public class NatGatewayServiceImpl implements NatGatewayService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreModifySnatEntryResponseDto> appendSnatEntry(List<CoreModifySnatEntryRequestDto> requestDtoList) {
-        List<CoreModifySnatEntryResponseDto> resultList = new ArrayList<>();
-        for (CoreModifySnatEntryRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.execute(requestDtoList, requestDto -> {
             CoreModifySnatEntryResponseDto result = new CoreModifySnatEntryResponseDto();
             try {
 
@@ -307,17 +301,15 @@ public class NatGatewayServiceImpl implements NatGatewayService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
 
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreModifySnatEntryResponseDto> pruneSnatEntry(List<CoreModifySnatEntryRequestDto> requestDtoList) {
-        List<CoreModifySnatEntryResponseDto> resultList = new ArrayList<>();
-        for (CoreModifySnatEntryRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.execute(requestDtoList, requestDto -> {
             CoreModifySnatEntryResponseDto result = new CoreModifySnatEntryResponseDto();
             try {
 
@@ -362,11 +354,10 @@ public class NatGatewayServiceImpl implements NatGatewayService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
 
-        }
-        return resultList;
+            return result;
+        });
     }
 
     private String[] retrieveSnatIpsFromEntryId(CoreDeleteSnatEntryRequestDto requestDto, IAcsClient client, String regionId) {
@@ -15,6 +15,7 @@ import com.webank.wecube.plugins.alicloud.support.AcsClientStub;
 import com.webank.wecube.plugins.alicloud.support.AliCloudConstant;
 import com.webank.wecube.plugins.alicloud.support.AliCloudException;
 import com.webank.wecube.plugins.alicloud.support.DtoValidator;
+import com.webank.wecube.plugins.alicloud.support.PluginBatchExecutor;
 import com.webank.wecube.plugins.alicloud.support.timer.PluginTimer;
 import com.webank.wecube.plugins.alicloud.support.timer.PluginTimerTask;
 import org.apache.commons.lang3.StringUtils;
@@ -23,7 +24,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
@@ -37,18 +37,19 @@ public class RouteTableServiceImpl implements RouteTableService {
     private static final Logger logger = LoggerFactory.getLogger(RouteTableService.class);
     private final AcsClientStub acsClientStub;
     private final DtoValidator dtoValidator;
+    private final PluginBatchExecutor pluginBatchExecutor;
 
 
     @Autowired
-    public RouteTableServiceImpl(AcsClientStub acsClientStub, DtoValidator dtoValidator) {
+    public RouteTableServiceImpl(AcsClientStub acsClientStub, DtoValidator dtoValidator, PluginBatchExecutor pluginBatchExecutor) {
         this.acsClientStub = acsClientStub;
         this.dtoValidator = dtoValidator;
+        this.pluginBatchExecutor = pluginBatchExecutor;
     }
 
     @Override
     public List<CoreCreateRouteTableResponseDto> createRouteTable(List<CoreCreateRouteTableRequestDto> requestDtoList) throws PluginException {
-        List<CoreCreateRouteTableResponseDto> resultList = new ArrayList<>();
-        for (CoreCreateRouteTableRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.execute(requestDtoList, requestDto -> {
 
             CoreCreateRouteTableResponseDto result = new CoreCreateRouteTableResponseDto();
 
@@ -70,7 +71,7 @@ public class RouteTableServiceImpl implements RouteTableService {
                         final DescribeRouteTablesResponse.RouteTable foundRouteTable = retrieveRouteTableResponse.getRouteTables().get(0);
                         result = result.fromSdkCrossLineage(foundRouteTable);
                         result.setRequestId(retrieveRouteTableResponse.getRequestId());
-                        continue;
+                        return result;
                     }
 
                 }
@@ -99,12 +100,11 @@ public class RouteTableServiceImpl implements RouteTableService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
 
 
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
@@ -134,10 +134,7 @@ public class RouteTableServiceImpl implements RouteTableService {
 
     @Override
     public List<CoreDeleteRouteTableResponseDto> deleteRouteTable(List<CoreDeleteRouteTableRequestDto> requestDtoList) throws PluginException {
-
-        List<CoreDeleteRouteTableResponseDto> resultList = new ArrayList<>();
-
-        for (CoreDeleteRouteTableRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.execute(requestDtoList, requestDto -> {
 
             CoreDeleteRouteTableResponseDto result = new CoreDeleteRouteTableResponseDto();
 
@@ -162,14 +159,14 @@ public class RouteTableServiceImpl implements RouteTableService {
                 if (0 == retrieveRouteTableResponse.getTotalCount()) {
                     result.setRequestId(retrieveRouteTableResponse.getRequestId());
                     logger.info("The route table has already been deleted.");
-                    continue;
+                    return result;
                 }
 
                 final DescribeRouteTablesResponse.RouteTable foundRouteTable = retrieveRouteTableResponse.getRouteTables().get(0);
 
                 // do not handle the system route table
                 if (StringUtils.equals(AliCloudConstant.ROUTE_TABLE_TYPE_SYSTEM, foundRouteTable.getRouteTableType())) {
-                    continue;
+                    return result;
                 }
 
                 // un-associate all related VSwitches
@@ -208,10 +205,9 @@ public class RouteTableServiceImpl implements RouteTableService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
@@ -221,10 +217,7 @@ public class RouteTableServiceImpl implements RouteTableService {
 
     @Override
     public List<CoreAssociateRouteTableResponseDto> associateRouteTable(List<CoreAssociateRouteTableRequestDto> requestDtoList) throws PluginException {
-
-        List<CoreAssociateRouteTableResponseDto> resultList = new ArrayList<>();
-
-        for (CoreAssociateRouteTableRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.execute(requestDtoList, requestDto -> {
 
             CoreAssociateRouteTableResponseDto result = new CoreAssociateRouteTableResponseDto();
 
@@ -262,11 +255,10 @@ public class RouteTableServiceImpl implements RouteTableService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
 
-        }
-        return resultList;
+            return result;
+        });
 
     }
 
@@ -323,8 +315,7 @@ public class RouteTableServiceImpl implements RouteTableService {
 
     @Override
     public List<CoreCreateRouteEntryResponseDto> createRouteEntry(List<CoreCreateRouteEntryRequestDto> coreCreateRouteEntryRequestDtoList) {
-        List<CoreCreateRouteEntryResponseDto> resultList = new ArrayList<>();
-        for (CoreCreateRouteEntryRequestDto requestDto : coreCreateRouteEntryRequestDtoList) {
+        return pluginBatchExecutor.execute(coreCreateRouteEntryRequestDtoList, requestDto -> {
 
             CoreCreateRouteEntryResponseDto result = new CoreCreateRouteEntryResponseDto();
             try {
@@ -355,16 +346,14 @@ public class RouteTableServiceImpl implements RouteTableService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreDeleteRouteEntryResponseDto> deleteRouteEntry(List<CoreDeleteRouteEntryRequestDto> coreDeleteRouteEntryRequestDtoList) {
-        List<CoreDeleteRouteEntryResponseDto> resultList = new ArrayList<>();
-        for (CoreDeleteRouteEntryRequestDto requestDto : coreDeleteRouteEntryRequestDtoList) {
+        return pluginBatchExecutor.execute(coreDeleteRouteEntryRequestDtoList, requestDto -> {
 
             CoreDeleteRouteEntryResponseDto result = new CoreDeleteRouteEntryResponseDto();
 
@@ -396,10 +385,9 @@ public class RouteTableServiceImpl implements RouteTableService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
-        }
-        return resultList;
+            return result;
+        });
     }
 
     private boolean ifRouteTableInStatus(IAcsClient client, String regionId, String routeTableId, RouteTableStatus... statusArray) throws PluginException, AliCloudException {
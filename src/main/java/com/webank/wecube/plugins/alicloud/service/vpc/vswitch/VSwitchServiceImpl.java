@@ -15,6 +15,7 @@ import com.webank.wecube.plugins.alicloud.support.AcsClientStub;
 import com.webank.wecube.plugins.alicloud.support.AliCloudConstant;
 import com.webank.wecube.plugins.alicloud.support.AliCloudException;
 import com.webank.wecube.plugins.alicloud.support.DtoValidator;
+import com.webank.wecube.plugins.alicloud.support.PluginBatchExecutor;
 import com.webank.wecube.plugins.alicloud.support.timer.PluginTimer;
 import com.webank.wecube.plugins.alicloud.support.timer.PluginTimerTask;
 import org.apache.commons.lang3.StringUtils;
@@ -23,7 +24,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
 
@@ -38,19 +38,20 @@ public class VSwitchServiceImpl implements VSwitchService {
     private final AcsClientStub acsClientStub;
     private final RouteTableService routeTableService;
     private final DtoValidator dtoValidator;
+    private final PluginBatchExecutor pluginBatchExecutor;
 
     @Autowired
-    public VSwitchServiceImpl(AcsClientStub acsClientStub, RouteTableService routeTableService, DtoValidator dtoValidator) {
+    public VSwitchServiceImpl(AcsClientStub acsClientStub, RouteTableService routeTableService, DtoValidator dtoValidator, PluginBatchExecutor pluginBatchExecutor) {
         this.acsClientStub = acsClientStub;
         this.routeTableService = routeTableService;
         this.dtoValidator = dtoValidator;
+        this.pluginBatchExecutor = pluginBatchExecutor;
     }
 
 
     @Override
     public List<CoreCreateVSwitchResponseDto> createVSwitch(List<CoreCreateVSwitchRequestDto> requestDtoList) {
-        List<CoreCreateVSwitchResponseDto> resultList = new ArrayList<>();
-        for (CoreCreateVSwitchRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.execute(requestDtoList, requestDto -> {
             CoreCreateVSwitchResponseDto result = new CoreCreateVSwitchResponseDto();
             try {
 
@@ -71,7 +72,7 @@ public class VSwitchServiceImpl implements VSwitchService {
                         final DescribeVSwitchesResponse.VSwitch foundVSwitch = response.getVSwitches().get(0);
                         result = result.fromSdkCrossLineage(foundVSwitch);
                         result.setRequestId(response.getRequestId());
-                        continue;
+                        return result;
                     }
                 }
 
@@ -97,16 +98,14 @@ public class VSwitchServiceImpl implements VSwitchService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreCreateVSwitchResponseDto> createVSwitchWithRouteTable(List<CoreCreateVSwitchRequestDto> requestDtoList) {
-        List<CoreCreateVSwitchResponseDto> resultList = new ArrayList<>();
-        for (CoreCreateVSwitchRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.execute(requestDtoList, requestDto -> {
             CoreCreateVSwitchResponseDto result = new CoreCreateVSwitchResponseDto();
             try {
 
@@ -127,7 +126,7 @@ public class VSwitchServiceImpl implements VSwitchService {
                         final DescribeVSwitchesResponse.VSwitch foundVSwitch = response.getVSwitches().get(0);
                         result = result.fromSdkCrossLineage(foundVSwitch);
                         result.setRequestId(response.getRequestId());
-                        continue;
+                        return result;
                     }
                 }
 
@@ -182,11 +181,10 @@ public class VSwitchServiceImpl implements VSwitchService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
 
-        }
-        return resultList;
+            return result;
+        });
 
     }
 
@@ -209,8 +207,7 @@ public class VSwitchServiceImpl implements VSwitchService {
 
     @Override
     public List<CoreDeleteVSwitchResponseDto> deleteVSwitch(List<CoreDeleteVSwitchRequestDto> requestDtoList) {
-        List<CoreDeleteVSwitchResponseDto> resultList = new ArrayList<>();
-        for (CoreDeleteVSwitchRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.execute(requestDtoList, requestDto -> {
             CoreDeleteVSwitchResponseDto result = new CoreDeleteVSwitchResponseDto();
             try {
 
@@ -228,7 +225,7 @@ public class VSwitchServiceImpl implements VSwitchService {
 
                 // check if VSwitch already deleted
                 if (0 == retrieveVSwtichResponse.getTotalCount()) {
-                    continue;
+                    return result;
                 }
 
                 // delete VSwitch
@@ -255,16 +252,14 @@ public class VSwitchServiceImpl implements VSwitchService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
-        }
-        return resultList;
+            return result;
+        });
     }
 
     @Override
     public List<CoreDeleteVSwitchResponseDto> deleteVSwitchWithRouteTable(List<CoreDeleteVSwitchRequestDto> requestDtoList) {
-        List<CoreDeleteVSwitchResponseDto> resultList = new ArrayList<>();
-        for (CoreDeleteVSwitchRequestDto requestDto : requestDtoList) {
+        return pluginBatchExecutor.execute(requestDtoList, requestDto -> {
             CoreDeleteVSwitchResponseDto result = new CoreDeleteVSwitchResponseDto();
             try {
 
@@ -282,7 +277,7 @@ public class VSwitchServiceImpl implements VSwitchService {
 
                 // check if VSwitch already deleted
                 if (0 == retrieveVSwtichResponse.getTotalCount()) {
-                    continue;
+                    return result;
                 }
 
                 // check if there is route table associate with given VSwitch ID
@@ -341,10 +336,9 @@ public class VSwitchServiceImpl implements VSwitchService {
                 result.setGuid(requestDto.getGuid());
                 result.setCallbackParameter(requestDto.getCallbackParameter());
                 logger.info("Result: {}", result.toString());
-                resultList.add(result);
             }
-        }
-        return resultList;
+            return result;
+        });
     }
 
     public boolean checkIfVSwitchAvailable(IAcsClient client, String regionId, String vSwitchId) throws PluginException, AliCloudException {
@@ -0,0 +1,109 @@
+package com.webank.wecube.plugins.alicloud.support;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.webank.wecube.plugins.alicloud.common.AcsClientProperties;
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, named executor which runs AliCloud calls asynchronously with a per-call deadline.
+ * <p>
+ * Cancelling or timing out the returned future interrupts the running call.
+ *
+ * @author howechen
+ */
+@Component
+public class AcsAsyncExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(AcsAsyncExecutor.class);
+
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService deadlineScheduler;
+    private final long defaultTimeoutMillis;
+
+    @Autowired
+    public AcsAsyncExecutor(AcsClientProperties acsClientProperties) {
+        final int poolSize = Math.max(1, acsClientProperties.getAsyncPoolSize());
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(acsClientProperties.getAsyncQueueCapacity()),
+                new ThreadFactoryBuilder().setNameFormat("acs-async-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.deadlineScheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("acs-async-deadline").setDaemon(true).build());
+        this.defaultTimeoutMillis = acsClientProperties.getAsyncTimeoutMillis();
+    }
+
+    public <V> CompletableFuture<V> supplyAsync(Supplier<V> task) {
+        return supplyAsync(task, defaultTimeoutMillis);
+    }
+
+    public <V> CompletableFuture<V> supplyAsync(Supplier<V> task, long timeoutMillis) {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        final Future<?> running = executor.submit(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                result.complete(task.get());
+            } catch (Throwable ex) {
+                result.completeExceptionally(ex);
+            }
+        });
+
+        if (timeoutMillis > 0) {
+            final ScheduledFuture<?> deadline = deadlineScheduler.schedule(() -> {
+                if (result.completeExceptionally(new PluginException(String.format("The AliCloud request has exceeded its deadline: [%d] ms.", timeoutMillis)))) {
+                    logger.warn("Cancelling AliCloud call which exceeded its deadline: [{}] ms.", timeoutMillis);
+                }
+            }, timeoutMillis, TimeUnit.MILLISECONDS);
+            result.whenComplete((v, ex) -> deadline.cancel(false));
+        }
+
+        // propagate cancellation and timeout to the running task
+        result.whenComplete((v, ex) -> {
+            if (null != ex && !running.isDone()) {
+                running.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Wait for the future and unwrap the exception thrown by the task
+     *
+     * @param future future returned by this executor
+     * @param <V>    result type
+     * @return result
+     * @throws PluginException   plugin exception
+     * @throws AliCloudException alicloud exception
+     */
+    public static <V> V join(CompletableFuture<V> future) throws PluginException, AliCloudException {
+        try {
+            return future.join();
+        } catch (CancellationException ex) {
+            throw new PluginException("The AliCloud request has been cancelled.");
+        } catch (CompletionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof PluginException) {
+                throw (PluginException) cause;
+            }
+            if (cause instanceof AliCloudException) {
+                throw (AliCloudException) cause;
+            }
+            throw new PluginException(String.format("Error while running the AliCloud request: [%s]", null == cause ? ex.getMessage() : cause.getMessage()), cause);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        deadlineScheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+}
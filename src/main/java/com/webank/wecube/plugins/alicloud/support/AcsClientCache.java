@@ -0,0 +1,216 @@
+package com.webank.wecube.plugins.alicloud.support;
+
+import com.aliyuncs.IAcsClient;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalListener;
+import com.google.common.hash.Hashing;
+import com.webank.wecube.plugins.alicloud.common.AcsClientProperties;
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.dto.IdentityParamDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of AliCloud clients keyed by (accessKeyId, secret hash, regionId).
+ * <p>
+ * A caller may keep using a client for a long wait or poll after the client has been evicted, so evicted clients are
+ * only retired. A retired client is shut down once it has no request in flight and hasn't been used for the grace
+ * period, and a later call to {@link #get} creates a new client.
+ *
+ * @author howechen
+ */
+@Component
+public class AcsClientCache {
+    private static final Logger logger = LoggerFactory.getLogger(AcsClientCache.class);
+
+    private final Cache<ClientKey, IAcsClient> cache;
+    /**
+     * Usage of the cached and the retired clients, by client identity
+     */
+    private final Map<IAcsClient, ClientLease> leases = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final long retiredGraceMillis;
+
+    @Autowired
+    public AcsClientCache(AcsClientProperties acsClientProperties) {
+        this.retiredGraceMillis = TimeUnit.MINUTES.toMillis(acsClientProperties.getRetiredClientGraceMinutes());
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(acsClientProperties.getMaxCachedClients())
+                .expireAfterAccess(acsClientProperties.getIdleExpireMinutes(), TimeUnit.MINUTES)
+                .removalListener((RemovalListener<ClientKey, IAcsClient>) notification -> {
+                    final IAcsClient client = notification.getValue();
+                    final ClientLease lease = null == client ? null : leases.get(client);
+                    if (null != lease) {
+                        logger.info("Retiring evicted AliCloud client: [{}], cause: [{}]", notification.getKey(), notification.getCause());
+                        lease.retired = true;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public IAcsClient get(String accessKeyId, String secret, String regionId, Supplier<IAcsClient> loader) throws PluginException {
+        return get(new ClientKey(accessKeyId, Hashing.sha256().hashString(secret, StandardCharsets.UTF_8).toString(), regionId), loader);
+    }
+
+    public IAcsClient get(IdentityParamDto identityParamDto, String regionId, Supplier<IAcsClient> loader) throws PluginException {
+        return get(new ClientKey(identityParamDto.getAccessKeyId(), identityParamDto.getSecretDigest(), regionId), loader);
+    }
+
+    private IAcsClient get(ClientKey key, Supplier<IAcsClient> loader) throws PluginException {
+        final String regionId = key.regionId;
+        try {
+            return cache.get(key, () -> {
+                final IAcsClient client = loader.get();
+                leases.put(client, new ClientLease(key));
+                return client;
+            });
+        } catch (ExecutionException | RuntimeException ex) {
+            throw new PluginException(String.format("Cannot create AliCloud client for region: [%s]", regionId), ex);
+        }
+    }
+
+    /**
+     * Mark a request in flight on the client, so it isn't shut down if it's evicted meanwhile
+     *
+     * @param client client to use, clients not created by this cache are ignored
+     */
+    public void acquire(IAcsClient client) {
+        final ClientLease lease = leases.get(client);
+        if (null != lease) {
+            lease.inFlight.incrementAndGet();
+            lease.lastUsedMillis = System.currentTimeMillis();
+        }
+    }
+
+    public void release(IAcsClient client) {
+        final ClientLease lease = leases.get(client);
+        if (null != lease) {
+            lease.lastUsedMillis = System.currentTimeMillis();
+            lease.inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Shut down the retired clients which have no request in flight and haven't been used for the grace period
+     *
+     * @return count of the clients shut down
+     */
+    public int closeRetiredClients() {
+        final long now = System.currentTimeMillis();
+        final Map<IAcsClient, ClientLease> closing = new IdentityHashMap<>();
+        synchronized (leases) {
+            leases.entrySet().removeIf(entry -> {
+                final ClientLease lease = entry.getValue();
+                if (lease.retired && 0 == lease.inFlight.get() && now - lease.lastUsedMillis >= retiredGraceMillis) {
+                    closing.put(entry.getKey(), lease);
+                    return true;
+                }
+                return false;
+            });
+        }
+        closing.forEach(this::shutdown);
+        return closing.size();
+    }
+
+    public int retiredCount() {
+        synchronized (leases) {
+            return (int) leases.values().stream().filter(lease -> lease.retired).count();
+        }
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void cleanUp() {
+        cache.cleanUp();
+        closeRetiredClients();
+        if (logger.isDebugEnabled()) {
+            logger.debug("AliCloud client cache size: [{}], stats: [{}]", cache.size(), cache.stats());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cache.invalidateAll();
+        cache.cleanUp();
+        final Map<IAcsClient, ClientLease> clients;
+        synchronized (leases) {
+            clients = new IdentityHashMap<>(leases);
+            leases.clear();
+        }
+        clients.forEach(this::shutdown);
+    }
+
+    private void shutdown(IAcsClient client, ClientLease lease) {
+        logger.info("Shutting down AliCloud client: [{}]", lease.key);
+        try {
+            client.shutdown();
+        } catch (RuntimeException ex) {
+            logger.warn("Error while shutting down AliCloud client: [{}]", ex.getMessage());
+        }
+    }
+
+    private static final class ClientLease {
+        private final ClientKey key;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile long lastUsedMillis = System.currentTimeMillis();
+        private volatile boolean retired = false;
+
+        private ClientLease(ClientKey key) {
+            this.key = key;
+        }
+    }
+
+    private static final class ClientKey {
+        private final String accessKeyId;
+        private final String secretHash;
+        private final String regionId;
+
+        private ClientKey(String accessKeyId, String secretHash, String regionId) {
+            this.accessKeyId = accessKeyId;
+            this.secretHash = secretHash;
+            this.regionId = regionId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ClientKey that = (ClientKey) o;
+            return accessKeyId.equals(that.accessKeyId) && secretHash.equals(that.secretHash) && regionId.equals(that.regionId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(accessKeyId, secretHash, regionId);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s@%s", accessKeyId, regionId);
+        }
+    }
+}
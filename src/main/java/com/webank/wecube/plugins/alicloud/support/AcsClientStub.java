@@ -7,15 +7,25 @@ import com.aliyuncs.IAcsClient;
 import com.aliyuncs.exceptions.ClientException;
 import com.aliyuncs.exceptions.ServerException;
 import com.aliyuncs.profile.DefaultProfile;
+import com.webank.wecube.plugins.alicloud.common.AcsClientProperties;
 import com.webank.wecube.plugins.alicloud.common.PluginException;
 import com.webank.wecube.plugins.alicloud.dto.IdentityParamDto;
 import com.webank.wecube.plugins.alicloud.dto.cloudParam.CloudParamDto;
+import com.webank.wecube.plugins.alicloud.support.retry.AcsRateLimiter;
+import com.webank.wecube.plugins.alicloud.support.retry.AliCloudErrorCategory;
+import com.webank.wecube.plugins.alicloud.support.retry.AliCloudErrorClassifier;
 import com.webank.wecube.plugins.alicloud.utils.PluginStringUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
 /**
  * @author howechen
  */
@@ -24,6 +34,18 @@ public class AcsClientStub {
     private final static Logger logger = LoggerFactory.getLogger(AcsClientStub.class);
     private static final int DEFAULT_TIMEOUT_IN_MILLISECONDS = 60000;
 
+    private final AcsClientCache acsClientCache;
+    private final AcsRateLimiter acsRateLimiter;
+    private final AcsClientProperties acsClientProperties;
+    private final AcsAsyncExecutor acsAsyncExecutor;
+
+    @Autowired
+    public AcsClientStub(AcsClientCache acsClientCache, AcsRateLimiter acsRateLimiter, AcsClientProperties acsClientProperties, AcsAsyncExecutor acsAsyncExecutor) {
+        this.acsClientCache = acsClientCache;
+        this.acsRateLimiter = acsRateLimiter;
+        this.acsClientProperties = acsClientProperties;
+        this.acsAsyncExecutor = acsAsyncExecutor;
+    }
 
     public IAcsClient generateAcsClient(IdentityParamDto identityParamDto, CloudParamDto cloudParamDto) throws PluginException {
 
@@ -31,11 +53,13 @@ public class AcsClientStub {
             throw new PluginException("Either id, secret from [identityParams] or regionId from [cloudParams] cannot be empty or null");
         }
 
-        DefaultProfile defaultProfile = DefaultProfile.getProfile(
-                cloudParamDto.getRegionId(),
-                identityParamDto.getAccessKeyId(),
-                identityParamDto.getSecret()
-        );
+        final String regionId = cloudParamDto.getRegionId();
+        return acsClientCache.get(identityParamDto, regionId, () -> buildAcsClient(regionId, identityParamDto.getAccessKeyId(), identityParamDto.getSecret()));
+    }
+
+    private IAcsClient buildAcsClient(String regionId, String accessKeyId, String secret) {
+        logger.info("Building new AliCloud client for region: [{}]", regionId);
+        DefaultProfile defaultProfile = DefaultProfile.getProfile(regionId, accessKeyId, secret);
         if (logger.isDebugEnabled()) {
             defaultProfile.setLogger(logger);
         }
@@ -52,22 +76,121 @@ public class AcsClientStub {
 
     public <T extends AcsResponse> T request(IAcsClient client, AcsRequest<T> request) throws AliCloudException {
         request.setSysReadTimeout(DEFAULT_TIMEOUT_IN_MILLISECONDS);
-        T response;
+        final String product = request.getSysProduct();
+        final String regionId = request.getSysRegionId();
+        final int maxAttempts = Math.max(1, acsClientProperties.getMaxAttempts());
+        final long retryDeadline = System.currentTimeMillis() + acsClientProperties.getMaxRetryMillis();
+
+        // keeps the client open until the request and its retries are done, even if it's evicted meanwhile
+        acsClientCache.acquire(client);
         try {
-            response = client.getAcsResponse(request);
-        } catch (ServerException serverEx) {
-            logger.error("AliCloud server error! Error type: [{}], code: [{}], msg: [{}], description: [{}]", serverEx.getErrorType(), serverEx.getErrCode(), serverEx.getMessage(), serverEx.getErrorDescription());
-            throw new AliCloudException(serverEx.getRequestId(), serverEx.getErrCode(), PluginStringUtils.formatStr(serverEx.getErrMsg()), serverEx.getErrorType(), serverEx.getErrorDescription());
-        } catch (ClientException clientEx) {
-            logger.error("AliCloud local client error! Error type: [{}], code: [{}], msg: [{}], description: [{}]", clientEx.getErrorType(), clientEx.getErrCode(), clientEx.getMessage(), clientEx.getErrorDescription());
-            throw new AliCloudException(clientEx.getRequestId(), clientEx.getErrCode(), PluginStringUtils.formatStr(clientEx.getErrMsg()), clientEx.getErrorType(), clientEx.getErrorDescription());
+            int attempt = 0;
+            while (true) {
+                attempt++;
+                acsRateLimiter.acquire(client, product, regionId);
+                try {
+                    final T response = client.getAcsResponse(request);
+                    acsRateLimiter.onSuccess(client, product, regionId);
+                    return response;
+                } catch (ClientException ex) {
+                    final AliCloudErrorCategory category = AliCloudErrorClassifier.classify(ex);
+                    if (AliCloudErrorCategory.THROTTLED == category) {
+                        acsRateLimiter.onThrottled(client, product, regionId);
+                    }
+                    if (AliCloudErrorCategory.FATAL == category || attempt >= maxAttempts) {
+                        throw toAliCloudException(ex);
+                    }
+                    if (AliCloudErrorClassifier.isAmbiguous(ex.getErrCode()) && !AliCloudErrorClassifier.isIdempotent(request)) {
+                        // the request may have been applied, re-sending it could create the resource twice
+                        logger.warn("AliCloud request: [{}] failed with code: [{}] and may have been applied, it won't be retried without ClientToken", request.getSysActionName(), ex.getErrCode());
+                        throw toAliCloudException(ex);
+                    }
+                    final long backoff = computeBackoff(attempt);
+                    if (System.currentTimeMillis() + backoff > retryDeadline) {
+                        logger.warn("AliCloud request: [{}] failed with code: [{}] and has run out of its retry time: [{}] ms", request.getSysActionName(), ex.getErrCode(), acsClientProperties.getMaxRetryMillis());
+                        throw toAliCloudException(ex);
+                    }
+                    logger.warn("AliCloud request: [{}] failed with code: [{}], category: [{}]. Retrying in [{}] ms, attempt: [{}/{}]", request.getSysActionName(), ex.getErrCode(), category, backoff, attempt, maxAttempts);
+                    sleep(backoff);
+                }
+            }
+        } finally {
+            acsClientCache.release(client);
         }
-        return response;
     }
 
+    private AliCloudException toAliCloudException(ClientException ex) {
+        if (ex instanceof ServerException) {
+            logger.error("AliCloud server error! Error type: [{}], code: [{}], msg: [{}], description: [{}]", ex.getErrorType(), ex.getErrCode(), ex.getMessage(), ex.getErrorDescription());
+        } else {
+            logger.error("AliCloud local client error! Error type: [{}], code: [{}], msg: [{}], description: [{}]", ex.getErrorType(), ex.getErrCode(), ex.getMessage(), ex.getErrorDescription());
+        }
+        return new AliCloudException(ex.getRequestId(), ex.getErrCode(), PluginStringUtils.formatStr(StringUtils.defaultString(ex.getErrMsg())), ex.getErrorType(), ex.getErrorDescription());
+    }
+
+    /**
+     * Exponential backoff with jitter
+     *
+     * @param attempt attempts already made
+     * @return backoff time in milliseconds
+     */
+    private long computeBackoff(int attempt) {
+        final long base = acsClientProperties.getBaseBackoffMillis();
+        final long cap = acsClientProperties.getMaxBackoffMillis();
+        final long exponential = base << Math.min(attempt - 1, 20);
+        final long ceiling = Math.max(1L, Math.min(cap, exponential));
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+
+    private void sleep(long millis) throws PluginException {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PluginException("The AliCloud request retry has been interrupted.");
+        }
+    }
 
     public <T extends AcsResponse> T request(IAcsClient client, AcsRequest<T> request, String regionId) throws AliCloudException {
         request.setSysRegionId(regionId);
         return request(client, request);
     }
+
+    /**
+     * Send the request on the async executor
+     *
+     * @param client   acs client
+     * @param request  AliCloud request
+     * @param regionId region id
+     * @param <T>      response type
+     * @return future of the response, completed exceptionally with AliCloudException or PluginException
+     */
+    public <T extends AcsResponse> CompletableFuture<T> requestAsync(IAcsClient client, AcsRequest<T> request, String regionId) {
+        return acsAsyncExecutor.supplyAsync(() -> request(client, request, regionId));
+    }
+
+    /**
+     * Send the request on the async executor with the given deadline
+     *
+     * @param client        acs client
+     * @param request       AliCloud request
+     * @param regionId      region id
+     * @param timeoutMillis deadline of this call in milliseconds
+     * @param <T>           response type
+     * @return future of the response, completed exceptionally with AliCloudException or PluginException
+     */
+    public <T extends AcsResponse> CompletableFuture<T> requestAsync(IAcsClient client, AcsRequest<T> request, String regionId, long timeoutMillis) {
+        return acsAsyncExecutor.supplyAsync(() -> request(client, request, regionId), timeoutMillis);
+    }
+
+    /**
+     * Run a composite AliCloud lookup (e.g. several describe calls) on the async executor
+     *
+     * @param task lookup to run, must not block on other async calls
+     * @param <V>  result type
+     * @return future of the result
+     */
+    public <V> CompletableFuture<V> supplyAsync(Supplier<V> task) {
+        return acsAsyncExecutor.supplyAsync(task);
+    }
 }
@@ -0,0 +1,243 @@
+package com.webank.wecube.plugins.alicloud.support;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.webank.wecube.plugins.alicloud.common.BatchExecutorProperties;
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.dto.CoreRequestInputDto;
+import com.webank.wecube.plugins.alicloud.dto.IdentityParamDto;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Run the items of a batch request concurrently.
+ * <p>
+ * Concurrency is capped globally by the pool size and per account by a small FIFO queue, so one account's large
+ * batch cannot exhaust the other accounts' API quota. Results are returned in the input order. Batches started from
+ * a batch worker thread run sequentially on that thread to avoid starving the pool. The queue of an account is
+ * dropped once the account has no work left.
+ *
+ * @author howechen
+ */
+@Component
+public class PluginBatchExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(PluginBatchExecutor.class);
+
+    private static final ThreadLocal<Boolean> IN_BATCH_WORKER = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private final ThreadPoolExecutor executor;
+    private final int maxConcurrencyPerAccount;
+    private final ConcurrentMap<String, AccountQueue> accountQueues = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PluginBatchExecutor(BatchExecutorProperties batchExecutorProperties) {
+        final int maxConcurrency = Math.max(1, batchExecutorProperties.getMaxConcurrency());
+        this.executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("plugin-batch-%d").setDaemon(true).build());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.maxConcurrencyPerAccount = Math.max(1, batchExecutorProperties.getMaxConcurrencyPerAccount());
+    }
+
+    /**
+     * Run the task for each request, capped per account of the request's identityParams.
+     *
+     * @param requestDtoList request list
+     * @param task           task which handles one request and never throws
+     * @param <T>            request type
+     * @param <R>            result type
+     * @return results in the same order as the requests
+     */
+    public <T extends CoreRequestInputDto, R> List<R> execute(List<T> requestDtoList, Function<T, R> task) {
+        return execute(requestDtoList, PluginBatchExecutor::accountOf, task);
+    }
+
+    /**
+     * Run the task for each request, capped per account. The requests sharing a resource key, such as the requests
+     * which read and then rewrite a setting of the same instance, run one after another in the input order, so none
+     * of their updates is lost.
+     *
+     * @param requestDtoList request list
+     * @param resourceKey    id of the resource the request modifies, empty when the request can run alongside any other
+     * @param task           task which handles one request and never throws
+     * @param <T>            request type
+     * @param <R>            result type
+     * @return results in the same order as the requests
+     */
+    public <T extends CoreRequestInputDto, R> List<R> executePerResource(List<T> requestDtoList, Function<T, String> resourceKey, Function<T, R> task) {
+        return execute(requestDtoList, PluginBatchExecutor::accountOf, requestDto -> {
+            final String key = resourceKey.apply(requestDto);
+            return StringUtils.isEmpty(key) ? null : accountOf(requestDto) + "|" + key;
+        }, task);
+    }
+
+    /**
+     * Run the task for each item
+     *
+     * @param items      items
+     * @param accountKey account key of the item, items of the same account share the account's concurrency
+     * @param task       task which handles one item and never throws
+     * @param <T>        item type
+     * @param <R>        result type
+     * @return results in the same order as the items
+     */
+    public <T, R> List<R> execute(List<T> items, Function<T, String> accountKey, Function<T, R> task) {
+        return execute(items, accountKey, item -> null, task);
+    }
+
+    private <T, R> List<R> execute(List<T> items, Function<T, String> accountKey, Function<T, String> resourceKey, Function<T, R> task) {
+        if (items.size() <= 1 || IN_BATCH_WORKER.get()) {
+            List<R> resultList = new ArrayList<>();
+            for (T item : items) {
+                resultList.add(task.apply(item));
+            }
+            return resultList;
+        }
+
+        logger.info("Running batch of [{}] items concurrently.", items.size());
+
+        // the items of the same resource make up one unit of work which runs them in the input order
+        final List<List<Integer>> units = new ArrayList<>();
+        final Map<String, List<Integer>> resourceUnits = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            final String key = resourceKey.apply(items.get(i));
+            if (null == key) {
+                units.add(Collections.singletonList(i));
+                continue;
+            }
+            resourceUnits.computeIfAbsent(key, k -> {
+                final List<Integer> unit = new ArrayList<>();
+                units.add(unit);
+                return unit;
+            }).add(i);
+        }
+
+        final List<CompletableFuture<R>> futures = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            futures.add(new CompletableFuture<>());
+        }
+        for (List<Integer> unit : units) {
+            submit(accountKey.apply(items.get(unit.get(0))), () -> {
+                for (int index : unit) {
+                    try {
+                        futures.get(index).complete(task.apply(items.get(index)));
+                    } catch (Throwable ex) {
+                        futures.get(index).completeExceptionally(ex);
+                    }
+                }
+            });
+        }
+
+        List<R> resultList = new ArrayList<>(items.size());
+        for (CompletableFuture<R> future : futures) {
+            try {
+                resultList.add(future.join());
+            } catch (CompletionException ex) {
+                throw new PluginException(String.format("Error while running the batch request: [%s]", ex.getCause().getMessage()), ex.getCause());
+            }
+        }
+        return resultList;
+    }
+
+    private void submit(String accountKey, Runnable task) {
+        // a queue which has gone idle is removed, and refuses the task if it was looked up just before
+        while (!accountQueues.computeIfAbsent(accountKey, AccountQueue::new).submit(task)) {
+            Thread.yield();
+        }
+    }
+
+    int accountQueueCount() {
+        return accountQueues.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Account key of the request, the accessKeyId of its identityParams
+     *
+     * @param requestDto request
+     * @return account key
+     */
+    public static String accountOf(CoreRequestInputDto requestDto) {
+        try {
+            return StringUtils.defaultString(IdentityParamDto.convertFromString(requestDto.getIdentityParams()).getAccessKeyId());
+        } catch (RuntimeException ex) {
+            // let the item's own validation report the invalid identityParams
+            return StringUtils.EMPTY;
+        }
+    }
+
+    private final class AccountQueue {
+        private final String accountKey;
+        private final Queue<Runnable> waitingTasks = new ArrayDeque<>();
+        private int runningCount = 0;
+        private boolean removed = false;
+
+        private AccountQueue(String accountKey) {
+            this.accountKey = accountKey;
+        }
+
+        /**
+         * @return false when the queue has been removed
+         */
+        private boolean submit(Runnable task) {
+            synchronized (this) {
+                if (removed) {
+                    return false;
+                }
+                if (runningCount >= maxConcurrencyPerAccount) {
+                    waitingTasks.add(task);
+                    return true;
+                }
+                runningCount++;
+            }
+            dispatch(task);
+            return true;
+        }
+
+        private void dispatch(Runnable task) {
+            executor.execute(() -> {
+                IN_BATCH_WORKER.set(Boolean.TRUE);
+                try {
+                    task.run();
+                } finally {
+                    IN_BATCH_WORKER.set(Boolean.FALSE);
+                    onTaskDone();
+                }
+            });
+        }
+
+        private void onTaskDone() {
+            final Runnable next;
+            synchronized (this) {
+                next = waitingTasks.poll();
+                if (null == next) {
+                    runningCount--;
+                    if (0 == runningCount) {
+                        // the account has no work left, don't keep its queue forever
+                        removed = true;
+                        accountQueues.remove(accountKey, this);
+                    }
+                    return;
+                }
+            }
+            dispatch(next);
+        }
+
+        @Override
+        public String toString() {
+            return accountKey;
+        }
+    }
+}
@@ -3,8 +3,10 @@ package com.webank.wecube.plugins.alicloud.support;
 import ch.ethz.ssh2.Connection;
 import ch.ethz.ssh2.SCPClient;
 import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.support.ssh2.SshConnectionPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
@@ -20,6 +22,13 @@ public class PluginScpClient {
 
     private static final Logger logger = LoggerFactory.getLogger(PluginScpClient.class);
 
+    private final SshConnectionPool sshConnectionPool;
+
+    @Autowired
+    public PluginScpClient(SshConnectionPool sshConnectionPool) {
+        this.sshConnectionPool = sshConnectionPool;
+    }
+
     public boolean isAuthedWithPassword(String ip, Integer port, String user, String password) {
         Connection connection = new Connection(ip, port);
         try {
@@ -88,46 +97,28 @@ public class PluginScpClient {
     }
 
     public void put(String ip, Integer port, String user, String password, String localFile, String remoteTargetDirectory) throws PluginException {
-        Connection connection = new Connection(ip, port);
         try {
-            connection.connect();
-            boolean isConnected = connection.authenticateWithPassword(user, password);
-            if (isConnected) {
-                logger.info("Connection is OK");
-                SCPClient scpClient = connection.createSCPClient();
-                logger.info("scp local file [{}] to remote target directory [{}]", localFile, remoteTargetDirectory);
-                scpClient.put(localFile, remoteTargetDirectory, "7777");
-            } else {
-                logger.info("User or password incorrect");
-                throw new PluginException("User or password incorrect");
-            }
+            logger.info("scp local file [{}] to remote target directory [{}]", localFile, remoteTargetDirectory);
+            sshConnectionPool.execute(ip, port, user, password, connection -> {
+                connection.createSCPClient().put(localFile, remoteTargetDirectory, "7777");
+                return null;
+            });
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.error("Run 'scp' command meet error", e);
             throw new PluginException("Run 'scp' command meet error: " + e.getMessage());
-        } finally {
-            connection.close();
         }
     }
 
     public void put(String ip, Integer port, String user, String password, byte[] data, String remoteFileName, String remoteTargetDirectory) throws PluginException {
-        Connection connection = new Connection(ip, port);
         try {
-            connection.connect();
-            boolean isConnected = connection.authenticateWithPassword(user, password);
-            if (isConnected) {
-                logger.info("Connection is OK");
-                SCPClient scpClient = connection.createSCPClient();
-                scpClient.put(data, remoteFileName, remoteTargetDirectory, "7777");
-            } else {
-                logger.info("User or password incorrect");
-                throw new PluginException("User or password incorrect");
-            }
+            logger.info("scp file [{}] to remote target directory [{}]", remoteFileName, remoteTargetDirectory);
+            sshConnectionPool.execute(ip, port, user, password, connection -> {
+                connection.createSCPClient().put(data, remoteFileName, remoteTargetDirectory, "7777");
+                return null;
+            });
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.error("Run 'scp' command meet error", e);
             throw new PluginException("Run 'scp' command meet error: " + e.getMessage());
-        } finally {
-            connection.close();
         }
     }
 }
-
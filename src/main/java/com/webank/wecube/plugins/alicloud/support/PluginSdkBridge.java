@@ -1,10 +1,6 @@
 package com.webank.wecube.plugins.alicloud.support;
 
 import com.aliyuncs.AcsRequest;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.MapperFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.webank.wecube.plugins.alicloud.common.PluginException;
 
 import java.util.List;
@@ -28,20 +24,8 @@ public interface PluginSdkBridge {
     static <T extends AcsRequest<?>, K> T toSdk(K requestDto, Class<T> clazz, boolean transLineage) throws PluginException {
         final T result;
         if (transLineage) {
-            ObjectMapper mapper = new ObjectMapper()
-                    .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-                    .configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
-            try {
-                result = mapper.convertValue(requestDto, clazz);
-            } catch (IllegalArgumentException exception) {
-                throw new PluginException(exception.getMessage());
-            }
-
-            try {
-                result.setSysActionName(clazz.newInstance().getSysActionName());
-            } catch (IllegalAccessException | InstantiationException e) {
-                throw new PluginException(e.getMessage());
-            }
+            result = PluginSdkMapper.convert(requestDto, clazz);
+            result.setSysActionName(PluginSdkMapper.actionNameOf(clazz));
         } else {
             result = toSdk(requestDto, clazz);
         }
@@ -59,14 +43,7 @@ public interface PluginSdkBridge {
      * @throws PluginException plugin exception
      */
     static <T extends AcsRequest<?>, K> T toSdk(K requestDto, Class<T> clazz) throws PluginException {
-        ObjectMapper mapper = new ObjectMapper()
-                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-                .configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
-        try {
-            return mapper.convertValue(requestDto, clazz);
-        } catch (IllegalArgumentException exception) {
-            throw new PluginException(exception.getMessage());
-        }
+        return PluginSdkMapper.convert(requestDto, clazz);
     }
 
     /**
@@ -80,18 +57,8 @@ public interface PluginSdkBridge {
      * @throws PluginException plugin exception
      */
     static <T extends AcsRequest<?>, K> T toSdkStrict(K requestDto, Class<T> clazz) throws PluginException {
-        ObjectMapper mapper = new ObjectMapper();
-        final T result;
-        try {
-            result = mapper.convertValue(requestDto, clazz);
-        } catch (IllegalArgumentException exception) {
-            throw new PluginException(exception.getMessage());
-        }
-        try {
-            result.setSysActionName(clazz.newInstance().getSysActionName());
-        } catch (IllegalAccessException | InstantiationException e) {
-            throw new PluginException(e.getMessage());
-        }
+        final T result = PluginSdkMapper.convertStrict(requestDto, clazz);
+        result.setSysActionName(PluginSdkMapper.actionNameOf(clazz));
         return result;
     }
 
@@ -105,25 +72,20 @@ public interface PluginSdkBridge {
      * @return transferred result
      */
     static <T, K> T fromSdk(K responseDto, Class<T> clazz) throws PluginException {
-        ObjectMapper mapper = new ObjectMapper()
-                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-                .configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
-        try {
-            return mapper.convertValue(responseDto, clazz);
-        } catch (IllegalArgumentException exception) {
-            throw new PluginException(exception.getMessage());
-        }
+        return PluginSdkMapper.convert(responseDto, clazz);
     }
 
-    static <T, K> List<T> fromSdkList(List<K> responseDtoList, Class<T> clazz) {
-        ObjectMapper mapper = new ObjectMapper()
-                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-                .configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
-        try {
-            return mapper.convertValue(responseDtoList, new TypeReference<List<T>>() {
-            });
-        } catch (IllegalArgumentException exception) {
-            throw new PluginException(exception.getMessage());
-        }
+    /**
+     * Transfer from SDK object list to core object list
+     *
+     * @param responseDtoList SDK response dto list
+     * @param clazz           target element class
+     * @param <T>             target core object
+     * @param <K>             SDK response object
+     * @return transferred result
+     * @throws PluginException plugin exception
+     */
+    static <T, K> List<T> fromSdkList(List<K> responseDtoList, Class<T> clazz) throws PluginException {
+        return PluginSdkMapper.convertList(responseDtoList, clazz);
     }
 }
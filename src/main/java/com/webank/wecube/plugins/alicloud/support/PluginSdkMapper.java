@@ -0,0 +1,208 @@
+package com.webank.wecube.plugins.alicloud.support;
+
+import com.aliyuncs.AcsRequest;
+import com.fasterxml.jackson.databind.*;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.support.converter.SdkConverter;
+import com.webank.wecube.plugins.alicloud.support.converter.SdkConverters;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shared object mappers of the conversions between plugin DTOs and AliCloud SDK objects.
+ * <p>
+ * The mappers are configured once and never changed, so they are safe to share. The readers and writers of each type
+ * are cached, as well as the type arguments of the SDK bridges and the action names of the SDK requests, so that a
+ * conversion doesn't build a mapper or resolve types by reflection.
+ * <p>
+ * The lenient conversions use the build-time generated {@link SdkConverter} of the pair when there is one, and fall
+ * back to the shared mapper otherwise.
+ *
+ * @author howechen
+ */
+public final class PluginSdkMapper {
+
+    private static final CachedMapper LENIENT = new CachedMapper(new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true));
+
+    private static final CachedMapper STRICT = new CachedMapper(new ObjectMapper());
+
+    private static final ClassValue<ConcurrentMap<Class<?>, Class<?>>> TYPE_ARGUMENTS = new ClassValue<ConcurrentMap<Class<?>, Class<?>>>() {
+        @Override
+        protected ConcurrentMap<Class<?>, Class<?>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private static final ClassValue<String> ACTION_NAMES = new ClassValue<String>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            try {
+                return ((AcsRequest<?>) type.newInstance()).getSysActionName();
+            } catch (IllegalAccessException | InstantiationException e) {
+                throw new PluginException(e.getMessage());
+            }
+        }
+    };
+
+    private PluginSdkMapper() {
+    }
+
+    /**
+     * Shared mapper which ignores unknown properties and matches property names case-insensitively, never configure it
+     *
+     * @return shared mapper
+     */
+    public static ObjectMapper getMapper() {
+        return LENIENT.mapper;
+    }
+
+    /**
+     * Shared mapper with Jackson's default settings, never configure it
+     *
+     * @return shared strict mapper
+     */
+    public static ObjectMapper getStrictMapper() {
+        return STRICT.mapper;
+    }
+
+    /**
+     * Convert ignoring unknown properties and matching property names case-insensitively
+     *
+     * @param source source object
+     * @param clazz  target class
+     * @param <T>    target type
+     * @return converted object
+     * @throws PluginException when the conversion fails
+     */
+    public static <T> T convert(Object source, Class<T> clazz) throws PluginException {
+        if (null == source) {
+            return null;
+        }
+        final SdkConverter converter = SdkConverters.find(source.getClass(), clazz);
+        if (null != converter) {
+            return clazz.cast(converter.convert(source, clazz));
+        }
+        return LENIENT.convert(source, LENIENT.mapper.constructType(clazz));
+    }
+
+    /**
+     * Convert a single property value by the lenient mapper, never by a generated converter
+     *
+     * @param value      property value
+     * @param targetType target property type
+     * @param <T>        target type
+     * @return converted value
+     * @throws PluginException when the conversion fails
+     */
+    public static <T> T convertProperty(Object value, JavaType targetType) throws PluginException {
+        return LENIENT.convert(value, targetType);
+    }
+
+    /**
+     * Convert a list, ignoring unknown properties and matching property names case-insensitively
+     *
+     * @param sourceList source list
+     * @param clazz      target element class
+     * @param <T>        target element type
+     * @return converted list
+     * @throws PluginException when the conversion fails
+     */
+    public static <T> List<T> convertList(List<?> sourceList, Class<T> clazz) throws PluginException {
+        return LENIENT.convert(sourceList, LENIENT.mapper.getTypeFactory().constructCollectionType(List.class, clazz));
+    }
+
+    /**
+     * Convert with Jackson's default settings, failing on unknown properties
+     *
+     * @param source source object
+     * @param clazz  target class
+     * @param <T>    target type
+     * @return converted object
+     * @throws PluginException when the conversion fails
+     */
+    public static <T> T convertStrict(Object source, Class<T> clazz) throws PluginException {
+        return STRICT.convert(source, STRICT.mapper.constructType(clazz));
+    }
+
+    /**
+     * Resolve the first type argument which the implementation class gives to the generic interface
+     *
+     * @param implementation   implementation class
+     * @param genericInterface generic interface, such as PluginSdkInputBridge
+     * @param <T>              type argument
+     * @return type argument class
+     * @throws PluginException when the implementation doesn't give a class argument to the interface
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Class<T> typeArgumentOf(Class<?> implementation, Class<?> genericInterface) throws PluginException {
+        return (Class<T>) TYPE_ARGUMENTS.get(implementation).computeIfAbsent(genericInterface, key -> resolveTypeArgument(implementation, key));
+    }
+
+    /**
+     * Action name of the SDK request class, the request is only instantiated once per class
+     *
+     * @param clazz SDK request class
+     * @return action name
+     * @throws PluginException when the request can't be instantiated
+     */
+    public static String actionNameOf(Class<? extends AcsRequest<?>> clazz) throws PluginException {
+        return ACTION_NAMES.get(clazz);
+    }
+
+    private static Class<?> resolveTypeArgument(Class<?> implementation, Class<?> genericInterface) {
+        for (Class<?> clazz = implementation; null != clazz; clazz = clazz.getSuperclass()) {
+            for (Type type : clazz.getGenericInterfaces()) {
+                if (type instanceof ParameterizedType && ((ParameterizedType) type).getRawType() == genericInterface) {
+                    final Type argument = ((ParameterizedType) type).getActualTypeArguments()[0];
+                    if (argument instanceof Class) {
+                        return (Class<?>) argument;
+                    }
+                    if (argument instanceof ParameterizedType) {
+                        return (Class<?>) ((ParameterizedType) argument).getRawType();
+                    }
+                }
+            }
+        }
+        throw new PluginException(String.format("Class: [%s] doesn't give a type argument to: [%s]", implementation.getName(), genericInterface.getSimpleName()));
+    }
+
+    private static final class CachedMapper {
+        private final ObjectMapper mapper;
+        private final ClassValue<ObjectWriter> writers;
+        private final ConcurrentMap<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+
+        private CachedMapper(ObjectMapper mapper) {
+            this.mapper = mapper;
+            this.writers = new ClassValue<ObjectWriter>() {
+                @Override
+                protected ObjectWriter computeValue(Class<?> type) {
+                    return mapper.writerFor(type).without(SerializationFeature.WRAP_ROOT_VALUE);
+                }
+            };
+        }
+
+        /**
+         * Same as {@link ObjectMapper#convertValue(Object, JavaType)}, with the reader and writer reused
+         */
+        private <T> T convert(Object source, JavaType targetType) throws PluginException {
+            if (null == source) {
+                return null;
+            }
+            final TokenBuffer buffer = new TokenBuffer(mapper, false);
+            try {
+                writers.get(source.getClass()).writeValue(buffer, source);
+                return readers.computeIfAbsent(targetType, mapper::readerFor).readValue(buffer.asParser());
+            } catch (IOException | IllegalArgumentException ex) {
+                throw new PluginException(ex.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.webank.wecube.plugins.alicloud.support;
+
+import ch.ethz.ssh2.ChannelCondition;
+import ch.ethz.ssh2.Connection;
+import ch.ethz.ssh2.Session;
+import ch.ethz.ssh2.StreamGobbler;
+import com.google.common.hash.Hashing;
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.support.remote.RemoteShell;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * One authenticated SSH connection to a VM, carrying all the uploads and commands of a VM operation as channels
+ *
+ * @author howechen
+ */
+public class PluginSshSession implements RemoteShell {
+    private static final Logger logger = LoggerFactory.getLogger(PluginSshSession.class);
+    private static final String FILE_MODE = "7777";
+
+    private final Connection connection;
+    private final String host;
+    private final long commandTimeoutMillis;
+
+    PluginSshSession(Connection connection, String host, long commandTimeoutMillis) {
+        this.connection = connection;
+        this.host = host;
+        this.commandTimeoutMillis = commandTimeoutMillis;
+    }
+
+    @Override
+    public String runWithReturn(String command) throws IOException {
+        logger.info("Sending command: [{}] to target machine: [{}]", command, host);
+        final String result = String.join(StringUtils.EMPTY, runForLines(command));
+        logger.info("result is: {}", result);
+        return result;
+    }
+
+    public void put(byte[] data, String remoteFileName, String remoteTargetDirectory) throws IOException {
+        logger.info("scp file [{}] to remote target directory [{}] of target machine: [{}]", remoteFileName, remoteTargetDirectory, host);
+        connection.createSCPClient().put(data, remoteFileName, remoteTargetDirectory, FILE_MODE);
+    }
+
+    /**
+     * Upload the files whose remote copy is missing or differs, the remote checksums are fetched with one command
+     */
+    @Override
+    public int putIfChanged(List<Pair<String, byte[]>> nameToDataPairList, String remoteTargetDirectory) throws IOException {
+        final List<String> remotePathList = nameToDataPairList.stream().map(pair -> remoteTargetDirectory.concat(pair.getKey())).collect(Collectors.toList());
+        final Map<String, String> remoteChecksums = remoteChecksums(remotePathList);
+        int uploadedCount = 0;
+        for (int i = 0; i < nameToDataPairList.size(); i++) {
+            final Pair<String, byte[]> nameToDataPair = nameToDataPairList.get(i);
+            final String localChecksum = Hashing.sha256().hashBytes(nameToDataPair.getValue()).toString();
+            if (StringUtils.equals(localChecksum, remoteChecksums.get(remotePathList.get(i)))) {
+                logger.info("Skipping the upload of [{}] to target machine: [{}], the remote copy is up to date", nameToDataPair.getKey(), host);
+                continue;
+            }
+            put(nameToDataPair.getValue(), nameToDataPair.getKey(), remoteTargetDirectory);
+            uploadedCount++;
+        }
+        return uploadedCount;
+    }
+
+    private Map<String, String> remoteChecksums(List<String> remotePathList) throws IOException {
+        // missing files are left out of the output
+        final String command = "sha256sum " + remotePathList.stream().map(PluginSshSession::quote).collect(Collectors.joining(" ")) + " 2>/dev/null || true";
+        final Map<String, String> result = new HashMap<>();
+        for (String line : runForLines(command)) {
+            final int separator = line.indexOf(' ');
+            if (separator > 0) {
+                // sha256sum prints "<checksum>  <path>", or "<checksum> *<path>" in binary mode
+                result.put(StringUtils.stripStart(line.substring(separator).trim(), "*"), line.substring(0, separator));
+            }
+        }
+        return result;
+    }
+
+    private List<String> runForLines(String command) throws IOException {
+        final Session session = connection.openSession();
+        try {
+            session.execCommand(loginShellCommand(command));
+            final int condition = session.waitForCondition(ChannelCondition.CLOSED, commandTimeoutMillis);
+            if (0 != (condition & ChannelCondition.TIMEOUT)) {
+                throw new PluginException(String.format("Timed out while executing the given command: [%s]", command));
+            }
+
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(new StreamGobbler(session.getStdout()), StandardCharsets.UTF_8));
+            final List<String> lines = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+
+            final Integer exitStatus = session.getExitStatus();
+            if (exitStatus != null && exitStatus != 0) {
+                throw new PluginException(String.format("Error while executing the given command: [%s], exec failed with code %d", command, exitStatus));
+            }
+            return lines;
+        } finally {
+            session.close();
+        }
+    }
+
+    /**
+     * Run the command by a login shell, so that the profile of the user is loaded
+     *
+     * @param command shell command, which may contain quotes
+     * @return command passed to the SSH channel
+     */
+    static String loginShellCommand(String command) {
+        return "sh -l -c " + quote(command);
+    }
+
+    /**
+     * Quote the text as one single-quoted shell word, an embedded single quote closes the quoting, is escaped and
+     * reopens it
+     */
+    static String quote(String text) {
+        return "'" + text.replace("'", "'\\''") + "'";
+    }
+
+    @FunctionalInterface
+    public interface SessionCallback<T> {
+        T doInSession(PluginSshSession session) throws IOException;
+    }
+}
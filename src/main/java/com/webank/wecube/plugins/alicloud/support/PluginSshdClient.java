@@ -2,15 +2,18 @@ package com.webank.wecube.plugins.alicloud.support;
 
 
 import com.webank.wecube.plugins.alicloud.common.PluginException;
-import com.webank.wecube.plugins.alicloud.support.ssh2.RemoteCommand;
-import com.webank.wecube.plugins.alicloud.support.ssh2.RemoteCommandExecutorConfig;
-import com.webank.wecube.plugins.alicloud.support.ssh2.impl.PooledRemoteCommandExecutor;
-import com.webank.wecube.plugins.alicloud.support.ssh2.impl.SimpleRemoteCommand;
+import com.webank.wecube.plugins.alicloud.common.SshProperties;
+import com.webank.wecube.plugins.alicloud.support.ssh2.SshConnectionPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+
 /**
+ * Runs shell commands as channels of the pooled SSH connections, see {@link PluginSshSession}
+ *
  * @author howechen
  */
 @Component
@@ -20,6 +23,14 @@ public class PluginSshdClient {
 
     private static final Logger logger = LoggerFactory.getLogger(PluginSshdClient.class);
 
+    private final SshConnectionPool sshConnectionPool;
+    private final SshProperties sshProperties;
+
+    @Autowired
+    public PluginSshdClient(SshConnectionPool sshConnectionPool, SshProperties sshProperties) {
+        this.sshConnectionPool = sshConnectionPool;
+        this.sshProperties = sshProperties;
+    }
 
     public void run(String host, String user, String password, Integer port, String command)
             throws PluginException {
@@ -28,24 +39,24 @@ public class PluginSshdClient {
 
     public String runWithReturn(String host, String user, String password, Integer port, String command)
             throws PluginException {
-        RemoteCommandExecutorConfig config = new RemoteCommandExecutorConfig();
-        config.setRemoteHost(host);
-        config.setUser(user);
-        config.setPsword(password);
-        config.setPort(port);
-
-        RemoteCommand cmd = new SimpleRemoteCommand(command);
-        PooledRemoteCommandExecutor executor = new PooledRemoteCommandExecutor();
-        executor.init(config);
+        return withSession(host, user, password, port, session -> session.runWithReturn(command));
+    }
 
-        String result;
+    /**
+     * Run all the uploads and commands of the callback on one pooled connection to the host
+     *
+     * @return result of the callback
+     * @throws PluginException when the connection fails or the callback meets an error
+     */
+    public <T> T withSession(String host, String user, String password, Integer port, PluginSshSession.SessionCallback<T> callback)
+            throws PluginException {
         try {
-            logger.info("Sending command: [{}] to target machine: [{}]", command, host);
-            result = executor.execute(cmd);
-        } finally {
-            executor.destroy();
+            return sshConnectionPool.execute(host, port, user, password,
+                    connection -> callback.doInSession(new PluginSshSession(connection, host, sshProperties.getCommandTimeoutMillis())));
+        } catch (IOException ex) {
+            String msg = String.format("Error while connecting to target machine: [%s], meet error: %s", host, ex.getMessage());
+            logger.error(msg, ex);
+            throw new PluginException(msg);
         }
-        logger.info("result is: " + result);
-        return result;
     }
 }
@@ -0,0 +1,108 @@
+package com.webank.wecube.plugins.alicloud.support.cidr;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * IPv4 prefix, the host bits of the network are always zero
+ *
+ * @author howechen
+ */
+public final class Ipv4Prefix {
+    private static final char MASK_DELIMITER = '/';
+    private static final int HOST_LENGTH = 32;
+
+    private final int network;
+    private final int length;
+
+    public Ipv4Prefix(int network, int length) {
+        this.network = 0 == length ? 0 : network & (-1 << (HOST_LENGTH - length));
+        this.length = length;
+    }
+
+    /**
+     * @return the IPv4 prefix, or null when the CIDR is not an IPv4 CIDR
+     */
+    public static Ipv4Prefix parse(String cidr) {
+        return parse(cidr, false);
+    }
+
+    /**
+     * @return the IPv4 prefix, taking an address without mask as /32, or null when it is neither an IPv4 address nor an IPv4 CIDR
+     */
+    public static Ipv4Prefix parseAddressOrCidr(String addressOrCidr) {
+        return parse(addressOrCidr, true);
+    }
+
+    private static Ipv4Prefix parse(String cidr, boolean maskOptional) {
+        int network = 0;
+        int octet = -1;
+        int octetCount = 0;
+        int i = 0;
+        for (; i < cidr.length(); i++) {
+            final char c = cidr.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return null;
+                }
+            } else if ((c == '.' || c == MASK_DELIMITER) && octet >= 0 && octetCount < 4) {
+                network = (network << 8) | octet;
+                octet = -1;
+                octetCount++;
+                if (c == MASK_DELIMITER) {
+                    break;
+                }
+            } else {
+                return null;
+            }
+        }
+        if (i == cidr.length()) {
+            if (!maskOptional || 3 != octetCount || octet < 0) {
+                return null;
+            }
+            return new Ipv4Prefix((network << 8) | octet, HOST_LENGTH);
+        }
+        final String mask = cidr.substring(i + 1);
+        if (4 != octetCount || !StringUtils.isNumeric(mask) || mask.length() > 2 || Integer.parseInt(mask) > HOST_LENGTH) {
+            return null;
+        }
+        return new Ipv4Prefix(network, Integer.parseInt(mask));
+    }
+
+    public int getNetwork() {
+        return network;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @return whether the addresses of the other prefix are all in this prefix
+     */
+    public boolean contains(Ipv4Prefix other) {
+        return length <= other.length && network == new Ipv4Prefix(other.network, length).network;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Ipv4Prefix that = (Ipv4Prefix) o;
+        return network == that.network && length == that.length;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * network + length;
+    }
+
+    @Override
+    public String toString() {
+        return ((network >>> 24) & 0xFF) + "." + ((network >>> 16) & 0xFF) + "." + ((network >>> 8) & 0xFF) + "." + (network & 0xFF) + MASK_DELIMITER + length;
+    }
+}
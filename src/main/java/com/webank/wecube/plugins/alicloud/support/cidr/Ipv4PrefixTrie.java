@@ -0,0 +1,133 @@
+package com.webank.wecube.plugins.alicloud.support.cidr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary prefix tree whose full nodes are the prefixes of the union of the inserted prefixes, with the nodes stored in
+ * arrays. A prefix covered by a shorter one is dropped on insertion.
+ *
+ * @author howechen
+ */
+public final class Ipv4PrefixTrie {
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+
+    private int[] zero = new int[64];
+    private int[] one = new int[64];
+    private boolean[] full = new boolean[64];
+    private int size = 1;
+
+    public Ipv4PrefixTrie() {
+        zero[ROOT] = NONE;
+        one[ROOT] = NONE;
+    }
+
+    public void insert(Ipv4Prefix prefix) {
+        int node = ROOT;
+        for (int depth = 0; depth < prefix.getLength(); depth++) {
+            if (full[node]) {
+                // covered by a shorter prefix
+                return;
+            }
+            if (0 == bitAt(prefix, depth)) {
+                if (NONE == zero[node]) {
+                    // newNode may grow the arrays, so it is called before indexing them
+                    final int child = newNode();
+                    zero[node] = child;
+                }
+                node = zero[node];
+            } else {
+                if (NONE == one[node]) {
+                    final int child = newNode();
+                    one[node] = child;
+                }
+                node = one[node];
+            }
+        }
+        // covers the longer prefixes inserted before
+        full[node] = true;
+        zero[node] = NONE;
+        one[node] = NONE;
+    }
+
+    /**
+     * @return whether the prefix is in one of the inserted prefixes
+     */
+    public boolean covers(Ipv4Prefix prefix) {
+        int node = ROOT;
+        for (int depth = 0; depth < prefix.getLength(); depth++) {
+            if (full[node]) {
+                return true;
+            }
+            node = 0 == bitAt(prefix, depth) ? zero[node] : one[node];
+            if (NONE == node) {
+                return false;
+            }
+        }
+        return full[node];
+    }
+
+    /**
+     * @return the inserted prefixes which are not covered by others, ordered by network then length
+     */
+    public List<Ipv4Prefix> collect() {
+        final List<Ipv4Prefix> result = new ArrayList<>();
+        collect(ROOT, 0, 0, result);
+        return result;
+    }
+
+    /**
+     * Merge the sibling prefixes into their parent
+     *
+     * @return the fewest prefixes making up the union, ordered by network
+     */
+    public List<Ipv4Prefix> aggregate() {
+        merge(ROOT);
+        return collect();
+    }
+
+    private static int bitAt(Ipv4Prefix prefix, int depth) {
+        return (prefix.getNetwork() >>> (31 - depth)) & 1;
+    }
+
+    private int newNode() {
+        if (size == full.length) {
+            zero = Arrays.copyOf(zero, size * 2);
+            one = Arrays.copyOf(one, size * 2);
+            full = Arrays.copyOf(full, size * 2);
+        }
+        zero[size] = NONE;
+        one[size] = NONE;
+        full[size] = false;
+        return size++;
+    }
+
+    private boolean merge(int node) {
+        if (NONE == node || full[node]) {
+            return NONE != node;
+        }
+        final boolean zeroFull = merge(zero[node]);
+        final boolean oneFull = merge(one[node]);
+        if (zeroFull && oneFull) {
+            // sibling prefixes make up their parent
+            full[node] = true;
+            zero[node] = NONE;
+            one[node] = NONE;
+        }
+        return full[node];
+    }
+
+    private void collect(int node, int network, int depth, List<Ipv4Prefix> result) {
+        if (NONE == node) {
+            return;
+        }
+        if (full[node]) {
+            result.add(new Ipv4Prefix(network, depth));
+            return;
+        }
+        collect(zero[node], network, depth + 1, result);
+        collect(one[node], network | (1 << (31 - depth)), depth + 1, result);
+    }
+}
@@ -0,0 +1,28 @@
+package com.webank.wecube.plugins.alicloud.support.converter;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declare the cross lineage SDK classes of a bridge DTO, so that the SDK converter processor generates their
+ * conversions as well as the ones of the bridge type arguments. It's kept at runtime so that the tests can list the
+ * generated conversions.
+ *
+ * @author howechen
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface CrossLineage {
+
+    /**
+     * @return SDK request classes passed to toSdkCrossLineage
+     */
+    Class<?>[] toSdk() default {};
+
+    /**
+     * @return SDK classes passed to fromSdkCrossLineage
+     */
+    Class<?>[] fromSdk() default {};
+}
@@ -0,0 +1,30 @@
+package com.webank.wecube.plugins.alicloud.support.converter;
+
+/**
+ * Straight-line conversions between a plugin DTO and the AliCloud SDK objects it bridges to.
+ * <p>
+ * Implementations are generated at build time by the SDK converter processor, one per DTO class, named after the DTO
+ * with a {@code _SdkConverter} suffix. Never implement it by hand.
+ *
+ * @author howechen
+ */
+public interface SdkConverter {
+
+    /**
+     * Tell if the conversion between the classes has been generated
+     *
+     * @param sourceClass exact source class
+     * @param targetClass target class
+     * @return if this converter converts the source class to the target class
+     */
+    boolean canConvert(Class<?> sourceClass, Class<?> targetClass);
+
+    /**
+     * Convert the source, only called when {@link #canConvert(Class, Class)} returns true
+     *
+     * @param source      source object, never null
+     * @param targetClass target class
+     * @return converted object
+     */
+    Object convert(Object source, Class<?> targetClass);
+}
@@ -0,0 +1,168 @@
+package com.webank.wecube.plugins.alicloud.support.converter;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.support.PluginSdkMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registry of the generated {@link SdkConverter}s, and the property conversions which the generated code calls.
+ * <p>
+ * The property conversions give the same results as the lenient shared mapper. The common scalar coercions, such as a
+ * numeric string to Long, are done inline; anything else is converted by the shared mapper.
+ *
+ * @author howechen
+ */
+public final class SdkConverters {
+
+    public static final String CONVERTER_SUFFIX = "_SdkConverter";
+
+    /**
+     * Placeholder of the classes without a generated converter, it converts nothing
+     */
+    private static final SdkConverter NONE = new SdkConverter() {
+        @Override
+        public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
+            return false;
+        }
+
+        @Override
+        public Object convert(Object source, Class<?> targetClass) {
+            return null;
+        }
+    };
+
+    private static final ClassValue<SdkConverter> CONVERTERS = new ClassValue<SdkConverter>() {
+        @Override
+        protected SdkConverter computeValue(Class<?> type) {
+            return loadConverter(type);
+        }
+    };
+
+    private SdkConverters() {
+    }
+
+    /**
+     * Find the generated converter between the classes, either of them being the DTO
+     *
+     * @param sourceClass exact source class
+     * @param targetClass target class
+     * @return generated converter, or null if the conversion hasn't been generated
+     */
+    public static SdkConverter find(Class<?> sourceClass, Class<?> targetClass) {
+        SdkConverter converter = CONVERTERS.get(sourceClass);
+        if (converter.canConvert(sourceClass, targetClass)) {
+            return converter;
+        }
+        converter = CONVERTERS.get(targetClass);
+        return converter.canConvert(sourceClass, targetClass) ? converter : null;
+    }
+
+    /**
+     * Convert a scalar property value as the lenient shared mapper does
+     *
+     * @param value      property value
+     * @param targetType boxed type of the target property
+     * @param <T>        target type
+     * @return converted value
+     * @throws PluginException when the value can't be converted
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T convertScalar(Object value, Class<T> targetType) throws PluginException {
+        if (null == value || isImmutableScalar(value.getClass()) && targetType == value.getClass()) {
+            return (T) value;
+        }
+        final Object converted;
+        if (String.class == targetType) {
+            converted = value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte || value instanceof Boolean ? String.valueOf(value) : null;
+        } else if (Long.class == targetType) {
+            converted = toLong(value);
+        } else if (Integer.class == targetType) {
+            converted = toInteger(value);
+        } else if (Boolean.class == targetType) {
+            converted = "true".equals(value) ? Boolean.TRUE : "false".equals(value) ? Boolean.FALSE : null;
+        } else {
+            converted = null;
+        }
+        return null != converted ? (T) converted : PluginSdkMapper.convertProperty(value, PluginSdkMapper.getMapper().constructType(targetType));
+    }
+
+    /**
+     * Convert a property value of any other type by the lenient shared mapper
+     *
+     * @param value      property value
+     * @param targetType generic type of the target property
+     * @param <T>        target type
+     * @return converted value
+     * @throws PluginException when the value can't be converted
+     */
+    public static <T> T convertProperty(Object value, JavaType targetType) throws PluginException {
+        return PluginSdkMapper.convertProperty(value, targetType);
+    }
+
+    /**
+     * Copy a list of strings, as the shared mapper builds a new list for the target
+     *
+     * @param list source list
+     * @return copied list
+     */
+    public static List<String> copyList(List<String> list) {
+        return null == list ? null : new ArrayList<>(list);
+    }
+
+    private static Long toLong(Object value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        return value instanceof String && isPlainInteger((String) value, 18) ? Long.parseLong((String) value) : null;
+    }
+
+    private static Integer toInteger(Object value) {
+        if (value instanceof Short || value instanceof Byte) {
+            return ((Number) value).intValue();
+        }
+        if (value instanceof Long && (Long) value >= Integer.MIN_VALUE && (Long) value <= Integer.MAX_VALUE) {
+            return ((Long) value).intValue();
+        }
+        return value instanceof String && isPlainInteger((String) value, 9) ? Integer.parseInt((String) value) : null;
+    }
+
+    /**
+     * Plain integers can't overflow within the max digits, anything else is left to the shared mapper
+     */
+    private static boolean isPlainInteger(String text, int maxDigits) {
+        final int start = text.startsWith("-") ? 1 : 0;
+        final int digits = text.length() - start;
+        if (digits < 1 || digits > maxDigits) {
+            return false;
+        }
+        for (int i = start; i < text.length(); i++) {
+            if (text.charAt(i) < '0' || text.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isImmutableScalar(Class<?> clazz) {
+        return String.class == clazz || Long.class == clazz || Integer.class == clazz || Boolean.class == clazz
+                || Double.class == clazz || Float.class == clazz || Short.class == clazz || Byte.class == clazz;
+    }
+
+    private static SdkConverter loadConverter(Class<?> type) {
+        if (type.isPrimitive() || type.isArray() || null == type.getClassLoader()) {
+            return NONE;
+        }
+        final String converterName = type.getName().replace('$', '_') + CONVERTER_SUFFIX;
+        try {
+            final Class<?> converterClass = Class.forName(converterName, true, type.getClassLoader());
+            return SdkConverter.class.isAssignableFrom(converterClass) ? (SdkConverter) converterClass.newInstance() : NONE;
+        } catch (ClassNotFoundException ex) {
+            return NONE;
+        } catch (IllegalAccessException | InstantiationException ex) {
+            throw new PluginException(String.format("Cannot instantiate SDK converter: [%s], error: [%s]", converterName, ex.getMessage()));
+        }
+    }
+}
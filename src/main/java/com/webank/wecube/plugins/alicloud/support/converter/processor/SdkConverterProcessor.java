@@ -0,0 +1,784 @@
+package com.webank.wecube.plugins.alicloud.support.converter.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.*;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Generates the {@code SdkConverter} of every plugin SDK bridge DTO at build time.
+ * <p>
+ * A converter is generated for the DTO to the request type argument of {@code PluginSdkInputBridge}, for the response
+ * type argument of {@code PluginSdkOutputBridge} to the DTO, and for the classes declared by {@code CrossLineage}. The
+ * generated code copies getters to setters the way the lenient shared mapper binds properties: Jackson's property
+ * names, {@code JsonIgnore} and {@code JsonProperty} renames, and case-insensitive matching. Scalars are copied or
+ * coerced inline, other property types are still converted by the shared mapper.
+ * <p>
+ * A conversion which can't be generated with the very same result, such as one binding a private field, is skipped and
+ * keeps using the shared mapper. Pass {@code -AsdkConverter.verbose=true} to javac to list the skipped ones.
+ * <p>
+ * The processor only depends on the JDK, so that it can be compiled ahead of the sources it processes.
+ *
+ * @author howechen
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions(SdkConverterProcessor.VERBOSE_OPTION)
+public class SdkConverterProcessor extends AbstractProcessor {
+
+    static final String VERBOSE_OPTION = "sdkConverter.verbose";
+
+    private static final String INPUT_BRIDGE = "com.webank.wecube.plugins.alicloud.dto.PluginSdkInputBridge";
+    private static final String OUTPUT_BRIDGE = "com.webank.wecube.plugins.alicloud.dto.PluginSdkOutputBridge";
+    private static final String CROSS_LINEAGE = "com.webank.wecube.plugins.alicloud.support.converter.CrossLineage";
+    private static final String CONVERTER = "com.webank.wecube.plugins.alicloud.support.converter.SdkConverter";
+    private static final String CONVERTERS = "com.webank.wecube.plugins.alicloud.support.converter.SdkConverters";
+    private static final String MAPPER = "com.webank.wecube.plugins.alicloud.support.PluginSdkMapper";
+    private static final String CONVERTER_SUFFIX = "_SdkConverter";
+
+    private static final String JACKSON_PACKAGE = "com.fasterxml.jackson.";
+    private static final String JSON_IGNORE = "com.fasterxml.jackson.annotation.JsonIgnore";
+    private static final String JSON_PROPERTY = "com.fasterxml.jackson.annotation.JsonProperty";
+
+    private static final Set<String> SCALARS = new HashSet<>(Arrays.asList(
+            "java.lang.String", "java.lang.Long", "java.lang.Integer", "java.lang.Boolean",
+            "java.lang.Double", "java.lang.Float", "java.lang.Short", "java.lang.Byte"));
+
+    private final Set<String> processedTypes = new HashSet<>();
+    private Types types;
+    private Elements elements;
+    private boolean verbose;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.types = processingEnv.getTypeUtils();
+        this.elements = processingEnv.getElementUtils();
+        this.verbose = Boolean.parseBoolean(processingEnv.getOptions().get(VERBOSE_OPTION));
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            scan(type);
+        }
+        return false;
+    }
+
+    private void scan(TypeElement type) {
+        if (type.getKind() == ElementKind.CLASS) {
+            generate(type);
+        }
+        for (TypeElement member : ElementFilter.typesIn(type.getEnclosedElements())) {
+            scan(member);
+        }
+    }
+
+    private void generate(TypeElement dto) {
+        if (dto.getModifiers().contains(Modifier.ABSTRACT) || dto.getModifiers().contains(Modifier.PRIVATE)
+                || !dto.getTypeParameters().isEmpty() || !processedTypes.add(elements.getBinaryName(dto).toString())) {
+            return;
+        }
+
+        final DeclaredType dtoType = (DeclaredType) dto.asType();
+        final Map<String, DeclaredType[]> pairs = new LinkedHashMap<>();
+        final DeclaredType inputBridge = findSupertype(dtoType, INPUT_BRIDGE);
+        if (null != inputBridge) {
+            addPair(pairs, dtoType, inputBridge.getTypeArguments().get(0));
+        }
+        final DeclaredType outputBridge = findSupertype(dtoType, OUTPUT_BRIDGE);
+        if (null != outputBridge && types.isSameType(outputBridge.getTypeArguments().get(0), dtoType)) {
+            addPair(pairs, outputBridge.getTypeArguments().get(1), dtoType);
+        }
+        for (AnnotationMirror annotation : dto.getAnnotationMirrors()) {
+            if (CROSS_LINEAGE.equals(qualifiedName(annotation))) {
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet()) {
+                    final boolean toSdk = entry.getKey().getSimpleName().contentEquals("toSdk");
+                    for (Object value : (List<?>) entry.getValue().getValue()) {
+                        final TypeMirror crossLineage = (TypeMirror) ((AnnotationValue) value).getValue();
+                        if (toSdk) {
+                            addPair(pairs, dtoType, crossLineage);
+                        } else {
+                            addPair(pairs, crossLineage, dtoType);
+                        }
+                    }
+                }
+            }
+        }
+        if (pairs.isEmpty()) {
+            return;
+        }
+
+        final String packageName = elements.getPackageOf(dto).getQualifiedName().toString();
+        final String converterName = elements.getBinaryName(dto).toString().substring(packageName.isEmpty() ? 0 : packageName.length() + 1).replace('$', '_') + CONVERTER_SUFFIX;
+        final ConverterWriter writer = new ConverterWriter(packageName);
+        for (DeclaredType[] pair : pairs.values()) {
+            try {
+                writer.addConversion(pair[0], pair[1]);
+            } catch (UnsupportedConversionException ex) {
+                if (verbose) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                            String.format("SDK converter from %s to %s is not generated, the shared mapper is used: %s", pair[0], pair[1], ex.getMessage()), dto);
+                }
+            }
+        }
+        if (writer.isEmpty()) {
+            return;
+        }
+
+        final String qualifiedConverterName = packageName.isEmpty() ? converterName : packageName + "." + converterName;
+        try {
+            final JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedConverterName, dto);
+            try (Writer out = file.openWriter()) {
+                out.write(writer.write(packageName, converterName, dto));
+            }
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, String.format("Cannot write SDK converter: [%s], error: [%s]", qualifiedConverterName, ex.getMessage()), dto);
+        }
+    }
+
+    private void addPair(Map<String, DeclaredType[]> pairs, TypeMirror source, TypeMirror target) {
+        if (source.getKind() == TypeKind.DECLARED && target.getKind() == TypeKind.DECLARED) {
+            pairs.putIfAbsent(source + "->" + target, new DeclaredType[]{(DeclaredType) source, (DeclaredType) target});
+        }
+    }
+
+    private DeclaredType findSupertype(TypeMirror type, String qualifiedName) {
+        for (TypeMirror supertype : types.directSupertypes(type)) {
+            if (supertype.getKind() != TypeKind.DECLARED) {
+                continue;
+            }
+            if (((TypeElement) ((DeclaredType) supertype).asElement()).getQualifiedName().contentEquals(qualifiedName)) {
+                return (DeclaredType) supertype;
+            }
+            final DeclaredType found = findSupertype(supertype, qualifiedName);
+            if (null != found) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Writes the conversions of one DTO into one converter class
+     */
+    private final class ConverterWriter {
+        private final String packageName;
+        private final List<String> typeConstants = new ArrayList<>();
+        private final List<String[]> conversions = new ArrayList<>();
+        private final StringBuilder methods = new StringBuilder();
+
+        private ConverterWriter(String packageName) {
+            this.packageName = packageName;
+        }
+
+        private boolean isEmpty() {
+            return conversions.isEmpty();
+        }
+
+        private void addConversion(DeclaredType source, DeclaredType target) {
+            final TypeElement sourceElement = (TypeElement) source.asElement();
+            final TypeElement targetElement = (TypeElement) target.asElement();
+            if (!sourceElement.getTypeParameters().isEmpty() || !targetElement.getTypeParameters().isEmpty()) {
+                throw new UnsupportedConversionException("generic classes");
+            }
+            checkAccessible(sourceElement);
+            checkAccessible(targetElement);
+            checkInstantiable(targetElement);
+
+            final List<Property> sourceProperties = readableProperties(source);
+            final Map<String, List<Property>> targetProperties = new HashMap<>();
+            for (Property property : writableProperties(target)) {
+                targetProperties.computeIfAbsent(property.name.toLowerCase(Locale.ROOT), key -> new ArrayList<>()).add(property);
+            }
+
+            // pair each serialized source property with the target property it binds to, in serialization order
+            final List<Property[]> assignments = new ArrayList<>();
+            for (int i = 0; i < sourceProperties.size(); i++) {
+                final Property sourceProperty = sourceProperties.get(i);
+                final List<Property> candidates = targetProperties.get(sourceProperty.name.toLowerCase(Locale.ROOT));
+                if (null == candidates) {
+                    continue;
+                }
+                if (candidates.size() > 1) {
+                    throw new UnsupportedConversionException(String.format("property [%s] matches %d target properties", sourceProperty.name, candidates.size()));
+                }
+                final Property targetProperty = candidates.get(0);
+                if (null == targetProperty.accessor) {
+                    throw new UnsupportedConversionException(String.format("target property [%s] is bound by reflection", targetProperty.name));
+                }
+                if (null == sourceProperty.accessor && !isSetLater(sourceProperties, i, targetProperties, targetProperty)) {
+                    throw new UnsupportedConversionException(String.format("source property [%s] is read by reflection", sourceProperty.name));
+                }
+                if (null != sourceProperty.accessor) {
+                    assignments.add(new Property[]{sourceProperty, targetProperty});
+                }
+            }
+
+            final int index = conversions.size();
+            final String sourceName = canonicalName(sourceElement);
+            final String targetName = canonicalName(targetElement);
+            final StringBuilder body = new StringBuilder();
+            int valueIndex = 0;
+            for (Property[] assignment : assignments) {
+                valueIndex = writeAssignment(body, assignment[0], assignment[1], valueIndex);
+            }
+            methods.append("\n    private static ").append(targetName).append(" convert").append(index).append("(").append(sourceName).append(" source) {\n")
+                    .append("        final ").append(targetName).append(" target = new ").append(targetName).append("();\n")
+                    .append(body)
+                    .append("        return target;\n")
+                    .append("    }\n");
+            conversions.add(new String[]{sourceName, targetName});
+        }
+
+        /**
+         * A property read by reflection only may be skipped when a later property of a getter sets the same target,
+         * as Jackson sets both and the getter wins
+         */
+        private boolean isSetLater(List<Property> sourceProperties, int index, Map<String, List<Property>> targetProperties, Property targetProperty) {
+            for (int i = index + 1; i < sourceProperties.size(); i++) {
+                final Property later = sourceProperties.get(i);
+                final List<Property> candidates = targetProperties.get(later.name.toLowerCase(Locale.ROOT));
+                if (null != later.accessor && null != candidates && candidates.size() == 1 && candidates.get(0) == targetProperty) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int writeAssignment(StringBuilder body, Property source, Property target, int valueIndex) {
+            final String read = source.accessor.getKind() == ElementKind.METHOD ? "source." + source.accessor.getSimpleName() + "()" : "source." + source.accessor.getSimpleName();
+            final TypeMirror sourceType = source.type;
+            final TypeMirror targetType = target.type;
+
+            final String value;
+            if (targetType.getKind().isPrimitive()) {
+                if (sourceType.getKind().isPrimitive() && types.isAssignable(sourceType, targetType)) {
+                    value = read;
+                } else if (isScalar(sourceType) && targetType.getKind() != TypeKind.CHAR) {
+                    final String boxedName = types.boxedClass((PrimitiveType) targetType).getQualifiedName().toString();
+                    final String local = "value" + valueIndex++;
+                    body.append("        final ").append(boxedName).append(" ").append(local).append(" = ")
+                            .append(CONVERTERS).append(".convertScalar(").append(read).append(", ").append(boxedName).append(".class);\n");
+                    value = "null == " + local + " ? " + defaultValue(targetType) + " : " + local;
+                } else {
+                    throw new UnsupportedConversionException(String.format("property [%s] of %s can't be bound to %s", source.name, sourceType, targetType));
+                }
+            } else if (isScalar(targetType)) {
+                if (types.isSameType(boxIfPrimitive(sourceType), targetType)) {
+                    value = read;
+                } else if (isScalar(sourceType)) {
+                    value = CONVERTERS + ".convertScalar(" + read + ", " + typeName(targetType) + ".class)";
+                } else {
+                    value = CONVERTERS + ".convertProperty(" + read + ", " + typeConstant(targetType) + ")";
+                }
+            } else if (isStringList(targetType) && types.isAssignable(sourceType, targetType)) {
+                value = CONVERTERS + ".copyList(" + read + ")";
+            } else {
+                value = CONVERTERS + ".convertProperty(" + read + ", " + typeConstant(targetType) + ")";
+            }
+
+            if (target.accessor.getKind() == ElementKind.METHOD) {
+                body.append("        target.").append(target.accessor.getSimpleName()).append("(").append(value).append(");\n");
+            } else {
+                body.append("        target.").append(target.accessor.getSimpleName()).append(" = ").append(value).append(";\n");
+            }
+            return valueIndex;
+        }
+
+        private String typeConstant(TypeMirror type) {
+            final String declaration = typeName(type);
+            int index = typeConstants.indexOf(declaration);
+            if (index < 0) {
+                index = typeConstants.size();
+                typeConstants.add(declaration);
+            }
+            return "TYPE_" + index;
+        }
+
+        private String typeName(TypeMirror type) {
+            switch (type.getKind()) {
+                case DECLARED:
+                    final DeclaredType declaredType = (DeclaredType) type;
+                    final TypeElement element = (TypeElement) declaredType.asElement();
+                    checkAccessible(element);
+                    if (declaredType.getEnclosingType().getKind() == TypeKind.DECLARED && !((DeclaredType) declaredType.getEnclosingType()).getTypeArguments().isEmpty()) {
+                        throw new UnsupportedConversionException("inner class of a generic class: " + type);
+                    }
+                    final StringBuilder name = new StringBuilder(canonicalName(element));
+                    if (!declaredType.getTypeArguments().isEmpty()) {
+                        final StringJoiner arguments = new StringJoiner(", ", "<", ">");
+                        for (TypeMirror argument : declaredType.getTypeArguments()) {
+                            arguments.add(typeName(argument));
+                        }
+                        name.append(arguments);
+                    }
+                    return name.toString();
+                case ARRAY:
+                    return typeName(((ArrayType) type).getComponentType()) + "[]";
+                default:
+                    if (type.getKind().isPrimitive()) {
+                        return type.getKind().name().toLowerCase(Locale.ROOT);
+                    }
+                    throw new UnsupportedConversionException("type can't be declared: " + type);
+            }
+        }
+
+        private void checkAccessible(TypeElement element) {
+            for (Element current = element; current instanceof TypeElement; current = current.getEnclosingElement()) {
+                final Set<Modifier> modifiers = current.getModifiers();
+                if (modifiers.contains(Modifier.PRIVATE)
+                        || !modifiers.contains(Modifier.PUBLIC) && !elements.getPackageOf(current).getQualifiedName().contentEquals(packageName)) {
+                    throw new UnsupportedConversionException("class is not accessible: " + element);
+                }
+            }
+        }
+
+        private void checkInstantiable(TypeElement element) {
+            if (element.getModifiers().contains(Modifier.ABSTRACT) || element.getKind() != ElementKind.CLASS
+                    || element.getNestingKind() == NestingKind.MEMBER && !element.getModifiers().contains(Modifier.STATIC)) {
+                throw new UnsupportedConversionException("target class can't be instantiated: " + element);
+            }
+            for (ExecutableElement constructor : ElementFilter.constructorsIn(element.getEnclosedElements())) {
+                if (constructor.getParameters().isEmpty() && isCallable(constructor)) {
+                    return;
+                }
+            }
+            throw new UnsupportedConversionException("target class has no accessible default constructor: " + element);
+        }
+
+        private boolean isCallable(Element member) {
+            final Set<Modifier> modifiers = member.getModifiers();
+            return modifiers.contains(Modifier.PUBLIC)
+                    || !modifiers.contains(Modifier.PRIVATE) && !modifiers.contains(Modifier.PROTECTED)
+                    && elements.getPackageOf(member).getQualifiedName().contentEquals(packageName);
+        }
+
+        /**
+         * Properties which Jackson serializes, in serialization order; the accessor is null when read by reflection
+         */
+        private List<Property> readableProperties(DeclaredType type) {
+            final List<Property> properties = new ArrayList<>();
+            for (PropertyGroup group : collectGroups(type)) {
+                final ExecutableElement getter = group.getter();
+                if (null != getter && (isPublic(getter) || group.explicit)) {
+                    if (!isCallable(getter)) {
+                        throw new UnsupportedConversionException(String.format("getter of [%s] is not accessible", group.name()));
+                    }
+                    properties.add(new Property(group.name(), getter, ((ExecutableType) types.asMemberOf(type, getter)).getReturnType()));
+                    continue;
+                }
+                final VariableElement field = group.visibleField();
+                if (null != field) {
+                    properties.add(new Property(group.name(), isCallable(field) ? field : null, types.asMemberOf(type, field)));
+                }
+            }
+            return properties;
+        }
+
+        /**
+         * Properties which Jackson deserializes; the accessor is null when bound by reflection
+         */
+        private List<Property> writableProperties(DeclaredType type) {
+            final List<Property> properties = new ArrayList<>();
+            for (PropertyGroup group : collectGroups(type)) {
+                if (!group.setters.isEmpty()) {
+                    final ExecutableElement setter = group.setter();
+                    final TypeMirror parameterType = ((ExecutableType) types.asMemberOf(type, setter)).getParameterTypes().get(0);
+                    properties.add(new Property(group.name(), isCallable(setter) ? setter : null, parameterType));
+                    continue;
+                }
+                final ExecutableElement getter = group.getter();
+                final boolean visibleGetter = null != getter && (isPublic(getter) || group.explicit);
+                final VariableElement field = null != group.visibleField() ? group.visibleField() : visibleGetter && !group.fields.isEmpty() ? group.fields.get(0) : null;
+                if (null != field) {
+                    final boolean assignable = isCallable(field) && !field.getModifiers().contains(Modifier.FINAL);
+                    properties.add(new Property(group.name(), assignable ? field : null, types.asMemberOf(type, field)));
+                } else if (visibleGetter && isContainer(((ExecutableType) types.asMemberOf(type, getter)).getReturnType())) {
+                    // bound through the getter as a setterless property
+                    properties.add(new Property(group.name(), null, getter.getReturnType()));
+                }
+            }
+            return properties;
+        }
+
+        private List<PropertyGroup> collectGroups(DeclaredType type) {
+            final List<TypeElement> classes = new ArrayList<>();
+            for (TypeMirror current = type; current.getKind() == TypeKind.DECLARED; current = ((TypeElement) ((DeclaredType) current).asElement()).getSuperclass()) {
+                final TypeElement element = (TypeElement) ((DeclaredType) current).asElement();
+                if (element.getQualifiedName().contentEquals(Object.class.getName())) {
+                    break;
+                }
+                classes.add(0, element);
+            }
+            final Set<TypeElement> interfaces = new LinkedHashSet<>();
+            for (TypeElement element : classes) {
+                collectInterfaces(element, interfaces);
+            }
+
+            final Map<String, PropertyGroup> groups = new LinkedHashMap<>();
+            for (TypeElement element : classes) {
+                checkNoJacksonAnnotation(element);
+                for (VariableElement field : ElementFilter.fieldsIn(element.getEnclosedElements())) {
+                    if (!field.getModifiers().contains(Modifier.STATIC)) {
+                        groups.computeIfAbsent(field.getSimpleName().toString(), PropertyGroup::new).addField(field);
+                    }
+                }
+            }
+            final Map<String, ExecutableElement> methods = new LinkedHashMap<>();
+            for (TypeElement element : classes) {
+                for (ExecutableElement method : ElementFilter.methodsIn(element.getEnclosedElements())) {
+                    if (!method.getModifiers().contains(Modifier.STATIC)) {
+                        methods.put(signature(method), method);
+                    }
+                }
+            }
+            for (TypeElement element : interfaces) {
+                checkNoJacksonAnnotation(element);
+                for (ExecutableElement method : ElementFilter.methodsIn(element.getEnclosedElements())) {
+                    if (!method.getModifiers().contains(Modifier.STATIC)) {
+                        methods.putIfAbsent(signature(method), method);
+                    }
+                }
+            }
+            for (ExecutableElement method : methods.values()) {
+                final String name = method.getSimpleName().toString();
+                final int parameterCount = method.getParameters().size();
+                if (parameterCount == 0 && method.getReturnType().getKind() != TypeKind.VOID) {
+                    final String propertyName;
+                    if (name.startsWith("get") && !"getCallbacks".equals(name) && !"getMetaClass".equals(name)) {
+                        propertyName = mangle(name, 3);
+                    } else if (name.startsWith("is") && isBoolean(method.getReturnType())) {
+                        propertyName = mangle(name, 2);
+                    } else {
+                        propertyName = null;
+                    }
+                    if (null != propertyName) {
+                        groups.computeIfAbsent(propertyName, PropertyGroup::new).addGetter(method);
+                        continue;
+                    }
+                } else if (parameterCount == 1 && name.startsWith("set")) {
+                    final String propertyName = mangle(name, 3);
+                    if (null != propertyName) {
+                        groups.computeIfAbsent(propertyName, PropertyGroup::new).addSetter(method);
+                        continue;
+                    }
+                }
+                checkNoJacksonAnnotation(method);
+            }
+
+            final Map<String, PropertyGroup> renamed = new LinkedHashMap<>();
+            for (PropertyGroup group : groups.values()) {
+                if (group.ignored) {
+                    if (group.explicit) {
+                        throw new UnsupportedConversionException(String.format("property [%s] is both ignored and included", group.implicitName));
+                    }
+                    continue;
+                }
+                if (null != renamed.put(group.name(), group)) {
+                    throw new UnsupportedConversionException(String.format("properties are merged into [%s]", group.name()));
+                }
+            }
+            return new ArrayList<>(renamed.values());
+        }
+
+        private void collectInterfaces(TypeElement element, Set<TypeElement> interfaces) {
+            for (TypeMirror interfaceType : element.getInterfaces()) {
+                final TypeElement interfaceElement = (TypeElement) ((DeclaredType) interfaceType).asElement();
+                if (interfaces.add(interfaceElement)) {
+                    collectInterfaces(interfaceElement, interfaces);
+                }
+            }
+        }
+
+        private String signature(ExecutableElement method) {
+            final StringJoiner signature = new StringJoiner(",", method.getSimpleName() + "(", ")");
+            for (VariableElement parameter : method.getParameters()) {
+                signature.add(types.erasure(parameter.asType()).toString());
+            }
+            return signature.toString();
+        }
+
+        private String write(String packageName, String converterName, TypeElement dto) {
+            final StringBuilder source = new StringBuilder();
+            if (!packageName.isEmpty()) {
+                source.append("package ").append(packageName).append(";\n\n");
+            }
+            source.append("/**\n")
+                    .append(" * Generated by ").append(SdkConverterProcessor.class.getSimpleName()).append(" from {@link ").append(canonicalName(dto)).append("}, do not edit.\n")
+                    .append(" */\n")
+                    .append("public final class ").append(converterName).append(" implements ").append(CONVERTER).append(" {\n");
+            for (int i = 0; i < typeConstants.size(); i++) {
+                source.append("\n    private static final com.fasterxml.jackson.databind.JavaType TYPE_").append(i).append(" = ").append(MAPPER)
+                        .append(".getMapper().constructType(new com.fasterxml.jackson.core.type.TypeReference<").append(typeConstants.get(i)).append(">() {\n    }.getType());\n");
+            }
+
+            source.append("\n    @Override\n    public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {\n        return ");
+            final StringJoiner conditions = new StringJoiner("\n                || ");
+            for (String[] conversion : conversions) {
+                conditions.add("sourceClass == " + conversion[0] + ".class && targetClass == " + conversion[1] + ".class");
+            }
+            source.append(conditions).append(";\n    }\n");
+
+            source.append("\n    @Override\n    public Object convert(Object source, Class<?> targetClass) {\n");
+            for (int i = 0; i < conversions.size(); i++) {
+                final String[] conversion = conversions.get(i);
+                source.append("        if (source.getClass() == ").append(conversion[0]).append(".class && targetClass == ").append(conversion[1]).append(".class) {\n")
+                        .append("            return convert").append(i).append("((").append(conversion[0]).append(") source);\n")
+                        .append("        }\n");
+            }
+            source.append("        throw new IllegalArgumentException(\"Unsupported conversion from \" + source.getClass().getName() + \" to \" + targetClass.getName());\n    }\n");
+            source.append(methods).append("}\n");
+            return source.toString();
+        }
+    }
+
+    private String canonicalName(TypeElement element) {
+        return element.getQualifiedName().toString();
+    }
+
+    private boolean isScalar(TypeMirror type) {
+        return type.getKind().isPrimitive() && type.getKind() != TypeKind.CHAR
+                || type.getKind() == TypeKind.DECLARED && SCALARS.contains(((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString());
+    }
+
+    private boolean isBoolean(TypeMirror type) {
+        return type.getKind() == TypeKind.BOOLEAN
+                || type.getKind() == TypeKind.DECLARED && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(Boolean.class.getName());
+    }
+
+    private boolean isStringList(TypeMirror type) {
+        final TypeMirror stringList = types.getDeclaredType(elements.getTypeElement(List.class.getName()), elements.getTypeElement(String.class.getName()).asType());
+        return types.isSameType(type, stringList);
+    }
+
+    private boolean isContainer(TypeMirror type) {
+        final TypeMirror erased = types.erasure(type);
+        return types.isAssignable(erased, types.erasure(elements.getTypeElement(Collection.class.getName()).asType()))
+                || types.isAssignable(erased, types.erasure(elements.getTypeElement(Map.class.getName()).asType()));
+    }
+
+    private TypeMirror boxIfPrimitive(TypeMirror type) {
+        return type.getKind().isPrimitive() ? types.boxedClass((PrimitiveType) type).asType() : type;
+    }
+
+    private static String defaultValue(TypeMirror primitiveType) {
+        switch (primitiveType.getKind()) {
+            case BOOLEAN:
+                return "false";
+            case LONG:
+                return "0L";
+            case FLOAT:
+                return "0F";
+            case DOUBLE:
+                return "0D";
+            case SHORT:
+                return "(short) 0";
+            case BYTE:
+                return "(byte) 0";
+            default:
+                return "0";
+        }
+    }
+
+    private static boolean isPublic(Element element) {
+        return element.getModifiers().contains(Modifier.PUBLIC);
+    }
+
+    private static String qualifiedName(AnnotationMirror annotation) {
+        return ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+    }
+
+    private static void checkNoJacksonAnnotation(Element element) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (qualifiedName(annotation).startsWith(JACKSON_PACKAGE)) {
+                throw new UnsupportedConversionException(String.format("annotation [%s] on [%s]", qualifiedName(annotation), element));
+            }
+        }
+    }
+
+    /**
+     * Same as Jackson's legacy property name mangling, which lower-cases the leading upper-case characters
+     */
+    static String mangle(String accessorName, int offset) {
+        final int end = accessorName.length();
+        if (end == offset) {
+            return null;
+        }
+        char c = accessorName.charAt(offset);
+        char lower = Character.toLowerCase(c);
+        if (c == lower) {
+            return accessorName.substring(offset);
+        }
+        final StringBuilder name = new StringBuilder(end - offset);
+        name.append(lower);
+        for (int i = offset + 1; i < end; i++) {
+            c = accessorName.charAt(i);
+            lower = Character.toLowerCase(c);
+            if (c == lower) {
+                name.append(accessorName, i, end);
+                break;
+            }
+            name.append(lower);
+        }
+        return name.toString();
+    }
+
+    /**
+     * Accessors sharing one implicit property name, as Jackson groups them
+     */
+    private static final class PropertyGroup {
+        private final String implicitName;
+        private final List<VariableElement> fields = new ArrayList<>();
+        private final List<ExecutableElement> getters = new ArrayList<>();
+        private final List<ExecutableElement> setters = new ArrayList<>();
+        private String explicitName;
+        private boolean explicit;
+        private boolean ignored;
+
+        private PropertyGroup(String implicitName) {
+            this.implicitName = implicitName;
+        }
+
+        private void addField(VariableElement field) {
+            fields.add(field);
+            readAnnotations(field);
+        }
+
+        private void addGetter(ExecutableElement getter) {
+            getters.add(getter);
+            readAnnotations(getter);
+        }
+
+        private void addSetter(ExecutableElement setter) {
+            setters.add(setter);
+            readAnnotations(setter);
+        }
+
+        private String name() {
+            return null != explicitName ? explicitName : implicitName;
+        }
+
+        /**
+         * Regular getters take precedence over is-getters
+         */
+        private ExecutableElement getter() {
+            ExecutableElement found = null;
+            for (ExecutableElement getter : getters) {
+                if (null == found || getter.getSimpleName().toString().startsWith("get")) {
+                    found = getter;
+                }
+            }
+            return found;
+        }
+
+        /**
+         * Setters of the most specific class take precedence, then the String setter among overloads
+         */
+        private ExecutableElement setter() {
+            if (setters.size() == 1) {
+                return setters.get(0);
+            }
+            final Element declaringClass = setters.get(setters.size() - 1).getEnclosingElement();
+            final List<ExecutableElement> mostSpecific = new ArrayList<>();
+            for (ExecutableElement setter : setters) {
+                if (setter.getEnclosingElement() == declaringClass) {
+                    mostSpecific.add(setter);
+                }
+            }
+            ExecutableElement found = mostSpecific.size() == 1 ? mostSpecific.get(0) : null;
+            for (ExecutableElement setter : mostSpecific.size() > 1 ? mostSpecific : Collections.<ExecutableElement>emptyList()) {
+                if (setter.getParameters().get(0).asType().toString().equals(String.class.getName())) {
+                    if (null != found) {
+                        throw new UnsupportedConversionException(String.format("conflicting setters of [%s]", implicitName));
+                    }
+                    found = setter;
+                }
+            }
+            if (null == found) {
+                throw new UnsupportedConversionException(String.format("conflicting setters of [%s]", implicitName));
+            }
+            return found;
+        }
+
+        private VariableElement visibleField() {
+            for (VariableElement field : fields) {
+                if (isPublic(field) && !field.getModifiers().contains(Modifier.TRANSIENT) || hasAnnotation(field, JSON_PROPERTY)) {
+                    return field;
+                }
+            }
+            return null;
+        }
+
+        private void readAnnotations(Element element) {
+            for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+                final String annotationName = qualifiedName(annotation);
+                if (JSON_IGNORE.equals(annotationName)) {
+                    if (!annotation.getElementValues().isEmpty()) {
+                        throw new UnsupportedConversionException(String.format("annotation [%s] on [%s]", annotation, element));
+                    }
+                    ignored = true;
+                } else if (JSON_PROPERTY.equals(annotationName)) {
+                    explicit = true;
+                    for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet()) {
+                        if (!entry.getKey().getSimpleName().contentEquals("value")) {
+                            throw new UnsupportedConversionException(String.format("annotation [%s] on [%s]", annotation, element));
+                        }
+                        final String value = String.valueOf(entry.getValue().getValue());
+                        if (!value.isEmpty()) {
+                            if (null != explicitName && !explicitName.equals(value)) {
+                                throw new UnsupportedConversionException(String.format("property [%s] has several names", implicitName));
+                            }
+                            explicitName = value;
+                        }
+                    }
+                } else if (annotationName.startsWith(JACKSON_PACKAGE)) {
+                    throw new UnsupportedConversionException(String.format("annotation [%s] on [%s]", annotationName, element));
+                }
+            }
+        }
+
+        private static boolean hasAnnotation(Element element, String annotationName) {
+            for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+                if (annotationName.equals(qualifiedName(annotation))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Property {
+        private final String name;
+        private final Element accessor;
+        private final TypeMirror type;
+
+        private Property(String name, Element accessor, TypeMirror type) {
+            this.name = name;
+            this.accessor = accessor;
+            this.type = type;
+        }
+    }
+
+    private static final class UnsupportedConversionException extends RuntimeException {
+        private UnsupportedConversionException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.webank.wecube.plugins.alicloud.support.job;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.webank.wecube.plugins.alicloud.common.JobProperties;
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.dto.CoreRequestDto;
+import com.webank.wecube.plugins.alicloud.dto.CoreRequestInputDto;
+import com.webank.wecube.plugins.alicloud.dto.CoreResponseDto;
+import com.webank.wecube.plugins.alicloud.dto.CoreResponseOutputDto;
+import com.webank.wecube.plugins.alicloud.dto.job.CoreJobAcceptedDto;
+import com.webank.wecube.plugins.alicloud.dto.job.PluginJobDto;
+import com.webank.wecube.plugins.alicloud.dto.job.PluginJobStatus;
+import com.webank.wecube.plugins.alicloud.support.DtoValidator;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Run batch requests as background jobs.
+ * <p>
+ * The request is validated and a job ID is returned right away, so the servlet thread never waits on cloud-side
+ * provisioning. The result, which keeps each item's guid and callbackParameter, is posted to the callback URL when
+ * given, and can always be queried by the job ID until the job expires.
+ *
+ * @author howechen
+ */
+@Component
+public class PluginJobManager {
+    private static final Logger logger = LoggerFactory.getLogger(PluginJobManager.class);
+
+    private final JobProperties jobProperties;
+    private final RestTemplate restTemplate;
+    private final DtoValidator dtoValidator;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, PluginJobDto> jobs;
+
+    @Autowired
+    public PluginJobManager(JobProperties jobProperties, RestTemplate restTemplate, DtoValidator dtoValidator) {
+        this.jobProperties = jobProperties;
+        this.restTemplate = restTemplate;
+        this.dtoValidator = dtoValidator;
+        final int poolSize = Math.max(1, jobProperties.getPoolSize());
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, jobProperties.getQueueCapacity())),
+                new ThreadFactoryBuilder().setNameFormat("plugin-job-%d").setDaemon(true).build());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.jobs = CacheBuilder.newBuilder()
+                .maximumSize(jobProperties.getMaxRetainedJobs())
+                .expireAfterWrite(jobProperties.getRetentionMinutes(), TimeUnit.MINUTES)
+                .build();
+    }
+
+    /**
+     * Validate the request and run the batch in the background
+     *
+     * @param request     core request
+     * @param callbackUrl optional URL which the job status is posted to once the job finishes
+     * @param batch       batch handler, usually the service method the synchronous endpoint calls
+     * @param <T>         request input type
+     * @param <R>         response output type
+     * @return accepted response with the job ID for every input, or error response when the request is invalid
+     */
+    public <T extends CoreRequestInputDto, R extends CoreResponseOutputDto> CoreResponseDto<CoreJobAcceptedDto> submit(CoreRequestDto<T> request, String callbackUrl, Function<List<T>, List<R>> batch) {
+        final List<T> inputs = request.getInputs();
+        try {
+            validate(inputs, callbackUrl);
+        } catch (PluginException ex) {
+            logger.error("Rejected the async request: [{}]", request.getRequestId(), ex);
+            return CoreResponseDto.error(ex.getMessage());
+        }
+
+        final String jobId = UUID.randomUUID().toString();
+        final PluginJobDto job = new PluginJobDto(jobId, request.getRequestId(), request.getOperator());
+        jobs.put(jobId, job);
+        try {
+            executor.execute(() -> run(job, inputs, callbackUrl, batch));
+        } catch (RejectedExecutionException ex) {
+            jobs.invalidate(jobId);
+            logger.error("Job queue is full, rejected the async request: [{}]", request.getRequestId());
+            return CoreResponseDto.error("Too many pending jobs, please retry later.");
+        }
+        logger.info("Accepted job: [{}] of request: [{}] with [{}] item(s).", jobId, request.getRequestId(), inputs.size());
+
+        List<CoreJobAcceptedDto> resultList = new ArrayList<>(inputs.size());
+        for (T input : inputs) {
+            resultList.add(new CoreJobAcceptedDto(jobId, input.getGuid(), input.getCallbackParameter()));
+        }
+        final CoreResponseDto<CoreJobAcceptedDto> response = CoreResponseDto.okay();
+        return response.withData(resultList);
+    }
+
+    /**
+     * Job status by job ID
+     *
+     * @param jobId job ID
+     * @return job status, null when not found or expired
+     */
+    public PluginJobDto getJob(String jobId) {
+        return jobs.getIfPresent(jobId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T extends CoreRequestInputDto> void validate(List<T> inputs, String callbackUrl) throws PluginException {
+        if (null == inputs || inputs.isEmpty()) {
+            throw new PluginException("Request inputs cannot be null or empty.");
+        }
+        for (T input : inputs) {
+            dtoValidator.validate(input);
+        }
+        if (StringUtils.isEmpty(callbackUrl)) {
+            return;
+        }
+        if (!StringUtils.startsWithAny(callbackUrl, "http://", "https://")) {
+            throw new PluginException(String.format("Invalid callback URL: [%s], only http and https are supported.", callbackUrl));
+        }
+        // the job result carries encrypted passwords, so it's only ever posted to the configured destinations
+        final List<String> allowedPrefixes = jobProperties.getAllowedCallbackUrlPrefixes();
+        if (null == allowedPrefixes || allowedPrefixes.isEmpty()) {
+            throw new PluginException("Callback URL is not allowed since no allowed callback URL prefix is configured, poll the job status instead.");
+        }
+        if (allowedPrefixes.stream().noneMatch(prefix -> isUnderPrefix(callbackUrl, prefix))) {
+            throw new PluginException(String.format("The callback URL: [%s] is not allowed.", callbackUrl));
+        }
+    }
+
+    /**
+     * @return whether the URL has the scheme, host and port of the prefix, and a path under the prefix's path
+     */
+    private static boolean isUnderPrefix(String url, String prefix) {
+        try {
+            final URI uri = new URI(url).normalize();
+            final URI prefixUri = new URI(prefix).normalize();
+            if (null == uri.getHost() || null != uri.getUserInfo()) {
+                return false;
+            }
+            return StringUtils.equalsIgnoreCase(uri.getScheme(), prefixUri.getScheme())
+                    && StringUtils.equalsIgnoreCase(uri.getHost(), prefixUri.getHost())
+                    && uri.getPort() == prefixUri.getPort()
+                    && StringUtils.startsWith(StringUtils.defaultString(uri.getPath()), StringUtils.defaultString(prefixUri.getPath()));
+        } catch (URISyntaxException ex) {
+            return false;
+        }
+    }
+
+    private <T extends CoreRequestInputDto, R extends CoreResponseOutputDto> void run(PluginJobDto job, List<T> inputs, String callbackUrl, Function<List<T>, List<R>> batch) {
+        final String jobId = job.getJobId();
+        jobs.put(jobId, job.withStatus(PluginJobStatus.RUNNING));
+        logger.info("Running job: [{}]...", jobId);
+
+        PluginJobDto finishedJob;
+        try {
+            final List<R> result = batch.apply(inputs);
+            finishedJob = job.withResponse(PluginJobStatus.COMPLETED, new CoreResponseDto<R>().withErrorCheck(result));
+        } catch (Throwable ex) {
+            logger.error("Job: [{}] failed.", jobId, ex);
+            finishedJob = job.withResponse(PluginJobStatus.FAILED, CoreResponseDto.error(ex.getMessage()));
+        }
+        jobs.put(jobId, finishedJob);
+        logger.info("Job: [{}] finished with status: [{}].", jobId, finishedJob.getStatus());
+
+        if (StringUtils.isNotEmpty(callbackUrl)) {
+            sendCallback(finishedJob, callbackUrl);
+        }
+    }
+
+    private void sendCallback(PluginJobDto job, String callbackUrl) {
+        final int maxAttempts = Math.max(1, jobProperties.getCallbackMaxAttempts());
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                restTemplate.postForEntity(callbackUrl, job, String.class);
+                logger.info("Posted result of job: [{}] to callback URL: [{}].", job.getJobId(), callbackUrl);
+                return;
+            } catch (RuntimeException ex) {
+                logger.warn("Failed to post result of job: [{}] to callback URL: [{}], attempt: [{}/{}], error: [{}]", job.getJobId(), callbackUrl, attempt, maxAttempts, ex.getMessage());
+            }
+            if (attempt < maxAttempts) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(jobProperties.getCallbackBackoffMillis() * attempt);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        logger.error("Gave up posting result of job: [{}], the result is still available by the job ID.", job.getJobId());
+    }
+}
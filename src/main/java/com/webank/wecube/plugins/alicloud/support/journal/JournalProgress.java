@@ -0,0 +1,51 @@
+package com.webank.wecube.plugins.alicloud.support.journal;
+
+/**
+ * Journaled progress of one request item.
+ *
+ * @author howechen
+ */
+public class JournalProgress {
+    private final PluginJournal journal;
+    private final String itemKey;
+
+    JournalProgress(PluginJournal journal, String itemKey) {
+        this.journal = journal;
+        this.itemKey = itemKey;
+    }
+
+    /**
+     * Value of the completed step
+     *
+     * @param step step name
+     * @return recorded value, null when the step hasn't been completed before
+     */
+    public String get(String step) {
+        return journal.get(itemKey, step);
+    }
+
+    public boolean has(String step) {
+        return null != get(step);
+    }
+
+    /**
+     * Record a completed step, call it right after the cloud-side change is made
+     *
+     * @param step  step name
+     * @param value step value, such as the created resource's ID
+     */
+    public void record(String step, String value) {
+        journal.record(itemKey, step, value);
+    }
+
+    /**
+     * Mark the item as done, its steps are no longer kept
+     */
+    public void complete() {
+        journal.complete(itemKey);
+    }
+
+    public String getItemKey() {
+        return itemKey;
+    }
+}
@@ -0,0 +1,362 @@
+package com.webank.wecube.plugins.alicloud.support.journal;
+
+import com.webank.wecube.plugins.alicloud.common.JournalProperties;
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.dto.CoreRequestInputDto;
+import com.webank.wecube.plugins.alicloud.support.PluginBatchExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped journal of the completed steps of long-running request items.
+ * <p>
+ * Services record each cloud-side change, such as the created instance ID, right after it's made. When the plugin
+ * restarts in the middle of an item, WeCube's retry of the same guid finds the recorded steps and resumes from the
+ * pending wait instead of creating the resources again. Items are resumed by the retry rather than by the plugin
+ * itself.
+ * <p>
+ * The passwords the resources were created with are journaled only encrypted with the item's guid and seed, the way
+ * WeCube hands them to the plugin, and are decrypted when the retry brings the seed again. The seed is never
+ * journaled. The journal files are readable and writable by the plugin's user only, where the file system supports
+ * POSIX permissions.
+ * <p>
+ * Each record is [payload length][CRC32][type][payload]. The length is written last, so a record torn by a crash is
+ * detected by its checksum and the journal is truncated there. When the file is full, the live items are compacted
+ * into a new file which atomically replaces the old one.
+ *
+ * @author howechen
+ */
+@Component
+public class PluginJournal {
+    private static final Logger logger = LoggerFactory.getLogger(PluginJournal.class);
+
+    static final String FILE_NAME = "plugin.journal";
+    private static final String COMPACT_FILE_NAME = "plugin.journal.compact";
+    private static final int HEADER_SIZE = 9;
+    private static final byte TYPE_STEP = 1;
+    private static final byte TYPE_COMPLETE = 2;
+    private static final String KEY_DELIMITER = "|";
+
+    private final JournalProperties journalProperties;
+    private final Map<String, ItemSteps> items = new HashMap<>();
+    private Path directory;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int position;
+
+    @Autowired
+    public PluginJournal(JournalProperties journalProperties) {
+        this.journalProperties = journalProperties;
+        if (!journalProperties.isEnabled()) {
+            logger.info("Plugin journal is disabled.");
+            return;
+        }
+        try {
+            open();
+        } catch (IOException | PluginException ex) {
+            logger.error("Cannot open the plugin journal in directory: [{}], in-flight items won't survive a restart.", journalProperties.getDirectory(), ex);
+            closeQuietly();
+        }
+    }
+
+    /**
+     * Progress of the request item, keyed by the operation, the item's account and guid
+     *
+     * @param operation  operation name, such as "rds.createDB"
+     * @param requestDto request item
+     * @return progress of the item
+     */
+    public JournalProgress progressOf(String operation, CoreRequestInputDto requestDto) {
+        return progressOf(String.join(KEY_DELIMITER, operation, PluginBatchExecutor.accountOf(requestDto), requestDto.getGuid()));
+    }
+
+    public JournalProgress progressOf(String itemKey) {
+        return new JournalProgress(this, itemKey);
+    }
+
+    public synchronized int getPendingCount() {
+        return items.size();
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (null != buffer) {
+            buffer.force();
+        }
+        closeQuietly();
+    }
+
+    synchronized String get(String itemKey, String step) {
+        final ItemSteps itemSteps = items.get(itemKey);
+        return null == itemSteps ? null : itemSteps.steps.get(step);
+    }
+
+    synchronized void record(String itemKey, String step, String value) {
+        if (null == value) {
+            return;
+        }
+        final ItemSteps itemSteps = items.computeIfAbsent(itemKey, k -> new ItemSteps(System.currentTimeMillis()));
+        itemSteps.steps.put(step, value);
+        append(TYPE_STEP, encode(itemSteps.createdTime, itemKey, step, value));
+    }
+
+    synchronized void complete(String itemKey) {
+        final ItemSteps itemSteps = items.remove(itemKey);
+        if (null != itemSteps) {
+            append(TYPE_COMPLETE, encode(itemSteps.createdTime, itemKey, "", ""));
+        }
+    }
+
+    private void open() throws IOException {
+        directory = Paths.get(journalProperties.getDirectory());
+        Files.createDirectories(directory);
+        Files.deleteIfExists(directory.resolve(COMPACT_FILE_NAME));
+
+        final Path file = directory.resolve(FILE_NAME);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        restrictToOwner(file);
+        final long size = Math.max(journalProperties.getFileSizeBytes(), channel.size());
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        position = replay();
+        expire();
+        logger.info("Plugin journal opened at: [{}] with [{}] pending item(s).", file.toAbsolutePath(), items.size());
+        items.keySet().forEach(itemKey -> logger.info("Pending item: [{}] will be resumed when it's retried.", itemKey));
+    }
+
+    private int replay() {
+        final int capacity = buffer.capacity();
+        int pos = 0;
+        boolean torn = false;
+        while (pos + HEADER_SIZE <= capacity) {
+            final int length = buffer.getInt(pos);
+            if (length == 0) {
+                break;
+            }
+            if (length < 0 || pos + HEADER_SIZE + length > capacity) {
+                torn = true;
+                break;
+            }
+            final byte type = buffer.get(pos + 8);
+            final byte[] payload = new byte[length];
+            final ByteBuffer view = buffer.duplicate();
+            view.position(pos + HEADER_SIZE);
+            view.get(payload);
+            if (buffer.getInt(pos + 4) != checksum(type, payload)) {
+                torn = true;
+                break;
+            }
+            apply(type, payload);
+            pos += HEADER_SIZE + length;
+        }
+
+        if (torn) {
+            logger.warn("Found a torn record at position: [{}] of the plugin journal, truncating the journal there.", pos);
+            final ByteBuffer view = buffer.duplicate();
+            view.position(pos);
+            final byte[] zeros = new byte[8192];
+            while (view.hasRemaining()) {
+                view.put(zeros, 0, Math.min(zeros.length, view.remaining()));
+            }
+        }
+        return pos;
+    }
+
+    private void apply(byte type, byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            final long createdTime = in.readLong();
+            final String itemKey = in.readUTF();
+            final String step = in.readUTF();
+            final String value = in.readUTF();
+            if (TYPE_STEP == type) {
+                items.computeIfAbsent(itemKey, k -> new ItemSteps(createdTime)).steps.put(step, value);
+            } else if (TYPE_COMPLETE == type) {
+                items.remove(itemKey);
+            }
+        } catch (IOException ex) {
+            throw new PluginException("Cannot decode the plugin journal record.", ex);
+        }
+    }
+
+    private void append(byte type, byte[] payload) {
+        if (null == buffer) {
+            return;
+        }
+        try {
+            if (position + HEADER_SIZE + payload.length > buffer.capacity()) {
+                // the index already has the change, so the compacted journal contains it
+                compact(HEADER_SIZE + payload.length);
+                return;
+            }
+            position += write(buffer, position, type, payload);
+            if (journalProperties.isSyncOnWrite()) {
+                buffer.force();
+            }
+        } catch (IOException ex) {
+            logger.error("Cannot write the plugin journal, in-flight items won't survive a restart.", ex);
+            closeQuietly();
+        }
+    }
+
+    /**
+     * Rewrite the live items into a new file which replaces the current one
+     *
+     * @param required bytes required by the record to append
+     */
+    private void compact(int required) throws IOException {
+        expire();
+        List<byte[]> payloads = new ArrayList<>();
+        long liveBytes = 0;
+        for (Map.Entry<String, ItemSteps> entry : items.entrySet()) {
+            for (Map.Entry<String, String> step : entry.getValue().steps.entrySet()) {
+                final byte[] payload = encode(entry.getValue().createdTime, entry.getKey(), step.getKey(), step.getValue());
+                payloads.add(payload);
+                liveBytes += HEADER_SIZE + payload.length;
+            }
+        }
+
+        // keep at least half of the new file free for the records to come
+        long size = buffer.capacity();
+        while (size < (liveBytes + required) * 2) {
+            size *= 2;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException(String.format("The plugin journal cannot grow to [%d] bytes.", size));
+        }
+
+        final Path compactFile = directory.resolve(COMPACT_FILE_NAME);
+        Files.deleteIfExists(compactFile);
+        final FileChannel newChannel = FileChannel.open(compactFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        restrictToOwner(compactFile);
+        final MappedByteBuffer newBuffer = newChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        int pos = 0;
+        for (byte[] payload : payloads) {
+            pos += write(newBuffer, pos, TYPE_STEP, payload);
+        }
+        newBuffer.force();
+        Files.move(compactFile, directory.resolve(FILE_NAME), StandardCopyOption.ATOMIC_MOVE);
+
+        // the old mapping outlives its channel until it's released, so a long-running plugin would pile them up
+        final MappedByteBuffer oldBuffer = buffer;
+        channel.close();
+        channel = newChannel;
+        buffer = newBuffer;
+        position = pos;
+        unmap(oldBuffer);
+        logger.info("Compacted the plugin journal to [{}] bytes with [{}] pending item(s).", size, items.size());
+    }
+
+    private void expire() {
+        final long expireBefore = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(journalProperties.getRetentionMinutes());
+        final int before = items.size();
+        items.values().removeIf(itemSteps -> itemSteps.createdTime < expireBefore);
+        if (items.size() < before) {
+            logger.warn("Dropped [{}] journaled item(s) which haven't been retried within [{}] minutes.", before - items.size(), journalProperties.getRetentionMinutes());
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            if (null != channel) {
+                channel.close();
+            }
+        } catch (IOException ex) {
+            logger.warn("Cannot close the plugin journal.", ex);
+        }
+        final MappedByteBuffer oldBuffer = buffer;
+        channel = null;
+        buffer = null;
+        if (null != oldBuffer) {
+            unmap(oldBuffer);
+        }
+    }
+
+    private static void restrictToOwner(Path file) throws IOException {
+        try {
+            Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException ex) {
+            logger.warn("Cannot restrict the plugin journal: [{}] to its owner, the file system doesn't support POSIX permissions.", file);
+        }
+    }
+
+    /**
+     * Release the mapping right away instead of when the buffer is garbage collected, the buffer must not be used
+     * afterwards
+     */
+    private static void unmap(MappedByteBuffer mappedBuffer) {
+        try {
+            try {
+                // Java 9 and later
+                final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                invokeCleaner.invoke(theUnsafe.get(null), mappedBuffer);
+            } catch (NoSuchMethodException ex) {
+                // Java 8
+                final Method cleanerMethod = mappedBuffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                final Object cleaner = cleanerMethod.invoke(mappedBuffer);
+                if (null != cleaner) {
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            logger.warn("Cannot unmap the plugin journal, the mapping is released when it's garbage collected.", ex);
+        }
+    }
+
+    private static int write(MappedByteBuffer target, int pos, byte type, byte[] payload) {
+        final ByteBuffer view = target.duplicate();
+        view.position(pos + HEADER_SIZE);
+        view.put(payload);
+        target.put(pos + 8, type);
+        target.putInt(pos + 4, checksum(type, payload));
+        // the length goes last and commits the record
+        target.putInt(pos, payload.length);
+        return HEADER_SIZE + payload.length;
+    }
+
+    private static int checksum(byte type, byte[] payload) {
+        final CRC32 crc32 = new CRC32();
+        crc32.update(type);
+        crc32.update(payload);
+        return (int) crc32.getValue();
+    }
+
+    private static byte[] encode(long createdTime, String itemKey, String step, String value) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + itemKey.length() + step.length() + value.length());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(createdTime);
+            out.writeUTF(itemKey);
+            out.writeUTF(step);
+            out.writeUTF(value);
+        } catch (IOException ex) {
+            throw new PluginException("Cannot encode the plugin journal record.", ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static final class ItemSteps {
+        private final long createdTime;
+        private final Map<String, String> steps = new LinkedHashMap<>();
+
+        private ItemSteps(long createdTime) {
+            this.createdTime = createdTime;
+        }
+    }
+}
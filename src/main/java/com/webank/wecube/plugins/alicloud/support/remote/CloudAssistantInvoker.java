@@ -0,0 +1,287 @@
+package com.webank.wecube.plugins.alicloud.support.remote;
+
+import com.aliyuncs.IAcsClient;
+import com.aliyuncs.ecs.model.v20140526.DescribeInvocationResultsRequest;
+import com.aliyuncs.ecs.model.v20140526.DescribeInvocationResultsResponse;
+import com.aliyuncs.ecs.model.v20140526.RunCommandRequest;
+import com.aliyuncs.ecs.model.v20140526.RunCommandResponse;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.common.RemoteExecutionProperties;
+import com.webank.wecube.plugins.alicloud.support.AcsClientStub;
+import com.webank.wecube.plugins.alicloud.support.AliCloudException;
+import com.webank.wecube.plugins.alicloud.support.timer.PluginWaitScheduler;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Coalesce concurrent Cloud Assistant invocations.
+ * <p>
+ * Invocations of the same script by (account, region) within the batch window are sent as one RunCommand targeting
+ * all of their instances, up to cloudAssistantMaxInstancesPerInvocation. Each RunCommand is then polled by one timer
+ * task which collects the results of all its instances with paged DescribeInvocationResults calls.
+ *
+ * @author howechen
+ */
+@Component
+public class CloudAssistantInvoker {
+    private static final Logger logger = LoggerFactory.getLogger(CloudAssistantInvoker.class);
+
+    private static final String COMMAND_TYPE = "RunShellScript";
+    private static final String CONTENT_ENCODING = "Base64";
+    private static final long RESULT_PAGE_SIZE = 50L;
+    private static final Set<String> RUNNING_STATUSES = Sets.newHashSet("Pending", "Scheduled", "Running", "Stopping");
+    private static final Set<String> SUCCESS_STATUSES = Sets.newHashSet("Finished", "Success");
+
+    private final AcsClientStub acsClientStub;
+    private final RemoteExecutionProperties remoteExecutionProperties;
+    private final PluginWaitScheduler waitScheduler;
+    private final ConcurrentMap<InvocationKey, InvocationBatch> batches = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CloudAssistantInvoker(AcsClientStub acsClientStub, RemoteExecutionProperties remoteExecutionProperties, PluginWaitScheduler waitScheduler) {
+        this.acsClientStub = acsClientStub;
+        this.remoteExecutionProperties = remoteExecutionProperties;
+        this.waitScheduler = waitScheduler;
+    }
+
+    /**
+     * Run the shell script on the instance and wait for its result
+     *
+     * @return stdout of the script
+     * @throws PluginException when the invocation fails, times out or the script exits with non-zero code
+     */
+    public String run(IAcsClient client, String regionId, String instanceId, String script) throws PluginException {
+        try {
+            return invoke(client, regionId, instanceId, script).join();
+        } catch (CancellationException ex) {
+            throw new PluginException("The running task has been cancelled.");
+        } catch (CompletionException ex) {
+            final Throwable cause = null == ex.getCause() ? ex : ex.getCause();
+            if (cause instanceof PluginException) {
+                throw (PluginException) cause;
+            }
+            if (cause instanceof AliCloudException) {
+                throw (AliCloudException) cause;
+            }
+            throw new PluginException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Invoke the shell script on the instance, batched with the other invocations of the same script
+     *
+     * @return future completed with the stdout of the script
+     */
+    public CompletableFuture<String> invoke(IAcsClient client, String regionId, String instanceId, String script) {
+        if (StringUtils.isAnyEmpty(regionId, instanceId, script)) {
+            throw new PluginException("Either regionId, instance ID or script cannot be null or empty.");
+        }
+        final PendingInvocation pendingInvocation = new PendingInvocation(instanceId);
+        final InvocationKey key = new InvocationKey(client, regionId, script);
+        while (true) {
+            final InvocationBatch batch = batches.computeIfAbsent(key, InvocationBatch::new);
+            if (batch.add(pendingInvocation)) {
+                break;
+            }
+            // the batch has just been sent, start a new one
+            batches.remove(key, batch);
+        }
+        return pendingInvocation.future;
+    }
+
+    private void send(InvocationKey key, List<PendingInvocation> pendingInvocations) {
+        final Map<String, List<PendingInvocation>> byInstance = new LinkedHashMap<>();
+        pendingInvocations.forEach(pendingInvocation -> byInstance.computeIfAbsent(pendingInvocation.instanceId, k -> new ArrayList<>()).add(pendingInvocation));
+
+        final int maxInstances = Math.max(1, remoteExecutionProperties.getCloudAssistantMaxInstancesPerInvocation());
+        for (List<String> instanceIds : Lists.partition(new ArrayList<>(byInstance.keySet()), maxInstances)) {
+            final Map<String, List<PendingInvocation>> chunk = new LinkedHashMap<>();
+            instanceIds.forEach(instanceId -> chunk.put(instanceId, byInstance.get(instanceId)));
+            try {
+                final String invokeId = runCommand(key, instanceIds);
+                poll(key, invokeId, chunk);
+            } catch (RuntimeException ex) {
+                chunk.values().forEach(list -> list.forEach(pendingInvocation -> pendingInvocation.future.completeExceptionally(ex)));
+            }
+        }
+    }
+
+    private String runCommand(InvocationKey key, List<String> instanceIds) throws PluginException, AliCloudException {
+        logger.info("Running Cloud Assistant command on [{}] instance(s) in region: [{}]...", instanceIds.size(), key.regionId);
+        final RunCommandRequest request = new RunCommandRequest();
+        request.setType(COMMAND_TYPE);
+        request.setContentEncoding(CONTENT_ENCODING);
+        request.setCommandContent(Base64.getEncoder().encodeToString(key.script.getBytes(StandardCharsets.UTF_8)));
+        request.setInstanceIds(instanceIds);
+        request.setTimeout(remoteExecutionProperties.getCloudAssistantTimeoutSeconds());
+        final RunCommandResponse response = acsClientStub.request(key.client, request, key.regionId);
+        if (StringUtils.isEmpty(response.getInvokeId())) {
+            throw new PluginException("Cannot get the invoke ID of the Cloud Assistant command.");
+        }
+        return response.getInvokeId();
+    }
+
+    private void poll(InvocationKey key, String invokeId, Map<String, List<PendingInvocation>> byInstance) {
+        final long timeoutMillis = TimeUnit.SECONDS.toMillis(remoteExecutionProperties.getCloudAssistantTimeoutSeconds())
+                + remoteExecutionProperties.getCloudAssistantPollIntervalMillis() * 2;
+        final AtomicReference<RuntimeException> lastPollError = new AtomicReference<>();
+        Function<?, Boolean> func = o -> resolve(key, invokeId, byInstance, lastPollError);
+        waitScheduler.waitUntil(func, remoteExecutionProperties.getCloudAssistantPollIntervalMillis(), timeoutMillis).whenComplete((v, ex) -> {
+            if (null != ex) {
+                logger.error("Polling of the Cloud Assistant invocation: [{}] stopped.", invokeId, ex);
+                final Throwable failure = null == lastPollError.get() ? ex
+                        : new PluginException(String.format("Polling of the Cloud Assistant invocation: [%s] stopped, last polling error: [%s]", invokeId, lastPollError.get().getMessage()), ex);
+                byInstance.values().forEach(list -> list.forEach(pendingInvocation -> pendingInvocation.future.completeExceptionally(failure)));
+            }
+        });
+    }
+
+    /**
+     * Complete the invocations whose instance has finished. A failed DescribeInvocationResults call only fails this
+     * poll, the next poll asks again until the polling times out.
+     *
+     * @return whether all the instances of the invocation have finished
+     */
+    private boolean resolve(InvocationKey key, String invokeId, Map<String, List<PendingInvocation>> byInstance, AtomicReference<RuntimeException> lastPollError) {
+        try {
+            return resolve(key, invokeId, byInstance);
+        } catch (PluginException | AliCloudException ex) {
+            logger.warn("Failed to poll the Cloud Assistant invocation: [{}], retrying on the next poll, error: [{}]", invokeId, ex.getMessage());
+            lastPollError.set(ex);
+            return false;
+        }
+    }
+
+    private boolean resolve(InvocationKey key, String invokeId, Map<String, List<PendingInvocation>> byInstance) throws PluginException, AliCloudException {
+        final Set<String> runningInstanceIds = new HashSet<>(byInstance.keySet());
+        long pageNumber = 1L;
+        long totalCount;
+        do {
+            final DescribeInvocationResultsRequest request = new DescribeInvocationResultsRequest();
+            request.setInvokeId(invokeId);
+            request.setPageNumber(pageNumber);
+            request.setPageSize(RESULT_PAGE_SIZE);
+            final DescribeInvocationResultsResponse response = acsClientStub.request(key.client, request, key.regionId);
+            final DescribeInvocationResultsResponse.Invocation invocation = response.getInvocation();
+            if (null == invocation || null == invocation.getInvocationResults()) {
+                break;
+            }
+            for (DescribeInvocationResultsResponse.Invocation.InvocationResult result : invocation.getInvocationResults()) {
+                final List<PendingInvocation> pendingInvocations = byInstance.get(result.getInstanceId());
+                if (null == pendingInvocations || RUNNING_STATUSES.contains(result.getInvokeRecordStatus())) {
+                    continue;
+                }
+                runningInstanceIds.remove(result.getInstanceId());
+                complete(invokeId, result, pendingInvocations);
+            }
+            totalCount = null == invocation.getTotalCount() ? 0L : invocation.getTotalCount();
+            pageNumber++;
+        } while ((pageNumber - 1) * RESULT_PAGE_SIZE < totalCount);
+
+        return runningInstanceIds.isEmpty();
+    }
+
+    private void complete(String invokeId, DescribeInvocationResultsResponse.Invocation.InvocationResult result, List<PendingInvocation> pendingInvocations) {
+        final String output = null == result.getOutput() ? StringUtils.EMPTY : new String(Base64.getMimeDecoder().decode(result.getOutput()), StandardCharsets.UTF_8);
+        final Long exitCode = result.getExitCode();
+        if (SUCCESS_STATUSES.contains(result.getInvokeRecordStatus()) && (null == exitCode || 0L == exitCode)) {
+            // join the lines like the SSH transport does
+            final String stdout = output.replaceAll("\\r?\\n", StringUtils.EMPTY);
+            pendingInvocations.forEach(pendingInvocation -> pendingInvocation.future.complete(stdout));
+            return;
+        }
+        final PluginException ex = new PluginException(String.format("Cloud Assistant invocation: [%s] on instance: [%s] ended with status: [%s], exit code: [%s], output: [%s]",
+                invokeId, result.getInstanceId(), result.getInvokeRecordStatus(), exitCode, StringUtils.abbreviate(output, 1024)));
+        pendingInvocations.forEach(pendingInvocation -> pendingInvocation.future.completeExceptionally(ex));
+    }
+
+    public int getBatchCount() {
+        return batches.size();
+    }
+
+    private final class InvocationBatch {
+        private final InvocationKey key;
+        private final List<PendingInvocation> pendingInvocations = new ArrayList<>();
+        private boolean sent = false;
+
+        private InvocationBatch(InvocationKey key) {
+            this.key = key;
+        }
+
+        private boolean add(PendingInvocation pendingInvocation) {
+            synchronized (this) {
+                if (sent) {
+                    return false;
+                }
+                pendingInvocations.add(pendingInvocation);
+                if (pendingInvocations.size() > 1) {
+                    return true;
+                }
+            }
+            waitScheduler.runLater(this::send, remoteExecutionProperties.getCloudAssistantBatchWindowMillis());
+            return true;
+        }
+
+        private void send() {
+            final List<PendingInvocation> snapshot;
+            synchronized (this) {
+                sent = true;
+                batches.remove(key, this);
+                snapshot = new ArrayList<>(pendingInvocations);
+            }
+            CloudAssistantInvoker.this.send(key, snapshot);
+        }
+    }
+
+    private static final class PendingInvocation {
+        private final String instanceId;
+        private final CompletableFuture<String> future = new CompletableFuture<>();
+
+        private PendingInvocation(String instanceId) {
+            this.instanceId = instanceId;
+        }
+    }
+
+    /**
+     * Clients are cached per account and region, so the client instance identifies the account.
+     */
+    private static final class InvocationKey {
+        private final IAcsClient client;
+        private final String regionId;
+        private final String script;
+
+        private InvocationKey(IAcsClient client, String regionId, String script) {
+            this.client = client;
+            this.regionId = regionId;
+            this.script = script;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            InvocationKey that = (InvocationKey) o;
+            return client == that.client && regionId.equals(that.regionId) && script.equals(that.script);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(client), regionId, script);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.webank.wecube.plugins.alicloud.support.remote;
+
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the operation with ECS Cloud Assistant, without any password or network reach to the VM.
+ * <p>
+ * The files to upload are written by the script of the next command, so the operations sharing the same scripts
+ * and arguments on many VMs are sent as one invocation by {@link CloudAssistantInvoker}.
+ *
+ * @author howechen
+ */
+@Component
+public class CloudAssistantRemoteExecutionTransport implements RemoteExecutionTransport {
+    private static final Logger logger = LoggerFactory.getLogger(CloudAssistantRemoteExecutionTransport.class);
+
+    private final CloudAssistantInvoker cloudAssistantInvoker;
+
+    @Autowired
+    public CloudAssistantRemoteExecutionTransport(CloudAssistantInvoker cloudAssistantInvoker) {
+        this.cloudAssistantInvoker = cloudAssistantInvoker;
+    }
+
+    @Override
+    public RemoteTransportType getType() {
+        return RemoteTransportType.CLOUD_ASSISTANT;
+    }
+
+    @Override
+    public <T> T withShell(RemoteTarget target, RemoteShell.Callback<T> callback) throws PluginException {
+        try {
+            return callback.doInShell(new CloudAssistantShell(target));
+        } catch (IOException ex) {
+            throw new PluginException(String.format("Error while running Cloud Assistant command on instance: [%s], meet error: %s", target.getInstanceId(), ex.getMessage()));
+        }
+    }
+
+    private final class CloudAssistantShell implements RemoteShell {
+        private final RemoteTarget target;
+        private final Map<String, byte[]> stagedFiles = new LinkedHashMap<>();
+
+        private CloudAssistantShell(RemoteTarget target) {
+            this.target = target;
+        }
+
+        @Override
+        public int putIfChanged(List<Pair<String, byte[]>> nameToDataPairList, String remoteTargetDirectory) {
+            nameToDataPairList.forEach(pair -> stagedFiles.put(remoteTargetDirectory.concat(pair.getKey()), pair.getValue()));
+            return nameToDataPairList.size();
+        }
+
+        @Override
+        public String runWithReturn(String command) {
+            logger.info("Sending command: [{}] to instance: [{}] with Cloud Assistant", command, target.getInstanceId());
+            final String result = cloudAssistantInvoker.run(target.getClient(), target.getRegionId(), target.getInstanceId(), buildScript(command));
+            stagedFiles.clear();
+            logger.info("result is: {}", result);
+            return result;
+        }
+
+        private String buildScript(String command) {
+            final List<String> lines = new ArrayList<>();
+            lines.add("#!/bin/sh");
+            stagedFiles.forEach((path, data) -> {
+                lines.add(String.format("echo '%s' | base64 -d > '%s' || exit 1", Base64.getEncoder().encodeToString(data), path));
+                lines.add(String.format("chmod 777 '%s'", path));
+            });
+            lines.add(command);
+            return StringUtils.join(lines, '\n');
+        }
+    }
+}
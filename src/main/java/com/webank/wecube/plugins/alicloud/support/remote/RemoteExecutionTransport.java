@@ -0,0 +1,21 @@
+package com.webank.wecube.plugins.alicloud.support.remote;
+
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+
+/**
+ * Pluggable way of running scripts on a VM, selected with plugins.alicloud.remote-execution.transport
+ *
+ * @author howechen
+ */
+public interface RemoteExecutionTransport {
+
+    RemoteTransportType getType();
+
+    /**
+     * Run the uploads and commands of the callback on the target VM
+     *
+     * @return result of the callback
+     * @throws PluginException when the VM cannot be reached or a command fails
+     */
+    <T> T withShell(RemoteTarget target, RemoteShell.Callback<T> callback) throws PluginException;
+}
@@ -0,0 +1,40 @@
+package com.webank.wecube.plugins.alicloud.support.remote;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Uploads and commands of one VM operation
+ *
+ * @author howechen
+ */
+public interface RemoteShell {
+
+    /**
+     * Make the files available on the VM, skipping the ones whose remote copy is up to date
+     *
+     * @param nameToDataPairList    file name to file content
+     * @param remoteTargetDirectory remote directory ending with '/'
+     * @return count of uploaded files
+     */
+    int putIfChanged(List<Pair<String, byte[]>> nameToDataPairList, String remoteTargetDirectory) throws IOException;
+
+    /**
+     * Run the command on the VM
+     *
+     * @param command shell command
+     * @return stdout of the command, lines joined without separator
+     */
+    String runWithReturn(String command) throws IOException;
+
+    default void run(String command) throws IOException {
+        runWithReturn(command);
+    }
+
+    @FunctionalInterface
+    interface Callback<T> {
+        T doInShell(RemoteShell shell) throws IOException;
+    }
+}
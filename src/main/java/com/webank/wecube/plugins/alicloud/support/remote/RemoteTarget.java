@@ -0,0 +1,46 @@
+package com.webank.wecube.plugins.alicloud.support.remote;
+
+import com.aliyuncs.IAcsClient;
+
+import java.util.function.Supplier;
+
+/**
+ * VM targeted by a remote operation. The host address and password are only resolved by the transports needing them.
+ *
+ * @author howechen
+ */
+public class RemoteTarget {
+    private final IAcsClient client;
+    private final String regionId;
+    private final String instanceId;
+    private final Supplier<String> hostSupplier;
+    private final Supplier<String> passwordSupplier;
+
+    public RemoteTarget(IAcsClient client, String regionId, String instanceId, Supplier<String> hostSupplier, Supplier<String> passwordSupplier) {
+        this.client = client;
+        this.regionId = regionId;
+        this.instanceId = instanceId;
+        this.hostSupplier = hostSupplier;
+        this.passwordSupplier = passwordSupplier;
+    }
+
+    public IAcsClient getClient() {
+        return client;
+    }
+
+    public String getRegionId() {
+        return regionId;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public String resolveHost() {
+        return hostSupplier.get();
+    }
+
+    public String resolvePassword() {
+        return passwordSupplier.get();
+    }
+}
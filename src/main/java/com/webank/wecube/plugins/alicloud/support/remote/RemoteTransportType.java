@@ -0,0 +1,15 @@
+package com.webank.wecube.plugins.alicloud.support.remote;
+
+/**
+ * @author howechen
+ */
+public enum RemoteTransportType {
+    /**
+     * SCP the scripts and run the commands over SSH, needs the host password and network reach to the VM
+     */
+    SSH,
+    /**
+     * Run the commands with ECS Cloud Assistant, needs the Cloud Assistant client on the VM
+     */
+    CLOUD_ASSISTANT
+}
@@ -0,0 +1,34 @@
+package com.webank.wecube.plugins.alicloud.support.remote;
+
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.support.PluginSshdClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the operation over one pooled SSH connection to the VM
+ *
+ * @author howechen
+ */
+@Component
+public class SshRemoteExecutionTransport implements RemoteExecutionTransport {
+
+    private final PluginSshdClient pluginSshdClient;
+
+    @Autowired
+    public SshRemoteExecutionTransport(PluginSshdClient pluginSshdClient) {
+        this.pluginSshdClient = pluginSshdClient;
+    }
+
+    @Override
+    public RemoteTransportType getType() {
+        return RemoteTransportType.SSH;
+    }
+
+    @Override
+    public <T> T withShell(RemoteTarget target, RemoteShell.Callback<T> callback) throws PluginException {
+        final String host = target.resolveHost();
+        final String password = target.resolvePassword();
+        return pluginSshdClient.withSession(host, PluginSshdClient.DEFAULT_USER, password, PluginSshdClient.PORT, callback::doInShell);
+    }
+}
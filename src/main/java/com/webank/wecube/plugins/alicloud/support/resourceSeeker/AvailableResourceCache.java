@@ -0,0 +1,176 @@
+package com.webank.wecube.plugins.alicloud.support.resourceSeeker;
+
+import com.aliyuncs.DefaultAcsClient;
+import com.aliyuncs.IAcsClient;
+import com.aliyuncs.profile.DefaultProfile;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.common.ResourceSeekerProperties;
+import com.webank.wecube.plugins.alicloud.support.AliCloudException;
+import com.webank.wecube.plugins.alicloud.support.retry.AliCloudErrorClassifier;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of DescribeAvailableResource responses shared by the resource seekers.
+ * <p>
+ * A batch of creates in the same zone asks the same stock question many times, so responses are kept for a few
+ * seconds by (account, product, region, zone, charge type, resource dimensions). Concurrent misses of the same key
+ * wait for a single request. Once a create fails because of no stock, the cached responses of the zone are dropped.
+ *
+ * @author howechen
+ */
+@Component
+public class AvailableResourceCache {
+    private static final Logger logger = LoggerFactory.getLogger(AvailableResourceCache.class);
+
+    private final Cache<AvailabilityKey, Object> cache;
+
+    @Autowired
+    public AvailableResourceCache(ResourceSeekerProperties resourceSeekerProperties) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(resourceSeekerProperties.getMaxCachedAvailabilities())
+                .expireAfterWrite(resourceSeekerProperties.getAvailabilityExpireSeconds(), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Get the cached response, or request it when missing
+     *
+     * @param client     client of the account
+     * @param product    product, such as ecs
+     * @param regionId   region id
+     * @param zoneId     zone id
+     * @param chargeType charge type
+     * @param dimensions other request parameters which affect the response
+     * @param loader     sends the DescribeAvailableResource request
+     * @param <T>        response type
+     * @return response
+     * @throws PluginException   plugin exception
+     * @throws AliCloudException alicloud exception
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(IAcsClient client, String product, String regionId, String zoneId, String chargeType, List<String> dimensions, Supplier<T> loader) throws PluginException, AliCloudException {
+        final AvailabilityKey key = new AvailabilityKey(accountOf(client), product, regionId, zoneId, chargeType, dimensions);
+        try {
+            return (T) cache.get(key, loader::get);
+        } catch (UncheckedExecutionException ex) {
+            if (ex.getCause() instanceof PluginException || ex.getCause() instanceof AliCloudException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new PluginException(String.format("Cannot query available resources of zone: [%s]", zoneId), ex.getCause());
+        } catch (ExecutionException ex) {
+            throw new PluginException(String.format("Cannot query available resources of zone: [%s]", zoneId), ex.getCause());
+        }
+    }
+
+    /**
+     * Run the create request of a resource in the zone, dropping the zone's cached responses if it fails because of
+     * no stock
+     *
+     * @param client   client of the account
+     * @param regionId region id
+     * @param zoneId   zone id
+     * @param creation sends the create request
+     * @param <T>      response type
+     * @return response
+     * @throws PluginException   plugin exception
+     * @throws AliCloudException alicloud exception
+     */
+    public <T> T create(IAcsClient client, String regionId, String zoneId, Supplier<T> creation) throws PluginException, AliCloudException {
+        try {
+            return creation.get();
+        } catch (AliCloudException ex) {
+            invalidateIfOutOfStock(client, regionId, zoneId, ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Drop the cached responses of the zone when the create failed because of no stock
+     *
+     * @param client   client of the account
+     * @param regionId region id
+     * @param zoneId   zone id
+     * @param ex       create failure
+     */
+    public void invalidateIfOutOfStock(IAcsClient client, String regionId, String zoneId, RuntimeException ex) {
+        if (!(ex instanceof AliCloudException) || !AliCloudErrorClassifier.isOutOfStock(((AliCloudException) ex).getErrCode())) {
+            return;
+        }
+        final String account = accountOf(client);
+        final boolean removed = cache.asMap().keySet().removeIf(key -> key.account.equals(account)
+                && StringUtils.equals(key.regionId, regionId)
+                && (StringUtils.isEmpty(zoneId) || StringUtils.equals(key.zoneId, zoneId)));
+        if (removed) {
+            logger.info("Dropped cached available resources of region: [{}], zone: [{}] after out of stock error: [{}]", regionId, zoneId, ((AliCloudException) ex).getErrCode());
+        }
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    static String accountOf(IAcsClient client) {
+        if (client instanceof DefaultAcsClient) {
+            final DefaultProfile profile = ((DefaultAcsClient) client).getProfile();
+            if (null != profile && null != profile.getCredential()) {
+                return StringUtils.defaultString(profile.getCredential().getAccessKeyId());
+            }
+        }
+        return client.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(client));
+    }
+
+    private static final class AvailabilityKey {
+        private final String account;
+        private final String product;
+        private final String regionId;
+        private final String zoneId;
+        private final String chargeType;
+        private final List<String> dimensions;
+
+        private AvailabilityKey(String account, String product, String regionId, String zoneId, String chargeType, List<String> dimensions) {
+            this.account = account;
+            this.product = product;
+            this.regionId = regionId;
+            this.zoneId = zoneId;
+            this.chargeType = chargeType;
+            this.dimensions = ImmutableList.copyOf(dimensions.stream().map(StringUtils::defaultString).iterator());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            AvailabilityKey that = (AvailabilityKey) o;
+            return account.equals(that.account)
+                    && Objects.equals(product, that.product)
+                    && Objects.equals(regionId, that.regionId)
+                    && Objects.equals(zoneId, that.zoneId)
+                    && Objects.equals(chargeType, that.chargeType)
+                    && dimensions.equals(that.dimensions);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(account, product, regionId, zoneId, chargeType, dimensions);
+        }
+    }
+}
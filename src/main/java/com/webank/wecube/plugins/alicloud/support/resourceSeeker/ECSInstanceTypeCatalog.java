@@ -0,0 +1,106 @@
+package com.webank.wecube.plugins.alicloud.support.resourceSeeker;
+
+import com.aliyuncs.IAcsClient;
+import com.aliyuncs.ecs.model.v20140526.DescribeInstanceTypesRequest;
+import com.aliyuncs.ecs.model.v20140526.DescribeInstanceTypesResponse;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.common.ResourceSeekerProperties;
+import com.webank.wecube.plugins.alicloud.support.AcsClientStub;
+import com.webank.wecube.plugins.alicloud.support.AliCloudException;
+import com.webank.wecube.plugins.alicloud.support.resourceSeeker.specs.InstanceTypeIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-region cache of the ECS instance type catalog.
+ * <p>
+ * The catalog barely changes, so it's loaded with one DescribeInstanceTypes call per region and kept until it
+ * expires. Once it's older than the refresh interval, the next lookup reloads it in the background while the cached
+ * one keeps being served.
+ *
+ * @author howechen
+ */
+@Component
+public class ECSInstanceTypeCatalog {
+    private static final Logger logger = LoggerFactory.getLogger(ECSInstanceTypeCatalog.class);
+
+    private final AcsClientStub acsClientStub;
+    private final Cache<String, InstanceTypeIndex> cache;
+    private final long refreshMillis;
+
+    @Autowired
+    public ECSInstanceTypeCatalog(AcsClientStub acsClientStub, ResourceSeekerProperties resourceSeekerProperties) {
+        this.acsClientStub = acsClientStub;
+        this.refreshMillis = TimeUnit.MINUTES.toMillis(resourceSeekerProperties.getInstanceTypeRefreshMinutes());
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(resourceSeekerProperties.getMaxCachedRegions())
+                .expireAfterWrite(resourceSeekerProperties.getInstanceTypeExpireMinutes(), TimeUnit.MINUTES)
+                .build();
+    }
+
+    /**
+     * Get the instance type catalog of the region, loading it on the first lookup
+     *
+     * @param client   client used to load or refresh the catalog
+     * @param regionId region id
+     * @return instance type catalog
+     * @throws PluginException   plugin exception
+     * @throws AliCloudException alicloud exception
+     */
+    public InstanceTypeIndex get(IAcsClient client, String regionId) throws PluginException, AliCloudException {
+        final InstanceTypeIndex index;
+        try {
+            index = cache.get(regionId, () -> load(client, regionId));
+        } catch (UncheckedExecutionException ex) {
+            if (ex.getCause() instanceof PluginException || ex.getCause() instanceof AliCloudException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new PluginException(String.format("Cannot load instance types of region: [%s]", regionId), ex.getCause());
+        } catch (ExecutionException ex) {
+            throw new PluginException(String.format("Cannot load instance types of region: [%s]", regionId), ex.getCause());
+        }
+
+        if (System.currentTimeMillis() - index.getLoadedTimeMillis() > refreshMillis && index.tryStartRefresh()) {
+            acsClientStub.supplyAsync(() -> load(client, regionId)).whenComplete((refreshed, ex) -> {
+                if (null != ex) {
+                    logger.warn("Cannot refresh instance types of region: [{}], keep serving the cached one.", regionId, ex);
+                    index.refreshFailed();
+                } else {
+                    cache.asMap().replace(regionId, index, refreshed);
+                }
+            });
+        }
+        return index;
+    }
+
+    public void invalidate(String regionId) {
+        cache.invalidate(regionId);
+    }
+
+    private InstanceTypeIndex load(IAcsClient client, String regionId) throws PluginException, AliCloudException {
+        final DescribeInstanceTypesRequest request = new DescribeInstanceTypesRequest();
+        final DescribeInstanceTypesResponse response = acsClientStub.request(client, request, regionId);
+        if (response.getInstanceTypes().isEmpty()) {
+            throw new PluginException(String.format("Cannot find instance types of region: [%s]", regionId));
+        }
+
+        final InstanceTypeIndex.Builder builder = InstanceTypeIndex.builder();
+        for (DescribeInstanceTypesResponse.InstanceType instanceType : response.getInstanceTypes()) {
+            if (null == instanceType.getCpuCoreCount() || null == instanceType.getMemorySize()) {
+                continue;
+            }
+            builder.add(instanceType.getInstanceTypeFamily(), instanceType.getInstanceTypeId(), instanceType.getCpuCoreCount(), Math.round(instanceType.getMemorySize()));
+        }
+        final InstanceTypeIndex index = builder.build(System.currentTimeMillis());
+        logger.info("Loaded [{}] instance types of region: [{}]", index.getTypeCount(), regionId);
+        return index;
+    }
+}
@@ -3,13 +3,11 @@ package com.webank.wecube.plugins.alicloud.support.resourceSeeker;
 import com.aliyuncs.IAcsClient;
 import com.aliyuncs.ecs.model.v20140526.DescribeAvailableResourceRequest;
 import com.aliyuncs.ecs.model.v20140526.DescribeAvailableResourceResponse;
-import com.aliyuncs.ecs.model.v20140526.DescribeInstanceTypesRequest;
-import com.aliyuncs.ecs.model.v20140526.DescribeInstanceTypesResponse;
-import com.google.common.collect.Maps;
 import com.webank.wecube.plugins.alicloud.common.PluginException;
 import com.webank.wecube.plugins.alicloud.support.AcsClientStub;
 import com.webank.wecube.plugins.alicloud.support.AliCloudException;
 import com.webank.wecube.plugins.alicloud.support.resourceSeeker.specs.CoreMemorySpec;
+import com.webank.wecube.plugins.alicloud.support.resourceSeeker.specs.InstanceTypeIndex;
 import com.webank.wecube.plugins.alicloud.support.resourceSeeker.specs.SpecInfo;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -17,8 +15,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -78,12 +76,17 @@ public class ECSResourceSeeker {
 
 
     private static final Logger logger = LoggerFactory.getLogger(ECSResourceSeeker.class);
+    private static final String PRODUCT = "ecs";
 
     private final AcsClientStub acsClientStub;
+    private final ECSInstanceTypeCatalog ecsInstanceTypeCatalog;
+    private final AvailableResourceCache availableResourceCache;
 
     @Autowired
-    public ECSResourceSeeker(AcsClientStub acsClientStub) {
+    public ECSResourceSeeker(AcsClientStub acsClientStub, ECSInstanceTypeCatalog ecsInstanceTypeCatalog, AvailableResourceCache availableResourceCache) {
         this.acsClientStub = acsClientStub;
+        this.ecsInstanceTypeCatalog = ecsInstanceTypeCatalog;
+        this.availableResourceCache = availableResourceCache;
     }
 
 
@@ -92,9 +95,12 @@ public class ECSResourceSeeker {
 
         final DescribeAvailableResourceResponse response = queryAvailableResources(client, regionId, zoneId, instanceChargeType);
 
-        final List<DescribeInstanceTypesResponse.InstanceType> foundInstanceTypes = queryTypes(client, locInstanceFamily);
+        final InstanceTypeIndex instanceTypeIndex = ecsInstanceTypeCatalog.get(client, regionId);
+        if (!instanceTypeIndex.containsFamily(locInstanceFamily)) {
+            throw new PluginException(String.format("Cannot find instance types by given instanceTypeFamily: [%s]", locInstanceFamily));
+        }
 
-        return filterAvailableResource(response, foundInstanceTypes, locInstanceFamily, coreAndMemoryString);
+        return filterAvailableResource(response, instanceTypeIndex, locInstanceFamily, coreAndMemoryString);
     }
 
     private DescribeAvailableResourceResponse queryAvailableResources(IAcsClient client, String regionId, String zoneId, String instanceChargeType) {
@@ -105,21 +111,23 @@ public class ECSResourceSeeker {
         request.setDestinationResource(DestinationResource.INSTANCE.getInstanceType());
         request.setResourceType(ResourceType.INSTANCE.getResourceType());
 
-        return this.acsClientStub.request(client, request, regionId);
+        return availableResourceCache.get(client, PRODUCT, regionId, zoneId, instanceChargeType,
+                Arrays.asList(request.getDestinationResource(), request.getResourceType()),
+                () -> this.acsClientStub.request(client, request, regionId));
     }
 
     /**
      * Filter out available resource according to the given instanceFamily
      *
-     * @param response         AliCloud's search resource response
-     * @param allInstanceTypes already found instance types including spec info
+     * @param response          AliCloud's search resource response
+     * @param instanceTypeIndex catalog of the region's instance types including spec info
      * @return found resource spec info
      * @throws PluginException   plugin exception
      * @throws AliCloudException alicloud exception
      */
-    private SpecInfo filterAvailableResource(DescribeAvailableResourceResponse response, List<DescribeInstanceTypesResponse.InstanceType> allInstanceTypes, String instanceFamily, String coreAndMemoryString) throws PluginException, AliCloudException {
+    private SpecInfo filterAvailableResource(DescribeAvailableResourceResponse response, InstanceTypeIndex instanceTypeIndex, String instanceFamily, String coreAndMemoryString) throws PluginException, AliCloudException {
 
-        final List<String> availableTypes;
+        final Set<String> availableTypes;
         try {
             if (response.getAvailableZones().get(0).getAvailableResources().isEmpty()) {
                 throw new PluginException("Cannot find relevant instance resource.");
@@ -130,7 +138,7 @@ public class ECSResourceSeeker {
                                     && StringUtils.equalsIgnoreCase(STATUS_CATEGORY.WithStock.toString(), supportedResource.getStatusCategory()))
                     .filter(supportedResource -> StringUtils.containsIgnoreCase(supportedResource.getValue(), instanceFamily))
                     .map(DescribeAvailableResourceResponse.AvailableZone.AvailableResource.SupportedResource::getValue)
-                    .collect(Collectors.toList());
+                    .collect(Collectors.toSet());
         } catch (IndexOutOfBoundsException ex) {
             throw new PluginException("Cannot find relevant instance resource.");
         }
@@ -139,31 +147,8 @@ public class ECSResourceSeeker {
             throw new PluginException(String.format("There is no available and with-stock resource that match the given instanceFamily: [%s].", instanceFamily));
         }
 
-        final List<Map.Entry<String, CoreMemorySpec>> sortedFitTypeList = allInstanceTypes.stream()
-                .filter(instanceType -> availableTypes.contains(instanceType.getInstanceTypeId()))
-                .map(instanceType -> Maps.immutableEntry(instanceType.getInstanceTypeId(), new CoreMemorySpec(instanceType.getCpuCoreCount(), Math.round(instanceType.getMemorySize()))))
-                .filter(CoreMemorySpec.greaterThan(new CoreMemorySpec(coreAndMemoryString)))
-                .sorted(Map.Entry.comparingByValue(CoreMemorySpec.COMPARATOR))
-                .collect(Collectors.toList());
-
-        if (sortedFitTypeList.isEmpty()) {
-            throw new PluginException(String.format("Cannot find relevant instance resource according to the given instance spec: [%s]", coreAndMemoryString));
-        }
-
-        final Map.Entry<String, CoreMemorySpec> fitType = sortedFitTypeList.get(0);
-
-        return new SpecInfo(fitType.getKey(), fitType.getValue());
-    }
-
-    private List<DescribeInstanceTypesResponse.InstanceType> queryTypes(IAcsClient client, String instanceTypeFamily) throws PluginException, AliCloudException {
-        DescribeInstanceTypesRequest request = new DescribeInstanceTypesRequest();
-        request.setInstanceTypeFamily(instanceTypeFamily);
-        final DescribeInstanceTypesResponse response = acsClientStub.request(client, request);
-        if (response.getInstanceTypes().isEmpty()) {
-            throw new PluginException(String.format("Cannot find instance types by given instanceTypeFamily: [%s]", instanceTypeFamily));
-        }
-
-        return response.getInstanceTypes();
+        return instanceTypeIndex.ceiling(instanceFamily, new CoreMemorySpec(coreAndMemoryString), availableTypes::contains)
+                .orElseThrow(() -> new PluginException(String.format("Cannot find relevant instance resource according to the given instance spec: [%s]", coreAndMemoryString)));
     }
 
     private String handleInstanceFamily(String rawStr) {
@@ -4,20 +4,23 @@ import com.aliyuncs.IAcsClient;
 import com.aliyuncs.rds.model.v20140815.DescribeAvailableResourceRequest;
 import com.aliyuncs.rds.model.v20140815.DescribeAvailableResourceResponse;
 import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.common.ResourceSeekerProperties;
 import com.webank.wecube.plugins.alicloud.support.AcsClientStub;
 import com.webank.wecube.plugins.alicloud.support.resourceSeeker.specs.CoreMemorySpec;
-import com.webank.wecube.plugins.alicloud.support.resourceSeeker.specs.RDSMariaDBSpec;
-import com.webank.wecube.plugins.alicloud.support.resourceSeeker.specs.RDSMySQLSpec;
+import com.webank.wecube.plugins.alicloud.support.resourceSeeker.specs.RDSSpecIndex;
 import com.webank.wecube.plugins.alicloud.support.resourceSeeker.specs.SpecInfo;
 import org.apache.commons.lang3.EnumUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -44,11 +47,41 @@ public class RDSResourceSeeker {
 
     private static final Logger logger = LoggerFactory.getLogger(ECSResourceSeeker.class);
 
+    private static final String PRODUCT = "rds";
+    private static final String BUILT_IN_SPEC_LOCATION = "classpath:rds-specs.properties";
+
     private final AcsClientStub acsClientStub;
+    private final AvailableResourceCache availableResourceCache;
+    private final RDSSpecIndex rdsSpecIndex;
 
     @Autowired
-    public RDSResourceSeeker(AcsClientStub acsClientStub) {
+    public RDSResourceSeeker(AcsClientStub acsClientStub, AvailableResourceCache availableResourceCache, ResourceSeekerProperties resourceSeekerProperties) {
         this.acsClientStub = acsClientStub;
+        this.availableResourceCache = availableResourceCache;
+        this.rdsSpecIndex = loadSpecIndex(resourceSeekerProperties.getRdsSpecLocation());
+    }
+
+    /**
+     * Load the built-in specs, then the specs at the external location which add or override classes
+     *
+     * @param externalLocation external spec location, such as file:/etc/alicloud/rds-specs.properties
+     * @return spec index
+     * @throws PluginException when the specs can't be read
+     */
+    private static RDSSpecIndex loadSpecIndex(String externalLocation) throws PluginException {
+        final ResourceLoader resourceLoader = new DefaultResourceLoader();
+        final List<Map<String, String>> classToSpecMaps = new ArrayList<>();
+        final List<String> locations = StringUtils.isEmpty(externalLocation) ? Collections.singletonList(BUILT_IN_SPEC_LOCATION) : Arrays.asList(BUILT_IN_SPEC_LOCATION, externalLocation);
+        for (String location : locations) {
+            try (InputStream inputStream = resourceLoader.getResource(location).getInputStream()) {
+                classToSpecMaps.add(RDSSpecIndex.readSpecs(inputStream));
+            } catch (IOException ex) {
+                throw new PluginException(String.format("Cannot read RDS specs from: [%s]", location), ex);
+            }
+        }
+        final RDSSpecIndex index = RDSSpecIndex.of(classToSpecMaps);
+        logger.info("Loaded [{}] RDS instance class specs from: {}", index.size(), locations);
+        return index;
     }
 
     public SpecInfo findAvailableResource(IAcsClient client, String engine, String coreMemoryString, String regionId, String zoneId, String engineVersion, String instanceChargeType, String dBInstanceStorageType, String category) {
@@ -79,9 +112,9 @@ public class RDSResourceSeeker {
         request.setDBInstanceStorageType(dBInstanceStorageType);
         request.setCategory(category);
 
-        final DescribeAvailableResourceResponse response = acsClientStub.request(client, request, regionId);
+        final DescribeAvailableResourceResponse response = queryAvailableResources(client, request, regionId);
 
-        return matchResourceStringFromList(RDSEngine.MYSQL, coreMemoryString, response);
+        return matchResourceStringFromList(coreMemoryString, response);
     }
 
 
@@ -94,13 +127,19 @@ public class RDSResourceSeeker {
         request.setDBInstanceStorageType(dBInstanceStorageType);
         request.setCategory(category);
 
-        final DescribeAvailableResourceResponse response = acsClientStub.request(client, request, regionId);
+        final DescribeAvailableResourceResponse response = queryAvailableResources(client, request, regionId);
 
-        return matchResourceStringFromList(RDSEngine.MARIADB, coreMemoryString, response);
+        return matchResourceStringFromList(coreMemoryString, response);
     }
 
 
-    private SpecInfo matchResourceStringFromList(RDSEngine engine, String coreMemoryString, DescribeAvailableResourceResponse response) throws PluginException {
+    private DescribeAvailableResourceResponse queryAvailableResources(IAcsClient client, DescribeAvailableResourceRequest request, String regionId) {
+        return availableResourceCache.get(client, PRODUCT, regionId, request.getZoneId(), request.getInstanceChargeType(),
+                Arrays.asList(request.getEngine(), request.getEngineVersion(), request.getDBInstanceStorageType(), request.getCategory()),
+                () -> acsClientStub.request(client, request, regionId));
+    }
+
+    private SpecInfo matchResourceStringFromList(String coreMemoryString, DescribeAvailableResourceResponse response) throws PluginException {
 
         List<DescribeAvailableResourceResponse.AvailableZone.SupportedEngine.SupportedEngineVersion.SupportedCategory.SupportedStorageType.AvailableResource> foundResourceList;
         try {
@@ -120,24 +159,10 @@ public class RDSResourceSeeker {
             throw new PluginException("Cannot find resource by given requirement.");
         }
 
-        final List<String> dBInstanceClassStr = foundResourceList.stream().map(DescribeAvailableResourceResponse.AvailableZone.SupportedEngine.SupportedEngineVersion.SupportedCategory.SupportedStorageType.AvailableResource::getDBInstanceClass).collect(Collectors.toList());
-        List<Map.Entry<String, CoreMemorySpec>> matchResult = new ArrayList<>();
-        switch (engine) {
-            case MYSQL:
-                matchResult = RDSMySQLSpec.matchResource(dBInstanceClassStr, coreMemoryString);
-                break;
-            case MARIADB:
-                matchResult = RDSMariaDBSpec.matchResource(dBInstanceClassStr, coreMemoryString);
-                break;
-            default:
-                break;
-        }
-
-        if (matchResult.isEmpty()) {
-            throw new PluginException("The given coreMemoryString doesn't match all available resources.");
-        }
+        final Set<String> dBInstanceClassSet = foundResourceList.stream().map(DescribeAvailableResourceResponse.AvailableZone.SupportedEngine.SupportedEngineVersion.SupportedCategory.SupportedStorageType.AvailableResource::getDBInstanceClass).collect(Collectors.toSet());
 
-        return new SpecInfo(matchResult.get(0).getKey(), matchResult.get(0).getValue());
+        return rdsSpecIndex.ceiling(dBInstanceClassSet, new CoreMemorySpec(coreMemoryString))
+                .orElseThrow(() -> new PluginException("The given coreMemoryString doesn't match all available resources."));
 
     }
 
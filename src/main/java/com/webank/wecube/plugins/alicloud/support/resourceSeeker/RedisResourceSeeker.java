@@ -5,6 +5,7 @@ import com.aliyuncs.r_kvstore.model.v20150101.DescribeAvailableResourceRequest;
 import com.aliyuncs.r_kvstore.model.v20150101.DescribeAvailableResourceResponse;
 import com.webank.wecube.plugins.alicloud.common.PluginException;
 import com.webank.wecube.plugins.alicloud.support.AcsClientStub;
+import com.webank.wecube.plugins.alicloud.support.resourceSeeker.specs.RedisAvailabilityTable;
 import com.webank.wecube.plugins.alicloud.utils.PluginStringUtils;
 import org.apache.commons.lang3.EnumUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -13,8 +14,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.Collections;
 
 /**
  * @author howechen
@@ -58,11 +58,15 @@ public class RedisResourceSeeker {
 
     private static final Logger logger = LoggerFactory.getLogger(RedisResourceSeeker.class);
 
+    private static final String PRODUCT = "r-kvstore";
+
     private final AcsClientStub acsClientStub;
+    private final AvailableResourceCache availableResourceCache;
 
     @Autowired
-    public RedisResourceSeeker(AcsClientStub acsClientStub) {
+    public RedisResourceSeeker(AcsClientStub acsClientStub, AvailableResourceCache availableResourceCache) {
         this.acsClientStub = acsClientStub;
+        this.availableResourceCache = availableResourceCache;
     }
 
     public String findAvailableResource(IAcsClient client,
@@ -84,79 +88,49 @@ public class RedisResourceSeeker {
             logger.error(msg);
             throw new PluginException(msg);
         }
+        if (!StringUtils.isNumeric(capacity)) {
+            throw new PluginException(String.format("The given capacity: [%s] should be a number in MB.", capacity));
+        }
 
         DescribeAvailableResourceRequest request = new DescribeAvailableResourceRequest();
         request.setZoneId(zoneId);
         request.setInstanceChargeType(instanceChargeType);
         request.setEngine(engine);
-        final DescribeAvailableResourceResponse response = this.acsClientStub.request(client, request, regionId);
-
-        return filterResponse(response, editionType, seriesType, version, architecture, shardNumber, nodeType, capacity);
+        // the flattened table is cached instead of the response, so it's built once per zone
+        final RedisAvailabilityTable availabilityTable = availableResourceCache.get(client, PRODUCT, regionId, zoneId, instanceChargeType,
+                Collections.singletonList(engine),
+                () -> flattenResponse(this.acsClientStub.request(client, request, regionId)));
 
+        // AliCloud support mb sized capacity, transfer this to larger unit
+        final String filterCapacity = PluginStringUtils.kbToLargerUnit(Long.parseLong(capacity) * 1024 * 1024);
+        return availabilityTable.findInstanceClass(new String[]{editionType, seriesType, version, architecture, shardNumber, nodeType}, filterCapacity);
     }
 
-    private String filterResponse(DescribeAvailableResourceResponse response,
-                                  String editionType,
-                                  String seriesType,
-                                  String version,
-                                  String architecture,
-                                  String shardNumber,
-                                  String nodeType,
-                                  String capacity) throws PluginException {
-        final List<DescribeAvailableResourceResponse.AvailableZone.SupportedEngine.SupportedEditionType> supportedEditionTypes = response.getAvailableZones().get(0).getSupportedEngines().get(0).getSupportedEditionTypes();
-        final Optional<DescribeAvailableResourceResponse.AvailableZone.SupportedEngine.SupportedEditionType> matchEditionTypeOpt = supportedEditionTypes.stream().filter(supportedEditionType -> StringUtils.equals(editionType, supportedEditionType.getEditionType())).findAny();
-        final Optional<DescribeAvailableResourceResponse.AvailableZone.SupportedEngine.SupportedEditionType.SupportedSeriesType> matchSeriesTypeOpt;
-        if (matchEditionTypeOpt.isPresent()) {
-            matchSeriesTypeOpt = matchEditionTypeOpt.get().getSupportedSeriesTypes().stream().filter(supportedSeriesType -> StringUtils.equals(seriesType, supportedSeriesType.getSeriesType())).findAny();
-        } else {
-            throw new PluginException("Cannot find available resource according to given editionType.");
-        }
-
-        final Optional<DescribeAvailableResourceResponse.AvailableZone.SupportedEngine.SupportedEditionType.SupportedSeriesType.SupportedEngineVersion> matchedVersionOpt;
-        if (matchSeriesTypeOpt.isPresent()) {
-            matchedVersionOpt = matchSeriesTypeOpt.get().getSupportedEngineVersions().stream().filter(supportedEngineVersion -> StringUtils.equals(version, supportedEngineVersion.getVersion())).findAny();
-        } else {
-            throw new PluginException("Cannot find available resource according to given seriesType.");
-        }
-
-        final Optional<DescribeAvailableResourceResponse.AvailableZone.SupportedEngine.SupportedEditionType.SupportedSeriesType.SupportedEngineVersion.SupportedArchitectureType> matchedArchitectureOpt;
-        if (matchedVersionOpt.isPresent()) {
-            matchedArchitectureOpt = matchedVersionOpt.get().getSupportedArchitectureTypes().stream().filter(supportedArchitectureType -> StringUtils.equals(architecture, supportedArchitectureType.getArchitecture())).findAny();
-        } else {
-            throw new PluginException("Cannot find available resource according to given version.");
+    private static RedisAvailabilityTable flattenResponse(DescribeAvailableResourceResponse response) throws PluginException {
+        if (response.getAvailableZones().isEmpty() || response.getAvailableZones().get(0).getSupportedEngines().isEmpty()) {
+            throw new PluginException("Cannot find available resource in the given zone.");
         }
 
-        final Optional<DescribeAvailableResourceResponse.AvailableZone.SupportedEngine.SupportedEditionType.SupportedSeriesType.SupportedEngineVersion.SupportedArchitectureType.SupportedShardNumber> matchedShardOpt;
-        if (matchedArchitectureOpt.isPresent()) {
-            matchedShardOpt = matchedArchitectureOpt.get().getSupportedShardNumbers().stream().filter(supportedShardNumber -> StringUtils.equals(shardNumber, supportedShardNumber.getShardNumber())).findAny();
-        } else {
-            throw new PluginException("Cannot find available resource according to given architecture.");
+        final RedisAvailabilityTable.Builder builder = RedisAvailabilityTable.builder();
+        for (DescribeAvailableResourceResponse.AvailableZone.SupportedEngine.SupportedEditionType editionType : response.getAvailableZones().get(0).getSupportedEngines().get(0).getSupportedEditionTypes()) {
+            for (DescribeAvailableResourceResponse.AvailableZone.SupportedEngine.SupportedEditionType.SupportedSeriesType seriesType : editionType.getSupportedSeriesTypes()) {
+                for (DescribeAvailableResourceResponse.AvailableZone.SupportedEngine.SupportedEditionType.SupportedSeriesType.SupportedEngineVersion engineVersion : seriesType.getSupportedEngineVersions()) {
+                    for (DescribeAvailableResourceResponse.AvailableZone.SupportedEngine.SupportedEditionType.SupportedSeriesType.SupportedEngineVersion.SupportedArchitectureType architectureType : engineVersion.getSupportedArchitectureTypes()) {
+                        for (DescribeAvailableResourceResponse.AvailableZone.SupportedEngine.SupportedEditionType.SupportedSeriesType.SupportedEngineVersion.SupportedArchitectureType.SupportedShardNumber shardNumber : architectureType.getSupportedShardNumbers()) {
+                            for (DescribeAvailableResourceResponse.AvailableZone.SupportedEngine.SupportedEditionType.SupportedSeriesType.SupportedEngineVersion.SupportedArchitectureType.SupportedShardNumber.SupportedNodeType nodeType : shardNumber.getSupportedNodeTypes()) {
+                                final String[] dimensionValues = {editionType.getEditionType(), seriesType.getSeriesType(), engineVersion.getVersion(), architectureType.getArchitecture(), shardNumber.getShardNumber(), nodeType.getSupportedNodeType()};
+                                for (DescribeAvailableResourceResponse.AvailableZone.SupportedEngine.SupportedEditionType.SupportedSeriesType.SupportedEngineVersion.SupportedArchitectureType.SupportedShardNumber.SupportedNodeType.AvailableResource availableResource : nodeType.getAvailableResources()) {
+                                    builder.addRow(dimensionValues, availableResource.getInstanceClass(), availableResource.getInstanceClassRemark());
+                                }
+                            }
+                        }
+                    }
+                }
+            }
         }
-
-        final Optional<DescribeAvailableResourceResponse.AvailableZone.SupportedEngine.SupportedEditionType.SupportedSeriesType.SupportedEngineVersion.SupportedArchitectureType.SupportedShardNumber.SupportedNodeType> matchedNodeTypeOpt;
-        if (matchedShardOpt.isPresent()) {
-            matchedNodeTypeOpt = matchedShardOpt.get().getSupportedNodeTypes().stream().filter(supportedNodeType -> StringUtils.equals(nodeType, supportedNodeType.getSupportedNodeType())).findAny();
-        } else {
-            throw new PluginException("Cannot find available resource according to given shard number.");
-        }
-
-        // AliCloud support mb sized capacity, transfer this to larger unit
-        String filterCapacity = PluginStringUtils.kbToLargerUnit(Long.parseLong(capacity) * 1024 * 1024);
-        final Optional<DescribeAvailableResourceResponse.AvailableZone.SupportedEngine.SupportedEditionType.SupportedSeriesType.SupportedEngineVersion.SupportedArchitectureType.SupportedShardNumber.SupportedNodeType.AvailableResource> matchedCapacityOpt;
-        if (matchedNodeTypeOpt.isPresent()) {
-            matchedCapacityOpt = matchedNodeTypeOpt.get().getAvailableResources().stream().filter(availableResource -> availableResource.getInstanceClassRemark().contains(filterCapacity)).findFirst();
-        } else {
-            throw new PluginException("Cannot find available resource according to given editionType.");
-        }
-        String result;
-        if (matchedCapacityOpt.isPresent()) {
-            result = matchedCapacityOpt.get().getInstanceClass();
-        } else {
-            throw new PluginException("Cannot find available resource according to given capacity.");
-        }
-
-        return result;
-
+        final RedisAvailabilityTable availabilityTable = builder.build();
+        logger.info("Flattened [{}] available redis instance classes.", availabilityTable.size());
+        return availabilityTable;
     }
 
 
@@ -0,0 +1,108 @@
+package com.webank.wecube.plugins.alicloud.support.resourceSeeker.specs;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Immutable catalog of the ECS instance types of a region, indexed by instance family into specs sorted by
+ * {@link CoreMemorySpec#COMPARATOR}, so that the smallest fit of a spec is a ceiling lookup.
+ *
+ * @author howechen
+ */
+public class InstanceTypeIndex {
+
+    private final Map<String, NavigableMap<CoreMemorySpec, List<String>>> familyIndex;
+    private final int typeCount;
+    private final long loadedTimeMillis;
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+    private InstanceTypeIndex(Map<String, NavigableMap<CoreMemorySpec, List<String>>> familyIndex, int typeCount, long loadedTimeMillis) {
+        this.familyIndex = familyIndex;
+        this.typeCount = typeCount;
+        this.loadedTimeMillis = loadedTimeMillis;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean containsFamily(String instanceFamily) {
+        return familyIndex.containsKey(StringUtils.lowerCase(instanceFamily));
+    }
+
+    /**
+     * Find the smallest instance type of the family whose spec is not less than the given one
+     *
+     * @param instanceFamily instance family, such as ecs.g6
+     * @param target         required core and memory
+     * @param available      tells whether an instance type can be used, such as having stock in the zone
+     * @return found spec info, empty when no type fits
+     */
+    public Optional<SpecInfo> ceiling(String instanceFamily, CoreMemorySpec target, Predicate<String> available) {
+        final NavigableMap<CoreMemorySpec, List<String>> specs = familyIndex.get(StringUtils.lowerCase(instanceFamily));
+        if (null == specs) {
+            return Optional.empty();
+        }
+        for (Map.Entry<CoreMemorySpec, List<String>> entry : specs.tailMap(target, true).entrySet()) {
+            for (String instanceTypeId : entry.getValue()) {
+                if (available.test(instanceTypeId)) {
+                    return Optional.of(new SpecInfo(instanceTypeId, new CoreMemorySpec(entry.getKey().getCore(), entry.getKey().getMemory())));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public int getTypeCount() {
+        return typeCount;
+    }
+
+    public long getLoadedTimeMillis() {
+        return loadedTimeMillis;
+    }
+
+    /**
+     * Claim the background refresh of this index, so that only one refresh runs at a time
+     *
+     * @return true if the caller should refresh the index
+     */
+    public boolean tryStartRefresh() {
+        return refreshing.compareAndSet(false, true);
+    }
+
+    public void refreshFailed() {
+        refreshing.set(false);
+    }
+
+    public static class Builder {
+        private final Map<String, NavigableMap<CoreMemorySpec, List<String>>> familyIndex = new HashMap<>();
+        private int typeCount;
+
+        private Builder() {
+        }
+
+        public Builder add(String instanceFamily, String instanceTypeId, int core, int memory) {
+            if (StringUtils.isAnyEmpty(instanceFamily, instanceTypeId)) {
+                return this;
+            }
+            familyIndex.computeIfAbsent(StringUtils.lowerCase(instanceFamily), family -> new TreeMap<>(CoreMemorySpec.COMPARATOR))
+                    .computeIfAbsent(new CoreMemorySpec(core, memory), spec -> new ArrayList<>())
+                    .add(instanceTypeId);
+            typeCount++;
+            return this;
+        }
+
+        public InstanceTypeIndex build(long loadedTimeMillis) {
+            final Map<String, NavigableMap<CoreMemorySpec, List<String>>> index = new HashMap<>();
+            familyIndex.forEach((family, specs) -> {
+                final NavigableMap<CoreMemorySpec, List<String>> copy = new TreeMap<>(CoreMemorySpec.COMPARATOR);
+                specs.forEach((spec, instanceTypeIds) -> copy.put(spec, Collections.unmodifiableList(new ArrayList<>(instanceTypeIds))));
+                index.put(family, Collections.unmodifiableNavigableMap(copy));
+            });
+            return new InstanceTypeIndex(Collections.unmodifiableMap(index), typeCount, loadedTimeMillis);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.webank.wecube.plugins.alicloud.support.resourceSeeker.specs;
+
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Immutable index of RDS instance classes and their core and memory spec.
+ * <p>
+ * The specs are parsed once and kept in arrays sorted by {@link CoreMemorySpec#COMPARATOR}, so that the smallest
+ * available class of a spec is found by a binary search followed by a scan over the available classes. The index is
+ * loaded from properties like <code>mysql.n2.small.1=1C2G</code>. Classes of all engines share one index, since the
+ * available classes being matched always belong to a single engine.
+ *
+ * @author howechen
+ */
+public class RDSSpecIndex {
+
+    private final String[] classes;
+    private final int[] cores;
+    private final int[] memories;
+
+    private RDSSpecIndex(String[] classes, int[] cores, int[] memories) {
+        this.classes = classes;
+        this.cores = cores;
+        this.memories = memories;
+    }
+
+    /**
+     * Build the index from class-to-spec entries, entries of later maps override earlier ones
+     *
+     * @param classToSpecMaps maps from instance class to spec string such as 4C8G
+     * @return index
+     * @throws PluginException when a spec string is invalid
+     */
+    public static RDSSpecIndex of(List<Map<String, String>> classToSpecMaps) throws PluginException {
+        final Map<String, CoreMemorySpec> specs = new HashMap<>();
+        for (Map<String, String> classToSpecMap : classToSpecMaps) {
+            classToSpecMap.forEach((instanceClass, specString) -> {
+                try {
+                    specs.put(instanceClass.trim(), new CoreMemorySpec(specString.trim()));
+                } catch (PluginException ex) {
+                    throw new PluginException(String.format("Invalid spec: [%s] of RDS instance class: [%s]", specString, instanceClass), ex);
+                }
+            });
+        }
+
+        final List<Map.Entry<String, CoreMemorySpec>> sortedSpecs = new ArrayList<>(specs.entrySet());
+        sortedSpecs.sort(Map.Entry.<String, CoreMemorySpec>comparingByValue(CoreMemorySpec.COMPARATOR).thenComparing(Map.Entry.comparingByKey()));
+
+        final String[] classes = new String[sortedSpecs.size()];
+        final int[] cores = new int[sortedSpecs.size()];
+        final int[] memories = new int[sortedSpecs.size()];
+        for (int i = 0; i < sortedSpecs.size(); i++) {
+            classes[i] = sortedSpecs.get(i).getKey();
+            cores[i] = sortedSpecs.get(i).getValue().getCore();
+            memories[i] = sortedSpecs.get(i).getValue().getMemory();
+        }
+        return new RDSSpecIndex(classes, cores, memories);
+    }
+
+    /**
+     * Read class-to-spec entries from a properties stream
+     *
+     * @param inputStream properties stream, closed by the caller
+     * @return map from instance class to spec string
+     * @throws IOException when the stream can't be read
+     */
+    public static Map<String, String> readSpecs(InputStream inputStream) throws IOException {
+        final Properties properties = new Properties();
+        properties.load(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        final Map<String, String> classToSpecMap = new HashMap<>();
+        properties.stringPropertyNames().forEach(instanceClass -> classToSpecMap.put(instanceClass, properties.getProperty(instanceClass)));
+        return classToSpecMap;
+    }
+
+    /**
+     * Find the smallest available class whose spec is not less than the given one
+     *
+     * @param availableClasses available instance classes
+     * @param target           required core and memory
+     * @return found spec info, empty when no class fits
+     */
+    public Optional<SpecInfo> ceiling(Set<String> availableClasses, CoreMemorySpec target) {
+        for (int i = firstNotLessThan(target.getCore(), target.getMemory()); i < classes.length; i++) {
+            if (availableClasses.contains(classes[i])) {
+                return Optional.of(new SpecInfo(classes[i], new CoreMemorySpec(cores[i], memories[i])));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public int size() {
+        return classes.length;
+    }
+
+    private int firstNotLessThan(int core, int memory) {
+        int low = 0;
+        int high = classes.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (cores[mid] < core || (cores[mid] == core && memories[mid] < memory)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,185 @@
+package com.webank.wecube.plugins.alicloud.support.resourceSeeker.specs;
+
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+
+/**
+ * Flattened, columnar form of a Redis DescribeAvailableResource response of one zone.
+ * <p>
+ * Each available instance class is a row. The dimensions of a row are kept as codes into a shared dictionary, one
+ * column per dimension, and rows are indexed by their full dimension key, so that a fully specified lookup is a hash
+ * lookup and a partially specified one is a scan over int columns. Rows keep the order of the response.
+ *
+ * @author howechen
+ */
+public class RedisAvailabilityTable {
+
+    public enum Dimension {
+        // edition type
+        EDITION_TYPE("editionType"),
+        // series type
+        SERIES_TYPE("seriesType"),
+        // engine version
+        VERSION("version"),
+        // architecture
+        ARCHITECTURE("architecture"),
+        // shard number
+        SHARD_NUMBER("shard number"),
+        // node type
+        NODE_TYPE("nodeType");
+
+        String fieldName;
+
+        Dimension(String fieldName) {
+            this.fieldName = fieldName;
+        }
+
+        public String getFieldName() {
+            return fieldName;
+        }
+    }
+
+    private static final int NOT_FOUND = -1;
+    private static final int ANY = -2;
+
+    private final Map<String, Integer> dictionary;
+    private final int[][] columns;
+    private final String[] instanceClasses;
+    private final String[] instanceClassRemarks;
+    private final Map<String, int[]> rowsByKey;
+
+    private RedisAvailabilityTable(Map<String, Integer> dictionary, int[][] columns, String[] instanceClasses, String[] instanceClassRemarks, Map<String, int[]> rowsByKey) {
+        this.dictionary = dictionary;
+        this.columns = columns;
+        this.instanceClasses = instanceClasses;
+        this.instanceClassRemarks = instanceClassRemarks;
+        this.rowsByKey = rowsByKey;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Find the first available instance class matching the dimensions and capacity
+     *
+     * @param dimensionValues values in {@link Dimension} order, an empty value matches any
+     * @param capacity        capacity text in the instance class remark, such as 1G
+     * @return instance class
+     * @throws PluginException when no instance class matches, telling the first dimension which doesn't match
+     */
+    public String findInstanceClass(String[] dimensionValues, String capacity) throws PluginException {
+        if (dimensionValues.length != Dimension.values().length) {
+            throw new PluginException(String.format("Expected [%d] dimension values but got [%d].", Dimension.values().length, dimensionValues.length));
+        }
+
+        final int[] codes = new int[dimensionValues.length];
+        boolean fullySpecified = true;
+        for (int i = 0; i < dimensionValues.length; i++) {
+            if (StringUtils.isEmpty(dimensionValues[i])) {
+                codes[i] = ANY;
+                fullySpecified = false;
+            } else {
+                codes[i] = dictionary.getOrDefault(dimensionValues[i], NOT_FOUND);
+            }
+        }
+
+        final int[] candidateRows = fullySpecified ? rowsByKey.getOrDefault(String.join("|", dimensionValues), new int[0]) : matchRows(codes, codes.length);
+        if (candidateRows.length == 0) {
+            throw new PluginException(String.format("Cannot find available resource according to given %s.", firstMismatch(codes).getFieldName()));
+        }
+
+        for (int row : candidateRows) {
+            if (StringUtils.contains(instanceClassRemarks[row], capacity)) {
+                return instanceClasses[row];
+            }
+        }
+        throw new PluginException("Cannot find available resource according to given capacity.");
+    }
+
+    public int size() {
+        return instanceClasses.length;
+    }
+
+    private int[] matchRows(int[] codes, int dimensionCount) {
+        int count = 0;
+        final int[] rows = new int[instanceClasses.length];
+        for (int row = 0; row < instanceClasses.length; row++) {
+            if (matches(codes, dimensionCount, row)) {
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    private boolean matches(int[] codes, int dimensionCount, int row) {
+        for (int dimension = 0; dimension < dimensionCount; dimension++) {
+            if (ANY != codes[dimension] && columns[dimension][row] != codes[dimension]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Dimension firstMismatch(int[] codes) {
+        for (int dimension = 1; dimension <= codes.length; dimension++) {
+            if (matchRows(codes, dimension).length == 0) {
+                return Dimension.values()[dimension - 1];
+            }
+        }
+        return Dimension.NODE_TYPE;
+    }
+
+    public static class Builder {
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final List<int[]> rowCodes = new ArrayList<>();
+        private final List<String> instanceClasses = new ArrayList<>();
+        private final List<String> instanceClassRemarks = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Add an available instance class
+         *
+         * @param dimensionValues values in {@link Dimension} order
+         * @param instanceClass   instance class
+         * @param remark          instance class remark which tells the capacity
+         * @return this builder
+         */
+        public Builder addRow(String[] dimensionValues, String instanceClass, String remark) {
+            final int[] codes = new int[Dimension.values().length];
+            for (int i = 0; i < codes.length; i++) {
+                codes[i] = dictionary.computeIfAbsent(StringUtils.defaultString(dimensionValues[i]), value -> dictionary.size());
+            }
+            rowCodes.add(codes);
+            instanceClasses.add(instanceClass);
+            instanceClassRemarks.add(StringUtils.defaultString(remark));
+            return this;
+        }
+
+        public RedisAvailabilityTable build() {
+            final int rowCount = rowCodes.size();
+            final int[][] columns = new int[Dimension.values().length][rowCount];
+            final String[] values = new String[dictionary.size()];
+            dictionary.forEach((value, code) -> values[code] = value);
+
+            final Map<String, List<Integer>> rowLists = new HashMap<>();
+            for (int row = 0; row < rowCount; row++) {
+                final String[] rowValues = new String[columns.length];
+                for (int dimension = 0; dimension < columns.length; dimension++) {
+                    columns[dimension][row] = rowCodes.get(row)[dimension];
+                    rowValues[dimension] = values[columns[dimension][row]];
+                }
+                rowLists.computeIfAbsent(String.join("|", rowValues), key -> new ArrayList<>()).add(row);
+            }
+
+            final Map<String, int[]> rowsByKey = new HashMap<>();
+            rowLists.forEach((key, rows) -> rowsByKey.put(key, rows.stream().mapToInt(Integer::intValue).toArray()));
+            return new RedisAvailabilityTable(Collections.unmodifiableMap(new HashMap<>(dictionary)), columns,
+                    instanceClasses.toArray(new String[0]), instanceClassRemarks.toArray(new String[0]), rowsByKey);
+        }
+    }
+}
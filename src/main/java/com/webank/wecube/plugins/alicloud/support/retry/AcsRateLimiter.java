@@ -0,0 +1,107 @@
+package com.webank.wecube.plugins.alicloud.support.retry;
+
+import com.aliyuncs.IAcsClient;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.RateLimiter;
+import com.webank.wecube.plugins.alicloud.common.AcsClientProperties;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Adaptive token bucket per (account, region, product).
+ * <p>
+ * Clients are cached per account and region, so the client instance together with the request's product and
+ * region identifies one bucket. The rate is halved on every throttled response and slowly recovers on success.
+ *
+ * @author howechen
+ */
+@Component
+@SuppressWarnings("UnstableApiUsage")
+public class AcsRateLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(AcsRateLimiter.class);
+    private static final String DEFAULT_REGION = "default";
+
+    private final double maxPermitsPerSecond;
+    private final double minPermitsPerSecond;
+    private final Cache<IAcsClient, ConcurrentMap<String, AdaptiveLimiter>> limiters = CacheBuilder.newBuilder().weakKeys().build();
+
+    @Autowired
+    public AcsRateLimiter(AcsClientProperties acsClientProperties) {
+        this.maxPermitsPerSecond = acsClientProperties.getPermitsPerSecond();
+        this.minPermitsPerSecond = Math.min(acsClientProperties.getMinPermitsPerSecond(), maxPermitsPerSecond);
+    }
+
+    public void acquire(IAcsClient client, String product, String regionId) {
+        getLimiter(client, product, regionId).acquire();
+    }
+
+    public void onSuccess(IAcsClient client, String product, String regionId) {
+        getLimiter(client, product, regionId).increase();
+    }
+
+    public void onThrottled(IAcsClient client, String product, String regionId) {
+        getLimiter(client, product, regionId).decrease();
+    }
+
+    public double getRate(IAcsClient client, String product, String regionId) {
+        return getLimiter(client, product, regionId).getRate();
+    }
+
+    private AdaptiveLimiter getLimiter(IAcsClient client, String product, String regionId) {
+        final String bucketKey = StringUtils.defaultIfEmpty(product, StringUtils.EMPTY) + "@" + StringUtils.defaultIfEmpty(regionId, DEFAULT_REGION);
+        final ConcurrentMap<String, AdaptiveLimiter> clientLimiters;
+        try {
+            clientLimiters = limiters.get(client, ConcurrentHashMap::new);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+        return clientLimiters.computeIfAbsent(bucketKey, key -> new AdaptiveLimiter(key, maxPermitsPerSecond, minPermitsPerSecond));
+    }
+
+    private static class AdaptiveLimiter {
+        private final String name;
+        private final RateLimiter rateLimiter;
+        private final double maxRate;
+        private final double minRate;
+        private final double step;
+        private double rate;
+
+        AdaptiveLimiter(String name, double maxRate, double minRate) {
+            this.name = name;
+            this.maxRate = maxRate;
+            this.minRate = minRate;
+            this.step = Math.max(maxRate / 20, 0.05);
+            this.rate = maxRate;
+            this.rateLimiter = RateLimiter.create(maxRate);
+        }
+
+        void acquire() {
+            rateLimiter.acquire();
+        }
+
+        synchronized void increase() {
+            if (rate < maxRate) {
+                rate = Math.min(maxRate, rate + step);
+                rateLimiter.setRate(rate);
+            }
+        }
+
+        synchronized void decrease() {
+            rate = Math.max(minRate, rate / 2);
+            rateLimiter.setRate(rate);
+            logger.warn("AliCloud API throttled on [{}], slowing down to [{}] requests per second.", name, rate);
+        }
+
+        synchronized double getRate() {
+            return rate;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.webank.wecube.plugins.alicloud.support.retry;
+
+/**
+ * @author howechen
+ */
+public enum AliCloudErrorCategory {
+    // transient server side error, the request can be re-sent
+    RETRYABLE,
+    // the API quota has been exceeded, back off and slow down the limiter
+    THROTTLED,
+    // the error won't go away by retrying
+    FATAL
+}
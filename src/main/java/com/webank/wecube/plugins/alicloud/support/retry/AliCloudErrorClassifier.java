@@ -0,0 +1,118 @@
+package com.webank.wecube.plugins.alicloud.support.retry;
+
+import com.aliyuncs.AcsRequest;
+import com.aliyuncs.exceptions.ClientException;
+import com.aliyuncs.exceptions.ErrorType;
+import com.google.common.collect.ImmutableSet;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Set;
+
+/**
+ * Classify AliCloud error codes into retryable, throttled and fatal errors.
+ *
+ * @author howechen
+ */
+public class AliCloudErrorClassifier {
+
+    private static final Set<String> THROTTLED_CODES = ImmutableSet.of(
+            "Throttling",
+            "Throttling.User",
+            "Throttling.Api",
+            "Throttling.Resource",
+            "Throttling.Concurrency",
+            "QuotaExceed.Api",
+            "Request.Throttled"
+    );
+
+    private static final Set<String> RETRYABLE_CODES = ImmutableSet.of(
+            "ServiceUnavailable",
+            "InternalError",
+            "UnknownError",
+            "OperationConflict",
+            "LastTokenProcessing",
+            "IncorrectInstanceStatus.Initializing",
+            "SDK.ServerUnreachable"
+    );
+
+    /**
+     * Retryable errors after which the request may still have been applied, such as a timeout
+     */
+    private static final Set<String> AMBIGUOUS_CODES = ImmutableSet.of(
+            "ServiceUnavailable",
+            "InternalError",
+            "UnknownError",
+            "SDK.ServerUnreachable"
+    );
+
+    private static final String[] READ_ACTION_PREFIXES = {"Describe", "List", "Query", "Get", "Check"};
+    private static final String CLIENT_TOKEN = "ClientToken";
+
+    private static final Set<String> OUT_OF_STOCK_CODES = ImmutableSet.of(
+            "OperationDenied.NoStock",
+            "Zone.NotOnSale",
+            "Zone.NotOpen",
+            "InvalidResourceType.NotSupported",
+            "InvalidInstanceType.ZoneNotSupported",
+            "InvalidDBInstanceClass.NotFound",
+            "ResourceNotAvailable",
+            "InstanceClass.NotSupport"
+    );
+
+    private AliCloudErrorClassifier() {
+    }
+
+    public static AliCloudErrorCategory classify(ClientException ex) {
+        if (ErrorType.Throttling == ex.getErrorType()) {
+            return AliCloudErrorCategory.THROTTLED;
+        }
+        return classify(ex.getErrCode());
+    }
+
+    public static AliCloudErrorCategory classify(String errCode) {
+        if (StringUtils.isEmpty(errCode)) {
+            return AliCloudErrorCategory.FATAL;
+        }
+        if (THROTTLED_CODES.contains(errCode) || StringUtils.startsWith(errCode, "Throttling.")) {
+            return AliCloudErrorCategory.THROTTLED;
+        }
+        if (RETRYABLE_CODES.contains(errCode)) {
+            return AliCloudErrorCategory.RETRYABLE;
+        }
+        return AliCloudErrorCategory.FATAL;
+    }
+
+    /**
+     * Whether the request may have been applied even though it failed with the error
+     *
+     * @param errCode error code
+     * @return true if the outcome of the request is unknown
+     */
+    public static boolean isAmbiguous(String errCode) {
+        return AMBIGUOUS_CODES.contains(errCode);
+    }
+
+    /**
+     * Whether sending the request again can't apply it twice, which holds for the read actions and the requests
+     * carrying a ClientToken
+     *
+     * @param request AliCloud request
+     * @return true if the request can be re-sent after an ambiguous error
+     */
+    public static boolean isIdempotent(AcsRequest<?> request) {
+        if (StringUtils.startsWithAny(request.getSysActionName(), READ_ACTION_PREFIXES)) {
+            return true;
+        }
+        return null != request.getSysQueryParameters() && StringUtils.isNotEmpty(request.getSysQueryParameters().get(CLIENT_TOKEN));
+    }
+
+    /**
+     * Whether the error tells that the requested resource has no stock in the zone
+     *
+     * @param errCode error code
+     * @return true if the resource is out of stock
+     */
+    public static boolean isOutOfStock(String errCode) {
+        return OUT_OF_STOCK_CODES.contains(errCode) || StringUtils.containsIgnoreCase(errCode, "NoStock");
+    }
+}
@@ -0,0 +1,159 @@
+package com.webank.wecube.plugins.alicloud.support.securityGroup;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Normalized key of a security group rule.
+ * <p>
+ * Two rules are equal when AliCloud would treat them as the same permission, whatever the case, the defaulted fields
+ * or the host CIDR notation they were written with. The description is not part of the key. The hash is computed
+ * once, as the rules are used as keys of the sets being diffed.
+ *
+ * @author howechen
+ */
+public final class SecurityGroupRule {
+    public static final String DIRECTION_INGRESS = "ingress";
+    public static final String DIRECTION_EGRESS = "egress";
+
+    private static final String ALL_PORTS = "-1/-1";
+    private static final String DEFAULT_POLICY = "accept";
+    private static final String DEFAULT_PRIORITY = "1";
+    private static final String HOST_MASK = "/32";
+
+    private final String direction;
+    private final String ipProtocol;
+    private final String portRange;
+    private final String cidrIp;
+    private final String peerGroupId;
+    private final String policy;
+    private final String priority;
+    private final String nicType;
+    private final int hash;
+
+    private SecurityGroupRule(String direction, String ipProtocol, String portRange, String cidrIp, String peerGroupId, String policy, String priority, String nicType) {
+        this.direction = direction;
+        this.ipProtocol = ipProtocol;
+        this.portRange = portRange;
+        this.cidrIp = cidrIp;
+        this.peerGroupId = peerGroupId;
+        this.policy = policy;
+        this.priority = priority;
+        this.nicType = nicType;
+        this.hash = Arrays.hashCode(new Object[]{direction, ipProtocol, portRange, cidrIp, peerGroupId, policy, priority, nicType});
+    }
+
+    /**
+     * Build the normalized rule
+     *
+     * @param direction   ingress or egress
+     * @param ipProtocol  tcp, udp, icmp, gre or all
+     * @param portRange   port range in AliCloud format, e.g. 22/22
+     * @param cidrIp      source CIDR of an ingress rule or destination CIDR of an egress rule
+     * @param peerGroupId source group of an ingress rule or destination group of an egress rule
+     * @param policy      accept or drop, defaults to accept
+     * @param priority    1 to 100, defaults to 1
+     * @param nicType     NIC type the rule was requested or described with, empty for AliCloud's default
+     * @return normalized rule
+     */
+    public static SecurityGroupRule of(String direction, String ipProtocol, String portRange, String cidrIp, String peerGroupId, String policy, String priority, String nicType) {
+        final String normalizedProtocol = lowerCase(ipProtocol);
+        return new SecurityGroupRule(
+                lowerCase(direction),
+                normalizedProtocol,
+                isPortless(normalizedProtocol) ? ALL_PORTS : StringUtils.trimToEmpty(portRange),
+                normalizeCidr(cidrIp),
+                StringUtils.trimToEmpty(peerGroupId),
+                StringUtils.defaultIfEmpty(lowerCase(policy), DEFAULT_POLICY),
+                normalizePriority(priority),
+                lowerCase(nicType));
+    }
+
+    private static boolean isPortless(String ipProtocol) {
+        return "all".equals(ipProtocol) || "icmp".equals(ipProtocol) || "gre".equals(ipProtocol);
+    }
+
+    private static String normalizeCidr(String cidrIp) {
+        final String trimmed = lowerCase(cidrIp);
+        if (trimmed.isEmpty() || trimmed.contains("/") || trimmed.contains(":")) {
+            return trimmed;
+        }
+        return trimmed.concat(HOST_MASK);
+    }
+
+    private static String normalizePriority(String priority) {
+        final String trimmed = StringUtils.trimToEmpty(priority);
+        if (trimmed.isEmpty()) {
+            return DEFAULT_PRIORITY;
+        }
+        return StringUtils.isNumeric(trimmed) ? String.valueOf(Integer.parseInt(trimmed)) : trimmed;
+    }
+
+    private static String lowerCase(String value) {
+        return StringUtils.trimToEmpty(value).toLowerCase(Locale.ENGLISH);
+    }
+
+    public String getDirection() {
+        return direction;
+    }
+
+    public String getIpProtocol() {
+        return ipProtocol;
+    }
+
+    public String getPortRange() {
+        return portRange;
+    }
+
+    public String getCidrIp() {
+        return cidrIp;
+    }
+
+    public String getPeerGroupId() {
+        return peerGroupId;
+    }
+
+    public String getPolicy() {
+        return policy;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public String getNicType() {
+        return nicType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SecurityGroupRule that = (SecurityGroupRule) o;
+        return hash == that.hash
+                && direction.equals(that.direction)
+                && ipProtocol.equals(that.ipProtocol)
+                && portRange.equals(that.portRange)
+                && cidrIp.equals(that.cidrIp)
+                && peerGroupId.equals(that.peerGroupId)
+                && policy.equals(that.policy)
+                && priority.equals(that.priority)
+                && nicType.equals(that.nicType);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return String.join(" ", direction, ipProtocol, portRange, StringUtils.defaultIfEmpty(cidrIp, peerGroupId), policy, "priority=" + priority);
+    }
+}
@@ -0,0 +1,246 @@
+package com.webank.wecube.plugins.alicloud.support.securityGroup;
+
+import com.webank.wecube.plugins.alicloud.support.cidr.Ipv4Prefix;
+import com.webank.wecube.plugins.alicloud.support.cidr.Ipv4PrefixTrie;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+
+/**
+ * Compact security group rules into fewer rules covering exactly the same traffic.
+ * <p>
+ * Rules are grouped by (direction, protocol, policy, priority, NIC type). Within a group, the port ranges of each
+ * CIDR are merged when they overlap or are contiguous, then the CIDRs sharing a port range are aggregated with a
+ * binary prefix tree, which drops the prefixes covered by others and merges sibling prefixes into their parent. Both
+ * passes are repeated while they keep reducing the rules. Rules which are not IPv4 CIDR rules are kept as they are.
+ * <p>
+ * The output is deterministic and the input rules which survive the compaction are returned as given, so the same
+ * input always compacts to the same rules. The compacted rules don't match the input rules one to one, a revocation
+ * of an input rule splits the compacted rule covering it, see {@link SecurityGroupRuleSplitter}.
+ *
+ * @author howechen
+ */
+public final class SecurityGroupRuleCompactor {
+    private static final String PORT_RANGE_DELIMITER = "/";
+    private static final int MAX_PORT = 65535;
+
+    private SecurityGroupRuleCompactor() {
+    }
+
+    /**
+     * Compact the rules
+     *
+     * @param rules rules to compact
+     * @return compacted rules, grouped in the order the groups first appear in the input
+     */
+    public static List<SecurityGroupRule> compact(Collection<SecurityGroupRule> rules) {
+        final Map<GroupKey, RuleGroup> groups = new LinkedHashMap<>();
+        final Set<SecurityGroupRule> kept = new LinkedHashSet<>();
+
+        for (SecurityGroupRule rule : rules) {
+            final Ipv4Prefix prefix = Ipv4Prefix.parse(rule.getCidrIp());
+            final int[] ports = parsePortRange(rule.getPortRange());
+            if (null == prefix || null == ports || StringUtils.isNotEmpty(rule.getPeerGroupId())) {
+                kept.add(rule);
+                continue;
+            }
+            groups.computeIfAbsent(new GroupKey(rule), k -> new RuleGroup()).add(new Cell(prefix, ports[0], ports[1]), rule);
+        }
+
+        final List<SecurityGroupRule> result = new ArrayList<>();
+        for (RuleGroup group : groups.values()) {
+            group.compact();
+            group.collect(result);
+        }
+        result.addAll(kept);
+        return result;
+    }
+
+    /**
+     * @return [from, to] of an AliCloud port range, or null when it can't be merged
+     */
+    static int[] parsePortRange(String portRange) {
+        final int delimiter = portRange.indexOf(PORT_RANGE_DELIMITER);
+        if (delimiter <= 0) {
+            return null;
+        }
+        final String from = portRange.substring(0, delimiter);
+        final String to = portRange.substring(delimiter + 1);
+        if (!StringUtils.isNumeric(from) || !StringUtils.isNumeric(to) || from.length() > 5 || to.length() > 5) {
+            // -1/-1 of the portless protocols is not numeric and is only ever equal to itself
+            return "-1/-1".equals(portRange) ? new int[]{-1, -1} : null;
+        }
+        final int fromPort = Integer.parseInt(from);
+        final int toPort = Integer.parseInt(to);
+        if (fromPort > toPort || toPort > MAX_PORT) {
+            return null;
+        }
+        return new int[]{fromPort, toPort};
+    }
+
+    private static final class RuleGroup {
+        private final Map<Cell, SecurityGroupRule> originals = new HashMap<>();
+        private Map<Ipv4Prefix, List<int[]>> portsByPrefix = new HashMap<>();
+        private SecurityGroupRule template;
+
+        private void add(Cell cell, SecurityGroupRule rule) {
+            if (null == template) {
+                template = rule;
+            }
+            originals.putIfAbsent(cell, rule);
+            portsByPrefix.computeIfAbsent(cell.prefix, k -> new ArrayList<>()).add(new int[]{cell.fromPort, cell.toPort});
+        }
+
+        private void compact() {
+            mergePorts();
+            // merged prefixes may have mergeable ports and merged ports may have mergeable prefixes
+            boolean changed = true;
+            while (changed) {
+                changed = aggregatePrefixes() && mergePorts();
+            }
+        }
+
+        /**
+         * @return whether any port range was merged
+         */
+        private boolean mergePorts() {
+            boolean merged = false;
+            for (Map.Entry<Ipv4Prefix, List<int[]>> entry : portsByPrefix.entrySet()) {
+                final List<int[]> ranges = entry.getValue();
+                if (ranges.size() < 2) {
+                    continue;
+                }
+                ranges.sort((a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(a[1], b[1]));
+                final List<int[]> mergedRanges = new ArrayList<>(ranges.size());
+                int[] current = ranges.get(0);
+                for (int i = 1; i < ranges.size(); i++) {
+                    final int[] next = ranges.get(i);
+                    final boolean mergeable = current[0] >= 0 && next[0] <= current[1] + 1 || Arrays.equals(current, next);
+                    if (mergeable) {
+                        current = new int[]{current[0], Math.max(current[1], next[1])};
+                    } else {
+                        mergedRanges.add(current);
+                        current = next;
+                    }
+                }
+                mergedRanges.add(current);
+                merged |= mergedRanges.size() < ranges.size();
+                entry.setValue(mergedRanges);
+            }
+            return merged;
+        }
+
+        /**
+         * @return whether any prefix was aggregated
+         */
+        private boolean aggregatePrefixes() {
+            final Map<Long, Ipv4PrefixTrie> triesByPorts = new HashMap<>();
+            int cellCount = 0;
+            for (Map.Entry<Ipv4Prefix, List<int[]>> entry : portsByPrefix.entrySet()) {
+                for (int[] ports : entry.getValue()) {
+                    triesByPorts.computeIfAbsent(portsKey(ports), k -> new Ipv4PrefixTrie()).insert(entry.getKey());
+                    cellCount++;
+                }
+            }
+            final Map<Ipv4Prefix, List<int[]>> aggregated = new HashMap<>();
+            int aggregatedCount = 0;
+            for (Map.Entry<Long, Ipv4PrefixTrie> entry : triesByPorts.entrySet()) {
+                final int[] ports = {(int) (entry.getKey() >> 32), entry.getKey().intValue()};
+                for (Ipv4Prefix prefix : entry.getValue().aggregate()) {
+                    aggregated.computeIfAbsent(prefix, k -> new ArrayList<>(1)).add(ports);
+                    aggregatedCount++;
+                }
+            }
+            portsByPrefix = aggregated;
+            return aggregatedCount < cellCount;
+        }
+
+        private void collect(List<SecurityGroupRule> result) {
+            final List<Cell> cells = new ArrayList<>();
+            portsByPrefix.forEach((prefix, rangeList) -> rangeList.forEach(ports -> cells.add(new Cell(prefix, ports[0], ports[1]))));
+            cells.sort(Comparator.<Cell>comparingLong(cell -> Integer.toUnsignedLong(cell.prefix.getNetwork()))
+                    .thenComparingInt(cell -> cell.prefix.getLength())
+                    .thenComparingInt(cell -> cell.fromPort));
+            for (Cell cell : cells) {
+                final SecurityGroupRule original = originals.get(cell);
+                if (null != original) {
+                    result.add(original);
+                    continue;
+                }
+                final String portRange = cell.fromPort < 0 ? template.getPortRange() : cell.fromPort + PORT_RANGE_DELIMITER + cell.toPort;
+                result.add(SecurityGroupRule.of(template.getDirection(), template.getIpProtocol(), portRange, cell.prefix.toString(),
+                        StringUtils.EMPTY, template.getPolicy(), template.getPriority(), template.getNicType()));
+            }
+        }
+
+        private static long portsKey(int[] ports) {
+            return ((long) ports[0] << 32) | (ports[1] & 0xFFFFFFFFL);
+        }
+    }
+
+    /**
+     * The fields of a rule other than its CIDR and ports, already normalized by the rule
+     */
+    private static final class GroupKey {
+        private final String direction;
+        private final String ipProtocol;
+        private final String policy;
+        private final String priority;
+        private final String nicType;
+
+        private GroupKey(SecurityGroupRule rule) {
+            this.direction = rule.getDirection();
+            this.ipProtocol = rule.getIpProtocol();
+            this.policy = rule.getPolicy();
+            this.priority = rule.getPriority();
+            this.nicType = rule.getNicType();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            GroupKey that = (GroupKey) o;
+            return direction.equals(that.direction) && ipProtocol.equals(that.ipProtocol) && policy.equals(that.policy)
+                    && priority.equals(that.priority) && nicType.equals(that.nicType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(direction, ipProtocol, policy, priority, nicType);
+        }
+    }
+
+    private static final class Cell {
+        private final Ipv4Prefix prefix;
+        private final int fromPort;
+        private final int toPort;
+
+        private Cell(Ipv4Prefix prefix, int fromPort, int toPort) {
+            this.prefix = prefix;
+            this.fromPort = fromPort;
+            this.toPort = toPort;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Cell that = (Cell) o;
+            return fromPort == that.fromPort && toPort == that.toPort && prefix.equals(that.prefix);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(prefix, fromPort, toPort);
+        }
+    }
+}
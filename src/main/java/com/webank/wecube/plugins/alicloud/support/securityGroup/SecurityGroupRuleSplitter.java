@@ -0,0 +1,125 @@
+package com.webank.wecube.plugins.alicloud.support.securityGroup;
+
+import com.webank.wecube.plugins.alicloud.support.cidr.Ipv4Prefix;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Split an IPv4 CIDR security group rule around the rules carved out of it.
+ * <p>
+ * A rule covers another when they only differ in CIDR and ports, and its CIDR and port range contain the other's.
+ * Carving a covered rule out of a covering one leaves the sibling prefixes on the path from the covered CIDR up to
+ * the covering CIDR with the covering ports, plus the covered CIDR with the ports on either side of the covered
+ * ports, which together allow exactly the remaining traffic.
+ *
+ * @author howechen
+ */
+public final class SecurityGroupRuleSplitter {
+    private static final String PORT_RANGE_DELIMITER = "/";
+    private static final int HOST_LENGTH = 32;
+
+    private SecurityGroupRuleSplitter() {
+    }
+
+    /**
+     * @param outer existing rule
+     * @param inner requested rule
+     * @return whether the traffic of the inner rule is all allowed or denied by the outer rule
+     */
+    public static boolean covers(SecurityGroupRule outer, SecurityGroupRule inner) {
+        final Cell outerCell = Cell.of(outer);
+        final Cell innerCell = Cell.of(inner);
+        return null != outerCell && null != innerCell && sameKind(outer, inner)
+                && outerCell.prefix.contains(innerCell.prefix) && outerCell.fromPort <= innerCell.fromPort && innerCell.toPort <= outerCell.toPort;
+    }
+
+    /**
+     * Carve the rules out of the covering rule
+     *
+     * @param covering rule to split
+     * @param carved   rules covered by the covering rule
+     * @return rules allowing the traffic of the covering rule which none of the carved rules allows, empty when nothing
+     * is left
+     */
+    public static List<SecurityGroupRule> subtract(SecurityGroupRule covering, Collection<SecurityGroupRule> carved) {
+        final Cell coveringCell = Cell.of(covering);
+        if (null == coveringCell) {
+            return Collections.singletonList(covering);
+        }
+        List<Cell> remaining = Collections.singletonList(coveringCell);
+        for (SecurityGroupRule rule : carved) {
+            final Cell carvedCell = Cell.of(rule);
+            if (null == carvedCell || !sameKind(covering, rule)) {
+                continue;
+            }
+            final List<Cell> next = new ArrayList<>();
+            remaining.forEach(cell -> next.addAll(cell.subtract(carvedCell)));
+            remaining = next;
+        }
+
+        final List<SecurityGroupRule> result = new ArrayList<>(remaining.size());
+        for (Cell cell : remaining) {
+            final String portRange = cell.fromPort < 0 ? covering.getPortRange() : cell.fromPort + PORT_RANGE_DELIMITER + cell.toPort;
+            result.add(SecurityGroupRule.of(covering.getDirection(), covering.getIpProtocol(), portRange, cell.prefix.toString(),
+                    StringUtils.EMPTY, covering.getPolicy(), covering.getPriority(), covering.getNicType()));
+        }
+        return result;
+    }
+
+    private static boolean sameKind(SecurityGroupRule a, SecurityGroupRule b) {
+        return a.getDirection().equals(b.getDirection()) && a.getIpProtocol().equals(b.getIpProtocol()) && a.getPolicy().equals(b.getPolicy())
+                && a.getPriority().equals(b.getPriority()) && a.getNicType().equals(b.getNicType());
+    }
+
+    private static final class Cell {
+        private final Ipv4Prefix prefix;
+        private final int fromPort;
+        private final int toPort;
+
+        private Cell(Ipv4Prefix prefix, int fromPort, int toPort) {
+            this.prefix = prefix;
+            this.fromPort = fromPort;
+            this.toPort = toPort;
+        }
+
+        /**
+         * @return the cell of an IPv4 CIDR rule, or null when the rule can't be split
+         */
+        private static Cell of(SecurityGroupRule rule) {
+            final Ipv4Prefix prefix = Ipv4Prefix.parse(rule.getCidrIp());
+            final int[] ports = SecurityGroupRuleCompactor.parsePortRange(rule.getPortRange());
+            if (null == prefix || null == ports || StringUtils.isNotEmpty(rule.getPeerGroupId())) {
+                return null;
+            }
+            return new Cell(prefix, ports[0], ports[1]);
+        }
+
+        private List<Cell> subtract(Cell carved) {
+            final Ipv4Prefix overlap = prefix.contains(carved.prefix) ? carved.prefix : carved.prefix.contains(prefix) ? prefix : null;
+            final int overlapFrom = Math.max(fromPort, carved.fromPort);
+            final int overlapTo = Math.min(toPort, carved.toPort);
+            if (null == overlap || overlapFrom > overlapTo) {
+                return Collections.singletonList(this);
+            }
+
+            final List<Cell> result = new ArrayList<>();
+            // the siblings of the overlap and of its parents up to this prefix keep all the ports
+            for (int length = overlap.getLength(); length > prefix.getLength(); length--) {
+                final int sibling = new Ipv4Prefix(overlap.getNetwork(), length).getNetwork() ^ (1 << (HOST_LENGTH - length));
+                result.add(new Cell(new Ipv4Prefix(sibling, length), fromPort, toPort));
+            }
+            // the overlap keeps the ports on either side of the carved ports
+            if (fromPort < overlapFrom) {
+                result.add(new Cell(overlap, fromPort, overlapFrom - 1));
+            }
+            if (overlapTo < toPort) {
+                result.add(new Cell(overlap, overlapTo + 1, toPort));
+            }
+            return result;
+        }
+    }
+}
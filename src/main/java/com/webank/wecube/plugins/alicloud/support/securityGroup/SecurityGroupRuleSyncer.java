@@ -0,0 +1,316 @@
+package com.webank.wecube.plugins.alicloud.support.securityGroup;
+
+import com.aliyuncs.AcsRequest;
+import com.aliyuncs.AcsResponse;
+import com.aliyuncs.IAcsClient;
+import com.aliyuncs.ecs.model.v20140526.DescribeSecurityGroupAttributeRequest;
+import com.aliyuncs.ecs.model.v20140526.DescribeSecurityGroupAttributeResponse;
+import com.google.common.util.concurrent.Striped;
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.common.SecurityGroupProperties;
+import com.webank.wecube.plugins.alicloud.support.AcsAsyncExecutor;
+import com.webank.wecube.plugins.alicloud.support.AcsClientStub;
+import com.webank.wecube.plugins.alicloud.support.AliCloudException;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Apply security group rule changes as a delta against the rules the group already has.
+ * <p>
+ * The current rules are fetched once with DescribeSecurityGroupAttribute, then only the authorizations of missing
+ * rules and the revocations of existing rules are sent, concurrently but at most maxConcurrentRequestsPerGroup at a
+ * time per security group. When a change fails, the changes which succeeded are rolled back the same way and the
+ * failure is thrown.
+ * <p>
+ * When asked to, a revocation which matches no existing rule revokes the existing rules covering it instead, such as
+ * the rule a compacted authorization created, after authorizing what's left of them. A revocation which is neither
+ * matched nor split is skipped, like RevokeSecurityGroup does with a rule which doesn't exist.
+ *
+ * @author howechen
+ */
+@Component
+public class SecurityGroupRuleSyncer {
+    private static final Logger logger = LoggerFactory.getLogger(SecurityGroupRuleSyncer.class);
+
+    private static final String DIRECTION_ALL = "all";
+    private static final int PERMIT_STRIPES = 256;
+
+    private final AcsClientStub acsClientStub;
+    private final Striped<Semaphore> groupPermits;
+
+    @Autowired
+    public SecurityGroupRuleSyncer(AcsClientStub acsClientStub, SecurityGroupProperties securityGroupProperties) {
+        this.acsClientStub = acsClientStub;
+        this.groupPermits = Striped.lazyWeakSemaphore(PERMIT_STRIPES, Math.max(1, securityGroupProperties.getMaxConcurrentRequestsPerGroup()));
+    }
+
+    /**
+     * Authorize the missing rules and revoke the existing ones of the security group, the revocations matching no
+     * existing rule are skipped
+     *
+     * @param authorizations rules to authorize, rolled back by revocation
+     * @param revocations    rules to revoke, rolled back by authorization
+     * @return result of the synchronization
+     * @throws PluginException   when the regionId or securityGroupId is empty
+     * @throws AliCloudException the first failure, once the succeeded changes have been rolled back
+     */
+    public SyncResult sync(IAcsClient client, String regionId, String securityGroupId, List<RuleChange> authorizations, List<RuleChange> revocations) throws PluginException, AliCloudException {
+        return sync(client, regionId, securityGroupId, authorizations, revocations, null);
+    }
+
+    /**
+     * Authorize the missing rules and revoke the existing ones of the security group, splitting the existing rules
+     * which cover a revocation
+     *
+     * @param authorizations rules to authorize, rolled back by revocation
+     * @param revocations    rules to revoke, rolled back by authorization
+     * @param revocationOf   builds the revocation of a covering rule, or of a rule left after the split whose inverse
+     *                       authorizes it, null to only revoke the exactly matched rules
+     * @return result of the synchronization
+     * @throws PluginException   when the regionId or securityGroupId is empty
+     * @throws AliCloudException the first failure, once the succeeded changes have been rolled back
+     */
+    public SyncResult sync(IAcsClient client, String regionId, String securityGroupId, List<RuleChange> authorizations, List<RuleChange> revocations,
+                           Function<SecurityGroupRule, RuleChange> revocationOf) throws PluginException, AliCloudException {
+        if (StringUtils.isAnyEmpty(regionId, securityGroupId)) {
+            throw new PluginException("Either regionId or securityGroupId cannot be null or empty.");
+        }
+
+        final Set<SecurityGroupRule> currentRules = new HashSet<>();
+        final Set<String> nicTypes = new LinkedHashSet<>();
+        authorizations.forEach(change -> nicTypes.add(change.rule.getNicType()));
+        revocations.forEach(change -> nicTypes.add(change.rule.getNicType()));
+        for (String nicType : nicTypes) {
+            currentRules.addAll(describeRules(client, regionId, securityGroupId, nicType));
+        }
+
+        final Map<SecurityGroupRule, RuleChange> toRevoke = new LinkedHashMap<>();
+        final Map<SecurityGroupRule, RuleChange> toSplit = new LinkedHashMap<>();
+        resolveRevocations(securityGroupId, currentRules, revocations, revocationOf, toRevoke, toSplit);
+        final Map<SecurityGroupRule, RuleChange> toAuthorize = new LinkedHashMap<>();
+        authorizations.stream().filter(change -> !currentRules.contains(change.rule)).forEach(change -> toAuthorize.putIfAbsent(change.rule, change));
+        final int unchangedCount = authorizations.size() - toAuthorize.size();
+        logger.info("Syncing security group: [{}], rules to revoke: [{}], rules to authorize: [{}], rules left by splits: [{}], unchanged: [{}]",
+                securityGroupId, toRevoke.size(), toAuthorize.size(), toSplit.size(), unchangedCount);
+
+        final SyncResult result = new SyncResult(unchangedCount);
+        // what's left of the split rules is authorized first, so the traffic which stays allowed is never interrupted
+        RuntimeException failure = applyAll(client, regionId, securityGroupId, toSplit.values(), false, result.authorized);
+        if (null == failure) {
+            failure = applyAll(client, regionId, securityGroupId, toRevoke.values(), false, result.revoked);
+        }
+        if (null == failure) {
+            failure = applyAll(client, regionId, securityGroupId, toAuthorize.values(), false, result.authorized);
+        }
+        if (null == failure) {
+            return result;
+        }
+
+        logger.info("Rolling back [{}] authorized and [{}] revoked rule(s) of security group: [{}]", result.authorized.size(), result.revoked.size(), securityGroupId);
+        final List<RuleChange> succeeded = new ArrayList<>(result.authorized);
+        succeeded.addAll(result.revoked);
+        final RuntimeException rollbackFailure = applyAll(client, regionId, securityGroupId, succeeded, true, new ArrayList<>());
+        if (null != rollbackFailure) {
+            logger.info("Error when rolling back security group: [{}].", rollbackFailure.getMessage());
+        }
+        throw failure;
+    }
+
+    /**
+     * Revoke the exactly matched rules, and split the rules covering the other revocations when asked to
+     *
+     * @param toRevoke receives the revocations of the matched and the covering rules
+     * @param toSplit  receives the authorizations of the rules left by the splits
+     */
+    private void resolveRevocations(String securityGroupId, Set<SecurityGroupRule> currentRules, List<RuleChange> revocations, Function<SecurityGroupRule, RuleChange> revocationOf,
+                                    Map<SecurityGroupRule, RuleChange> toRevoke, Map<SecurityGroupRule, RuleChange> toSplit) {
+        final List<SecurityGroupRule> carvedRules = new ArrayList<>();
+        final Set<SecurityGroupRule> coveringRules = new TreeSet<>(Comparator.comparing(SecurityGroupRule::toString).thenComparing(SecurityGroupRule::getNicType));
+        for (RuleChange change : revocations) {
+            // the matched rules are carved out of the split ones too, or the split could allow them again
+            carvedRules.add(change.rule);
+            if (currentRules.contains(change.rule)) {
+                toRevoke.putIfAbsent(change.rule, change);
+                continue;
+            }
+            final List<SecurityGroupRule> covering = null == revocationOf ? Collections.emptyList()
+                    : currentRules.stream().filter(rule -> SecurityGroupRuleSplitter.covers(rule, change.rule)).collect(Collectors.toList());
+            if (covering.isEmpty()) {
+                // revoking a rule which doesn't exist changes nothing, so a retried revocation still succeeds
+                logger.info("The security group rule to revoke: [{}] matches no existing rule of security group: [{}], skipped.", change.rule, securityGroupId);
+                continue;
+            }
+            coveringRules.addAll(covering);
+        }
+
+        for (SecurityGroupRule covering : coveringRules) {
+            if (toRevoke.containsKey(covering)) {
+                // revoked as a whole anyway
+                continue;
+            }
+            logger.info("Splitting security group rule: [{}] of [{}] to revoke the rule(s) it covers.", covering, securityGroupId);
+            toRevoke.put(covering, revocationOf.apply(covering));
+            for (SecurityGroupRule remainder : SecurityGroupRuleSplitter.subtract(covering, carvedRules)) {
+                if (!currentRules.contains(remainder)) {
+                    toSplit.putIfAbsent(remainder, revocationOf.apply(remainder).inverse());
+                }
+            }
+        }
+    }
+
+    private Set<SecurityGroupRule> describeRules(IAcsClient client, String regionId, String securityGroupId, String nicType) throws PluginException, AliCloudException {
+        logger.info("Retrieving the rules of security group: [{}], NIC type: [{}]", securityGroupId, nicType);
+        final DescribeSecurityGroupAttributeRequest request = new DescribeSecurityGroupAttributeRequest();
+        request.setSecurityGroupId(securityGroupId);
+        request.setDirection(DIRECTION_ALL);
+        if (StringUtils.isNotEmpty(nicType)) {
+            request.setNicType(nicType);
+        }
+        final DescribeSecurityGroupAttributeResponse response = acsClientStub.request(client, request, regionId);
+        if (null == response.getPermissions()) {
+            return Collections.emptySet();
+        }
+        // the rules are keyed by the NIC type they were described with, as requested rules may leave it to the default
+        return response.getPermissions().stream()
+                .map(permission -> {
+                    final boolean egress = SecurityGroupRule.DIRECTION_EGRESS.equalsIgnoreCase(permission.getDirection());
+                    return SecurityGroupRule.of(permission.getDirection(), permission.getIpProtocol(), permission.getPortRange(),
+                            egress ? permission.getDestCidrIp() : permission.getSourceCidrIp(),
+                            egress ? permission.getDestGroupId() : permission.getSourceGroupId(),
+                            permission.getPolicy(), permission.getPriority(), nicType);
+                })
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Send the requests of the changes concurrently under the permits of the security group
+     *
+     * @param rollback  whether to send the rollback requests
+     * @param succeeded receives the changes which succeeded
+     * @return the first failure, or null
+     */
+    private RuntimeException applyAll(IAcsClient client, String regionId, String securityGroupId, Collection<RuleChange> changes, boolean rollback, List<RuleChange> succeeded) {
+        final Semaphore permits = groupPermits.get(securityGroupId);
+        final AtomicBoolean failed = new AtomicBoolean(false);
+        final List<CompletableFuture<? extends AcsResponse>> futures = new ArrayList<>();
+        final List<RuleChange> submitted = new ArrayList<>();
+        RuntimeException failure = null;
+
+        for (RuleChange change : changes) {
+            try {
+                permits.acquire();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                failure = new PluginException("Interrupted while syncing the security group rules.");
+                break;
+            }
+            if (failed.get()) {
+                // stop sending once a change has failed, the sent ones will be rolled back
+                permits.release();
+                break;
+            }
+            final AcsRequest<? extends AcsResponse> request = rollback ? change.rollbackRequest : change.request;
+            final CompletableFuture<? extends AcsResponse> future;
+            try {
+                future = acsClientStub.requestAsync(client, request, regionId);
+            } catch (RuntimeException ex) {
+                permits.release();
+                failure = ex;
+                break;
+            }
+            future.whenComplete((response, ex) -> {
+                if (null != ex && !rollback) {
+                    failed.set(true);
+                }
+                permits.release();
+            });
+            futures.add(future);
+            submitted.add(change);
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                final AcsResponse response = AcsAsyncExecutor.join(futures.get(i));
+                submitted.get(i).response = response;
+                succeeded.add(submitted.get(i));
+            } catch (PluginException | AliCloudException ex) {
+                logger.info("Error when applying security group rule: [{}] of [{}]: [{}]", submitted.get(i).rule, securityGroupId, ex.getMessage());
+                if (null == failure) {
+                    failure = ex;
+                }
+            }
+        }
+        return failure;
+    }
+
+    /**
+     * One rule change with the request applying it and the request rolling it back
+     */
+    public static final class RuleChange {
+        private final SecurityGroupRule rule;
+        private final AcsRequest<? extends AcsResponse> request;
+        private final AcsRequest<? extends AcsResponse> rollbackRequest;
+        private AcsResponse response;
+
+        public RuleChange(SecurityGroupRule rule, AcsRequest<? extends AcsResponse> request, AcsRequest<? extends AcsResponse> rollbackRequest) {
+            this.rule = rule;
+            this.request = request;
+            this.rollbackRequest = rollbackRequest;
+        }
+
+        /**
+         * @return the change undoing this one, sent by the rollback request and rolled back by the request
+         */
+        public RuleChange inverse() {
+            return new RuleChange(rule, rollbackRequest, request);
+        }
+
+        public SecurityGroupRule getRule() {
+            return rule;
+        }
+
+        public AcsResponse getResponse() {
+            return response;
+        }
+    }
+
+    public static final class SyncResult {
+        private final List<RuleChange> authorized = new ArrayList<>();
+        private final List<RuleChange> revoked = new ArrayList<>();
+        private final int unchangedCount;
+
+        private SyncResult(int unchangedCount) {
+            this.unchangedCount = unchangedCount;
+        }
+
+        public List<RuleChange> getAuthorized() {
+            return authorized;
+        }
+
+        public List<RuleChange> getRevoked() {
+            return revoked;
+        }
+
+        public int getUnchangedCount() {
+            return unchangedCount;
+        }
+
+        /**
+         * @return response of the last change sent, or null when the group was already in sync
+         */
+        public AcsResponse getLastResponse() {
+            final List<RuleChange> changes = authorized.isEmpty() ? revoked : authorized;
+            return changes.isEmpty() ? null : changes.get(changes.size() - 1).response;
+        }
+    }
+}
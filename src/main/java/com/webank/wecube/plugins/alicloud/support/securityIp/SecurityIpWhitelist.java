@@ -0,0 +1,181 @@
+package com.webank.wecube.plugins.alicloud.support.securityIp;
+
+import com.webank.wecube.plugins.alicloud.support.cidr.Ipv4Prefix;
+import com.webank.wecube.plugins.alicloud.support.cidr.Ipv4PrefixTrie;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+
+/**
+ * Security IP whitelist of a DB instance, planning the ModifySecurityIps call which applies a change to it.
+ * <p>
+ * The entries are held in a hash set keyed by their normalized form, so an address and its /32 CIDR are the same
+ * entry, and the IPv4 entries are also held in a binary prefix tree which tells whether an address or a CIDR is
+ * already covered by the whitelist. Entries which are not IPv4 are only ever equal to themselves.
+ *
+ * @author howechen
+ */
+public final class SecurityIpWhitelist {
+    public static final String MODIFY_MODE_COVER = "Cover";
+    public static final String MODIFY_MODE_APPEND = "Append";
+    public static final String MODIFY_MODE_DELETE = "Delete";
+    /**
+     * AliCloud doesn't allow an empty whitelist, and sets this one instead
+     */
+    public static final String DEFAULT_SECURITY_IP = "127.0.0.1";
+
+    private final Map<String, String> entries = new LinkedHashMap<>();
+    private final Ipv4PrefixTrie trie = new Ipv4PrefixTrie();
+
+    private SecurityIpWhitelist() {
+    }
+
+    /**
+     * @param securityIps current entries of the whitelist, as AliCloud returns them
+     */
+    public static SecurityIpWhitelist of(Collection<String> securityIps) {
+        final SecurityIpWhitelist whitelist = new SecurityIpWhitelist();
+        for (String securityIp : securityIps) {
+            final String entry = StringUtils.trimToEmpty(securityIp);
+            if (entry.isEmpty()) {
+                continue;
+            }
+            whitelist.entries.putIfAbsent(keyOf(entry), entry);
+            insert(whitelist.trie, entry);
+        }
+        return whitelist;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean contains(String securityIp) {
+        return entries.containsKey(keyOf(StringUtils.trimToEmpty(securityIp)));
+    }
+
+    /**
+     * @return whether the address or CIDR is in an entry of the whitelist
+     */
+    public boolean covers(String securityIp) {
+        final String entry = StringUtils.trimToEmpty(securityIp);
+        final Ipv4Prefix prefix = Ipv4Prefix.parseAddressOrCidr(entry);
+        return null == prefix ? entries.containsKey(keyOf(entry)) : trie.covers(prefix);
+    }
+
+    /**
+     * Plan the appending of the security IPs.
+     * <p>
+     * The security IPs already covered by the whitelist are left out, and so are the ones covered by other appended
+     * ones. When an appended CIDR covers existing entries, the whitelist is covered with its collapsed entries instead,
+     * which keeps it small.
+     */
+    public Modification append(Collection<String> securityIps) {
+        final Map<String, String> appended = new LinkedHashMap<>();
+        for (String securityIp : securityIps) {
+            final String entry = StringUtils.trimToEmpty(securityIp);
+            if (!entry.isEmpty() && !covers(entry)) {
+                appended.putIfAbsent(keyOf(entry), entry);
+            }
+        }
+        if (appended.isEmpty()) {
+            return Modification.NONE;
+        }
+
+        final Ipv4PrefixTrie union = new Ipv4PrefixTrie();
+        entries.values().forEach(entry -> insert(union, entry));
+        appended.values().forEach(entry -> insert(union, entry));
+        final Set<Ipv4Prefix> survivors = new HashSet<>(union.collect());
+
+        final List<String> kept = collapse(entries.values(), survivors);
+        final List<String> added = collapse(appended.values(), survivors);
+        if (kept.size() == entries.size()) {
+            return new Modification(MODIFY_MODE_APPEND, added);
+        }
+        kept.addAll(added);
+        return new Modification(MODIFY_MODE_COVER, kept);
+    }
+
+    /**
+     * Plan the deletion of the security IPs, the ones which are not entries of the whitelist are ignored
+     */
+    public Modification delete(Collection<String> securityIps) {
+        final Set<String> keys = new HashSet<>();
+        securityIps.forEach(securityIp -> keys.add(keyOf(StringUtils.trimToEmpty(securityIp))));
+        final List<String> deleted = new ArrayList<>();
+        entries.forEach((key, entry) -> {
+            if (keys.contains(key)) {
+                deleted.add(entry);
+            }
+        });
+        if (deleted.isEmpty()) {
+            return Modification.NONE;
+        }
+        if (deleted.size() < entries.size()) {
+            return new Modification(MODIFY_MODE_DELETE, deleted);
+        }
+        if (1 == entries.size() && contains(DEFAULT_SECURITY_IP)) {
+            // already as empty as AliCloud allows
+            return Modification.NONE;
+        }
+        return new Modification(MODIFY_MODE_COVER, Collections.singletonList(DEFAULT_SECURITY_IP));
+    }
+
+    private static void insert(Ipv4PrefixTrie trie, String entry) {
+        final Ipv4Prefix prefix = Ipv4Prefix.parseAddressOrCidr(entry);
+        if (null != prefix) {
+            trie.insert(prefix);
+        }
+    }
+
+    /**
+     * @return the entries which are not IPv4 or whose prefix is not covered by another one
+     */
+    private static List<String> collapse(Collection<String> entries, Set<Ipv4Prefix> survivors) {
+        final List<String> result = new ArrayList<>(entries.size());
+        for (String entry : entries) {
+            final Ipv4Prefix prefix = Ipv4Prefix.parseAddressOrCidr(entry);
+            if (null == prefix || survivors.contains(prefix)) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    private static String keyOf(String entry) {
+        final Ipv4Prefix prefix = Ipv4Prefix.parseAddressOrCidr(entry);
+        return null == prefix ? entry.toLowerCase() : prefix.toString();
+    }
+
+    /**
+     * The ModifySecurityIps call to send, none when the whitelist is already as requested
+     */
+    public static final class Modification {
+        private static final Modification NONE = new Modification(null, Collections.emptyList());
+
+        private final String modifyMode;
+        private final List<String> securityIps;
+
+        private Modification(String modifyMode, List<String> securityIps) {
+            this.modifyMode = modifyMode;
+            this.securityIps = Collections.unmodifiableList(securityIps);
+        }
+
+        public boolean isNone() {
+            return null == modifyMode;
+        }
+
+        public String getModifyMode() {
+            return modifyMode;
+        }
+
+        public List<String> getSecurityIps() {
+            return securityIps;
+        }
+
+        @Override
+        public String toString() {
+            return isNone() ? "None" : modifyMode + securityIps;
+        }
+    }
+}
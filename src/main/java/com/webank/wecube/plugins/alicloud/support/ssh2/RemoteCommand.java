@@ -1,8 +0,0 @@
-package com.webank.wecube.plugins.alicloud.support.ssh2;
-
-/**
- * @author howechen
- */
-public interface RemoteCommand {
-	String getCommand();
-}
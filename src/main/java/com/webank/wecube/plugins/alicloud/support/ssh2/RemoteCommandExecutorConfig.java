@@ -1,44 +0,0 @@
-package com.webank.wecube.plugins.alicloud.support.ssh2;
-
-/**
- * @author howechen
- */
-public class RemoteCommandExecutorConfig {
-    private String remoteHost;
-    private int port;
-    private String user;
-    private String psword;
-
-    public String getRemoteHost() {
-        return remoteHost;
-    }
-
-    public void setRemoteHost(String remoteHost) {
-        this.remoteHost = remoteHost;
-    }
-
-    public String getUser() {
-        return user;
-    }
-
-    public void setUser(String user) {
-        this.user = user;
-    }
-
-    public String getPsword() {
-        return psword;
-    }
-
-    public void setPsword(String psword) {
-        this.psword = psword;
-    }
-
-    public int getPort() {
-        return port;
-    }
-
-    public void setPort(int port) {
-        this.port = port;
-    }
-
-}
@@ -0,0 +1,352 @@
+package com.webank.wecube.plugins.alicloud.support.ssh2;
+
+import ch.ethz.ssh2.Connection;
+import ch.ethz.ssh2.Session;
+import com.google.common.hash.Hashing;
+import com.webank.wecube.plugins.alicloud.common.SshProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool of authenticated SSH connections keyed by (host, port, user).
+ * <p>
+ * Commands and SCP transfers are run as channels multiplexed on warm connections, at most maxSessionsPerConnection
+ * at a time, and a new connection is only opened when all the connections of the host are busy, up to
+ * maxConnectionsPerHost. A connection which was idle for longer than healthCheckIdleSeconds is probed by opening a
+ * channel before it is reused. Connections failing with an IOException or lost by the transport are retired, and
+ * connections idle for longer than idleTimeoutSeconds are closed.
+ *
+ * @author howechen
+ */
+@Component
+public class SshConnectionPool {
+    private static final Logger logger = LoggerFactory.getLogger(SshConnectionPool.class);
+
+    private final SshProperties sshProperties;
+    private final SshConnector sshConnector;
+    private final ConcurrentMap<HostKey, HostPool> hostPools = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SshConnectionPool(SshProperties sshProperties) {
+        this(sshProperties, new PasswordSshConnector(sshProperties.getConnectTimeoutMillis()));
+    }
+
+    SshConnectionPool(SshProperties sshProperties, SshConnector sshConnector) {
+        this.sshProperties = sshProperties;
+        this.sshConnector = sshConnector;
+    }
+
+    /**
+     * Run the callback on a pooled connection of (host, port, user)
+     *
+     * @param callback opens its own channels on the connection, an IOException retires the connection
+     * @return result of the callback
+     * @throws IOException when no connection can be opened or authenticated, or thrown by the callback
+     */
+    public <T> T execute(String host, int port, String user, String password, SshCallback<T> callback) throws IOException {
+        final HostKey key = new HostKey(host, port, user);
+        final String passwordDigest = Hashing.sha256().hashString(password, StandardCharsets.UTF_8).toString();
+        final PooledConnection pooledConnection = borrow(key, password, passwordDigest);
+        boolean broken = true;
+        try {
+            final T result = callback.doWithConnection(pooledConnection.connection);
+            broken = false;
+            return result;
+        } catch (RuntimeException ex) {
+            broken = false;
+            throw ex;
+        } finally {
+            pooledConnection.hostPool.release(pooledConnection, broken);
+        }
+    }
+
+    private PooledConnection borrow(HostKey key, String password, String passwordDigest) throws IOException {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sshProperties.getBorrowTimeoutMillis());
+        while (true) {
+            final HostPool hostPool = hostPools.computeIfAbsent(key, HostPool::new);
+            final Lease lease = hostPool.borrow(password, passwordDigest, deadline);
+            if (null == lease) {
+                // the host pool was evicted meanwhile
+                continue;
+            }
+            if (!lease.needsHealthCheck || sshConnector.isHealthy(lease.pooledConnection.connection)) {
+                return lease.pooledConnection;
+            }
+            logger.info("Retiring unhealthy SSH connection to: [{}]", key);
+            hostPool.release(lease.pooledConnection, true);
+        }
+    }
+
+    public int getConnectionCount() {
+        return hostPools.values().stream().mapToInt(HostPool::size).sum();
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdle() {
+        final long idleTimeoutNanos = TimeUnit.SECONDS.toNanos(sshProperties.getIdleTimeoutSeconds());
+        for (HostPool hostPool : hostPools.values()) {
+            if (hostPool.evictIdle(System.nanoTime() - idleTimeoutNanos, false)) {
+                hostPools.remove(hostPool.key, hostPool);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (HostPool hostPool : hostPools.values()) {
+            hostPool.evictIdle(System.nanoTime(), true);
+        }
+        hostPools.clear();
+    }
+
+    @FunctionalInterface
+    public interface SshCallback<T> {
+        T doWithConnection(Connection connection) throws IOException;
+    }
+
+    interface SshConnector {
+        Connection connect(String host, int port, String user, String password) throws IOException;
+
+        boolean isHealthy(Connection connection);
+    }
+
+    private static final class PasswordSshConnector implements SshConnector {
+        private final int connectTimeoutMillis;
+
+        private PasswordSshConnector(int connectTimeoutMillis) {
+            this.connectTimeoutMillis = connectTimeoutMillis;
+        }
+
+        @Override
+        public Connection connect(String host, int port, String user, String password) throws IOException {
+            final Connection connection = new Connection(host, port);
+            try {
+                connection.connect(null, connectTimeoutMillis, connectTimeoutMillis);
+                if (!connection.authenticateWithPassword(user, password)) {
+                    throw new IOException("User or password incorrect");
+                }
+                return connection;
+            } catch (IOException ex) {
+                connection.close();
+                throw ex;
+            }
+        }
+
+        @Override
+        public boolean isHealthy(Connection connection) {
+            try {
+                final Session session = connection.openSession();
+                session.close();
+                return true;
+            } catch (IOException | IllegalStateException ex) {
+                return false;
+            }
+        }
+    }
+
+    private final class HostPool {
+        private final HostKey key;
+        private final List<PooledConnection> connections = new ArrayList<>();
+        private int connectingCount = 0;
+        private boolean evicted = false;
+
+        private HostPool(HostKey key) {
+            this.key = key;
+        }
+
+        private Lease borrow(String password, String passwordDigest, long deadline) throws IOException {
+            synchronized (this) {
+                while (true) {
+                    if (evicted) {
+                        return null;
+                    }
+                    final PooledConnection available = leastLeased(passwordDigest);
+                    if (null != available) {
+                        final boolean needsHealthCheck = 0 == available.leaseCount
+                                && System.nanoTime() - available.idleSince > TimeUnit.SECONDS.toNanos(sshProperties.getHealthCheckIdleSeconds());
+                        available.leaseCount++;
+                        return new Lease(available, needsHealthCheck);
+                    }
+                    if (connections.size() + connectingCount < Math.max(1, sshProperties.getMaxConnectionsPerHost())) {
+                        connectingCount++;
+                        break;
+                    }
+                    if (retireIdleWithOtherPassword(passwordDigest)) {
+                        continue;
+                    }
+                    final long remainingNanos = deadline - System.nanoTime();
+                    if (remainingNanos <= 0) {
+                        throw new IOException(String.format("Timed out waiting for an SSH session to: [%s]", key));
+                    }
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException(String.format("Interrupted while waiting for an SSH session to: [%s]", key), ex);
+                    }
+                }
+            }
+
+            final Connection connection;
+            try {
+                logger.info("Opening SSH connection to: [{}]", key);
+                connection = sshConnector.connect(key.host, key.port, key.user, password);
+            } catch (IOException | RuntimeException ex) {
+                synchronized (this) {
+                    connectingCount--;
+                    notifyAll();
+                }
+                throw ex;
+            }
+            final PooledConnection pooledConnection = new PooledConnection(this, connection, passwordDigest);
+            connection.addConnectionMonitor(cause -> pooledConnection.broken = true);
+            synchronized (this) {
+                connectingCount--;
+                pooledConnection.leaseCount++;
+                connections.add(pooledConnection);
+                // the other channels of the new connection are free for the waiting threads
+                notifyAll();
+            }
+            return new Lease(pooledConnection, false);
+        }
+
+        private PooledConnection leastLeased(String passwordDigest) {
+            final int maxSessions = Math.max(1, sshProperties.getMaxSessionsPerConnection());
+            PooledConnection result = null;
+            for (PooledConnection pooledConnection : connections) {
+                if (pooledConnection.broken || !pooledConnection.passwordDigest.equals(passwordDigest) || pooledConnection.leaseCount >= maxSessions) {
+                    continue;
+                }
+                if (null == result || pooledConnection.leaseCount < result.leaseCount) {
+                    result = pooledConnection;
+                }
+            }
+            return result;
+        }
+
+        private boolean retireIdleWithOtherPassword(String passwordDigest) {
+            for (PooledConnection pooledConnection : connections) {
+                if (0 == pooledConnection.leaseCount && (pooledConnection.broken || !pooledConnection.passwordDigest.equals(passwordDigest))) {
+                    connections.remove(pooledConnection);
+                    pooledConnection.connection.close();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private synchronized void release(PooledConnection pooledConnection, boolean broken) {
+            pooledConnection.leaseCount--;
+            if (broken) {
+                pooledConnection.broken = true;
+            }
+            if (0 == pooledConnection.leaseCount) {
+                pooledConnection.idleSince = System.nanoTime();
+                if (pooledConnection.broken) {
+                    connections.remove(pooledConnection);
+                    pooledConnection.connection.close();
+                }
+            }
+            notifyAll();
+        }
+
+        /**
+         * Close the connections idle since before the given time, or all the idle ones
+         *
+         * @return whether the pool is empty and evicted
+         */
+        private synchronized boolean evictIdle(long idleBefore, boolean allIdle) {
+            final Iterator<PooledConnection> iterator = connections.iterator();
+            while (iterator.hasNext()) {
+                final PooledConnection pooledConnection = iterator.next();
+                if (0 == pooledConnection.leaseCount && (allIdle || pooledConnection.broken || pooledConnection.idleSince - idleBefore < 0)) {
+                    logger.info("Closing idle SSH connection to: [{}]", key);
+                    iterator.remove();
+                    pooledConnection.connection.close();
+                }
+            }
+            evicted = connections.isEmpty() && 0 == connectingCount;
+            if (evicted) {
+                notifyAll();
+            }
+            return evicted;
+        }
+
+        private synchronized int size() {
+            return connections.size();
+        }
+    }
+
+    private static final class PooledConnection {
+        private final HostPool hostPool;
+        private final Connection connection;
+        private final String passwordDigest;
+        private volatile boolean broken = false;
+        private int leaseCount = 0;
+        private long idleSince = System.nanoTime();
+
+        private PooledConnection(HostPool hostPool, Connection connection, String passwordDigest) {
+            this.hostPool = hostPool;
+            this.connection = connection;
+            this.passwordDigest = passwordDigest;
+        }
+    }
+
+    private static final class Lease {
+        private final PooledConnection pooledConnection;
+        private final boolean needsHealthCheck;
+
+        private Lease(PooledConnection pooledConnection, boolean needsHealthCheck) {
+            this.pooledConnection = pooledConnection;
+            this.needsHealthCheck = needsHealthCheck;
+        }
+    }
+
+    private static final class HostKey {
+        private final String host;
+        private final int port;
+        private final String user;
+
+        private HostKey(String host, int port, String user) {
+            this.host = host;
+            this.port = port;
+            this.user = user;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            HostKey that = (HostKey) o;
+            return port == that.port && host.equals(that.host) && user.equals(that.user);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(host, port, user);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s@%s:%d", user, host, port);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.webank.wecube.plugins.alicloud.support.step;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.common.StepExecutorProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs the steps of {@link StepGraph}s.
+ * <p>
+ * Steps may block on status waits for minutes, so they run on their own pool instead of the AliCloud async executor,
+ * whose threads are meant for short calls. The pool and its queue are both bounded; a step which finds the queue full
+ * fails with a {@link PluginException}, so an overloaded plugin fails items instead of spawning threads without limit.
+ * Steps which modify the same instance are ordered by their graph's dependencies, not by this executor.
+ *
+ * @author howechen
+ */
+@Component
+public class StepExecutor {
+
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public StepExecutor(StepExecutorProperties stepExecutorProperties) {
+        final int maxThreads = Math.max(1, stepExecutorProperties.getMaxThreads());
+        this.executor = new ThreadPoolExecutor(maxThreads, maxThreads,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, stepExecutorProperties.getQueueCapacity())),
+                new ThreadFactoryBuilder().setNameFormat("plugin-step-%d").setDaemon(true).build());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Run the graph and block until all steps have settled
+     *
+     * @param graph step graph
+     * @return results of all steps
+     */
+    public StepResults run(StepGraph graph) {
+        return graph.execute(this::dispatch);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private CompletableFuture<Object> dispatch(Supplier<Object> step) {
+        try {
+            return CompletableFuture.supplyAsync(step, executor);
+        } catch (RejectedExecutionException ex) {
+            final CompletableFuture<Object> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(new PluginException(String.format("The step executor is full with [%d] queued steps, try again later.", executor.getQueue().size())));
+            return rejected;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.webank.wecube.plugins.alicloud.support.step;
+
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.support.AcsAsyncExecutor;
+import com.webank.wecube.plugins.alicloud.support.AliCloudException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Declarative step-dependency graph of a multi-step flow.
+ * <p>
+ * Each step declares the steps it depends on, and starts as soon as all of them have finished, so independent steps
+ * run concurrently. A step only depends on steps declared before it, so the graph can't have a cycle. When a step
+ * fails, its dependents are skipped and the first failure in declaration order is thrown once the other steps have
+ * settled. The elapsed time of each step is logged for diagnosis.
+ *
+ * @author howechen
+ */
+public class StepGraph {
+    private static final Logger logger = LoggerFactory.getLogger(StepGraph.class);
+
+    private final String name;
+    private final Map<String, Step> steps = new LinkedHashMap<>();
+
+    private StepGraph(String name) {
+        this.name = name;
+    }
+
+    public static StepGraph of(String name) {
+        return new StepGraph(name);
+    }
+
+    /**
+     * Add a step which produces a value for its dependents
+     *
+     * @param stepName  step name, unique in the graph
+     * @param action    action which can read the results of the steps it depends on
+     * @param dependsOn names of the steps declared before
+     * @return this graph
+     */
+    public StepGraph supplyStep(String stepName, Function<StepResults, ?> action, String... dependsOn) {
+        if (steps.containsKey(stepName)) {
+            throw new PluginException(String.format("Step: [%s] has been declared in graph: [%s].", stepName, name));
+        }
+        for (String dependency : dependsOn) {
+            if (!steps.containsKey(dependency)) {
+                throw new PluginException(String.format("Step: [%s] depends on undeclared step: [%s] in graph: [%s].", stepName, dependency, name));
+            }
+        }
+        steps.put(stepName, new Step(stepName, action, Arrays.asList(dependsOn)));
+        return this;
+    }
+
+    /**
+     * Add a step which produces no value
+     *
+     * @param stepName  step name, unique in the graph
+     * @param action    action which can read the results of the steps it depends on
+     * @param dependsOn names of the steps declared before
+     * @return this graph
+     */
+    public StepGraph runStep(String stepName, Consumer<StepResults> action, String... dependsOn) {
+        return supplyStep(stepName, results -> {
+            action.accept(results);
+            return null;
+        }, dependsOn);
+    }
+
+    /**
+     * Run the graph and block until all steps have settled
+     *
+     * @param dispatcher runs a step asynchronously, see {@link StepExecutor}
+     * @return results of all steps
+     * @throws PluginException   the first failure, in declaration order
+     * @throws AliCloudException the first failure, in declaration order
+     */
+    public StepResults execute(Function<Supplier<Object>, CompletableFuture<Object>> dispatcher) throws PluginException, AliCloudException {
+        final long startNanos = System.nanoTime();
+        final StepResults results = new StepResults();
+        final Map<String, CompletableFuture<Object>> futures = new LinkedHashMap<>();
+
+        for (Step step : steps.values()) {
+            final CompletableFuture<?>[] dependencies = step.dependsOn.stream().map(futures::get).toArray(CompletableFuture[]::new);
+            final CompletableFuture<Object> future = CompletableFuture.allOf(dependencies).thenCompose(v -> dispatcher.apply(() -> {
+                final long stepStartNanos = System.nanoTime();
+                try {
+                    final Object value = step.action.apply(results);
+                    results.put(step.name, value);
+                    return value;
+                } finally {
+                    results.putElapsed(step.name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - stepStartNanos));
+                }
+            }));
+            futures.put(step.name, future);
+        }
+
+        // let every step settle before reporting, so that no step keeps running behind the caller's back
+        CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).handle((v, ex) -> null).join();
+
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        logger.info("Step graph: [{}] finished in [{}] ms, steps: [{}]", name, elapsedMillis,
+                steps.keySet().stream().map(stepName -> stepName + "=" + Optional.ofNullable(results.getElapsedMillis(stepName)).map(ms -> ms + "ms").orElse("skipped")).collect(Collectors.joining(", ")));
+
+        for (CompletableFuture<Object> future : futures.values()) {
+            if (future.isCompletedExceptionally()) {
+                AcsAsyncExecutor.join(future);
+            }
+        }
+        return results;
+    }
+
+    private static final class Step {
+        private final String name;
+        private final Function<StepResults, ?> action;
+        private final List<String> dependsOn;
+
+        private Step(String name, Function<StepResults, ?> action, List<String> dependsOn) {
+            this.name = name;
+            this.action = action;
+            this.dependsOn = dependsOn;
+        }
+    }
+}
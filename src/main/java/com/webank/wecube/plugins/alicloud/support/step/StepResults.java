@@ -0,0 +1,52 @@
+package com.webank.wecube.plugins.alicloud.support.step;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Values and elapsed time of the finished steps of a {@link StepGraph}.
+ *
+ * @author howechen
+ */
+public class StepResults {
+    private static final Object NULL_VALUE = new Object();
+
+    private final Map<String, Object> values = new ConcurrentHashMap<>();
+    private final Map<String, Long> elapsedMillis = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    StepResults() {
+    }
+
+    /**
+     * Value of the finished step
+     *
+     * @param stepName step name
+     * @param <T>      value type
+     * @return value, null when the step returned null or hasn't finished
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String stepName) {
+        final Object value = values.get(stepName);
+        return NULL_VALUE == value ? null : (T) value;
+    }
+
+    public Long getElapsedMillis(String stepName) {
+        return elapsedMillis.get(stepName);
+    }
+
+    public Map<String, Long> getElapsedMillis() {
+        synchronized (elapsedMillis) {
+            return new LinkedHashMap<>(elapsedMillis);
+        }
+    }
+
+    void put(String stepName, Object value) {
+        values.put(stepName, null == value ? NULL_VALUE : value);
+    }
+
+    void putElapsed(String stepName, long millis) {
+        elapsedMillis.put(stepName, millis);
+    }
+}
@@ -0,0 +1,182 @@
+package com.webank.wecube.plugins.alicloud.support.timer;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Single threaded hashed wheel timer.
+ * <p>
+ * Scheduling and cancelling are O(1); expiry is accurate to one tick. The expired tasks run on the wheel thread,
+ * so they must be short and hand any blocking work off to an executor.
+ *
+ * @author howechen
+ */
+public class HashedWheelTimer {
+    private static final Logger logger = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private final long tickNanos;
+    private final int mask;
+    private final LinkedList<Timeout>[] wheel;
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final CountDownLatch startTimeInitialized = new CountDownLatch(1);
+    private final Thread workerThread;
+    private volatile boolean stopped = false;
+    private volatile long startTime;
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        if (tickDuration <= 0 || ticksPerWheel <= 0) {
+            throw new IllegalArgumentException("Tick duration and ticks per wheel must be positive.");
+        }
+        int wheelSize = Integer.highestOneBit(ticksPerWheel);
+        if (wheelSize < ticksPerWheel) {
+            wheelSize <<= 1;
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.mask = wheelSize - 1;
+        this.wheel = new LinkedList[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new LinkedList<>();
+        }
+        this.workerThread = new ThreadFactoryBuilder().setNameFormat(name).setDaemon(true).build().newThread(this::runWheel);
+    }
+
+    /**
+     * Schedule the task to run once after the given delay
+     *
+     * @param task  short, non-blocking task
+     * @param delay delay
+     * @param unit  delay unit
+     * @return handle which can cancel the task
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        if (stopped) {
+            throw new IllegalStateException("The timer has been stopped.");
+        }
+        start();
+        final long deadline = System.nanoTime() + Math.max(0, unit.toNanos(delay)) - startTime;
+        final Timeout timeout = new Timeout(task, deadline);
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Start the wheel thread if it isn't started yet, and wait till it has published the start time, which the
+     * deadlines are relative to
+     */
+    private void start() {
+        if (started.compareAndSet(false, true)) {
+            workerThread.start();
+        }
+        boolean interrupted = false;
+        while (0 == startTime) {
+            try {
+                startTimeInitialized.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void stop() {
+        stopped = true;
+        workerThread.interrupt();
+    }
+
+    private void runWheel() {
+        final long now = System.nanoTime();
+        // zero tells that the start time is not initialized yet
+        startTime = 0 == now ? 1 : now;
+        startTimeInitialized.countDown();
+
+        while (!stopped) {
+            final long deadline = tickNanos * (tick + 1);
+            final long sleepNanos = deadline - (System.nanoTime() - startTime);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (stopped) {
+                        return;
+                    }
+                    continue;
+                }
+            }
+            transferPendingTimeouts();
+            expireTimeouts(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void transferPendingTimeouts() {
+        Timeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            final long ticks = Math.max(timeout.deadline / tickNanos, tick);
+            timeout.remainingRounds = (ticks - tick) / wheel.length;
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void expireTimeouts(LinkedList<Timeout> bucket) {
+        final Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            final Timeout timeout = iterator.next();
+            if (timeout.isCancelled()) {
+                iterator.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                iterator.remove();
+                timeout.expire();
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    public static final class Timeout {
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicBoolean done = new AtomicBoolean(false);
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        public boolean cancel() {
+            return done.compareAndSet(false, true);
+        }
+
+        public boolean isCancelled() {
+            return done.get();
+        }
+
+        private void expire() {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (Throwable ex) {
+                logger.error("Error while running the timer task.", ex);
+            }
+        }
+    }
+}
@@ -4,8 +4,10 @@ import com.webank.wecube.plugins.alicloud.common.PluginException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Date;
-import java.util.concurrent.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author howechen
@@ -26,30 +28,64 @@ public interface PluginTimer {
 
     /**
      * Run task with default timeout time.
+     * <p>
+     * PluginTimerTask is polled by the shared {@link PluginWaitScheduler}, so no thread is held while waiting
+     * except the caller's.
      *
      * @param task    the runnable task.
      * @param timeout the specified timeout.
      * @throws PluginException when handling the runnable task.
      */
     static void runTask(Runnable task, int timeout) throws PluginException {
+        join(runTaskAsync(task, timeout));
+    }
+
+    /**
+     * Run task asynchronously with default timeout time.
+     *
+     * @param task runnable task
+     * @return future completed when the task is done
+     */
+    static CompletableFuture<Void> runTaskAsync(Runnable task) {
+        return runTaskAsync(task, TIMEOUT);
+    }
+
+    /**
+     * Run task asynchronously.
+     *
+     * @param task    the runnable task.
+     * @param timeout the specified timeout in minutes.
+     * @return future completed when the task is done, or completed exceptionally when timeout
+     */
+    static CompletableFuture<Void> runTaskAsync(Runnable task, int timeout) {
 
         logger.info("The plugin is running task with the timeout: [{}]", timeout);
 
-        ExecutorService service = Executors.newSingleThreadExecutor();
-        final Future<?> scheduledFuture = service.submit(task);
+        final long timeoutMillis = TimeUnit.MINUTES.toMillis(timeout);
+        if (task instanceof PluginTimerTask) {
+            final PluginTimerTask timerTask = (PluginTimerTask) task;
+            return PluginWaitScheduler.getInstance().waitUntil(timerTask.getFunc(), TimeUnit.SECONDS.toMillis(timerTask.getDelayTime()), timeoutMillis);
+        }
+        return PluginWaitScheduler.getInstance().runAsync(task, timeoutMillis);
+    }
+
+    /**
+     * Wait for the task future.
+     *
+     * @param future future returned by runTaskAsync
+     * @throws PluginException when handling the runnable task.
+     */
+    static void join(CompletableFuture<Void> future) throws PluginException {
         try {
-            scheduledFuture.get(timeout, TimeUnit.MINUTES);
-        } catch (InterruptedException e) {
-            throw new PluginException(String.format("The running task thread has been interrupted. The error is: %s", e.getMessage()));
-        } catch (ExecutionException e) {
-            throw new PluginException(String.format("Encounter error while running the timer task. The error is: %s", e.getMessage()));
-        } catch (TimeoutException e) {
-            throw new PluginException("The request is timeout.");
-        } finally {
-            if (!scheduledFuture.isCancelled()) {
-                scheduledFuture.cancel(true);
+            future.join();
+        } catch (CancellationException e) {
+            throw new PluginException("The running task has been cancelled.");
+        } catch (CompletionException e) {
+            final Throwable cause = null == e.getCause() ? e : e.getCause();
+            if (cause instanceof PluginException) {
+                throw (PluginException) cause;
             }
-            service.shutdownNow();
+            throw new PluginException(String.format("Encounter error while running the timer task. The error is: %s", cause.getMessage()));
         }
     }
 }
@@ -27,6 +27,13 @@ public class PluginTimerTask implements Runnable {
         this.func = func;
     }
 
+    public Function<?, Boolean> getFunc() {
+        return func;
+    }
+
+    public int getDelayTime() {
+        return DELAY_TIME;
+    }
 
     @Override
     public void run() throws PluginException {
@@ -0,0 +1,190 @@
+package com.webank.wecube.plugins.alicloud.support.timer;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.common.WaitSchedulerProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Shared scheduler for resource status waits.
+ * <p>
+ * A pending wait doesn't occupy any thread: the wheel timer fires the next check, the check runs on a small
+ * worker pool and either completes the future or re-arms the timer. Thousands of waits share a handful of threads.
+ * <p>
+ * Thread count and tick are configured by {@link WaitSchedulerProperties}. The bean is also shared with the static
+ * {@link PluginTimer}; before the bean is created, {@link #getInstance()} falls back to a scheduler with the default
+ * settings.
+ *
+ * @author howechen
+ */
+@Component
+public class PluginWaitScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(PluginWaitScheduler.class);
+
+    private static final int TICKS_PER_WHEEL = 512;
+
+    private static volatile PluginWaitScheduler sharedInstance;
+
+    private final HashedWheelTimer timer;
+    private final ExecutorService checkExecutor;
+
+    @Autowired
+    public PluginWaitScheduler(WaitSchedulerProperties waitSchedulerProperties) {
+        this(Math.max(1, waitSchedulerProperties.getCheckThreads()), Math.max(1L, waitSchedulerProperties.getTickMillis()));
+    }
+
+    public PluginWaitScheduler(int checkThreads, long tickMillis) {
+        this.timer = new HashedWheelTimer("plugin-wait-timer", tickMillis, TimeUnit.MILLISECONDS, TICKS_PER_WHEEL);
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(checkThreads, checkThreads,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("plugin-wait-check-%d").setDaemon(true).build());
+        executor.allowCoreThreadTimeOut(true);
+        this.checkExecutor = executor;
+    }
+
+    public static PluginWaitScheduler getInstance() {
+        PluginWaitScheduler instance = sharedInstance;
+        if (null == instance) {
+            synchronized (PluginWaitScheduler.class) {
+                instance = sharedInstance;
+                if (null == instance) {
+                    instance = new PluginWaitScheduler(new WaitSchedulerProperties());
+                    sharedInstance = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    @PostConstruct
+    public void share() {
+        synchronized (PluginWaitScheduler.class) {
+            sharedInstance = this;
+        }
+    }
+
+    /**
+     * Complete the returned future once the check returns true.
+     * <p>
+     * The first check runs right away, the following ones every <code>intervalMillis</code>. The future completes
+     * exceptionally with PluginException when the check throws or the timeout is reached. Cancelling the future
+     * stops the polling.
+     *
+     * @param check          status check, returns true when the wait is over
+     * @param intervalMillis interval between two checks
+     * @param timeoutMillis  overall timeout
+     * @return future completed when the wait is over
+     */
+    public CompletableFuture<Void> waitUntil(Function<?, Boolean> check, long intervalMillis, long timeoutMillis) {
+        final WaitTask waitTask = new WaitTask(check, intervalMillis, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+        waitTask.schedule(0);
+        return waitTask.future;
+    }
+
+    /**
+     * Run a plain blocking task on the check pool with a timeout
+     *
+     * @param task          task
+     * @param timeoutMillis timeout
+     * @return future completed when the task is done
+     */
+    public CompletableFuture<Void> runAsync(Runnable task, long timeoutMillis) {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        final Future<?> running = checkExecutor.submit(() -> {
+            try {
+                task.run();
+                future.complete(null);
+            } catch (Throwable ex) {
+                future.completeExceptionally(ex);
+            }
+        });
+        final HashedWheelTimer.Timeout deadline = timer.newTimeout(() -> future.completeExceptionally(new PluginException("The request is timeout.")), timeoutMillis, TimeUnit.MILLISECONDS);
+        future.whenComplete((v, ex) -> {
+            deadline.cancel();
+            if (null != ex) {
+                running.cancel(true);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Run a short task on the check pool after a delay
+     *
+     * @param task        task
+     * @param delayMillis delay
+     */
+    public void runLater(Runnable task, long delayMillis) {
+        timer.newTimeout(() -> checkExecutor.execute(task), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (PluginWaitScheduler.class) {
+            if (sharedInstance == this) {
+                sharedInstance = null;
+            }
+        }
+        timer.stop();
+        checkExecutor.shutdownNow();
+    }
+
+    private final class WaitTask {
+        private final Function<?, Boolean> check;
+        private final long intervalMillis;
+        private final long deadlineNanos;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private volatile HashedWheelTimer.Timeout timeout;
+        private int times = 0;
+
+        private WaitTask(Function<?, Boolean> check, long intervalMillis, long deadlineNanos) {
+            this.check = check;
+            this.intervalMillis = intervalMillis;
+            this.deadlineNanos = deadlineNanos;
+            future.whenComplete((v, ex) -> {
+                final HashedWheelTimer.Timeout current = timeout;
+                if (null != current) {
+                    current.cancel();
+                }
+            });
+        }
+
+        private void schedule(long delayMillis) {
+            if (future.isDone()) {
+                return;
+            }
+            timeout = timer.newTimeout(() -> checkExecutor.execute(this::runCheck), delayMillis, TimeUnit.MILLISECONDS);
+        }
+
+        private void runCheck() {
+            if (future.isDone()) {
+                return;
+            }
+            logger.info("Running plugin timer task... Retry times: [{}]", times++);
+            try {
+                if (Boolean.TRUE.equals(check.apply(null))) {
+                    logger.info("Plugin timer task completed.");
+                    future.complete(null);
+                    return;
+                }
+            } catch (Throwable ex) {
+                future.completeExceptionally(ex);
+                return;
+            }
+            if (System.nanoTime() - deadlineNanos >= 0) {
+                future.completeExceptionally(new PluginException("The request is timeout."));
+                return;
+            }
+            schedule(intervalMillis);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.webank.wecube.plugins.alicloud.support.watcher;
+
+import com.aliyuncs.IAcsClient;
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.support.AliCloudException;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Describe the status of several resources with one paged call.
+ *
+ * @author howechen
+ */
+@FunctionalInterface
+public interface ResourceStatusFetcher {
+
+    /**
+     * Fetch resources' status
+     *
+     * @param client      acs client
+     * @param regionId    region id
+     * @param resourceIds resource ids, no more than the type's max batch size
+     * @return status keyed by resource id, resources which cannot be found are absent
+     * @throws PluginException   plugin exception
+     * @throws AliCloudException alicloud exception
+     */
+    Map<String, String> fetch(IAcsClient client, String regionId, List<String> resourceIds) throws PluginException, AliCloudException;
+}
@@ -0,0 +1,251 @@
+package com.webank.wecube.plugins.alicloud.support.watcher;
+
+import com.aliyuncs.IAcsClient;
+import com.google.common.collect.Lists;
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.support.AliCloudException;
+import com.webank.wecube.plugins.alicloud.support.timer.PluginTimer;
+import com.webank.wecube.plugins.alicloud.support.timer.PluginWaitScheduler;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Coalesce concurrent status waits.
+ * <p>
+ * Pending waits are grouped by (account, region, resource type). Each group is polled by one timer task which
+ * describes all of its resources with one paged call per tick, so the polling traffic grows with the number of
+ * distinct accounts and regions instead of the number of resources in flight.
+ *
+ * @author howechen
+ */
+@Component
+public class ResourceStatusWatcher {
+    private static final Logger logger = LoggerFactory.getLogger(ResourceStatusWatcher.class);
+
+    private static final long DEFAULT_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(5);
+    private static final long GROUP_TIMEOUT_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private final PluginWaitScheduler waitScheduler;
+    private final long intervalMillis;
+    private final ConcurrentMap<WatchKey, WatchGroup> groups = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ResourceStatusWatcher(PluginWaitScheduler waitScheduler) {
+        this(waitScheduler, DEFAULT_INTERVAL_MILLIS);
+    }
+
+    public ResourceStatusWatcher(PluginWaitScheduler waitScheduler, long intervalMillis) {
+        this.waitScheduler = waitScheduler;
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Block until the resource's status matches, with the default plugin timeout.
+     *
+     * @param client     acs client
+     * @param regionId   region id
+     * @param type       resource type
+     * @param resourceId resource id
+     * @param expected   predicate on the resource's status
+     * @param fetcher    batch status fetcher of the resource type
+     * @throws PluginException when timeout, or the resource cannot be found
+     */
+    public void awaitStatus(IAcsClient client, String regionId, WatchedResourceType type, String resourceId, Predicate<String> expected, ResourceStatusFetcher fetcher) throws PluginException {
+        PluginTimer.join(watch(client, regionId, type, resourceId, expected, fetcher, TimeUnit.MINUTES.toMillis(PluginTimer.TIMEOUT)));
+    }
+
+    /**
+     * Watch the resource's status
+     *
+     * @param client        acs client
+     * @param regionId      region id
+     * @param type          resource type
+     * @param resourceId    resource id
+     * @param expected      predicate on the resource's status
+     * @param fetcher       batch status fetcher of the resource type
+     * @param timeoutMillis timeout
+     * @return future completed once the status matches
+     */
+    public CompletableFuture<Void> watch(IAcsClient client, String regionId, WatchedResourceType type, String resourceId, Predicate<String> expected, ResourceStatusFetcher fetcher, long timeoutMillis) {
+        if (StringUtils.isAnyEmpty(regionId, resourceId)) {
+            throw new PluginException(String.format("Either regionId or %s id cannot be null or empty.", type.getDescription()));
+        }
+
+        final PendingWatch pendingWatch = new PendingWatch(resourceId, expected, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+        final WatchKey key = new WatchKey(client, regionId, type);
+        while (true) {
+            final WatchGroup group = groups.computeIfAbsent(key, k -> new WatchGroup(k, fetcher));
+            if (group.add(pendingWatch)) {
+                group.start();
+                break;
+            }
+            // the group has just been closed, start a new one
+            groups.remove(key, group);
+        }
+        return pendingWatch.future;
+    }
+
+    public int getGroupCount() {
+        return groups.size();
+    }
+
+    private final class WatchGroup {
+        private final WatchKey key;
+        private final ResourceStatusFetcher fetcher;
+        private final List<PendingWatch> pendingWatches = new ArrayList<>();
+        private final AtomicBoolean started = new AtomicBoolean(false);
+        private boolean closed = false;
+
+        private WatchGroup(WatchKey key, ResourceStatusFetcher fetcher) {
+            this.key = key;
+            this.fetcher = fetcher;
+        }
+
+        private synchronized boolean add(PendingWatch pendingWatch) {
+            if (closed) {
+                return false;
+            }
+            pendingWatches.add(pendingWatch);
+            return true;
+        }
+
+        private void start() {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            Function<?, Boolean> func = o -> this.poll();
+            waitScheduler.waitUntil(func, intervalMillis, GROUP_TIMEOUT_MILLIS).whenComplete((v, ex) -> {
+                if (null != ex) {
+                    logger.error("Status watcher of [{}] stopped unexpectedly.", key, ex);
+                    close().forEach(pendingWatch -> pendingWatch.future.completeExceptionally(ex));
+                }
+            });
+        }
+
+        private synchronized List<PendingWatch> close() {
+            closed = true;
+            groups.remove(key, this);
+            final List<PendingWatch> remaining = new ArrayList<>(pendingWatches);
+            pendingWatches.clear();
+            return remaining;
+        }
+
+        private boolean poll() {
+            final List<PendingWatch> snapshot;
+            synchronized (this) {
+                snapshot = new ArrayList<>(pendingWatches);
+            }
+
+            final long now = System.nanoTime();
+            final Set<String> resourceIds = new LinkedHashSet<>();
+            for (PendingWatch pendingWatch : snapshot) {
+                if (now - pendingWatch.deadlineNanos >= 0) {
+                    pendingWatch.future.completeExceptionally(new PluginException("The request is timeout."));
+                } else if (!pendingWatch.future.isDone()) {
+                    resourceIds.add(pendingWatch.resourceId);
+                }
+            }
+
+            if (!resourceIds.isEmpty()) {
+                logger.info("Retrieving status of [{}] {}(s) in region: [{}]...", resourceIds.size(), key.type.getDescription(), key.regionId);
+                for (List<String> batch : Lists.partition(new ArrayList<>(resourceIds), key.type.getMaxBatchSize())) {
+                    resolve(snapshot, batch);
+                }
+            }
+
+            synchronized (this) {
+                pendingWatches.removeIf(pendingWatch -> pendingWatch.future.isDone());
+                if (pendingWatches.isEmpty()) {
+                    close();
+                    return true;
+                }
+                return false;
+            }
+        }
+
+        private void resolve(List<PendingWatch> snapshot, List<String> batch) {
+            final Set<String> batchIds = new HashSet<>(batch);
+            final Map<String, String> statusMap;
+            try {
+                statusMap = fetcher.fetch(key.client, key.regionId, batch);
+            } catch (PluginException | AliCloudException ex) {
+                snapshot.stream().filter(pendingWatch -> batchIds.contains(pendingWatch.resourceId)).forEach(pendingWatch -> pendingWatch.future.completeExceptionally(ex));
+                return;
+            }
+
+            for (PendingWatch pendingWatch : snapshot) {
+                if (pendingWatch.future.isDone() || !batchIds.contains(pendingWatch.resourceId)) {
+                    continue;
+                }
+                final String status = statusMap.get(pendingWatch.resourceId);
+                if (null == status) {
+                    pendingWatch.future.completeExceptionally(new PluginException(String.format("Cannot find %s by given Id: [%s]", key.type.getDescription(), pendingWatch.resourceId)));
+                } else if (pendingWatch.expected.test(status)) {
+                    pendingWatch.future.complete(null);
+                }
+            }
+        }
+    }
+
+    private static final class PendingWatch {
+        private final String resourceId;
+        private final Predicate<String> expected;
+        private final long deadlineNanos;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private PendingWatch(String resourceId, Predicate<String> expected, long deadlineNanos) {
+            this.resourceId = resourceId;
+            this.expected = expected;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
+    /**
+     * Clients are cached per account and region, so the client instance identifies the account.
+     */
+    private static final class WatchKey {
+        private final IAcsClient client;
+        private final String regionId;
+        private final WatchedResourceType type;
+
+        private WatchKey(IAcsClient client, String regionId, WatchedResourceType type) {
+            this.client = client;
+            this.regionId = regionId;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            WatchKey that = (WatchKey) o;
+            return client == that.client && regionId.equals(that.regionId) && type == that.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(client), regionId, type);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s@%s", type, regionId);
+        }
+    }
+}
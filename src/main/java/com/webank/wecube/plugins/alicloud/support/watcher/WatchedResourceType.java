@@ -0,0 +1,45 @@
+package com.webank.wecube.plugins.alicloud.support.watcher;
+
+/**
+ * Resource types which can be watched in batch, with the max amount of IDs one Describe call accepts.
+ *
+ * @author howechen
+ */
+public enum WatchedResourceType {
+    /**
+     * DescribeInstanceStatus
+     */
+    ECS_INSTANCE("VM instance", 50),
+    /**
+     * DescribeDisks
+     */
+    ECS_DISK("disk", 100),
+    /**
+     * DescribeDBInstances
+     */
+    RDS_INSTANCE("DB instance", 30),
+    /**
+     * r-kvstore DescribeInstances
+     */
+    REDIS_INSTANCE("Redis instance", 30),
+    /**
+     * DescribeEipAddresses
+     */
+    EIP("EIP", 50);
+
+    private final String description;
+    private final int maxBatchSize;
+
+    WatchedResourceType(String description, int maxBatchSize) {
+        this.description = description;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+}
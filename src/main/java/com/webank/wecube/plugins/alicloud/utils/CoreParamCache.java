@@ -0,0 +1,54 @@
+package com.webank.wecube.plugins.alicloud.utils;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * Bounded cache from the raw identityParams/cloudParams string to its parsed, immutable DTO.
+ * The items of a batch almost always carry the same strings, so they are parsed once per distinct string.
+ * Strings which fail to parse are not cached.
+ *
+ * @author howechen
+ */
+public final class CoreParamCache<T> {
+    private static final long DEFAULT_MAXIMUM_SIZE = 256;
+
+    private final Cache<String, T> cache;
+    private final Function<String, T> parser;
+
+    public CoreParamCache(Function<String, T> parser) {
+        this(DEFAULT_MAXIMUM_SIZE, parser);
+    }
+
+    public CoreParamCache(long maximumSize, Function<String, T> parser) {
+        this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+        this.parser = parser;
+    }
+
+    public T get(String paramString) throws PluginException {
+        if (null == paramString) {
+            return parser.apply(null);
+        }
+        final T cached = cache.getIfPresent(paramString);
+        if (null != cached) {
+            return cached;
+        }
+        try {
+            return cache.get(paramString, () -> parser.apply(paramString));
+        } catch (UncheckedExecutionException | ExecutionException ex) {
+            if (ex.getCause() instanceof PluginException) {
+                throw (PluginException) ex.getCause();
+            }
+            throw new PluginException(ex.getCause().getMessage(), ex.getCause());
+        }
+    }
+
+    public long size() {
+        return cache.size();
+    }
+}
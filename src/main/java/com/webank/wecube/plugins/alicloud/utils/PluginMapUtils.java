@@ -5,22 +5,55 @@ import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * @author howechen
  */
 public class PluginMapUtils {
 
+    /**
+     * Parse the "key1=value1;key2=value2" param string in a single pass.
+     * The value of an entry runs from its first '=' to the next ';'. Trailing separators are ignored,
+     * while empty entries, entries without a value and duplicate keys are rejected.
+     *
+     * @param paramString param string
+     * @return mutable map of the params
+     * @throws PluginException when the string is null or malformed
+     */
     public static Map<String, String> fromCoreParamString(String paramString) throws PluginException {
-        try {
-            return Arrays.stream(paramString.split(";"))
-                    .map(entry -> entry.split("="))
-                    .collect(Collectors.toMap(entry -> entry[0], entry -> entry[1]));
-        } catch (Exception ex) {
+        if (null == paramString) {
             throw new PluginException("Cannot extract param from param string.");
         }
+        final int length = trimTrailingSeparators(paramString);
+        if (0 == length) {
+            throw new PluginException("Cannot extract param from param string.");
+        }
+        final Map<String, String> result = new HashMap<>();
+        int entryStart = 0;
+        while (entryStart <= length) {
+            int entryEnd = paramString.indexOf(';', entryStart);
+            if (entryEnd < 0 || entryEnd > length) {
+                entryEnd = length;
+            }
+            final int separator = paramString.indexOf('=', entryStart);
+            if (separator < 0 || separator >= entryEnd - 1) {
+                throw new PluginException("Cannot extract param from param string.");
+            }
+            final String key = paramString.substring(entryStart, separator);
+            if (null != result.put(key, paramString.substring(separator + 1, entryEnd))) {
+                throw new PluginException("Cannot extract param from param string.");
+            }
+            entryStart = entryEnd + 1;
+        }
+        return result;
+    }
 
+    private static int trimTrailingSeparators(String paramString) {
+        int length = paramString.length();
+        while (length > 0 && ';' == paramString.charAt(length - 1)) {
+            length--;
+        }
+        return length;
     }
 
     public static <K, V> List<Pair<K, V>> zipToPairList(List<K> keyList, List<V> valueList) throws PluginException {
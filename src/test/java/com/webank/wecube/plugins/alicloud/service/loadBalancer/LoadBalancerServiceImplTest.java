@@ -0,0 +1,335 @@
+package com.webank.wecube.plugins.alicloud.service.loadBalancer;
+
+import com.aliyuncs.AcsRequest;
+import com.aliyuncs.AcsResponse;
+import com.aliyuncs.IAcsClient;
+import com.aliyuncs.exceptions.ServerException;
+import com.aliyuncs.slb.model.v20140515.*;
+import com.webank.wecube.plugins.alicloud.common.AcsClientProperties;
+import com.webank.wecube.plugins.alicloud.common.BatchExecutorProperties;
+import com.webank.wecube.plugins.alicloud.dto.CoreResponseDto;
+import com.webank.wecube.plugins.alicloud.dto.IdentityParamDto;
+import com.webank.wecube.plugins.alicloud.dto.cloudParam.CloudParamDto;
+import com.webank.wecube.plugins.alicloud.dto.loadBalancer.backendServer.CoreAddBackendServerRequestDto;
+import com.webank.wecube.plugins.alicloud.dto.loadBalancer.backendServer.CoreAddBackendServerResponseDto;
+import com.webank.wecube.plugins.alicloud.dto.loadBalancer.backendServer.CoreRemoveBackendServerRequestDto;
+import com.webank.wecube.plugins.alicloud.dto.loadBalancer.backendServer.CoreRemoveBackendServerResponseDto;
+import com.webank.wecube.plugins.alicloud.support.AcsAsyncExecutor;
+import com.webank.wecube.plugins.alicloud.support.AcsClientCache;
+import com.webank.wecube.plugins.alicloud.support.AcsClientStub;
+import com.webank.wecube.plugins.alicloud.support.DtoValidator;
+import com.webank.wecube.plugins.alicloud.support.PluginBatchExecutor;
+import com.webank.wecube.plugins.alicloud.support.StubAcsClient;
+import com.webank.wecube.plugins.alicloud.support.retry.AcsRateLimiter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class LoadBalancerServiceImplTest {
+
+    private static final String LOAD_BALANCER_ID = "lb-1";
+    private static final String V_SERVER_GROUP_ID = "rsp-1";
+
+    private PluginBatchExecutor pluginBatchExecutor;
+    private AcsClientProperties acsClientProperties;
+
+    @Before
+    public void setUp() {
+        BatchExecutorProperties batchExecutorProperties = new BatchExecutorProperties();
+        batchExecutorProperties.setMaxConcurrency(4);
+        batchExecutorProperties.setMaxConcurrencyPerAccount(2);
+        pluginBatchExecutor = new PluginBatchExecutor(batchExecutorProperties);
+
+        acsClientProperties = new AcsClientProperties();
+        acsClientProperties.setBaseBackoffMillis(1);
+        acsClientProperties.setMaxBackoffMillis(5);
+        acsClientProperties.setPermitsPerSecond(1000);
+    }
+
+    @After
+    public void tearDown() {
+        pluginBatchExecutor.shutdown();
+    }
+
+    @Test
+    public void givenItemsOnBoundListener_addBackendServer_shouldReturnOnlyTheirOwnServers() {
+        final StubAcsClient client = new StubAcsClient((request, callIndex) -> {
+            if (request instanceof AddVServerGroupBackendServersRequest) {
+                return addResponse("request-" + callIndex, ((AddVServerGroupBackendServersRequest) request).getBackendServers());
+            }
+            return describe(request, true);
+        });
+
+        final List<CoreAddBackendServerResponseDto> results = service(client).addBackendServer(Arrays.asList(
+                addRequest("1", "[i-1,i-2]", "[80,80]"),
+                addRequest("2", "[i-3]", "[80]")));
+
+        assertEquals(1, countOf(client, AddVServerGroupBackendServersRequest.class));
+        for (CoreAddBackendServerResponseDto result : results) {
+            assertEquals(CoreResponseDto.STATUS_OK, result.getErrorCode());
+            assertEquals(V_SERVER_GROUP_ID, result.getvServerGroupId());
+            assertNotNull(result.getRequestId());
+        }
+        assertEquals(Arrays.asList("i-1", "i-2"), serverIdsOf(results.get(0).getBackendServers()));
+        assertEquals(Collections.singletonList("i-3"), serverIdsOf(results.get(1).getBackendServers()));
+    }
+
+    @Test
+    public void givenFailedChunk_addBackendServer_shouldOnlyFailTheItemsOfThatChunk() {
+        final StubAcsClient client = new StubAcsClient((request, callIndex) -> {
+            if (request instanceof AddVServerGroupBackendServersRequest) {
+                final String backendServers = ((AddVServerGroupBackendServersRequest) request).getBackendServers();
+                if (backendServers.contains("i-late-0")) {
+                    throw new ServerException("InvalidBackendServer", "The backend server is not found.", "request-" + callIndex);
+                }
+                return addResponse("request-" + callIndex, backendServers);
+            }
+            return describe(request, true);
+        });
+
+        // 20 servers fill the first chunk, the late item's server goes to the second one
+        final String earlyHosts = IntStream.range(0, 20).mapToObj(i -> "i-early-" + i).collect(Collectors.joining(",", "[", "]"));
+        final String earlyPorts = IntStream.range(0, 20).mapToObj(i -> "80").collect(Collectors.joining(",", "[", "]"));
+        final List<CoreAddBackendServerResponseDto> results = service(client).addBackendServer(Arrays.asList(
+                addRequest("early", earlyHosts, earlyPorts),
+                addRequest("late", "[i-late-0]", "[80]")));
+
+        assertEquals(2, countOf(client, AddVServerGroupBackendServersRequest.class));
+        assertEquals(1, countOf(client, StartLoadBalancerListenerRequest.class));
+        assertEquals(CoreResponseDto.STATUS_OK, results.get(0).getErrorCode());
+        assertEquals(20, results.get(0).getBackendServers().size());
+        assertEquals(CoreResponseDto.STATUS_ERROR, results.get(1).getErrorCode());
+    }
+
+    @Test
+    public void givenItemAcrossChunks_addBackendServer_shouldReportTheServersAlreadyAdded() {
+        final StubAcsClient client = new StubAcsClient((request, callIndex) -> {
+            if (request instanceof AddVServerGroupBackendServersRequest) {
+                final String backendServers = ((AddVServerGroupBackendServersRequest) request).getBackendServers();
+                if (backendServers.contains("i-wide-20")) {
+                    throw new ServerException("InvalidBackendServer", "The backend server is not found.", "request-" + callIndex);
+                }
+                return addResponse("request-" + callIndex, backendServers);
+            }
+            return describe(request, true);
+        });
+
+        // the first 20 servers are added by the first chunk, the last one fails in the second
+        final String wideHosts = IntStream.range(0, 21).mapToObj(i -> "i-wide-" + i).collect(Collectors.joining(",", "[", "]"));
+        final String widePorts = IntStream.range(0, 21).mapToObj(i -> "80").collect(Collectors.joining(",", "[", "]"));
+        final List<CoreAddBackendServerResponseDto> results = service(client).addBackendServer(Collections.singletonList(addRequest("wide", wideHosts, widePorts)));
+
+        assertEquals(2, countOf(client, AddVServerGroupBackendServersRequest.class));
+        assertEquals(CoreResponseDto.STATUS_ERROR, results.get(0).getErrorCode());
+        assertTrue(results.get(0).getErrorMessage().contains("i-wide-0:80"));
+        assertTrue(results.get(0).getErrorMessage().contains("have already been added to"));
+        assertFalse(results.get(0).getErrorMessage().contains("i-wide-20:80"));
+    }
+
+    @Test
+    public void givenSameServerWithDifferentWeights_addBackendServer_shouldFailTheConflictingItem() {
+        final StubAcsClient client = new StubAcsClient((request, callIndex) -> {
+            if (request instanceof AddVServerGroupBackendServersRequest) {
+                return addResponse("request-" + callIndex, ((AddVServerGroupBackendServersRequest) request).getBackendServers());
+            }
+            return describe(request, true);
+        });
+
+        final CoreAddBackendServerRequestDto light = addRequest("1", "[i-1]", "[80]");
+        light.setHostWeights("[50]");
+        final CoreAddBackendServerRequestDto heavy = addRequest("2", "[i-1,i-2]", "[80,80]");
+        final List<CoreAddBackendServerResponseDto> results = service(client).addBackendServer(Arrays.asList(light, heavy));
+
+        final String sentBackendServers = ((AddVServerGroupBackendServersRequest) client.getReceivedRequests().stream()
+                .filter(AddVServerGroupBackendServersRequest.class::isInstance).findFirst().orElseThrow(AssertionError::new)).getBackendServers();
+        assertTrue(sentBackendServers.contains("\"Weight\":\"50\""));
+        assertFalse(sentBackendServers.contains("i-2"));
+        assertEquals(CoreResponseDto.STATUS_OK, results.get(0).getErrorCode());
+        assertEquals(CoreResponseDto.STATUS_ERROR, results.get(1).getErrorCode());
+        assertTrue(results.get(1).getErrorMessage().contains("i-1:80"));
+    }
+
+    @Test
+    public void givenNewListener_addBackendServer_shouldCreateVServerGroupWithoutTouchingTheRequest() {
+        final StubAcsClient client = new StubAcsClient((request, callIndex) -> {
+            if (request instanceof CreateVServerGroupRequest) {
+                final CreateVServerGroupResponse response = new CreateVServerGroupResponse();
+                response.setRequestId("request-" + callIndex);
+                response.setVServerGroupId(V_SERVER_GROUP_ID);
+                response.setBackendServers(backendServersOf(((CreateVServerGroupRequest) request).getBackendServers()));
+                return response;
+            }
+            if (request instanceof CreateLoadBalancerTCPListenerRequest) {
+                return new CreateLoadBalancerTCPListenerResponse();
+            }
+            return describe(request, false);
+        });
+
+        final CoreAddBackendServerRequestDto first = addRequest("1", "[i-1]", "[80]");
+        final CoreAddBackendServerRequestDto second = addRequest("2", "[i-2]", "[80]");
+        final List<CoreAddBackendServerResponseDto> results = service(client).addBackendServer(Arrays.asList(first, second));
+
+        assertEquals(1, countOf(client, CreateVServerGroupRequest.class));
+        assertEquals(1, countOf(client, CreateLoadBalancerTCPListenerRequest.class));
+        assertNull(first.getBackendServers());
+        assertNull(second.getBackendServers());
+        assertEquals(Collections.singletonList("i-1"), serverIdsOf(results.get(0).getBackendServers()));
+        assertEquals(Collections.singletonList("i-2"), serverIdsOf(results.get(1).getBackendServers()));
+    }
+
+    @Test
+    public void givenDifferentListenerSettings_addBackendServer_shouldRejectTheListenerGroup() {
+        final StubAcsClient client = new StubAcsClient((request, callIndex) -> describe(request, false));
+
+        final CoreAddBackendServerRequestDto narrow = addRequest("1", "[i-1]", "[80]");
+        final CoreAddBackendServerRequestDto wide = addRequest("2", "[i-2]", "[80]");
+        wide.setBandwidth("100");
+        final List<CoreAddBackendServerResponseDto> results = service(client).addBackendServer(Arrays.asList(narrow, wide));
+
+        assertEquals(0, client.getCallCount());
+        results.forEach(result -> assertEquals(CoreResponseDto.STATUS_ERROR, result.getErrorCode()));
+    }
+
+    @Test
+    public void givenFailedChunk_removeBackendServer_shouldOnlyFailTheItemsOfThatChunk() {
+        final StubAcsClient client = new StubAcsClient((request, callIndex) -> {
+            final String backendServers = ((RemoveVServerGroupBackendServersRequest) request).getBackendServers();
+            if (backendServers.contains("i-late-0")) {
+                throw new ServerException("InvalidBackendServer", "The backend server is not found.", "request-" + callIndex);
+            }
+            final RemoveVServerGroupBackendServersResponse response = new RemoveVServerGroupBackendServersResponse();
+            response.setRequestId("request-" + callIndex);
+            response.setBackendServers(backendServersOf(backendServers).stream().map(backendServer -> {
+                final RemoveVServerGroupBackendServersResponse.BackendServer removed = new RemoveVServerGroupBackendServersResponse.BackendServer();
+                removed.setServerId(backendServer.getServerId());
+                removed.setPort(backendServer.getPort());
+                return removed;
+            }).collect(Collectors.toList()));
+            return response;
+        });
+
+        final String earlyHosts = IntStream.range(0, 20).mapToObj(i -> "i-early-" + i).collect(Collectors.joining(",", "[", "]"));
+        final String earlyPorts = IntStream.range(0, 20).mapToObj(i -> "80").collect(Collectors.joining(",", "[", "]"));
+        final List<CoreRemoveBackendServerResponseDto> results = service(client).removeBackendServer(Arrays.asList(
+                removeRequest("early", earlyHosts, earlyPorts),
+                removeRequest("late", "[i-late-0]", "[80]")));
+
+        assertEquals(2, client.getCallCount());
+        assertEquals(CoreResponseDto.STATUS_OK, results.get(0).getErrorCode());
+        assertEquals("request-0", results.get(0).getRequestId());
+        assertEquals(20, results.get(0).getBackendServers().size());
+        assertEquals(CoreResponseDto.STATUS_ERROR, results.get(1).getErrorCode());
+    }
+
+    private LoadBalancerServiceImpl service(StubAcsClient client) {
+        final AcsClientStub acsClientStub = new AcsClientStub(new AcsClientCache(acsClientProperties), new AcsRateLimiter(acsClientProperties), acsClientProperties, new AcsAsyncExecutor(acsClientProperties)) {
+            @Override
+            public IAcsClient generateAcsClient(IdentityParamDto identityParamDto, CloudParamDto cloudParamDto) {
+                return client;
+            }
+        };
+        return new LoadBalancerServiceImpl(acsClientStub, new DtoValidator(), pluginBatchExecutor);
+    }
+
+    /**
+     * Describe the load balancer, which has the TCP:80 listener bound to the VServerGroup when the listener exists
+     */
+    private static AcsResponse describe(AcsRequest<?> request, boolean listenerExists) {
+        if (request instanceof DescribeLoadBalancerAttributeRequest) {
+            final DescribeLoadBalancerAttributeResponse response = new DescribeLoadBalancerAttributeResponse();
+            final List<DescribeLoadBalancerAttributeResponse.ListenerPortAndProtocol> listeners = new ArrayList<>();
+            if (listenerExists) {
+                final DescribeLoadBalancerAttributeResponse.ListenerPortAndProtocol listener = new DescribeLoadBalancerAttributeResponse.ListenerPortAndProtocol();
+                listener.setListenerProtocol("tcp");
+                listener.setListenerPort(80);
+                listeners.add(listener);
+            }
+            response.setListenerPortsAndProtocol(listeners);
+            return response;
+        }
+        if (request instanceof DescribeLoadBalancerTCPListenerAttributeRequest) {
+            final DescribeLoadBalancerTCPListenerAttributeResponse response = new DescribeLoadBalancerTCPListenerAttributeResponse();
+            response.setVServerGroupId(V_SERVER_GROUP_ID);
+            return response;
+        }
+        if (request instanceof StartLoadBalancerListenerRequest) {
+            return new StartLoadBalancerListenerResponse();
+        }
+        throw new AssertionError("Unexpected request: " + request.getClass().getSimpleName());
+    }
+
+    private static AddVServerGroupBackendServersResponse addResponse(String requestId, String backendServers) {
+        final AddVServerGroupBackendServersResponse response = new AddVServerGroupBackendServersResponse();
+        response.setRequestId(requestId);
+        response.setVServerGroupId(V_SERVER_GROUP_ID);
+        response.setBackendServers(backendServersOf(backendServers).stream().map(backendServer -> {
+            final AddVServerGroupBackendServersResponse.BackendServer added = new AddVServerGroupBackendServersResponse.BackendServer();
+            added.setServerId(backendServer.getServerId());
+            added.setPort(backendServer.getPort());
+            return added;
+        }).collect(Collectors.toList()));
+        return response;
+    }
+
+    /**
+     * @return the backend servers of the JSON sent to the cloud, such as [{"ServerId":"i-1","Port":"80",...}]
+     */
+    private static List<CreateVServerGroupResponse.BackendServer> backendServersOf(String backendServers) {
+        final List<CreateVServerGroupResponse.BackendServer> result = new ArrayList<>();
+        for (String serverId : backendServers.split("\"ServerId\"\\s*:\\s*\"")) {
+            if (!serverId.startsWith("i-")) {
+                continue;
+            }
+            final CreateVServerGroupResponse.BackendServer backendServer = new CreateVServerGroupResponse.BackendServer();
+            backendServer.setServerId(serverId.substring(0, serverId.indexOf('"')));
+            backendServer.setPort(80);
+            result.add(backendServer);
+        }
+        return result;
+    }
+
+    private static List<String> serverIdsOf(List<CreateVServerGroupResponse.BackendServer> backendServers) {
+        return backendServers.stream().map(CreateVServerGroupResponse.BackendServer::getServerId).collect(Collectors.toList());
+    }
+
+    private static long countOf(StubAcsClient client, Class<?> requestClass) {
+        return client.getReceivedRequests().stream().filter(requestClass::isInstance).count();
+    }
+
+    private static CoreAddBackendServerRequestDto addRequest(String guid, String hostIds, String hostPorts) {
+        final CoreAddBackendServerRequestDto requestDto = new CoreAddBackendServerRequestDto();
+        requestDto.setGuid(guid);
+        requestDto.setIdentityParams("accessKeyId=key;secret=secret");
+        requestDto.setCloudParams("regionId=cn-hangzhou");
+        requestDto.setLoadBalancerId(LOAD_BALANCER_ID);
+        requestDto.setListenerProtocol("tcp");
+        requestDto.setListenerPort("80");
+        requestDto.setBandwidth("10");
+        requestDto.setHostIds(hostIds);
+        requestDto.setHostPorts(hostPorts);
+        return requestDto;
+    }
+
+    private static CoreRemoveBackendServerRequestDto removeRequest(String guid, String hostIds, String hostPorts) {
+        final CoreRemoveBackendServerRequestDto requestDto = new CoreRemoveBackendServerRequestDto();
+        requestDto.setGuid(guid);
+        requestDto.setIdentityParams("accessKeyId=key;secret=secret");
+        requestDto.setCloudParams("regionId=cn-hangzhou");
+        requestDto.setLoadBalancerId(LOAD_BALANCER_ID);
+        requestDto.setListenerProtocol("tcp");
+        requestDto.setListenerPort("80");
+        requestDto.setvServerGroupId(V_SERVER_GROUP_ID);
+        requestDto.setHostIds(hostIds);
+        requestDto.setHostPorts(hostPorts);
+        return requestDto;
+    }
+}
@@ -0,0 +1,203 @@
+package com.webank.wecube.plugins.alicloud.service.vpc.eip;
+
+import com.aliyuncs.AcsRequest;
+import com.aliyuncs.AcsResponse;
+import com.aliyuncs.IAcsClient;
+import com.aliyuncs.exceptions.ServerException;
+import com.aliyuncs.vpc.model.v20160428.*;
+import com.webank.wecube.plugins.alicloud.common.AcsClientProperties;
+import com.webank.wecube.plugins.alicloud.common.BatchExecutorProperties;
+import com.webank.wecube.plugins.alicloud.dto.CoreResponseDto;
+import com.webank.wecube.plugins.alicloud.dto.IdentityParamDto;
+import com.webank.wecube.plugins.alicloud.dto.cloudParam.CloudParamDto;
+import com.webank.wecube.plugins.alicloud.dto.vpc.eip.CoreAllocateEipRequestDto;
+import com.webank.wecube.plugins.alicloud.dto.vpc.eip.CoreAllocateEipResponseDto;
+import com.webank.wecube.plugins.alicloud.dto.vpc.eip.CoreReleaseEipRequestDto;
+import com.webank.wecube.plugins.alicloud.dto.vpc.eip.CoreReleaseEipResponseDto;
+import com.webank.wecube.plugins.alicloud.support.AcsAsyncExecutor;
+import com.webank.wecube.plugins.alicloud.support.AcsClientCache;
+import com.webank.wecube.plugins.alicloud.support.AcsClientStub;
+import com.webank.wecube.plugins.alicloud.support.DtoValidator;
+import com.webank.wecube.plugins.alicloud.support.PluginBatchExecutor;
+import com.webank.wecube.plugins.alicloud.support.StubAcsClient;
+import com.webank.wecube.plugins.alicloud.support.retry.AcsRateLimiter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class EipServiceImplTest {
+
+    private static final String CBP_NAME = "cbp-web";
+    private static final String CBP_ID = "cbwp-1";
+
+    private PluginBatchExecutor pluginBatchExecutor;
+    private EipServiceImpl eipService;
+    private StubAcsClient client;
+    private final AtomicBoolean failAddition = new AtomicBoolean(false);
+
+    @Before
+    public void setUp() {
+        BatchExecutorProperties batchExecutorProperties = new BatchExecutorProperties();
+        batchExecutorProperties.setMaxConcurrency(4);
+        batchExecutorProperties.setMaxConcurrencyPerAccount(2);
+        pluginBatchExecutor = new PluginBatchExecutor(batchExecutorProperties);
+
+        AcsClientProperties acsClientProperties = new AcsClientProperties();
+        acsClientProperties.setBaseBackoffMillis(1);
+        acsClientProperties.setMaxBackoffMillis(5);
+        acsClientProperties.setPermitsPerSecond(1000);
+
+        client = new StubAcsClient(this::respond);
+        final AcsClientStub acsClientStub = new AcsClientStub(new AcsClientCache(acsClientProperties), new AcsRateLimiter(acsClientProperties), acsClientProperties, new AcsAsyncExecutor(acsClientProperties)) {
+            @Override
+            public IAcsClient generateAcsClient(IdentityParamDto identityParamDto, CloudParamDto cloudParamDto) {
+                return client;
+            }
+        };
+        eipService = new EipServiceImpl(acsClientStub, new DtoValidator(), null, pluginBatchExecutor);
+    }
+
+    @After
+    public void tearDown() {
+        pluginBatchExecutor.shutdown();
+    }
+
+    @Test
+    public void givenItemsSharingCbp_allocateEipAddress_shouldResolveTheCbpOnce() {
+        final List<CoreAllocateEipResponseDto> results = eipService.allocateEipAddress(Arrays.asList(allocateRequest("1"), allocateRequest("2"), allocateRequest("3")));
+
+        assertEquals(1, countOf(DescribeCommonBandwidthPackagesRequest.class));
+        assertEquals(1, countOf(CreateCommonBandwidthPackageRequest.class));
+        assertEquals(3, countOf(AllocateEipAddressRequest.class));
+        assertEquals(3, countOf(AddCommonBandwidthPackageIpRequest.class));
+        for (CoreAllocateEipResponseDto result : results) {
+            assertEquals(CoreResponseDto.STATUS_OK, result.getErrorCode());
+            assertEquals(CBP_ID, result.getCbpId());
+        }
+    }
+
+    @Test
+    public void givenDifferentCbpSettings_allocateEipAddress_shouldRejectTheMismatchedItem() {
+        final CoreAllocateEipRequestDto wide = allocateRequest("2");
+        wide.setBandwidth("200");
+        final CoreAllocateEipRequestDto otherIsp = allocateRequest("3");
+        otherIsp.setISP("BGP_PRO");
+
+        final List<CoreAllocateEipResponseDto> results = eipService.allocateEipAddress(Arrays.asList(allocateRequest("1"), wide, otherIsp, allocateRequest("4")));
+
+        assertEquals(1, countOf(CreateCommonBandwidthPackageRequest.class));
+        assertEquals("10", ((CreateCommonBandwidthPackageRequest) requestsOf(CreateCommonBandwidthPackageRequest.class).get(0)).getBandwidth());
+        assertEquals(2, countOf(AllocateEipAddressRequest.class));
+        assertEquals(CoreResponseDto.STATUS_OK, results.get(0).getErrorCode());
+        assertEquals(CoreResponseDto.STATUS_ERROR, results.get(1).getErrorCode());
+        assertEquals(CoreResponseDto.STATUS_ERROR, results.get(2).getErrorCode());
+        assertEquals(CoreResponseDto.STATUS_OK, results.get(3).getErrorCode());
+    }
+
+    @Test
+    public void givenCachedCbp_allocateAndReleaseAgain_shouldNotLookItUpAgain() {
+        eipService.allocateEipAddress(Collections.singletonList(allocateRequest("1")));
+        eipService.allocateEipAddress(Collections.singletonList(allocateRequest("2")));
+
+        final CoreReleaseEipRequestDto releaseRequest = new CoreReleaseEipRequestDto();
+        releaseRequest.setGuid("3");
+        releaseRequest.setIdentityParams("accessKeyId=key;secret=secret");
+        releaseRequest.setCloudParams("regionId=cn-hangzhou");
+        releaseRequest.setAllocationId("eip-1");
+        releaseRequest.setName(CBP_NAME);
+        final List<CoreReleaseEipResponseDto> results = eipService.releaseEipAddress(Collections.singletonList(releaseRequest));
+
+        assertEquals(CoreResponseDto.STATUS_OK, results.get(0).getErrorCode());
+        assertEquals(1, countOf(DescribeCommonBandwidthPackagesRequest.class));
+        assertEquals(1, countOf(CreateCommonBandwidthPackageRequest.class));
+        assertEquals(CBP_ID, ((RemoveCommonBandwidthPackageIpRequest) requestsOf(RemoveCommonBandwidthPackageIpRequest.class).get(0)).getBandwidthPackageId());
+    }
+
+    @Test
+    public void givenFailedAddition_allocateEipAddress_shouldLookTheCbpUpAgainNextTime() {
+        failAddition.set(true);
+        final List<CoreAllocateEipResponseDto> results = eipService.allocateEipAddress(Collections.singletonList(allocateRequest("1")));
+        assertEquals(CoreResponseDto.STATUS_ERROR, results.get(0).getErrorCode());
+
+        failAddition.set(false);
+        eipService.allocateEipAddress(Collections.singletonList(allocateRequest("2")));
+
+        assertEquals(2, countOf(DescribeCommonBandwidthPackagesRequest.class));
+    }
+
+    /**
+     * The CBP doesn't exist until it is created, the EIPs are allocated with ids by call index
+     */
+    private AcsResponse respond(AcsRequest<?> request, int callIndex) throws ServerException {
+        if (request instanceof DescribeCommonBandwidthPackagesRequest) {
+            final DescribeCommonBandwidthPackagesResponse response = new DescribeCommonBandwidthPackagesResponse();
+            if (countOf(CreateCommonBandwidthPackageRequest.class) > 0) {
+                final DescribeCommonBandwidthPackagesResponse.CommonBandwidthPackage cbp = new DescribeCommonBandwidthPackagesResponse.CommonBandwidthPackage();
+                cbp.setBandwidthPackageId(CBP_ID);
+                cbp.setName(CBP_NAME);
+                response.setCommonBandwidthPackages(Collections.singletonList(cbp));
+            } else {
+                response.setCommonBandwidthPackages(Collections.emptyList());
+            }
+            return response;
+        }
+        if (request instanceof CreateCommonBandwidthPackageRequest) {
+            final CreateCommonBandwidthPackageResponse response = new CreateCommonBandwidthPackageResponse();
+            response.setBandwidthPackageId(CBP_ID);
+            return response;
+        }
+        if (request instanceof AllocateEipAddressRequest) {
+            final AllocateEipAddressResponse response = new AllocateEipAddressResponse();
+            response.setRequestId("request-" + callIndex);
+            response.setAllocationId("eip-" + callIndex);
+            return response;
+        }
+        if (request instanceof AddCommonBandwidthPackageIpRequest) {
+            if (failAddition.get()) {
+                throw new ServerException("InvalidBandwidthPackageId.NotFound", "The CBP is not found.", "request-" + callIndex);
+            }
+            return new AddCommonBandwidthPackageIpResponse();
+        }
+        if (request instanceof DescribeEipAddressesRequest) {
+            final DescribeEipAddressesResponse.EipAddress eipAddress = new DescribeEipAddressesResponse.EipAddress();
+            eipAddress.setAllocationId(((DescribeEipAddressesRequest) request).getAllocationId());
+            final DescribeEipAddressesResponse response = new DescribeEipAddressesResponse();
+            response.setEipAddresses(Collections.singletonList(eipAddress));
+            return response;
+        }
+        if (request instanceof RemoveCommonBandwidthPackageIpRequest) {
+            return new RemoveCommonBandwidthPackageIpResponse();
+        }
+        if (request instanceof ReleaseEipAddressRequest) {
+            return new ReleaseEipAddressResponse();
+        }
+        throw new AssertionError("Unexpected request: " + request.getClass().getSimpleName());
+    }
+
+    private List<AcsRequest<?>> requestsOf(Class<?> requestClass) {
+        return client.getReceivedRequests().stream().filter(requestClass::isInstance).collect(Collectors.toList());
+    }
+
+    private long countOf(Class<?> requestClass) {
+        return client.getReceivedRequests().stream().filter(requestClass::isInstance).count();
+    }
+
+    private static CoreAllocateEipRequestDto allocateRequest(String guid) {
+        final CoreAllocateEipRequestDto requestDto = new CoreAllocateEipRequestDto();
+        requestDto.setGuid(guid);
+        requestDto.setIdentityParams("accessKeyId=key;secret=secret");
+        requestDto.setCloudParams("regionId=cn-hangzhou");
+        requestDto.setName(CBP_NAME);
+        requestDto.setBandwidth("10");
+        requestDto.setISP("BGP");
+        return requestDto;
+    }
+}
@@ -0,0 +1,80 @@
+package com.webank.wecube.plugins.alicloud.support;
+
+import com.webank.wecube.plugins.alicloud.common.AcsClientProperties;
+import com.webank.wecube.plugins.alicloud.support.retry.AcsRateLimiter;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class AcsClientCacheTest {
+
+    private static final String REGION_ID = "cn-hangzhou";
+
+    private AcsClientProperties properties;
+
+    @Before
+    public void setUp() {
+        properties = new AcsClientProperties();
+        properties.setMaxCachedClients(1);
+        properties.setRetiredClientGraceMinutes(0);
+        properties.setPermitsPerSecond(1000);
+    }
+
+    @Test
+    public void givenEvictedClientWithRequestInFlight_closeRetiredClients_shouldKeepItOpenUntilTheRequestIsDone() throws Exception {
+        final AcsClientCache acsClientCache = new AcsClientCache(properties);
+        final AcsClientStub acsClientStub = new AcsClientStub(acsClientCache, new AcsRateLimiter(properties), properties, new AcsAsyncExecutor(properties));
+        final CountDownLatch requestStarted = new CountDownLatch(1);
+        final CountDownLatch evicted = new CountDownLatch(1);
+        final StubAcsClient client = (StubAcsClient) acsClientCache.get("ak-1", "secret", REGION_ID, () -> new StubAcsClient((request, callIndex) -> {
+            requestStarted.countDown();
+            try {
+                evicted.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new AcsClientStubTest.TestResponse();
+        }));
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<?> request = executor.submit(() -> acsClientStub.request(client, new AcsClientStubTest.TestRequest(), REGION_ID));
+            assertTrue(requestStarted.await(5, TimeUnit.SECONDS));
+
+            // evicts the first client for size
+            acsClientCache.get("ak-2", "secret", REGION_ID, () -> new StubAcsClient((r, i) -> new AcsClientStubTest.TestResponse()));
+            acsClientCache.cleanUp();
+            assertEquals(1, acsClientCache.retiredCount());
+            assertFalse(client.isShutdown());
+
+            evicted.countDown();
+            request.get(5, TimeUnit.SECONDS);
+            assertEquals(1, acsClientCache.closeRetiredClients());
+            assertTrue(client.isShutdown());
+            assertEquals(0, acsClientCache.retiredCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void givenEvictedClient_get_shouldCreateANewClient() {
+        final AcsClientCache acsClientCache = new AcsClientCache(properties);
+        final StubAcsClient first = (StubAcsClient) acsClientCache.get("ak-1", "secret", REGION_ID, () -> new StubAcsClient((r, i) -> null));
+        acsClientCache.get("ak-2", "secret", REGION_ID, () -> new StubAcsClient((r, i) -> null));
+
+        final StubAcsClient second = (StubAcsClient) acsClientCache.get("ak-1", "secret", REGION_ID, () -> new StubAcsClient((r, i) -> null));
+
+        assertNotSame(first, second);
+        acsClientCache.shutdown();
+        assertTrue(first.isShutdown());
+        assertTrue(second.isShutdown());
+    }
+}
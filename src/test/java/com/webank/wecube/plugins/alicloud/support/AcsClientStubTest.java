@@ -0,0 +1,225 @@
+package com.webank.wecube.plugins.alicloud.support;
+
+import com.aliyuncs.AcsResponse;
+import com.aliyuncs.RpcAcsRequest;
+import com.aliyuncs.exceptions.ErrorType;
+import com.aliyuncs.exceptions.ServerException;
+import com.aliyuncs.transform.UnmarshallerContext;
+import com.webank.wecube.plugins.alicloud.common.AcsClientProperties;
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.support.retry.AcsRateLimiter;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class AcsClientStubTest {
+
+    private static final String REGION_ID = "cn-hangzhou";
+
+    private AcsClientStub acsClientStub;
+    private AcsRateLimiter acsRateLimiter;
+
+    @Before
+    public void setUp() {
+        AcsClientProperties properties = new AcsClientProperties();
+        properties.setBaseBackoffMillis(1);
+        properties.setMaxBackoffMillis(5);
+        properties.setMaxAttempts(4);
+        properties.setPermitsPerSecond(1000);
+        acsRateLimiter = new AcsRateLimiter(properties);
+        acsClientStub = new AcsClientStub(new AcsClientCache(properties), acsRateLimiter, properties, new AcsAsyncExecutor(properties));
+    }
+
+    @Test
+    public void givenThrottledThenSuccess_request_shouldRetryAndSlowDownLimiter() {
+        final StubAcsClient client = new StubAcsClient((request, callIndex) -> {
+            if (callIndex < 2) {
+                throw new ServerException("Throttling.User", "Request was denied due to user flow control.", "request-" + callIndex);
+            }
+            return new TestResponse();
+        });
+
+        final TestResponse response = acsClientStub.request(client, new TestRequest(), REGION_ID);
+
+        assertNotNull(response);
+        assertEquals(3, client.getCallCount());
+        assertTrue(acsRateLimiter.getRate(client, "Ecs", REGION_ID) < 1000);
+    }
+
+    @Test
+    public void givenServiceUnavailable_request_shouldRetry() {
+        final StubAcsClient client = new StubAcsClient((request, callIndex) -> {
+            if (callIndex == 0) {
+                throw new ServerException("ServiceUnavailable", "The request has failed due to a temporary failure of the server.", "request-0");
+            }
+            return new TestResponse();
+        });
+
+        acsClientStub.request(client, new TestRequest(), REGION_ID);
+
+        assertEquals(2, client.getCallCount());
+        assertEquals(1000, acsRateLimiter.getRate(client, "Ecs", REGION_ID), 0.001);
+    }
+
+    @Test
+    public void givenAmbiguousErrorOnCreateWithoutClientToken_request_shouldNotRetry() {
+        final StubAcsClient client = new StubAcsClient((request, callIndex) -> {
+            throw new ServerException("InternalError", "The request processing has failed due to some unknown error.", "request-" + callIndex);
+        });
+
+        try {
+            acsClientStub.request(client, new TestCreateRequest(null), REGION_ID);
+            fail("AliCloudException expected");
+        } catch (AliCloudException ex) {
+            assertEquals(1, client.getCallCount());
+        }
+    }
+
+    @Test
+    public void givenAmbiguousErrorOnCreateWithClientToken_request_shouldRetry() {
+        final StubAcsClient client = new StubAcsClient((request, callIndex) -> {
+            if (callIndex == 0) {
+                throw new ServerException("InternalError", "The request processing has failed due to some unknown error.", "request-0");
+            }
+            return new TestResponse();
+        });
+
+        acsClientStub.request(client, new TestCreateRequest("token-1"), REGION_ID);
+
+        assertEquals(2, client.getCallCount());
+    }
+
+    @Test
+    public void givenRetryTimeUsedUp_request_shouldStopRetrying() {
+        AcsClientProperties properties = new AcsClientProperties();
+        properties.setBaseBackoffMillis(200);
+        properties.setMaxBackoffMillis(200);
+        properties.setMaxRetryMillis(50);
+        properties.setPermitsPerSecond(1000);
+        final AcsClientStub stub = new AcsClientStub(new AcsClientCache(properties), new AcsRateLimiter(properties), properties, new AcsAsyncExecutor(properties));
+        final StubAcsClient client = new StubAcsClient((request, callIndex) -> {
+            throw new ServerException("ServiceUnavailable", "The request has failed due to a temporary failure of the server.", "request-" + callIndex);
+        });
+
+        try {
+            stub.request(client, new TestRequest(), REGION_ID);
+            fail("AliCloudException expected");
+        } catch (AliCloudException ex) {
+            assertEquals(1, client.getCallCount());
+        }
+    }
+
+    @Test
+    public void givenFatalError_request_shouldFailImmediately() {
+        final StubAcsClient client = new StubAcsClient((request, callIndex) -> {
+            throw new ServerException("InvalidInstanceId.NotFound", "The specified InstanceId does not exist.", "request-" + callIndex);
+        });
+
+        try {
+            acsClientStub.request(client, new TestRequest(), REGION_ID);
+            fail("AliCloudException expected");
+        } catch (AliCloudException ex) {
+            assertEquals("InvalidInstanceId.NotFound", ex.getErrCode());
+        }
+        assertEquals(1, client.getCallCount());
+    }
+
+    @Test
+    public void givenPersistentThrottling_request_shouldGiveUpAfterMaxAttempts() {
+        final StubAcsClient client = new StubAcsClient((request, callIndex) -> {
+            final ServerException ex = new ServerException("Throttling", "Request was denied due to request throttling.", "request-" + callIndex);
+            ex.setErrorType(ErrorType.Throttling);
+            throw ex;
+        });
+
+        try {
+            acsClientStub.request(client, new TestRequest(), REGION_ID);
+            fail("AliCloudException expected");
+        } catch (AliCloudException ex) {
+            assertEquals("Throttling", ex.getErrCode());
+        }
+        assertEquals(4, client.getCallCount());
+    }
+
+    @Test
+    public void givenSlowCall_requestAsync_shouldFailAfterDeadline() {
+        final StubAcsClient client = new StubAcsClient((request, callIndex) -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new TestResponse();
+        });
+
+        final CompletableFuture<TestResponse> future = acsClientStub.requestAsync(client, new TestRequest(), REGION_ID, 50);
+
+        try {
+            AcsAsyncExecutor.join(future);
+            fail("PluginException expected");
+        } catch (PluginException ex) {
+            assertTrue(ex.getMessage().contains("deadline"));
+        }
+    }
+
+    @Test
+    public void givenIndependentCalls_requestAsync_shouldRunConcurrently() {
+        final CountDownLatch latch = new CountDownLatch(2);
+        final StubAcsClient client = new StubAcsClient((request, callIndex) -> {
+            latch.countDown();
+            try {
+                // both calls must be in flight at the same time to pass the latch
+                if (!latch.await(2, TimeUnit.SECONDS)) {
+                    throw new ServerException("InternalError", "calls were not concurrent", "request-" + callIndex);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new TestResponse();
+        });
+
+        final CompletableFuture<TestResponse> first = acsClientStub.requestAsync(client, new TestRequest(), REGION_ID);
+        final CompletableFuture<TestResponse> second = acsClientStub.requestAsync(client, new TestRequest(), REGION_ID);
+
+        assertNotNull(AcsAsyncExecutor.join(first));
+        assertNotNull(AcsAsyncExecutor.join(second));
+        assertEquals(2, client.getCallCount());
+    }
+
+    public static class TestRequest extends RpcAcsRequest<TestResponse> {
+        public TestRequest() {
+            super("Ecs", "2014-05-26", "DescribeRegions");
+        }
+
+        @Override
+        public Class<TestResponse> getResponseClass() {
+            return TestResponse.class;
+        }
+    }
+
+    public static class TestCreateRequest extends RpcAcsRequest<TestResponse> {
+        public TestCreateRequest(String clientToken) {
+            super("Ecs", "2014-05-26", "CreateInstance");
+            if (null != clientToken) {
+                putQueryParameter("ClientToken", clientToken);
+            }
+        }
+
+        @Override
+        public Class<TestResponse> getResponseClass() {
+            return TestResponse.class;
+        }
+    }
+
+    public static class TestResponse extends AcsResponse {
+        @Override
+        public TestResponse getInstance(UnmarshallerContext context) {
+            return this;
+        }
+    }
+}
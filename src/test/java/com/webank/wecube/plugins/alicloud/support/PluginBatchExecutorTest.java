@@ -0,0 +1,131 @@
+package com.webank.wecube.plugins.alicloud.support;
+
+import com.webank.wecube.plugins.alicloud.common.BatchExecutorProperties;
+import com.webank.wecube.plugins.alicloud.dto.CoreRequestInputDto;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class PluginBatchExecutorTest {
+
+    private PluginBatchExecutor pluginBatchExecutor;
+
+    @Before
+    public void setUp() {
+        BatchExecutorProperties properties = new BatchExecutorProperties();
+        properties.setMaxConcurrency(8);
+        properties.setMaxConcurrencyPerAccount(2);
+        pluginBatchExecutor = new PluginBatchExecutor(properties);
+    }
+
+    @After
+    public void tearDown() {
+        pluginBatchExecutor.shutdown();
+    }
+
+    @Test
+    public void givenSlowItems_execute_shouldPreserveOrder() {
+        final List<Integer> items = IntStream.range(0, 20).boxed().collect(Collectors.toList());
+
+        final List<String> results = pluginBatchExecutor.execute(items, item -> "account-" + item % 4, item -> {
+            sleep(20 - item);
+            return "result-" + item;
+        });
+
+        assertEquals(items.stream().map(item -> "result-" + item).collect(Collectors.toList()), results);
+    }
+
+    @Test
+    public void givenOneAccount_execute_shouldCapConcurrencyPerAccount() {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final List<Integer> items = IntStream.range(0, 12).boxed().collect(Collectors.toList());
+
+        pluginBatchExecutor.execute(items, item -> "same-account", item -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(10);
+            running.decrementAndGet();
+            return item;
+        });
+
+        assertEquals(2, maxRunning.get());
+    }
+
+    @Test
+    public void givenNestedBatch_execute_shouldRunInlineOnWorker() {
+        final List<Integer> items = IntStream.range(0, 16).boxed().collect(Collectors.toList());
+
+        final List<List<Integer>> results = pluginBatchExecutor.execute(items, item -> "account-" + item, item -> {
+            List<Integer> subItems = new ArrayList<>();
+            subItems.add(item);
+            subItems.add(item + 100);
+            final String workerThread = Thread.currentThread().getName();
+            return pluginBatchExecutor.execute(subItems, subItem -> "account-" + subItem, subItem -> {
+                assertEquals(workerThread, Thread.currentThread().getName());
+                return subItem;
+            });
+        });
+
+        assertEquals(16, results.size());
+        assertEquals(Integer.valueOf(115), results.get(15).get(1));
+    }
+
+    @Test
+    public void givenItemsOfTheSameResource_executePerResource_shouldNotLoseUpdates() {
+        final Map<String, Integer> counters = new ConcurrentHashMap<>();
+        final List<CoreRequestInputDto> requests = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            final CoreRequestInputDto requestDto = new CoreRequestInputDto();
+            requestDto.setIdentityParams("accessKeyId=account-" + i % 3 % 2 + ";secret=secret");
+            requestDto.setGuid("resource-" + i % 3);
+            requests.add(requestDto);
+        }
+
+        final List<String> results = pluginBatchExecutor.executePerResource(requests, CoreRequestInputDto::getGuid, requestDto -> {
+            // read, then write back, as a read-modify-write of an instance attribute
+            final int current = counters.getOrDefault(requestDto.getGuid(), 0);
+            sleep(10);
+            counters.put(requestDto.getGuid(), current + 1);
+            return requestDto.getGuid();
+        });
+
+        assertEquals(requests.stream().map(CoreRequestInputDto::getGuid).collect(Collectors.toList()), results);
+        assertEquals(Integer.valueOf(4), counters.get("resource-0"));
+        assertEquals(Integer.valueOf(4), counters.get("resource-1"));
+        assertEquals(Integer.valueOf(4), counters.get("resource-2"));
+    }
+
+    @Test
+    public void givenFinishedBatches_execute_shouldDropIdleAccountQueues() throws Exception {
+        for (int batch = 0; batch < 3; batch++) {
+            final List<Integer> items = IntStream.range(0, 10).boxed().collect(Collectors.toList());
+            final int batchIndex = batch;
+            pluginBatchExecutor.execute(items, item -> "account-" + batchIndex + "-" + item % 5, item -> item);
+        }
+
+        // the last task of a queue removes it right after completing its item
+        for (int i = 0; i < 100 && pluginBatchExecutor.accountQueueCount() > 0; i++) {
+            sleep(10);
+        }
+        assertEquals(0, pluginBatchExecutor.accountQueueCount());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
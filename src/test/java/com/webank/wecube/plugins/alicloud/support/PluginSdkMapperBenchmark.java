@@ -0,0 +1,107 @@
+package com.webank.wecube.plugins.alicloud.support;
+
+import com.aliyuncs.auth.sts.AssumeRoleRequest;
+import com.aliyuncs.auth.sts.AssumeRoleResponse;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webank.wecube.plugins.alicloud.dto.PluginSdkInputBridge;
+import com.webank.wecube.plugins.alicloud.support.PluginSdkMapperTest.RoleRequestDto;
+import com.webank.wecube.plugins.alicloud.support.PluginSdkMapperTest.RoleResponseDto;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.ParameterizedType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the DTO conversions of {@link PluginSdkMapper} against building a mapper, resolving the bridge type
+ * argument and instantiating the request for its action name on every conversion, as the bridges used to do.
+ * <p>
+ * The shared conversions go through the converters generated for the test DTOs, the jackson ones through the shared
+ * mapper with its cached readers and writers, as when no converter has been generated.
+ * <p>
+ * Run with the main method from the test classpath, the GC profiler reports the allocation per conversion as
+ * gc.alloc.rate.norm.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PluginSdkMapperBenchmark {
+
+    private RoleRequestDto requestDto;
+    private AssumeRoleResponse response;
+
+    @Setup
+    public void setUp() {
+        requestDto = new RoleRequestDto();
+        requestDto.setRoleArn("acs:ram::1:role/plugin");
+        requestDto.setRoleSessionName("wecube");
+        requestDto.setDurationSeconds("3600");
+
+        response = new AssumeRoleResponse();
+        response.setRequestId("request-id");
+        final AssumeRoleResponse.Credentials credentials = new AssumeRoleResponse.Credentials();
+        credentials.setAccessKeyId("access-key-id");
+        response.setCredentials(credentials);
+    }
+
+    @Benchmark
+    public AssumeRoleRequest legacyToSdkCrossLineage() throws Exception {
+        final AssumeRoleRequest result = legacyMapper().convertValue(requestDto, AssumeRoleRequest.class);
+        result.setSysActionName(AssumeRoleRequest.class.newInstance().getSysActionName());
+        return result;
+    }
+
+    @Benchmark
+    public AssumeRoleRequest sharedToSdkCrossLineage() {
+        return requestDto.toSdkCrossLineage(AssumeRoleRequest.class);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public AssumeRoleRequest legacyToSdk() {
+        return legacyMapper().convertValue(requestDto, (Class<AssumeRoleRequest>) ((ParameterizedType) requestDto.getClass().getGenericInterfaces()[0]).getActualTypeArguments()[0]);
+    }
+
+    @Benchmark
+    public AssumeRoleRequest sharedToSdk() {
+        return PluginSdkMapper.convert(requestDto, PluginSdkMapper.<AssumeRoleRequest>typeArgumentOf(requestDto.getClass(), PluginSdkInputBridge.class));
+    }
+
+    @Benchmark
+    public AssumeRoleRequest jacksonToSdk() {
+        return PluginSdkMapper.convertProperty(requestDto, PluginSdkMapper.getMapper().constructType(AssumeRoleRequest.class));
+    }
+
+    @Benchmark
+    public RoleResponseDto legacyFromSdk() {
+        return legacyMapper().convertValue(response, RoleResponseDto.class);
+    }
+
+    @Benchmark
+    public RoleResponseDto sharedFromSdk() {
+        return new RoleResponseDto().fromSdk(response);
+    }
+
+    @Benchmark
+    public RoleResponseDto jacksonFromSdk() {
+        return PluginSdkMapper.convertProperty(response, PluginSdkMapper.getMapper().constructType(RoleResponseDto.class));
+    }
+
+    private static ObjectMapper legacyMapper() {
+        return new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PluginSdkMapperBenchmark.class.getSimpleName()).addProfiler(GCProfiler.class).build()).run();
+    }
+}
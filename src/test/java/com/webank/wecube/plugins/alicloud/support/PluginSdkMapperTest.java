@@ -0,0 +1,127 @@
+package com.webank.wecube.plugins.alicloud.support;
+
+import com.aliyuncs.auth.sts.AssumeRoleRequest;
+import com.aliyuncs.auth.sts.AssumeRoleResponse;
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.dto.CoreResponseOutputDto;
+import com.webank.wecube.plugins.alicloud.dto.PluginSdkInputBridge;
+import com.webank.wecube.plugins.alicloud.dto.PluginSdkOutputBridge;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PluginSdkMapperTest {
+
+    @Test
+    public void givenInputBridge_toSdk_shouldResolveTargetAndAdapt() {
+        final RoleRequestDto dto = new RoleRequestDto();
+        dto.setRoleArn("acs:ram::1:role/plugin");
+        dto.setDurationSeconds("3600");
+
+        final AssumeRoleRequest request = dto.toSdk();
+
+        assertEquals("acs:ram::1:role/plugin", request.getRoleArn());
+        assertEquals(Long.valueOf(3600L), request.getDurationSeconds());
+        assertEquals("wecube", request.getRoleSessionName());
+        assertSame(AssumeRoleRequest.class, PluginSdkMapper.typeArgumentOf(SubRoleRequestDto.class, PluginSdkInputBridge.class));
+        assertEquals(new AssumeRoleRequest().getSysActionName(), dto.toSdkCrossLineage(AssumeRoleRequest.class).getSysActionName());
+    }
+
+    @Test
+    public void givenOutputBridge_fromSdk_shouldResolveTarget() {
+        final AssumeRoleResponse response = new AssumeRoleResponse();
+        response.setRequestId("request-id");
+
+        final RoleResponseDto result = new RoleResponseDto().fromSdk(response);
+
+        assertEquals("request-id", result.getRequestId());
+    }
+
+    @Test
+    public void givenList_convertList_shouldConvertEachElement() {
+        final AssumeRoleResponse.Credentials first = new AssumeRoleResponse.Credentials();
+        first.setAccessKeyId("first");
+        final AssumeRoleResponse.Credentials second = new AssumeRoleResponse.Credentials();
+        second.setAccessKeyId("second");
+
+        final List<CredentialsDto> result = PluginSdkBridge.fromSdkList(Arrays.asList(first, second), CredentialsDto.class);
+
+        assertEquals(2, result.size());
+        assertEquals("first", result.get(0).getAccessKeyId());
+        assertEquals("second", result.get(1).getAccessKeyId());
+    }
+
+    @Test(expected = PluginException.class)
+    public void givenUnknownProperty_convertStrict_shouldThrow() {
+        final RoleRequestDto dto = new RoleRequestDto();
+        dto.setRoleArn("acs:ram::1:role/plugin");
+        PluginSdkMapper.convertStrict(dto, CredentialsDto.class);
+    }
+
+    public static class RoleRequestDto implements PluginSdkInputBridge<AssumeRoleRequest> {
+        private String roleArn;
+        private String roleSessionName;
+        private String durationSeconds;
+
+        public String getRoleArn() {
+            return roleArn;
+        }
+
+        public void setRoleArn(String roleArn) {
+            this.roleArn = roleArn;
+        }
+
+        public String getRoleSessionName() {
+            return roleSessionName;
+        }
+
+        public void setRoleSessionName(String roleSessionName) {
+            this.roleSessionName = roleSessionName;
+        }
+
+        public String getDurationSeconds() {
+            return durationSeconds;
+        }
+
+        public void setDurationSeconds(String durationSeconds) {
+            this.durationSeconds = durationSeconds;
+        }
+
+        @Override
+        public void adaptToAliCloud() {
+            if (null == roleSessionName) {
+                roleSessionName = "wecube";
+            }
+        }
+    }
+
+    public static class SubRoleRequestDto extends RoleRequestDto {
+    }
+
+    public static class RoleResponseDto extends CoreResponseOutputDto implements PluginSdkOutputBridge<RoleResponseDto, AssumeRoleResponse> {
+        private String requestId;
+
+        public String getRequestId() {
+            return requestId;
+        }
+
+        public void setRequestId(String requestId) {
+            this.requestId = requestId;
+        }
+    }
+
+    public static class CredentialsDto {
+        private String accessKeyId;
+
+        public String getAccessKeyId() {
+            return accessKeyId;
+        }
+
+        public void setAccessKeyId(String accessKeyId) {
+            this.accessKeyId = accessKeyId;
+        }
+    }
+}
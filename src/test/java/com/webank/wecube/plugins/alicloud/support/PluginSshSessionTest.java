@@ -0,0 +1,36 @@
+package com.webank.wecube.plugins.alicloud.support;
+
+import com.google.common.io.ByteStreams;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class PluginSshSessionTest {
+
+    @Test
+    public void givenCommandWithQuotes_loginShellCommand_shouldPassItAsOneWord() {
+        assertEquals("sh -l -c 'echo ok'", PluginSshSession.loginShellCommand("echo ok"));
+        assertEquals("sh -l -c 'echo '\\''it'\\''s'\\'''", PluginSshSession.loginShellCommand("echo 'it's'"));
+    }
+
+    @Test
+    public void givenCommandWithQuotes_loginShellCommand_shouldRunTheSameAsTheCommand() throws Exception {
+        Assume.assumeTrue(new File("/bin/sh").canExecute());
+        for (String command : Arrays.asList("echo 'it'\"'\"'s' \"a'b\"", "printf '%s' ''\\''quoted'\\'''", "echo '; touch injected'")) {
+            assertEquals(command, sh(command), sh(PluginSshSession.loginShellCommand(command)));
+        }
+    }
+
+    private static String sh(String command) throws IOException, InterruptedException {
+        final Process process = new ProcessBuilder("/bin/sh", "-c", command).redirectErrorStream(true).start();
+        final String output = new String(ByteStreams.toByteArray(process.getInputStream()), StandardCharsets.UTF_8);
+        assertEquals(command, 0, process.waitFor());
+        return output;
+    }
+}
@@ -0,0 +1,119 @@
+package com.webank.wecube.plugins.alicloud.support;
+
+import com.aliyuncs.AcsRequest;
+import com.aliyuncs.AcsResponse;
+import com.aliyuncs.CommonRequest;
+import com.aliyuncs.CommonResponse;
+import com.aliyuncs.IAcsClient;
+import com.aliyuncs.auth.Credential;
+import com.aliyuncs.exceptions.ClientException;
+import com.aliyuncs.exceptions.ServerException;
+import com.aliyuncs.http.HttpResponse;
+import com.aliyuncs.profile.IClientProfile;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Stub AliCloud client whose responses are produced by a handler, used to inject error codes in tests.
+ */
+public class StubAcsClient implements IAcsClient {
+
+    public interface Handler {
+        AcsResponse handle(AcsRequest<?> request, int callIndex) throws ClientException;
+    }
+
+    private final Handler handler;
+    private final List<AcsRequest<?>> receivedRequests = new CopyOnWriteArrayList<>();
+    private volatile boolean shutdown = false;
+
+    public StubAcsClient(Handler handler) {
+        this.handler = handler;
+    }
+
+    public List<AcsRequest<?>> getReceivedRequests() {
+        return receivedRequests;
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    public int getCallCount() {
+        return receivedRequests.size();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends AcsResponse> T getAcsResponse(AcsRequest<T> request) throws ServerException, ClientException {
+        final int callIndex;
+        synchronized (receivedRequests) {
+            callIndex = receivedRequests.size();
+            receivedRequests.add(request);
+        }
+        return (T) handler.handle(request, callIndex);
+    }
+
+    @Override
+    public <T extends AcsResponse> T getAcsResponse(AcsRequest<T> request, boolean autoRetry, int maxRetryCounts) throws ServerException, ClientException {
+        return getAcsResponse(request);
+    }
+
+    @Override
+    public <T extends AcsResponse> T getAcsResponse(AcsRequest<T> request, IClientProfile profile) throws ServerException, ClientException {
+        return getAcsResponse(request);
+    }
+
+    @Override
+    public <T extends AcsResponse> T getAcsResponse(AcsRequest<T> request, String regionId, Credential credential) throws ServerException, ClientException {
+        return getAcsResponse(request);
+    }
+
+    @Override
+    public <T extends AcsResponse> T getAcsResponse(AcsRequest<T> request, String regionId) throws ServerException, ClientException {
+        return getAcsResponse(request);
+    }
+
+    @Override
+    public <T extends AcsResponse> HttpResponse doAction(AcsRequest<T> request) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T extends AcsResponse> HttpResponse doAction(AcsRequest<T> request, boolean autoRetry, int maxRetryCounts) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T extends AcsResponse> HttpResponse doAction(AcsRequest<T> request, IClientProfile profile) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T extends AcsResponse> HttpResponse doAction(AcsRequest<T> request, String regionId, Credential credential) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T extends AcsResponse> HttpResponse doAction(AcsRequest<T> request, boolean autoRetry, int maxRetryNumber, IClientProfile profile) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public CommonResponse getCommonResponse(CommonRequest request) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void restoreSSLCertificate() {
+    }
+
+    @Override
+    public void ignoreSSLCertificate() {
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+    }
+}
@@ -0,0 +1,606 @@
+package com.webank.wecube.plugins.alicloud.support.converter;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.aliyuncs.ecs.model.v20140526.*;
+import com.webank.wecube.plugins.alicloud.dto.PluginSdkInputBridge;
+import com.webank.wecube.plugins.alicloud.dto.PluginSdkOutputBridge;
+import com.webank.wecube.plugins.alicloud.dto.ecs.securityGroup.CoreAuthorizeSecurityGroupRequestDto;
+import com.webank.wecube.plugins.alicloud.dto.ecs.securityGroup.CoreRevokeSecurityGroupRequestDto;
+import com.webank.wecube.plugins.alicloud.dto.ecs.vm.CoreCreateVMRequestDto;
+import com.webank.wecube.plugins.alicloud.support.PluginSdkMapper;
+import org.junit.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * The converters of the DTOs below are generated when the test sources are compiled, the ones of the plugin DTOs when
+ * the main sources are
+ */
+public class SdkConverterTest {
+
+    @Test
+    public void givenGeneratedConverter_convert_shouldMatchSharedMapper() {
+        final ShapeDto source = new ShapeDto();
+        source.setName("shape");
+        source.setAmount("3");
+        source.setPeriod(" 12 ");
+        source.setEnabled("true");
+        source.setEmptyNumber("");
+        source.setSize(1024L);
+        source.setTags(Arrays.asList("a", "b"));
+        source.setItems(Collections.singletonList(new ShapeItem("item", "7")));
+        source.setSecret("secret");
+        source.setEncryptedPassword("encrypted");
+        source.setVSwitchId("vsw-1");
+        source.setDBInstanceId("rm-1");
+
+        assertNotNull(SdkConverters.find(ShapeDto.class, ShapeTarget.class));
+        final ShapeTarget generated = PluginSdkMapper.convert(source, ShapeTarget.class);
+        final ShapeTarget jackson = PluginSdkMapper.convertProperty(source, PluginSdkMapper.getMapper().constructType(ShapeTarget.class));
+
+        assertEquals(asMap(jackson), asMap(generated));
+        assertEquals(Integer.valueOf(3), generated.getAmount());
+        assertEquals(Long.valueOf(12L), generated.getPeriod());
+        assertTrue(generated.isEnabled());
+        assertNull(generated.getEmptyNumber());
+        assertEquals(0, generated.getCount());
+        assertEquals("1024", generated.getSize());
+        assertNull(generated.getSecret());
+        assertEquals("encrypted", generated.getPassword());
+        assertEquals("vsw-1", generated.getVSwitchId());
+        assertEquals("rm-1", generated.getDbInstanceId());
+        assertEquals(Integer.valueOf(7), generated.getItems().get(0).getWeight());
+        assertNotSame(source.getTags(), generated.getTags());
+    }
+
+    @Test
+    public void givenEveryBridgeDto_generatedConverters_shouldMatchSharedMapper() throws Exception {
+        final List<Class<?>[]> pairs = bridgedPairs();
+        int generatedCount = 0;
+        for (Class<?>[] pair : pairs) {
+            final Class<?> sourceClass = pair[0];
+            final Class<?> targetClass = pair[1];
+            if (null == SdkConverters.find(sourceClass, targetClass)) {
+                // left to the shared mapper by the processor
+                continue;
+            }
+            generatedCount++;
+            final String conversion = sourceClass.getName() + " -> " + targetClass.getName();
+
+            // all properties at once, then each property alone with the string values every scalar is coerced from
+            assertSameConversion(conversion, fill(sourceClass, "12", 0), targetClass);
+            for (Method setter : setters(sourceClass)) {
+                for (String text : Arrays.asList("12", "true", "text", "")) {
+                    final Object source = sourceClass.newInstance();
+                    if (set(source, setter, sample(setter.getParameterTypes()[0], setter.getGenericParameterTypes()[0], text, 0))) {
+                        assertSameConversion(conversion + " with only " + setter.getName() + "(\"" + text + "\")", source, targetClass);
+                    }
+                }
+            }
+        }
+
+        assertTrue("No bridge DTO is found", pairs.size() > 0);
+        assertTrue("No SDK converter is generated", generatedCount > 0);
+    }
+
+    @Test
+    public void givenVMAndSecurityGroupDtos_find_shouldUseGeneratedConverters() {
+        assertNotNull(SdkConverters.find(CoreCreateVMRequestDto.class, CreateInstanceRequest.class));
+        assertNotNull(SdkConverters.find(CoreCreateVMRequestDto.class, RunInstancesRequest.class));
+        assertNotNull(SdkConverters.find(CoreAuthorizeSecurityGroupRequestDto.class, AuthorizeSecurityGroupRequest.class));
+        assertNotNull(SdkConverters.find(CoreAuthorizeSecurityGroupRequestDto.class, AuthorizeSecurityGroupEgressRequest.class));
+        assertNotNull(SdkConverters.find(CoreRevokeSecurityGroupRequestDto.class, RevokeSecurityGroupRequest.class));
+        assertNotNull(SdkConverters.find(CoreRevokeSecurityGroupRequestDto.class, RevokeSecurityGroupEgressRequest.class));
+        assertNull(SdkConverters.find(String.class, CreateInstanceRequest.class));
+    }
+
+    @Test
+    public void givenReflectiveBinding_find_shouldFallBackToSharedMapper() {
+        final ShapeDto source = new ShapeDto();
+        source.setName("shape");
+
+        assertNull(SdkConverters.find(ShapeDto.class, FieldBoundTarget.class));
+        assertEquals("shape", PluginSdkMapper.convert(source, FieldBoundTarget.class).getName());
+    }
+
+    @Test
+    public void givenScalars_convertScalar_shouldMatchSharedMapper() {
+        for (Object value : Arrays.asList("42", "-7", "007", " 5 ", "", "99999999999", 42, 42L, (short) 3, true)) {
+            for (Class<?> type : Arrays.asList(String.class, Integer.class, Long.class)) {
+                assertEquals(String.format("%s to %s", value, type.getSimpleName()), jackson(value, type), generated(value, type));
+            }
+        }
+        assertEquals(Boolean.TRUE, SdkConverters.convertScalar("true", Boolean.class));
+        assertEquals(jackson("True", Boolean.class), SdkConverters.convertScalar("True", Boolean.class));
+    }
+
+    private static Object generated(Object value, Class<?> type) {
+        try {
+            return SdkConverters.convertScalar(value, type);
+        } catch (RuntimeException ex) {
+            return ex.getClass();
+        }
+    }
+
+    private static Object jackson(Object value, Class<?> type) {
+        try {
+            return PluginSdkMapper.convertProperty(value, PluginSdkMapper.getMapper().constructType(type));
+        } catch (RuntimeException ex) {
+            return ex.getClass();
+        }
+    }
+
+    /**
+     * Every conversion the processor may generate: the bridge type arguments and the cross lineage classes of each DTO
+     */
+    private static List<Class<?>[]> bridgedPairs() throws ClassNotFoundException {
+        final ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AssignableTypeFilter(PluginSdkInputBridge.class));
+        scanner.addIncludeFilter(new AssignableTypeFilter(PluginSdkOutputBridge.class));
+        scanner.addIncludeFilter(new AnnotationTypeFilter(CrossLineage.class));
+
+        final List<Class<?>[]> pairs = new ArrayList<>();
+        for (BeanDefinition candidate : scanner.findCandidateComponents(PluginSdkInputBridge.class.getPackage().getName())) {
+            final Class<?> dto = Class.forName(candidate.getBeanClassName());
+            final Class<?> request = ResolvableType.forClass(dto).as(PluginSdkInputBridge.class).resolveGeneric(0);
+            if (null != request) {
+                pairs.add(new Class<?>[]{dto, request});
+            }
+            final Class<?> response = ResolvableType.forClass(dto).as(PluginSdkOutputBridge.class).resolveGeneric(1);
+            if (null != response) {
+                pairs.add(new Class<?>[]{response, dto});
+            }
+            final CrossLineage crossLineage = dto.getAnnotation(CrossLineage.class);
+            if (null != crossLineage) {
+                Arrays.stream(crossLineage.toSdk()).forEach(target -> pairs.add(new Class<?>[]{dto, target}));
+                Arrays.stream(crossLineage.fromSdk()).forEach(source -> pairs.add(new Class<?>[]{source, dto}));
+            }
+        }
+        return pairs;
+    }
+
+    private static void assertSameConversion(String conversion, Object source, Class<?> targetClass) {
+        assertEquals(conversion, describe(outcome(() -> PluginSdkMapper.convertProperty(source, PluginSdkMapper.getMapper().constructType(targetClass))), 0),
+                describe(outcome(() -> PluginSdkMapper.convert(source, targetClass)), 0));
+    }
+
+    private static Object outcome(Supplier<Object> conversion) {
+        try {
+            return conversion.get();
+        } catch (RuntimeException ex) {
+            return ex.getClass();
+        }
+    }
+
+    private static Object fill(Class<?> clazz, String text, int depth) throws Exception {
+        final Object bean = clazz.newInstance();
+        for (Method setter : setters(clazz)) {
+            set(bean, setter, sample(setter.getParameterTypes()[0], setter.getGenericParameterTypes()[0], text, depth));
+        }
+        return bean;
+    }
+
+    private static boolean set(Object bean, Method setter, Object value) {
+        if (null == value) {
+            return false;
+        }
+        try {
+            setter.invoke(bean, value);
+            return true;
+        } catch (ReflectiveOperationException ex) {
+            return false;
+        }
+    }
+
+    private static Object sample(Class<?> type, Type genericType, String text, int depth) throws Exception {
+        if (String.class == type) {
+            return text;
+        } else if (Integer.class == type || int.class == type) {
+            return 12;
+        } else if (Long.class == type || long.class == type) {
+            return 12L;
+        } else if (Boolean.class == type || boolean.class == type) {
+            return true;
+        } else if (Float.class == type || float.class == type) {
+            return 1.5f;
+        } else if (Double.class == type || double.class == type) {
+            return 1.5d;
+        } else if (type.isEnum()) {
+            return type.getEnumConstants()[0];
+        } else if (List.class == type && genericType instanceof ParameterizedType) {
+            final Type elementType = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+            if (!(elementType instanceof Class)) {
+                return null;
+            }
+            final Object element = sample((Class<?>) elementType, elementType, text, depth);
+            return null == element ? null : new ArrayList<>(Collections.singletonList(element));
+        } else if (depth < 3 && isBean(type) && !setters(type).isEmpty()) {
+            return fill(type, text, depth + 1);
+        }
+        return null;
+    }
+
+    private static boolean isBean(Class<?> type) {
+        if (type.isInterface() || type.isArray() || type.isPrimitive() || Modifier.isAbstract(type.getModifiers()) || null == type.getClassLoader()) {
+            return false;
+        }
+        try {
+            return Modifier.isPublic(type.getConstructor().getModifiers());
+        } catch (NoSuchMethodException ex) {
+            return false;
+        }
+    }
+
+    private static List<Method> setters(Class<?> clazz) {
+        final List<Method> setters = new ArrayList<>();
+        for (Method method : clazz.getMethods()) {
+            if (method.getName().startsWith("set") && method.getParameterCount() == 1 && !Modifier.isStatic(method.getModifiers()) && !isSdkInfrastructure(method.getDeclaringClass())) {
+                setters.add(method);
+            }
+        }
+        setters.sort(Comparator.comparing(Method::getName));
+        return setters;
+    }
+
+    /**
+     * Comparable view of a conversion result: its getter values, nested beans and lists included
+     */
+    private static Object describe(Object value, int depth) {
+        if (null == value || value instanceof String || value instanceof Number || value instanceof Boolean || value instanceof Enum || value instanceof Class) {
+            return value;
+        }
+        if (value instanceof Collection) {
+            return ((Collection<?>) value).stream().map(element -> describe(element, depth + 1)).collect(Collectors.toList());
+        }
+        if (value instanceof Map) {
+            final Map<Object, Object> described = new TreeMap<>(Comparator.comparing(String::valueOf));
+            ((Map<?, ?>) value).forEach((key, element) -> described.put(key, describe(element, depth + 1)));
+            return described;
+        }
+        if (depth > 5) {
+            return value.getClass();
+        }
+        final Map<String, Object> properties = new TreeMap<>();
+        for (Method method : value.getClass().getMethods()) {
+            final boolean getter = method.getName().startsWith("get") || method.getName().startsWith("is");
+            if (getter && method.getParameterCount() == 0 && !Modifier.isStatic(method.getModifiers()) && void.class != method.getReturnType() && !isSdkInfrastructure(method.getDeclaringClass())) {
+                try {
+                    properties.put(method.getName(), describe(method.invoke(value), depth + 1));
+                } catch (ReflectiveOperationException ex) {
+                    properties.put(method.getName(), ex.getCause() == null ? ex.getClass() : ex.getCause().getClass());
+                }
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Properties of Object and the SDK's base request and response classes, such as the signer and the HTTP content,
+     * aren't converted
+     */
+    private static boolean isSdkInfrastructure(Class<?> declaringClass) {
+        final String packageName = null == declaringClass.getPackage() ? "" : declaringClass.getPackage().getName();
+        return Object.class == declaringClass || "com.aliyuncs".equals(packageName) || packageName.startsWith("com.aliyuncs.http");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object value) {
+        return PluginSdkMapper.getMapper().convertValue(value, Map.class);
+    }
+
+    @CrossLineage(toSdk = {ShapeTarget.class, FieldBoundTarget.class})
+    public static class ShapeDto {
+        private String name;
+        private String amount;
+        private String period;
+        private String enabled;
+        private String emptyNumber;
+        private Integer count;
+        private long size;
+        private List<String> tags;
+        private List<ShapeItem> items;
+        @JsonIgnore
+        private String secret;
+        @JsonProperty(value = "password")
+        private String encryptedPassword;
+        @JsonProperty(value = "vSwitchId")
+        private String vSwitchId;
+        private String dBInstanceId;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getAmount() {
+            return amount;
+        }
+
+        public void setAmount(String amount) {
+            this.amount = amount;
+        }
+
+        public String getPeriod() {
+            return period;
+        }
+
+        public void setPeriod(String period) {
+            this.period = period;
+        }
+
+        public String getEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(String enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getEmptyNumber() {
+            return emptyNumber;
+        }
+
+        public void setEmptyNumber(String emptyNumber) {
+            this.emptyNumber = emptyNumber;
+        }
+
+        public Integer getCount() {
+            return count;
+        }
+
+        public void setCount(Integer count) {
+            this.count = count;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public void setSize(long size) {
+            this.size = size;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+
+        public List<ShapeItem> getItems() {
+            return items;
+        }
+
+        public void setItems(List<ShapeItem> items) {
+            this.items = items;
+        }
+
+        public String getSecret() {
+            return secret;
+        }
+
+        public void setSecret(String secret) {
+            this.secret = secret;
+        }
+
+        public String getEncryptedPassword() {
+            return encryptedPassword;
+        }
+
+        public void setEncryptedPassword(String encryptedPassword) {
+            this.encryptedPassword = encryptedPassword;
+        }
+
+        public String getVSwitchId() {
+            return vSwitchId;
+        }
+
+        public void setVSwitchId(String vSwitchId) {
+            this.vSwitchId = vSwitchId;
+        }
+
+        public String getDBInstanceId() {
+            return dBInstanceId;
+        }
+
+        public void setDBInstanceId(String dBInstanceId) {
+            this.dBInstanceId = dBInstanceId;
+        }
+    }
+
+    public static class ShapeItem {
+        private String label;
+        private String weight;
+
+        public ShapeItem() {
+        }
+
+        public ShapeItem(String label, String weight) {
+            this.label = label;
+            this.weight = weight;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public void setLabel(String label) {
+            this.label = label;
+        }
+
+        public String getWeight() {
+            return weight;
+        }
+
+        public void setWeight(String weight) {
+            this.weight = weight;
+        }
+    }
+
+    public static class ShapeTarget {
+        private String name;
+        private Integer amount;
+        private Long period;
+        private boolean enabled;
+        private Integer emptyNumber;
+        private int count;
+        private String size;
+        private List<String> tags;
+        private List<TargetItem> items;
+        private String secret;
+        private String password;
+        private String vSwitchId;
+        private String dbInstanceId;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getAmount() {
+            return amount;
+        }
+
+        public void setAmount(Integer amount) {
+            this.amount = amount;
+        }
+
+        public Long getPeriod() {
+            return period;
+        }
+
+        public void setPeriod(Long period) {
+            this.period = period;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Integer getEmptyNumber() {
+            return emptyNumber;
+        }
+
+        public void setEmptyNumber(Integer emptyNumber) {
+            this.emptyNumber = emptyNumber;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public String getSize() {
+            return size;
+        }
+
+        public void setSize(String size) {
+            this.size = size;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+
+        public List<TargetItem> getItems() {
+            return items;
+        }
+
+        public void setItems(List<TargetItem> items) {
+            this.items = items;
+        }
+
+        public String getSecret() {
+            return secret;
+        }
+
+        public void setSecret(String secret) {
+            this.secret = secret;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public String getVSwitchId() {
+            return vSwitchId;
+        }
+
+        public void setVSwitchId(String vSwitchId) {
+            this.vSwitchId = vSwitchId;
+        }
+
+        public String getDbInstanceId() {
+            return dbInstanceId;
+        }
+
+        public void setDbInstanceId(String dbInstanceId) {
+            this.dbInstanceId = dbInstanceId;
+        }
+    }
+
+    public static class TargetItem {
+        private String label;
+        private Integer weight;
+
+        public String getLabel() {
+            return label;
+        }
+
+        public void setLabel(String label) {
+            this.label = label;
+        }
+
+        public Integer getWeight() {
+            return weight;
+        }
+
+        public void setWeight(Integer weight) {
+            this.weight = weight;
+        }
+    }
+
+    public static class FieldBoundTarget {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.webank.wecube.plugins.alicloud.support.job;
+
+import com.webank.wecube.plugins.alicloud.common.JobProperties;
+import com.webank.wecube.plugins.alicloud.dto.CoreRequestDto;
+import com.webank.wecube.plugins.alicloud.dto.CoreRequestInputDto;
+import com.webank.wecube.plugins.alicloud.dto.CoreResponseDto;
+import com.webank.wecube.plugins.alicloud.dto.CoreResponseOutputDto;
+import com.webank.wecube.plugins.alicloud.dto.job.CoreJobAcceptedDto;
+import com.webank.wecube.plugins.alicloud.dto.job.PluginJobDto;
+import com.webank.wecube.plugins.alicloud.dto.job.PluginJobStatus;
+import com.webank.wecube.plugins.alicloud.support.DtoValidator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class PluginJobManagerTest {
+
+    private static final String CALLBACK_URL = "http://platform:19090/callback";
+
+    private final LinkedBlockingQueue<Object> postedBodies = new LinkedBlockingQueue<>();
+    private PluginJobManager pluginJobManager;
+
+    @Before
+    public void setUp() {
+        JobProperties properties = new JobProperties();
+        properties.setPoolSize(2);
+        properties.setCallbackBackoffMillis(1);
+        properties.setAllowedCallbackUrlPrefixes(Collections.singletonList("http://platform:19090/"));
+        RestTemplate restTemplate = new RestTemplate() {
+            @Override
+            public <T> ResponseEntity<T> postForEntity(String url, Object request, Class<T> responseType, Object... uriVariables) {
+                postedBodies.add(request);
+                return ResponseEntity.ok().build();
+            }
+        };
+        pluginJobManager = new PluginJobManager(properties, restTemplate, new DtoValidator());
+    }
+
+    @After
+    public void tearDown() {
+        pluginJobManager.shutdown();
+    }
+
+    @Test
+    public void givenValidRequest_submit_shouldReturnJobIdBeforeBatchFinishes() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CoreResponseDto<CoreJobAcceptedDto> accepted = pluginJobManager.submit(request(2), CALLBACK_URL, inputs -> {
+            await(release);
+            List<CoreResponseOutputDto> resultList = new ArrayList<>();
+            for (CoreRequestInputDto input : inputs) {
+                CoreResponseOutputDto result = new CoreResponseOutputDto();
+                result.setGuid(input.getGuid());
+                result.setCallbackParameter(input.getCallbackParameter());
+                resultList.add(result);
+            }
+            return resultList;
+        });
+
+        assertEquals(CoreResponseDto.STATUS_OK, accepted.getResultCode());
+        final List<CoreJobAcceptedDto> outputs = accepted.getResults().getResults();
+        assertEquals(2, outputs.size());
+        assertEquals("callback-1", outputs.get(1).getCallbackParameter());
+        final String jobId = outputs.get(0).getJobId();
+        assertNotEquals(PluginJobStatus.COMPLETED, pluginJobManager.getJob(jobId).getStatus());
+
+        release.countDown();
+        final PluginJobDto posted = (PluginJobDto) postedBodies.poll(5, TimeUnit.SECONDS);
+        assertNotNull(posted);
+        assertEquals(jobId, posted.getJobId());
+        assertEquals(PluginJobStatus.COMPLETED, posted.getStatus());
+        assertEquals(PluginJobStatus.COMPLETED, pluginJobManager.getJob(jobId).getStatus());
+        assertEquals(CoreResponseDto.STATUS_OK, posted.getResponse().getResultCode());
+    }
+
+    @Test
+    public void givenFailingBatch_submit_shouldMarkJobFailed() throws Exception {
+        final CoreResponseDto<CoreJobAcceptedDto> accepted = pluginJobManager.submit(request(1), CALLBACK_URL, inputs -> {
+            throw new IllegalStateException("boom");
+        });
+
+        final PluginJobDto posted = (PluginJobDto) postedBodies.poll(5, TimeUnit.SECONDS);
+        assertNotNull(posted);
+        assertEquals(accepted.getResults().getResults().get(0).getJobId(), posted.getJobId());
+        assertEquals(PluginJobStatus.FAILED, posted.getStatus());
+        assertEquals(CoreResponseDto.STATUS_ERROR, posted.getResponse().getResultCode());
+    }
+
+    @Test
+    public void givenInvalidRequest_submit_shouldRejectWithoutJob() {
+        final CoreRequestDto<CoreRequestInputDto> request = request(1);
+        request.getInputs().get(0).setIdentityParams(null);
+
+        final CoreResponseDto<CoreJobAcceptedDto> rejected = pluginJobManager.submit(request, null, inputs -> Collections.<CoreResponseOutputDto>emptyList());
+        assertEquals(CoreResponseDto.STATUS_ERROR, rejected.getResultCode());
+
+        final CoreResponseDto<CoreJobAcceptedDto> invalidCallback = pluginJobManager.submit(request(1), "file:///etc/passwd", inputs -> Collections.<CoreResponseOutputDto>emptyList());
+        assertEquals(CoreResponseDto.STATUS_ERROR, invalidCallback.getResultCode());
+    }
+
+    @Test
+    public void givenCallbackUrlNotUnderAllowedPrefix_submit_shouldReject() {
+        for (String callbackUrl : Arrays.asList("http://platform:19090.attacker.com/callback", "http://attacker.com/callback", "http://platform:19091/callback", "http://user@platform:19090/callback")) {
+            final CoreResponseDto<CoreJobAcceptedDto> rejected = pluginJobManager.submit(request(1), callbackUrl, inputs -> Collections.<CoreResponseOutputDto>emptyList());
+            assertEquals(callbackUrl, CoreResponseDto.STATUS_ERROR, rejected.getResultCode());
+        }
+        assertTrue(postedBodies.isEmpty());
+    }
+
+    @Test
+    public void givenNoAllowedPrefix_submit_shouldRejectAnyCallbackUrl() {
+        final PluginJobManager defaultJobManager = new PluginJobManager(new JobProperties(), new RestTemplate(), new DtoValidator());
+        try {
+            final CoreResponseDto<CoreJobAcceptedDto> rejected = defaultJobManager.submit(request(1), CALLBACK_URL, inputs -> Collections.<CoreResponseOutputDto>emptyList());
+            assertEquals(CoreResponseDto.STATUS_ERROR, rejected.getResultCode());
+
+            final CoreResponseDto<CoreJobAcceptedDto> accepted = defaultJobManager.submit(request(1), null, inputs -> Collections.<CoreResponseOutputDto>emptyList());
+            assertEquals(CoreResponseDto.STATUS_OK, accepted.getResultCode());
+        } finally {
+            defaultJobManager.shutdown();
+        }
+    }
+
+    private static CoreRequestDto<CoreRequestInputDto> request(int size) {
+        List<CoreRequestInputDto> inputs = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            CoreRequestInputDto input = new CoreRequestInputDto();
+            input.setIdentityParams("accessKeyId=key;secret=secret");
+            input.setCloudParams("regionId=cn-hangzhou");
+            input.setGuid("guid-" + i);
+            input.setCallbackParameter("callback-" + i);
+            inputs.add(input);
+        }
+        CoreRequestDto<CoreRequestInputDto> request = new CoreRequestDto<>();
+        request.setRequestId("request-1");
+        request.setInputs(inputs);
+        return request;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
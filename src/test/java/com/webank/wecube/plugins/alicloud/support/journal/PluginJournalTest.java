@@ -0,0 +1,123 @@
+package com.webank.wecube.plugins.alicloud.support.journal;
+
+import com.webank.wecube.plugins.alicloud.common.JournalProperties;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import static org.junit.Assert.*;
+
+public class PluginJournalTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private JournalProperties properties;
+    private PluginJournal journal;
+
+    @Before
+    public void setUp() {
+        properties = new JournalProperties();
+        properties.setDirectory(temporaryFolder.getRoot().getAbsolutePath());
+        properties.setFileSizeBytes(4096);
+        journal = new PluginJournal(properties);
+    }
+
+    @After
+    public void tearDown() {
+        journal.close();
+    }
+
+    @Test
+    public void givenRecordedSteps_reopen_shouldRestorePendingItems() {
+        final JournalProgress pending = journal.progressOf("rds.createDB|key|guid-1");
+        pending.record("dBInstanceId", "rm-1");
+        pending.record("account", "admin");
+        final JournalProgress done = journal.progressOf("rds.createDB|key|guid-2");
+        done.record("dBInstanceId", "rm-2");
+        done.complete();
+
+        reopen();
+
+        assertEquals(1, journal.getPendingCount());
+        assertEquals("rm-1", journal.progressOf("rds.createDB|key|guid-1").get("dBInstanceId"));
+        assertEquals("admin", journal.progressOf("rds.createDB|key|guid-1").get("account"));
+        assertFalse(journal.progressOf("rds.createDB|key|guid-2").has("dBInstanceId"));
+    }
+
+    @Test
+    public void givenFullJournal_record_shouldCompactAndKeepLiveItems() {
+        for (int i = 0; i < 500; i++) {
+            final JournalProgress progress = journal.progressOf("vm.createVM|key|guid-" + i);
+            progress.record("instanceId", "i-" + i);
+            if (i % 10 != 0) {
+                progress.complete();
+            }
+        }
+
+        reopen();
+
+        assertEquals(50, journal.getPendingCount());
+        assertEquals("i-490", journal.progressOf("vm.createVM|key|guid-490").get("instanceId"));
+        assertNull(journal.progressOf("vm.createVM|key|guid-491").get("instanceId"));
+    }
+
+    @Test
+    public void givenTornRecord_reopen_shouldKeepRecordsBeforeIt() throws Exception {
+        journal.progressOf("redis.create|key|guid-1").record("instanceId", "r-1");
+        journal.progressOf("redis.create|key|guid-2").record("instanceId", "r-2");
+        journal.close();
+
+        // corrupt the checksum of the second record
+        final File file = new File(temporaryFolder.getRoot(), PluginJournal.FILE_NAME);
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            final int firstLength = randomAccessFile.readInt();
+            randomAccessFile.seek(9 + firstLength + 4);
+            randomAccessFile.writeInt(0x12345678);
+        }
+        journal = new PluginJournal(properties);
+
+        assertEquals(1, journal.getPendingCount());
+        assertEquals("r-1", journal.progressOf("redis.create|key|guid-1").get("instanceId"));
+
+        journal.progressOf("redis.create|key|guid-3").record("instanceId", "r-3");
+        reopen();
+        assertEquals("r-3", journal.progressOf("redis.create|key|guid-3").get("instanceId"));
+    }
+
+    @Test
+    public void givenCompactions_record_shouldKeepOnlyTheCurrentMapping() throws Exception {
+        final File maps = new File("/proc/self/maps");
+        Assume.assumeTrue(maps.canRead());
+
+        for (int i = 0; i < 500; i++) {
+            journal.progressOf("vm.createVM|key|guid-" + i).record("instanceId", "i-" + i);
+        }
+
+        final String journalPath = temporaryFolder.getRoot().getCanonicalPath();
+        final long mappings = Files.readAllLines(maps.toPath()).stream().filter(line -> line.contains(journalPath)).count();
+        assertEquals(1, mappings);
+    }
+
+    @Test
+    public void givenPosixFileSystem_open_shouldRestrictTheJournalToItsOwner() throws Exception {
+        final Path file = temporaryFolder.getRoot().toPath().resolve(PluginJournal.FILE_NAME);
+        Assume.assumeTrue(file.getFileSystem().supportedFileAttributeViews().contains("posix"));
+
+        assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(file));
+    }
+
+    private void reopen() {
+        journal.close();
+        journal = new PluginJournal(properties);
+    }
+}
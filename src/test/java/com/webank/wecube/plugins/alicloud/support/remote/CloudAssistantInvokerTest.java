@@ -0,0 +1,186 @@
+package com.webank.wecube.plugins.alicloud.support.remote;
+
+import com.aliyuncs.AcsRequest;
+import com.aliyuncs.ecs.model.v20140526.DescribeInvocationResultsRequest;
+import com.aliyuncs.ecs.model.v20140526.DescribeInvocationResultsResponse;
+import com.aliyuncs.ecs.model.v20140526.RunCommandRequest;
+import com.aliyuncs.ecs.model.v20140526.RunCommandResponse;
+import com.aliyuncs.exceptions.ServerException;
+import com.webank.wecube.plugins.alicloud.common.AcsClientProperties;
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.common.RemoteExecutionProperties;
+import com.webank.wecube.plugins.alicloud.support.AcsAsyncExecutor;
+import com.webank.wecube.plugins.alicloud.support.AcsClientCache;
+import com.webank.wecube.plugins.alicloud.support.AcsClientStub;
+import com.webank.wecube.plugins.alicloud.support.StubAcsClient;
+import com.webank.wecube.plugins.alicloud.support.retry.AcsRateLimiter;
+import com.webank.wecube.plugins.alicloud.support.timer.PluginWaitScheduler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class CloudAssistantInvokerTest {
+
+    private static final String REGION_ID = "cn-hangzhou";
+    private static final String SCRIPT = "#!/bin/sh\nlsblk";
+
+    private PluginWaitScheduler scheduler;
+    private AcsClientStub acsClientStub;
+    private RemoteExecutionProperties remoteExecutionProperties;
+
+    @Before
+    public void setUp() {
+        AcsClientProperties acsClientProperties = new AcsClientProperties();
+        acsClientProperties.setBaseBackoffMillis(1);
+        acsClientProperties.setMaxBackoffMillis(5);
+        acsClientProperties.setPermitsPerSecond(1000);
+        acsClientStub = new AcsClientStub(new AcsClientCache(acsClientProperties), new AcsRateLimiter(acsClientProperties), acsClientProperties, new AcsAsyncExecutor(acsClientProperties));
+
+        remoteExecutionProperties = new RemoteExecutionProperties();
+        remoteExecutionProperties.setCloudAssistantBatchWindowMillis(50);
+        remoteExecutionProperties.setCloudAssistantPollIntervalMillis(20);
+        remoteExecutionProperties.setCloudAssistantTimeoutSeconds(5);
+        remoteExecutionProperties.setCloudAssistantMaxInstancesPerInvocation(2);
+        scheduler = new PluginWaitScheduler(2, 5);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void givenSameScriptOnManyInstances_invoke_shouldSendOneCommandPerChunk() throws Exception {
+        final StubAcsClient client = new StubAcsClient((request, callIndex) -> {
+            if (request instanceof RunCommandRequest) {
+                return runCommandResponse(((RunCommandRequest) request).getInstanceIds().get(0));
+            }
+            final DescribeInvocationResultsRequest describeRequest = (DescribeInvocationResultsRequest) request;
+            final String firstInstanceId = describeRequest.getInvokeId().substring("t-".length());
+            final int first = Integer.parseInt(firstInstanceId.substring("i-".length()));
+            return invocationResults(result("i-" + first, "Finished", 0L, "vdb\n"), result("i-" + (first + 1), "Finished", 0L, "vdc\n"));
+        });
+        final CloudAssistantInvoker invoker = new CloudAssistantInvoker(acsClientStub, remoteExecutionProperties, scheduler);
+
+        final List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(invoker.invoke(client, REGION_ID, "i-" + i, SCRIPT));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList("vdb", "vdc", "vdb", "vdc"), futures.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+        final List<AcsRequest<?>> runCommandRequests = requestsOf(client, RunCommandRequest.class);
+        assertEquals(2, runCommandRequests.size());
+        assertEquals(SCRIPT, new String(Base64.getDecoder().decode(((RunCommandRequest) runCommandRequests.get(0)).getCommandContent()), StandardCharsets.UTF_8));
+        assertEquals(2, requestsOf(client, DescribeInvocationResultsRequest.class).size());
+        assertEquals(0, invoker.getBatchCount());
+    }
+
+    @Test
+    public void givenNonZeroExitCode_run_shouldThrowPluginException() {
+        final StubAcsClient client = new StubAcsClient((request, callIndex) -> {
+            if (request instanceof RunCommandRequest) {
+                return runCommandResponse("i-0");
+            }
+            if (callIndex == 1) {
+                return invocationResults(result("i-0", "Running", null, null));
+            }
+            return invocationResults(result("i-0", "Failed", 1L, "mount: wrong fs type\n"));
+        });
+        final CloudAssistantInvoker invoker = new CloudAssistantInvoker(acsClientStub, remoteExecutionProperties, scheduler);
+
+        try {
+            invoker.run(client, REGION_ID, "i-0", SCRIPT);
+            fail("PluginException expected");
+        } catch (PluginException ex) {
+            assertTrue(ex.getMessage().contains("mount: wrong fs type"));
+        }
+        assertEquals(3, client.getCallCount());
+    }
+
+    @Test
+    public void givenFailedResultPage_run_shouldRetryOnNextPoll() {
+        final StubAcsClient client = new StubAcsClient((request, callIndex) -> {
+            if (request instanceof RunCommandRequest) {
+                return runCommandResponse("i-0");
+            }
+            if (callIndex == 1) {
+                throw new ServerException("InvalidParameter", "The page is temporarily unavailable.");
+            }
+            return invocationResults(result("i-0", "Finished", 0L, "vdb\n"));
+        });
+        final CloudAssistantInvoker invoker = new CloudAssistantInvoker(acsClientStub, remoteExecutionProperties, scheduler);
+
+        assertEquals("vdb", invoker.run(client, REGION_ID, "i-0", SCRIPT));
+        assertEquals(2, requestsOf(client, DescribeInvocationResultsRequest.class).size());
+    }
+
+    @Test
+    public void givenResultPagesFailingTillTimeout_run_shouldReportLastPollingError() {
+        remoteExecutionProperties.setCloudAssistantTimeoutSeconds(0);
+        final StubAcsClient client = new StubAcsClient((request, callIndex) -> {
+            if (request instanceof RunCommandRequest) {
+                return runCommandResponse("i-0");
+            }
+            throw new ServerException("InvalidParameter", "The page is temporarily unavailable.");
+        });
+        final CloudAssistantInvoker invoker = new CloudAssistantInvoker(acsClientStub, remoteExecutionProperties, scheduler);
+
+        try {
+            invoker.run(client, REGION_ID, "i-0", SCRIPT);
+            fail("PluginException expected");
+        } catch (PluginException ex) {
+            assertTrue(ex.getMessage().contains("The page is temporarily unavailable."));
+        }
+    }
+
+    @Test
+    public void givenEmptyInstanceId_invoke_shouldFailFast() {
+        final StubAcsClient client = new StubAcsClient((request, callIndex) -> null);
+        final CloudAssistantInvoker invoker = new CloudAssistantInvoker(acsClientStub, remoteExecutionProperties, scheduler);
+
+        try {
+            invoker.invoke(client, REGION_ID, "", SCRIPT).join();
+            fail("PluginException expected");
+        } catch (PluginException | CompletionException ex) {
+            assertEquals(0, client.getCallCount());
+        }
+    }
+
+    private static List<AcsRequest<?>> requestsOf(StubAcsClient client, Class<?> requestClass) {
+        return client.getReceivedRequests().stream().filter(requestClass::isInstance).collect(Collectors.toList());
+    }
+
+    private static RunCommandResponse runCommandResponse(String firstInstanceId) {
+        final RunCommandResponse response = new RunCommandResponse();
+        response.setInvokeId("t-" + firstInstanceId);
+        return response;
+    }
+
+    private static DescribeInvocationResultsResponse invocationResults(DescribeInvocationResultsResponse.Invocation.InvocationResult... results) {
+        final DescribeInvocationResultsResponse.Invocation invocation = new DescribeInvocationResultsResponse.Invocation();
+        invocation.setInvocationResults(Arrays.asList(results));
+        invocation.setTotalCount((long) results.length);
+        final DescribeInvocationResultsResponse response = new DescribeInvocationResultsResponse();
+        response.setInvocation(invocation);
+        return response;
+    }
+
+    private static DescribeInvocationResultsResponse.Invocation.InvocationResult result(String instanceId, String status, Long exitCode, String output) {
+        final DescribeInvocationResultsResponse.Invocation.InvocationResult result = new DescribeInvocationResultsResponse.Invocation.InvocationResult();
+        result.setInstanceId(instanceId);
+        result.setInvokeRecordStatus(status);
+        result.setExitCode(exitCode);
+        result.setOutput(null == output ? null : Base64.getEncoder().encodeToString(output.getBytes(StandardCharsets.UTF_8)));
+        return result;
+    }
+}
@@ -0,0 +1,88 @@
+package com.webank.wecube.plugins.alicloud.support.resourceSeeker;
+
+import com.webank.wecube.plugins.alicloud.common.ResourceSeekerProperties;
+import com.webank.wecube.plugins.alicloud.support.AliCloudException;
+import com.webank.wecube.plugins.alicloud.support.StubAcsClient;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class AvailableResourceCacheTest {
+
+    private final AvailableResourceCache cache = new AvailableResourceCache(new ResourceSeekerProperties());
+    private final StubAcsClient client = new StubAcsClient((request, callIndex) -> null);
+
+    @Test
+    public void givenConcurrentMisses_get_shouldSendSingleRequest() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executorService.submit(() -> cache.get(client, "ecs", "cn-hangzhou", "cn-hangzhou-h", "PostPaid", Collections.singletonList("instance"), () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "response";
+                })));
+            }
+            TimeUnit.MILLISECONDS.sleep(100);
+            release.countDown();
+            for (Future<String> future : futures) {
+                assertEquals("response", future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void givenDifferentDimensions_get_shouldNotShareResponses() {
+        cache.get(client, "ecs", "cn-hangzhou", "cn-hangzhou-h", "PostPaid", Collections.singletonList("instance"), () -> "instance");
+        final String disk = cache.get(client, "ecs", "cn-hangzhou", "cn-hangzhou-h", "PostPaid", Collections.singletonList("disk"), () -> "disk");
+
+        assertEquals("disk", disk);
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void givenOutOfStockCreate_create_shouldDropCachedResponsesOfZone() {
+        cache.get(client, "ecs", "cn-hangzhou", "cn-hangzhou-h", "PostPaid", Collections.singletonList("instance"), () -> "h");
+        cache.get(client, "ecs", "cn-hangzhou", "cn-hangzhou-i", "PostPaid", Collections.singletonList("instance"), () -> "i");
+
+        try {
+            cache.create(client, "cn-hangzhou", "cn-hangzhou-h", () -> {
+                throw new AliCloudException("request-id", "InvalidParameter", "invalid", null, null);
+            });
+            fail("The create failure should be thrown.");
+        } catch (AliCloudException ex) {
+            assertEquals(2, cache.size());
+        }
+
+        try {
+            cache.create(client, "cn-hangzhou", "cn-hangzhou-h", () -> {
+                throw new AliCloudException("request-id", "OperationDenied.NoStock", "no stock", null, null);
+            });
+            fail("The create failure should be thrown.");
+        } catch (AliCloudException ex) {
+            assertEquals(1, cache.size());
+        }
+        assertEquals("i", cache.get(client, "ecs", "cn-hangzhou", "cn-hangzhou-i", "PostPaid", Collections.singletonList("instance"), () -> "reloaded"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
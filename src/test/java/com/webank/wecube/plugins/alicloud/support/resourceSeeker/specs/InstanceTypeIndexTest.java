@@ -0,0 +1,48 @@
+package com.webank.wecube.plugins.alicloud.support.resourceSeeker.specs;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class InstanceTypeIndexTest {
+
+    private final InstanceTypeIndex index = InstanceTypeIndex.builder()
+            .add("ecs.g6", "ecs.g6.xlarge", 4, 16)
+            .add("ecs.g6", "ecs.g6.large", 2, 8)
+            .add("ecs.g6", "ecs.g6.2xlarge", 8, 32)
+            .add("ecs.c6", "ecs.c6.large", 2, 4)
+            .build(0L);
+
+    @Test
+    public void givenSpec_ceiling_shouldReturnSmallestFitOfFamily() {
+        final Optional<SpecInfo> found = index.ceiling("ECS.G6", new CoreMemorySpec("2C6G"), instanceTypeId -> true);
+
+        assertTrue(found.isPresent());
+        assertEquals("ecs.g6.large", found.get().getResourceClass());
+        assertEquals(2, found.get().getCoreMemorySpec().getCore());
+        assertEquals(8, found.get().getCoreMemorySpec().getMemory());
+    }
+
+    @Test
+    public void givenUnavailableFit_ceiling_shouldSkipToNextAvailableSpec() {
+        final Set<String> available = new HashSet<>(Arrays.asList("ecs.g6.2xlarge", "ecs.c6.large"));
+
+        final Optional<SpecInfo> found = index.ceiling("ecs.g6", new CoreMemorySpec("2C8G"), available::contains);
+
+        assertTrue(found.isPresent());
+        assertEquals("ecs.g6.2xlarge", found.get().getResourceClass());
+    }
+
+    @Test
+    public void givenTooLargeSpecOrUnknownFamily_ceiling_shouldReturnEmpty() {
+        assertFalse(index.ceiling("ecs.g6", new CoreMemorySpec("16C64G"), instanceTypeId -> true).isPresent());
+        assertFalse(index.ceiling("ecs.r6", new CoreMemorySpec("2C8G"), instanceTypeId -> true).isPresent());
+        assertFalse(index.containsFamily("ecs.r6"));
+        assertEquals(4, index.getTypeCount());
+    }
+}
@@ -0,0 +1,78 @@
+package com.webank.wecube.plugins.alicloud.support.resourceSeeker.specs;
+
+import com.google.common.collect.Maps;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares matching an RDS spec with {@link RDSSpecIndex} against scanning and re-parsing the class-to-spec map on
+ * every create, as the resource seeker used to do.
+ * <p>
+ * Run with the main method from the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RDSSpecIndexBenchmark {
+
+    private Map<String, String> classToSpecMap;
+    private RDSSpecIndex index;
+    private List<String> availableClassList;
+    private Set<String> availableClassSet;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream inputStream = RDSSpecIndexBenchmark.class.getResourceAsStream("/rds-specs.properties")) {
+            classToSpecMap = RDSSpecIndex.readSpecs(inputStream);
+        }
+        index = RDSSpecIndex.of(Collections.singletonList(classToSpecMap));
+        // a zone usually sells most of the classes of the engine
+        availableClassList = classToSpecMap.keySet().stream().filter(instanceClass -> instanceClass.startsWith("mysql.")).sorted().collect(Collectors.toList());
+        availableClassSet = new HashSet<>(availableClassList);
+    }
+
+    @Benchmark
+    public Map.Entry<String, CoreMemorySpec> mapScan() {
+        return mapScanMatch(classToSpecMap, availableClassList, "4C16G").get(0);
+    }
+
+    @Benchmark
+    public SpecInfo indexCeiling() {
+        return index.ceiling(availableClassSet, new CoreMemorySpec("4C16G")).orElse(null);
+    }
+
+    @Benchmark
+    public SpecInfo indexCeilingFromResponseList() {
+        // the available classes arrive as a list in the response, so include building the set
+        return index.ceiling(new HashSet<>(availableClassList), new CoreMemorySpec("4C16G")).orElse(null);
+    }
+
+    private static List<Map.Entry<String, CoreMemorySpec>> mapScanMatch(Map<String, String> classToSpecMap, List<String> availableResourceList, String coreMemoryString) {
+        CoreMemorySpec target = new CoreMemorySpec(coreMemoryString);
+
+        final List<Map.Entry<String, CoreMemorySpec>> matchedResourceList = classToSpecMap.entrySet().stream()
+                .filter(entry -> availableResourceList.contains(entry.getKey()))
+                .map(entry -> Maps.immutableEntry(entry.getKey(), new CoreMemorySpec(entry.getValue())))
+                .collect(Collectors.toList());
+
+        return matchedResourceList.stream()
+                .filter(CoreMemorySpec.greaterThan(target))
+                .sorted(Map.Entry.comparingByValue(CoreMemorySpec.COMPARATOR))
+                .collect(Collectors.toList());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RDSSpecIndexBenchmark.class.getSimpleName()).build()).run();
+    }
+}
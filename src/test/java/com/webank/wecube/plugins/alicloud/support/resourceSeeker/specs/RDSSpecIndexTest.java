@@ -0,0 +1,51 @@
+package com.webank.wecube.plugins.alicloud.support.resourceSeeker.specs;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class RDSSpecIndexTest {
+
+    @Test
+    public void givenBuiltInSpecs_ceiling_shouldReturnSmallestAvailableFit() throws Exception {
+        final Map<String, String> builtInSpecs;
+        try (InputStream inputStream = getClass().getResourceAsStream("/rds-specs.properties")) {
+            builtInSpecs = RDSSpecIndex.readSpecs(inputStream);
+        }
+        final RDSSpecIndex index = RDSSpecIndex.of(Collections.singletonList(builtInSpecs));
+
+        final Optional<SpecInfo> found = index.ceiling(ImmutableSet.of("mysql.n2.small.1", "mysql.n2.large.1", "mysql.x8.large.25"), new CoreMemorySpec("2C4G"));
+
+        assertTrue(found.isPresent());
+        assertEquals("mysql.n2.large.1", found.get().getResourceClass());
+        assertEquals(4, found.get().getCoreMemorySpec().getCore());
+        assertEquals(8, found.get().getCoreMemorySpec().getMemory());
+        assertEquals("mariadb.x4.large.2c", index.ceiling(ImmutableSet.of("mariadb.x4.large.2c", "mariadb.x2.xlarge.2c"), new CoreMemorySpec("4C12G")).get().getResourceClass());
+        assertFalse(index.ceiling(ImmutableSet.of("mysql.n2.small.1"), new CoreMemorySpec("2C4G")).isPresent());
+    }
+
+    @Test
+    public void givenExternalSpecs_of_shouldAddAndOverrideClasses() {
+        final RDSSpecIndex index = RDSSpecIndex.of(Arrays.asList(
+                ImmutableMap.of("mysql.a", "2C4G", "mysql.b", "4C8G"),
+                ImmutableMap.of("mysql.b", "2C8G", "mysql.c", "8C16G")));
+
+        assertEquals(3, index.size());
+        assertEquals("mysql.b", index.ceiling(ImmutableSet.of("mysql.a", "mysql.b", "mysql.c"), new CoreMemorySpec("2C5G")).get().getResourceClass());
+        assertEquals("mysql.c", index.ceiling(ImmutableSet.of("mysql.a", "mysql.b", "mysql.c"), new CoreMemorySpec("3C1G")).get().getResourceClass());
+    }
+
+    @Test(expected = PluginException.class)
+    public void givenInvalidSpec_of_shouldThrow() {
+        RDSSpecIndex.of(Collections.singletonList(ImmutableMap.of("mysql.a", "large")));
+    }
+}
@@ -0,0 +1,44 @@
+package com.webank.wecube.plugins.alicloud.support.resourceSeeker.specs;
+
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RedisAvailabilityTableTest {
+
+    private final RedisAvailabilityTable table = RedisAvailabilityTable.builder()
+            .addRow(new String[]{"Community", "local", "5.0", "standard", "1", "double"}, "redis.master.small.default", "1G master-replica")
+            .addRow(new String[]{"Community", "local", "5.0", "standard", "1", "double"}, "redis.master.mid.default", "2G master-replica")
+            .addRow(new String[]{"Community", "local", "5.0", "standard", "1", "single"}, "redis.basic.small.default", "1G standalone")
+            .addRow(new String[]{"Community", "local", "4.0", "cluster", "2", "double"}, "redis.logic.sharding.2g.2db.0rodb.4proxy.default", "2G cluster")
+            .build();
+
+    @Test
+    public void givenAllDimensions_findInstanceClass_shouldMatchCapacity() {
+        assertEquals("redis.master.mid.default", table.findInstanceClass(new String[]{"Community", "local", "5.0", "standard", "1", "double"}, "2G"));
+        assertEquals(4, table.size());
+    }
+
+    @Test
+    public void givenEmptyDimensions_findInstanceClass_shouldMatchAnyValue() {
+        assertEquals("redis.basic.small.default", table.findInstanceClass(new String[]{"Community", null, "5.0", null, null, "single"}, "1G"));
+        assertEquals("redis.logic.sharding.2g.2db.0rodb.4proxy.default", table.findInstanceClass(new String[]{"Community", null, null, "cluster", null, null}, "2G"));
+    }
+
+    @Test
+    public void givenUnmatchedDimension_findInstanceClass_shouldTellTheDimension() {
+        assertMismatch(new String[]{"Enterprise", "local", "5.0", "standard", "1", "double"}, "1G", "editionType");
+        assertMismatch(new String[]{"Community", "local", "4.0", "standard", "1", "double"}, "1G", "architecture");
+        assertMismatch(new String[]{"Community", null, "5.0", null, null, "single"}, "2G", "capacity");
+    }
+
+    private void assertMismatch(String[] dimensionValues, String capacity, String expectedField) {
+        try {
+            table.findInstanceClass(dimensionValues, capacity);
+            fail("No instance class should be found.");
+        } catch (PluginException ex) {
+            assertEquals(String.format("Cannot find available resource according to given %s.", expectedField), ex.getMessage());
+        }
+    }
+}
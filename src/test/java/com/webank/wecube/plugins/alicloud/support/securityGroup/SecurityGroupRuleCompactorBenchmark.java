@@ -0,0 +1,78 @@
+package com.webank.wecube.plugins.alicloud.support.securityGroup;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compacts 10k-rule inputs shaped like the CMDB pushes: a contiguous block of hosts on one port, hosts with
+ * contiguous ports, and scattered hosts and ports with little to merge.
+ * <p>
+ * Run with the main method from the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SecurityGroupRuleCompactorBenchmark {
+
+    private static final int RULE_COUNT = 10000;
+
+    @Param({"contiguousHosts", "hostsWithPortRanges", "scattered"})
+    private String shape;
+
+    private List<SecurityGroupRule> rules;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        rules = new ArrayList<>(RULE_COUNT);
+        switch (shape) {
+            case "contiguousHosts":
+                for (int i = 0; i < RULE_COUNT; i++) {
+                    rules.add(ingress("22/22", host(i)));
+                }
+                break;
+            case "hostsWithPortRanges":
+                for (int i = 0; i < RULE_COUNT / 4; i++) {
+                    for (int port = 8080; port < 8084; port++) {
+                        rules.add(ingress(port + "/" + port, host(i)));
+                    }
+                }
+                break;
+            default:
+                for (int i = 0; i < RULE_COUNT; i++) {
+                    final int port = 1024 + random.nextInt(20) * 100;
+                    rules.add(ingress(port + "/" + port, host(random.nextInt(1 << 24))));
+                }
+                break;
+        }
+        Collections.shuffle(rules, random);
+    }
+
+    @Benchmark
+    public List<SecurityGroupRule> compact() {
+        return SecurityGroupRuleCompactor.compact(rules);
+    }
+
+    private static String host(int index) {
+        return "10." + ((index >>> 16) & 0xFF) + "." + ((index >>> 8) & 0xFF) + "." + (index & 0xFF);
+    }
+
+    private static SecurityGroupRule ingress(String portRange, String cidrIp) {
+        return SecurityGroupRule.of("ingress", "tcp", portRange, cidrIp, null, null, null, null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SecurityGroupRuleCompactorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
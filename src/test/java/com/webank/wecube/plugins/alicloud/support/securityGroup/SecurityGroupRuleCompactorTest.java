@@ -0,0 +1,121 @@
+package com.webank.wecube.plugins.alicloud.support.securityGroup;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class SecurityGroupRuleCompactorTest {
+
+    @Test
+    public void givenSiblingHosts_compact_shouldMergeIntoParentPrefix() {
+        final List<SecurityGroupRule> rules = new ArrayList<>();
+        for (int i = 0; i < 256; i++) {
+            rules.add(ingress("tcp", "22/22", "10.0.1." + i));
+        }
+        rules.add(ingress("tcp", "22/22", "10.0.0.128/25"));
+        rules.add(ingress("tcp", "22/22", "10.0.0.0/25"));
+
+        assertEquals(Collections.singletonList("10.0.0.0/23 22/22"), describe(SecurityGroupRuleCompactor.compact(rules)));
+    }
+
+    @Test
+    public void givenCoveredPrefix_compact_shouldKeepTheCoveringRuleAsGiven() {
+        final SecurityGroupRule covering = ingress("tcp", "80/80", "192.168.0.7/24");
+        final List<SecurityGroupRule> compacted = SecurityGroupRuleCompactor.compact(Arrays.asList(ingress("tcp", "80/80", "192.168.0.9"), covering));
+
+        assertEquals(1, compacted.size());
+        assertSame(covering, compacted.get(0));
+    }
+
+    @Test
+    public void givenContiguousPorts_compact_shouldMergePortRanges() {
+        final List<SecurityGroupRule> rules = Arrays.asList(
+                ingress("tcp", "80/80", "10.0.0.1"),
+                ingress("tcp", "81/81", "10.0.0.1"),
+                ingress("tcp", "82/90", "10.0.0.1"),
+                ingress("tcp", "85/100", "10.0.0.1"),
+                ingress("tcp", "443/443", "10.0.0.1"));
+
+        assertEquals(Arrays.asList("10.0.0.1/32 80/100", "10.0.0.1/32 443/443"), describe(SecurityGroupRuleCompactor.compact(rules)));
+    }
+
+    @Test
+    public void givenHostsAndPorts_compact_shouldMergeBothDimensions() {
+        final List<SecurityGroupRule> rules = Arrays.asList(
+                ingress("tcp", "8080/8080", "10.0.0.0"),
+                ingress("tcp", "8081/8081", "10.0.0.0"),
+                ingress("tcp", "8080/8080", "10.0.0.1"),
+                ingress("tcp", "8081/8081", "10.0.0.1"));
+
+        assertEquals(Collections.singletonList("10.0.0.0/31 8080/8081"), describe(SecurityGroupRuleCompactor.compact(rules)));
+    }
+
+    @Test
+    public void givenDifferentGroups_compact_shouldNotMergeAcrossThem() {
+        final List<SecurityGroupRule> rules = Arrays.asList(
+                ingress("tcp", "22/22", "10.0.0.0"),
+                SecurityGroupRule.of("ingress", "tcp", "22/22", "10.0.0.1", null, "drop", null, null),
+                SecurityGroupRule.of("ingress", "tcp", "22/22", "10.0.0.1", null, null, "2", null),
+                ingress("udp", "22/22", "10.0.0.1"),
+                SecurityGroupRule.of("egress", "tcp", "22/22", "10.0.0.1", null, null, null, null));
+
+        assertEquals(5, SecurityGroupRuleCompactor.compact(rules).size());
+    }
+
+    @Test
+    public void givenNonIpv4Rules_compact_shouldKeepThemAsGiven() {
+        final SecurityGroupRule groupRule = SecurityGroupRule.of("ingress", "tcp", "22/22", null, "sg-peer", null, null, null);
+        final SecurityGroupRule ipv6Rule = ingress("tcp", "22/22", "2001:db8::/32");
+        final SecurityGroupRule allRule = ingress("all", null, "10.0.0.0/24");
+        final List<SecurityGroupRule> compacted = SecurityGroupRuleCompactor.compact(Arrays.asList(groupRule, ipv6Rule, allRule, ingress("all", "-1/-1", "10.0.1.0/24")));
+
+        assertEquals(Arrays.asList("10.0.0.0/23 -1/-1", "2001:db8::/32 22/22", "sg-peer 22/22"), describe(compacted).stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void givenRandomRules_compact_shouldCoverExactlyTheSameTraffic() {
+        final Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            final List<SecurityGroupRule> rules = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                final int from = 1 + random.nextInt(20);
+                final int to = from + random.nextInt(4);
+                final int mask = 28 + random.nextInt(5);
+                rules.add(ingress("tcp", from + "/" + to, "10.0.0." + random.nextInt(16) + "/" + mask));
+            }
+            final List<SecurityGroupRule> compacted = SecurityGroupRuleCompactor.compact(rules);
+
+            assertTrue(compacted.size() <= rules.size());
+            assertEquals(compacted, SecurityGroupRuleCompactor.compact(rules));
+            for (int host = 0; host < 16; host++) {
+                for (int port = 1; port <= 24; port++) {
+                    assertEquals(String.format("10.0.0.%d:%d", host, port), covers(rules, host, port), covers(compacted, host, port));
+                }
+            }
+        }
+    }
+
+    private static boolean covers(List<SecurityGroupRule> rules, int host, int port) {
+        for (SecurityGroupRule rule : rules) {
+            final String[] cidr = rule.getCidrIp().split("/");
+            final int network = Integer.parseInt(cidr[0].substring("10.0.0.".length()));
+            final int blockSize = 1 << (32 - Integer.parseInt(cidr[1]));
+            final String[] ports = rule.getPortRange().split("/");
+            if (host / blockSize == network / blockSize && port >= Integer.parseInt(ports[0]) && port <= Integer.parseInt(ports[1])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static SecurityGroupRule ingress(String ipProtocol, String portRange, String cidrIp) {
+        return SecurityGroupRule.of("ingress", ipProtocol, portRange, cidrIp, null, null, null, null);
+    }
+
+    private static List<String> describe(List<SecurityGroupRule> rules) {
+        return rules.stream().map(rule -> (rule.getCidrIp().isEmpty() ? rule.getPeerGroupId() : rule.getCidrIp()) + " " + rule.getPortRange()).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,76 @@
+package com.webank.wecube.plugins.alicloud.support.securityGroup;
+
+import com.webank.wecube.plugins.alicloud.support.cidr.Ipv4Prefix;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class SecurityGroupRuleSplitterTest {
+
+    @Test
+    public void givenContainedCidrAndPorts_covers_shouldBeTrue() {
+        final SecurityGroupRule covering = ingress("tcp", "20/30", "10.0.0.0/23");
+
+        assertTrue(SecurityGroupRuleSplitter.covers(covering, ingress("tcp", "22/22", "10.0.1.7")));
+        assertTrue(SecurityGroupRuleSplitter.covers(covering, ingress("tcp", "20/30", "10.0.0.0/23")));
+        assertFalse(SecurityGroupRuleSplitter.covers(covering, ingress("tcp", "22/31", "10.0.1.7")));
+        assertFalse(SecurityGroupRuleSplitter.covers(covering, ingress("tcp", "22/22", "10.0.2.7")));
+        assertFalse(SecurityGroupRuleSplitter.covers(covering, ingress("udp", "22/22", "10.0.1.7")));
+        assertFalse(SecurityGroupRuleSplitter.covers(covering, SecurityGroupRule.of("ingress", "tcp", "22/22", "10.0.1.7", null, "drop", null, null)));
+    }
+
+    @Test
+    public void givenSiblingPrefix_subtract_shouldLeaveTheOtherHalf() {
+        final List<SecurityGroupRule> remainder = SecurityGroupRuleSplitter.subtract(ingress("tcp", "22/22", "10.0.0.0/23"),
+                Collections.singletonList(ingress("tcp", "22/22", "10.0.1.0/24")));
+
+        assertEquals(Collections.singletonList(ingress("tcp", "22/22", "10.0.0.0/24")), remainder);
+    }
+
+    @Test
+    public void givenAllCoveredRules_subtract_shouldLeaveNothing() {
+        final List<SecurityGroupRule> remainder = SecurityGroupRuleSplitter.subtract(ingress("tcp", "22/22", "10.0.0.0/23"),
+                Arrays.asList(ingress("tcp", "22/22", "10.0.1.0/24"), ingress("tcp", "22/22", "10.0.0.0/24")));
+
+        assertTrue(remainder.isEmpty());
+    }
+
+    @Test
+    public void givenHostAndPortsCarved_subtract_shouldAllowExactlyTheRest() {
+        final SecurityGroupRule covering = ingress("tcp", "20/30", "10.0.0.0/23");
+        final List<SecurityGroupRule> carved = Arrays.asList(ingress("tcp", "22/22", "10.0.1.7"), ingress("tcp", "25/40", "10.0.0.128/25"));
+        final List<SecurityGroupRule> remainder = SecurityGroupRuleSplitter.subtract(covering, carved);
+
+        for (int host = 0; host < 512; host++) {
+            final String address = "10.0." + (host >> 8) + "." + (host & 0xFF);
+            for (int i = 18; i <= 32; i++) {
+                final int port = i;
+                final boolean expected = allows(covering, address, port) && carved.stream().noneMatch(rule -> allows(rule, address, port));
+                final long allowedBy = remainder.stream().filter(rule -> allows(rule, address, port)).count();
+                assertEquals(address + ":" + port, expected ? 1L : 0L, allowedBy);
+            }
+        }
+    }
+
+    @Test
+    public void givenPortlessProtocol_subtract_shouldOnlySplitTheCidr() {
+        final List<SecurityGroupRule> remainder = SecurityGroupRuleSplitter.subtract(ingress("icmp", "-1/-1", "10.0.0.0/30"),
+                Collections.singletonList(ingress("icmp", "-1/-1", "10.0.0.1")));
+
+        assertEquals(Arrays.asList("10.0.0.0/32 -1/-1", "10.0.0.2/31 -1/-1"),
+                remainder.stream().map(rule -> rule.getCidrIp() + " " + rule.getPortRange()).sorted().collect(Collectors.toList()));
+    }
+
+    private static boolean allows(SecurityGroupRule rule, String address, int port) {
+        final String[] ports = rule.getPortRange().split("/");
+        return Ipv4Prefix.parse(rule.getCidrIp()).contains(Ipv4Prefix.parseAddressOrCidr(address))
+                && Integer.parseInt(ports[0]) <= port && port <= Integer.parseInt(ports[1]);
+    }
+
+    private static SecurityGroupRule ingress(String ipProtocol, String portRange, String cidrIp) {
+        return SecurityGroupRule.of("ingress", ipProtocol, portRange, cidrIp, null, null, null, null);
+    }
+}
@@ -0,0 +1,194 @@
+package com.webank.wecube.plugins.alicloud.support.securityGroup;
+
+import com.aliyuncs.AcsRequest;
+import com.aliyuncs.ecs.model.v20140526.*;
+import com.aliyuncs.exceptions.ServerException;
+import com.webank.wecube.plugins.alicloud.common.AcsClientProperties;
+import com.webank.wecube.plugins.alicloud.common.SecurityGroupProperties;
+import com.webank.wecube.plugins.alicloud.support.AcsAsyncExecutor;
+import com.webank.wecube.plugins.alicloud.support.AcsClientCache;
+import com.webank.wecube.plugins.alicloud.support.AcsClientStub;
+import com.webank.wecube.plugins.alicloud.support.AliCloudException;
+import com.webank.wecube.plugins.alicloud.support.StubAcsClient;
+import com.webank.wecube.plugins.alicloud.support.retry.AcsRateLimiter;
+import com.webank.wecube.plugins.alicloud.support.securityGroup.SecurityGroupRuleSyncer.RuleChange;
+import com.webank.wecube.plugins.alicloud.support.securityGroup.SecurityGroupRuleSyncer.SyncResult;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class SecurityGroupRuleSyncerTest {
+
+    private static final String REGION_ID = "cn-hangzhou";
+    private static final String SECURITY_GROUP_ID = "sg-1";
+
+    private AcsClientStub acsClientStub;
+    private SecurityGroupRuleSyncer syncer;
+
+    @Before
+    public void setUp() {
+        AcsClientProperties acsClientProperties = new AcsClientProperties();
+        acsClientProperties.setBaseBackoffMillis(1);
+        acsClientProperties.setMaxBackoffMillis(5);
+        acsClientProperties.setPermitsPerSecond(1000);
+        acsClientStub = new AcsClientStub(new AcsClientCache(acsClientProperties), new AcsRateLimiter(acsClientProperties), acsClientProperties, new AcsAsyncExecutor(acsClientProperties));
+        SecurityGroupProperties securityGroupProperties = new SecurityGroupProperties();
+        securityGroupProperties.setMaxConcurrentRequestsPerGroup(2);
+        syncer = new SecurityGroupRuleSyncer(acsClientStub, securityGroupProperties);
+    }
+
+    @Test
+    public void givenExistingRules_sync_shouldOnlySendTheDelta() {
+        final StubAcsClient client = new StubAcsClient((request, callIndex) -> {
+            if (request instanceof DescribeSecurityGroupAttributeRequest) {
+                // same rules as requested, written the way AliCloud returns them
+                return describeResponse(permission("TCP", "22/22", "10.0.0.1/32"), permission("TCP", "80/80", "10.0.0.0/24"));
+            }
+            return new AuthorizeSecurityGroupResponse();
+        });
+
+        final List<RuleChange> authorizations = new ArrayList<>();
+        authorizations.add(authorization("tcp", "22/22", "10.0.0.1"));
+        authorizations.add(authorization("tcp", "80/80", "10.0.0.0/24"));
+        for (int i = 0; i < 10; i++) {
+            authorizations.add(authorization("tcp", "8080/8080", "192.168.0." + i));
+        }
+        // duplicated rule
+        authorizations.add(authorization("tcp", "8080/8080", "192.168.0.0"));
+
+        final SyncResult result = syncer.sync(client, REGION_ID, SECURITY_GROUP_ID, authorizations, Collections.emptyList());
+
+        assertEquals(10, result.getAuthorized().size());
+        assertEquals(3, result.getUnchangedCount());
+        assertEquals(1, requestsOf(client, DescribeSecurityGroupAttributeRequest.class).size());
+        assertEquals(10, requestsOf(client, AuthorizeSecurityGroupRequest.class).size());
+        assertNotNull(result.getLastResponse());
+    }
+
+    @Test
+    public void givenMissingRules_revoke_shouldSkipThem() {
+        final StubAcsClient client = new StubAcsClient((request, callIndex) ->
+                request instanceof DescribeSecurityGroupAttributeRequest ? describeResponse(permission("TCP", "22/22", "10.0.0.1/32")) : new RevokeSecurityGroupResponse());
+
+        final SyncResult result = syncer.sync(client, REGION_ID, SECURITY_GROUP_ID, Collections.emptyList(),
+                Arrays.asList(revocation("tcp", "22/22", "10.0.0.1/32"), revocation("tcp", "3306/3306", "10.0.0.1/32")), SecurityGroupRuleSyncerTest::revocation);
+
+        assertEquals(1, result.getRevoked().size());
+        assertEquals("22/22", result.getRevoked().get(0).getRule().getPortRange());
+        assertEquals(1, requestsOf(client, RevokeSecurityGroupRequest.class).size());
+    }
+
+    @Test
+    public void givenRevocationCoveredByRuleWithoutSplitting_revoke_shouldLeaveTheRule() {
+        final StubAcsClient client = new StubAcsClient((request, callIndex) -> describeResponse(permission("TCP", "1/65535", "0.0.0.0/0")));
+
+        final SyncResult result = syncer.sync(client, REGION_ID, SECURITY_GROUP_ID, Collections.emptyList(),
+                Collections.singletonList(revocation("tcp", "22/22", "10.0.0.1/32")));
+
+        assertTrue(result.getRevoked().isEmpty());
+        assertTrue(result.getAuthorized().isEmpty());
+        assertEquals(1, client.getCallCount());
+    }
+
+    @Test
+    public void givenRevocationCoveredByCompactedRule_revoke_shouldSplitTheRule() {
+        final StubAcsClient client = new StubAcsClient((request, callIndex) -> {
+            if (request instanceof DescribeSecurityGroupAttributeRequest) {
+                return describeResponse(permission("TCP", "22/22", "10.0.0.0/23"), permission("TCP", "80/80", "10.0.0.5/32"));
+            }
+            return request instanceof RevokeSecurityGroupRequest ? new RevokeSecurityGroupResponse() : new AuthorizeSecurityGroupResponse();
+        });
+
+        final SyncResult result = syncer.sync(client, REGION_ID, SECURITY_GROUP_ID, Collections.emptyList(),
+                Arrays.asList(revocation("tcp", "22/22", "10.0.1.0/24"), revocation("tcp", "80/80", "10.0.0.5")), SecurityGroupRuleSyncerTest::revocation);
+
+        assertEquals(Arrays.asList("10.0.0.0/23", "10.0.0.5/32"), requestsOf(client, RevokeSecurityGroupRequest.class).stream()
+                .map(request -> ((RevokeSecurityGroupRequest) request).getSourceCidrIp()).sorted().collect(Collectors.toList()));
+        assertEquals(Collections.singletonList("10.0.0.0/24"), requestsOf(client, AuthorizeSecurityGroupRequest.class).stream()
+                .map(request -> ((AuthorizeSecurityGroupRequest) request).getSourceCidrIp()).collect(Collectors.toList()));
+        assertEquals(2, result.getRevoked().size());
+        assertEquals(1, result.getAuthorized().size());
+    }
+
+    @Test
+    public void givenFailedAuthorization_sync_shouldRollBackTheSucceededOnes() {
+        final StubAcsClient client = new StubAcsClient((request, callIndex) -> {
+            if (request instanceof DescribeSecurityGroupAttributeRequest) {
+                return describeResponse();
+            }
+            if (request instanceof AuthorizeSecurityGroupRequest && "10.0.0.3/32".equals(((AuthorizeSecurityGroupRequest) request).getSourceCidrIp())) {
+                throw new ServerException("InvalidSecurityGroupRule.RuleLimitExceeded", "The number of rules has reached the upper limit.", "request-" + callIndex);
+            }
+            return new AuthorizeSecurityGroupResponse();
+        });
+
+        final List<RuleChange> authorizations = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            authorizations.add(authorization("tcp", "22/22", "10.0.0." + i));
+        }
+
+        try {
+            syncer.sync(client, REGION_ID, SECURITY_GROUP_ID, authorizations, Collections.emptyList());
+            fail("AliCloudException expected");
+        } catch (AliCloudException ex) {
+            assertEquals("InvalidSecurityGroupRule.RuleLimitExceeded", ex.getErrCode());
+        }
+
+        final List<String> authorized = requestsOf(client, AuthorizeSecurityGroupRequest.class).stream()
+                .map(request -> ((AuthorizeSecurityGroupRequest) request).getSourceCidrIp()).filter(cidr -> !"10.0.0.3/32".equals(cidr)).sorted().collect(Collectors.toList());
+        final List<String> revoked = requestsOf(client, RevokeSecurityGroupRequest.class).stream()
+                .map(request -> ((RevokeSecurityGroupRequest) request).getSourceCidrIp()).sorted().collect(Collectors.toList());
+        assertEquals(authorized, revoked);
+    }
+
+    private static List<AcsRequest<?>> requestsOf(StubAcsClient client, Class<?> requestClass) {
+        return client.getReceivedRequests().stream().filter(requestClass::isInstance).collect(Collectors.toList());
+    }
+
+    private static RuleChange authorization(String ipProtocol, String portRange, String cidrIp) {
+        final AuthorizeSecurityGroupRequest request = new AuthorizeSecurityGroupRequest();
+        request.setSourceCidrIp(SecurityGroupRule.of("ingress", ipProtocol, portRange, cidrIp, null, null, null, null).getCidrIp());
+        final RevokeSecurityGroupRequest rollbackRequest = new RevokeSecurityGroupRequest();
+        rollbackRequest.setSourceCidrIp(request.getSourceCidrIp());
+        return new RuleChange(SecurityGroupRule.of("ingress", ipProtocol, portRange, cidrIp, null, null, null, null), request, rollbackRequest);
+    }
+
+    private static RuleChange revocation(String ipProtocol, String portRange, String cidrIp) {
+        return revocation(SecurityGroupRule.of("ingress", ipProtocol, portRange, cidrIp, null, null, null, null));
+    }
+
+    private static RuleChange revocation(SecurityGroupRule rule) {
+        final RevokeSecurityGroupRequest request = new RevokeSecurityGroupRequest();
+        request.setSourceCidrIp(rule.getCidrIp());
+        final AuthorizeSecurityGroupRequest rollbackRequest = new AuthorizeSecurityGroupRequest();
+        rollbackRequest.setSourceCidrIp(rule.getCidrIp());
+        return new RuleChange(rule, request, rollbackRequest);
+    }
+
+    private static DescribeSecurityGroupAttributeResponse.Permission permission(String ipProtocol, String portRange, String sourceCidrIp) {
+        final DescribeSecurityGroupAttributeResponse.Permission permission = new DescribeSecurityGroupAttributeResponse.Permission();
+        permission.setDirection("ingress");
+        permission.setIpProtocol(ipProtocol);
+        permission.setPortRange(portRange);
+        permission.setSourceCidrIp(sourceCidrIp);
+        permission.setPolicy("Accept");
+        permission.setPriority("1");
+        permission.setNicType("intranet");
+        return permission;
+    }
+
+    private static DescribeSecurityGroupAttributeResponse describeResponse(DescribeSecurityGroupAttributeResponse.Permission... permissions) {
+        final DescribeSecurityGroupAttributeResponse response = new DescribeSecurityGroupAttributeResponse();
+        final List<DescribeSecurityGroupAttributeResponse.Permission> permissionList = new ArrayList<>();
+        Collections.addAll(permissionList, permissions);
+        response.setPermissions(permissionList);
+        return response;
+    }
+}
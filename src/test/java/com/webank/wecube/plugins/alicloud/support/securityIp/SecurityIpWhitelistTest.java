@@ -0,0 +1,70 @@
+package com.webank.wecube.plugins.alicloud.support.securityIp;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class SecurityIpWhitelistTest {
+
+    @Test
+    public void givenCoveredIps_append_shouldOnlyAppendTheMissingOnes() {
+        final SecurityIpWhitelist whitelist = SecurityIpWhitelist.of(Arrays.asList("10.0.0.0/24", "192.168.1.1", "%"));
+
+        final SecurityIpWhitelist.Modification modification = whitelist.append(Arrays.asList("10.0.0.8", "192.168.1.1/32", "%", "172.16.0.1", "172.16.0.1"));
+
+        assertEquals(SecurityIpWhitelist.MODIFY_MODE_APPEND, modification.getModifyMode());
+        assertEquals(Collections.singletonList("172.16.0.1"), modification.getSecurityIps());
+    }
+
+    @Test
+    public void givenAppendedIpsCoveringEachOther_append_shouldCollapseThem() {
+        final SecurityIpWhitelist whitelist = SecurityIpWhitelist.of(Collections.singletonList("127.0.0.1"));
+
+        final SecurityIpWhitelist.Modification modification = whitelist.append(Arrays.asList("10.0.0.1", "10.0.0.2", "10.0.0.0/24", "::1"));
+
+        assertEquals(SecurityIpWhitelist.MODIFY_MODE_APPEND, modification.getModifyMode());
+        assertEquals(Arrays.asList("10.0.0.0/24", "::1"), modification.getSecurityIps());
+    }
+
+    @Test
+    public void givenAppendedCidrCoveringEntries_append_shouldCoverWithTheCollapsedWhitelist() {
+        final SecurityIpWhitelist whitelist = SecurityIpWhitelist.of(Arrays.asList("10.0.0.1", "192.168.0.0/16", "10.0.0.200"));
+
+        final SecurityIpWhitelist.Modification modification = whitelist.append(Collections.singletonList("10.0.0.0/24"));
+
+        assertEquals(SecurityIpWhitelist.MODIFY_MODE_COVER, modification.getModifyMode());
+        assertEquals(Arrays.asList("192.168.0.0/16", "10.0.0.0/24"), modification.getSecurityIps());
+    }
+
+    @Test
+    public void givenNothingNew_append_shouldModifyNothing() {
+        final SecurityIpWhitelist whitelist = SecurityIpWhitelist.of(Collections.singletonList("0.0.0.0/0"));
+
+        assertTrue(whitelist.append(Arrays.asList("10.0.0.1", "172.16.0.0/12")).isNone());
+    }
+
+    @Test
+    public void givenIps_delete_shouldOnlyDeleteTheEntriesAsTheyAre() {
+        final SecurityIpWhitelist whitelist = SecurityIpWhitelist.of(Arrays.asList("10.0.0.0/24", "192.168.1.1", "172.16.0.1/32"));
+
+        final SecurityIpWhitelist.Modification modification = whitelist.delete(Arrays.asList("10.0.0.8", "192.168.1.1/32", "172.16.0.1", "1.1.1.1"));
+
+        assertEquals(SecurityIpWhitelist.MODIFY_MODE_DELETE, modification.getModifyMode());
+        assertEquals(Arrays.asList("192.168.1.1", "172.16.0.1/32"), modification.getSecurityIps());
+        assertTrue(whitelist.delete(Collections.singletonList("10.0.0.8")).isNone());
+    }
+
+    @Test
+    public void givenAllEntries_delete_shouldCoverWithTheDefaultIp() {
+        final SecurityIpWhitelist whitelist = SecurityIpWhitelist.of(Arrays.asList("10.0.0.1", "10.0.0.2"));
+
+        final SecurityIpWhitelist.Modification modification = whitelist.delete(Arrays.asList("10.0.0.2", "10.0.0.1"));
+
+        assertEquals(SecurityIpWhitelist.MODIFY_MODE_COVER, modification.getModifyMode());
+        assertEquals(Collections.singletonList(SecurityIpWhitelist.DEFAULT_SECURITY_IP), modification.getSecurityIps());
+        assertTrue(SecurityIpWhitelist.of(Collections.singletonList("127.0.0.1")).delete(Collections.singletonList("127.0.0.1")).isNone());
+    }
+}
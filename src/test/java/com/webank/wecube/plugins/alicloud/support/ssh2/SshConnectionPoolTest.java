@@ -0,0 +1,172 @@
+package com.webank.wecube.plugins.alicloud.support.ssh2;
+
+import ch.ethz.ssh2.Connection;
+import com.webank.wecube.plugins.alicloud.common.SshProperties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class SshConnectionPoolTest {
+
+    private static final String HOST = "10.0.0.1";
+    private static final int PORT = 22;
+    private static final String USER = "root";
+
+    private SshProperties properties;
+    private StubConnector connector;
+    private SshConnectionPool pool;
+    private ExecutorService executorService;
+
+    @Before
+    public void setUp() {
+        properties = new SshProperties();
+        properties.setMaxConnectionsPerHost(1);
+        properties.setMaxSessionsPerConnection(2);
+        properties.setBorrowTimeoutMillis(5000);
+        connector = new StubConnector();
+        pool = new SshConnectionPool(properties, connector);
+        executorService = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+        pool.shutdown();
+    }
+
+    @Test
+    public void givenSequentialCommands_execute_shouldReuseConnection() throws IOException {
+        final Connection first = pool.execute(HOST, PORT, USER, "password", connection -> connection);
+        final Connection second = pool.execute(HOST, PORT, USER, "password", connection -> connection);
+
+        assertSame(first, second);
+        assertEquals(1, connector.connections.size());
+        assertNotSame(first, pool.execute("10.0.0.2", PORT, USER, "password", connection -> connection));
+    }
+
+    @Test
+    public void givenMaxSessionsInUse_execute_shouldWaitForFreeChannel() throws Exception {
+        final CountDownLatch started = new CountDownLatch(2);
+        final CountDownLatch proceed = new CountDownLatch(1);
+        final List<Future<Connection>> futures = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            futures.add(executorService.submit(() -> pool.execute(HOST, PORT, USER, "password", connection -> {
+                started.countDown();
+                await(proceed);
+                return connection;
+            })));
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        final AtomicBoolean thirdRan = new AtomicBoolean(false);
+        final Future<Connection> third = executorService.submit(() -> pool.execute(HOST, PORT, USER, "password", connection -> {
+            thirdRan.set(true);
+            return connection;
+        }));
+        Thread.sleep(100);
+        assertFalse(thirdRan.get());
+
+        proceed.countDown();
+        assertSame(futures.get(0).get(5, TimeUnit.SECONDS), third.get(5, TimeUnit.SECONDS));
+        assertSame(futures.get(0).get(), futures.get(1).get());
+        assertEquals(1, connector.connections.size());
+    }
+
+    @Test
+    public void givenIOException_execute_shouldRetireConnection() throws IOException {
+        try {
+            pool.execute(HOST, PORT, USER, "password", connection -> {
+                throw new IOException("channel broken");
+            });
+            fail("IOException expected");
+        } catch (IOException expected) {
+            assertEquals("channel broken", expected.getMessage());
+        }
+
+        assertTrue(connector.connections.get(0).closed);
+        assertEquals(0, pool.getConnectionCount());
+        assertNotSame(connector.connections.get(0), pool.execute(HOST, PORT, USER, "password", connection -> connection));
+    }
+
+    @Test
+    public void givenUnhealthyIdleConnection_execute_shouldReconnect() throws IOException {
+        properties.setHealthCheckIdleSeconds(0);
+        final Connection first = pool.execute(HOST, PORT, USER, "password", connection -> connection);
+        connector.healthy = false;
+
+        final Connection second = pool.execute(HOST, PORT, USER, "password", connection -> connection);
+
+        assertNotSame(first, second);
+        assertTrue(connector.connections.get(0).closed);
+        assertEquals(1, pool.getConnectionCount());
+    }
+
+    @Test
+    public void givenChangedPassword_execute_shouldReplaceIdleConnection() throws IOException {
+        final Connection first = pool.execute(HOST, PORT, USER, "password", connection -> connection);
+        final Connection second = pool.execute(HOST, PORT, USER, "changed", connection -> connection);
+
+        assertNotSame(first, second);
+        assertTrue(connector.connections.get(0).closed);
+        assertEquals("changed", connector.connections.get(1).password);
+    }
+
+    @Test
+    public void givenIdleTimeout_evictIdle_shouldCloseConnections() throws IOException {
+        properties.setIdleTimeoutSeconds(0);
+        pool.execute(HOST, PORT, USER, "password", connection -> connection);
+
+        pool.evictIdle();
+
+        assertEquals(0, pool.getConnectionCount());
+        assertTrue(connector.connections.get(0).closed);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class StubConnector implements SshConnectionPool.SshConnector {
+        private final List<StubConnection> connections = new CopyOnWriteArrayList<>();
+        private volatile boolean healthy = true;
+
+        @Override
+        public Connection connect(String host, int port, String user, String password) {
+            final StubConnection connection = new StubConnection(host, port, password);
+            connections.add(connection);
+            return connection;
+        }
+
+        @Override
+        public boolean isHealthy(Connection connection) {
+            return healthy;
+        }
+    }
+
+    private static class StubConnection extends Connection {
+        private final String password;
+        private volatile boolean closed = false;
+
+        private StubConnection(String host, int port, String password) {
+            super(host, port);
+            this.password = password;
+        }
+
+        @Override
+        public synchronized void close() {
+            closed = true;
+        }
+    }
+}
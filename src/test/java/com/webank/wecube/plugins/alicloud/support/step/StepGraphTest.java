@@ -0,0 +1,100 @@
+package com.webank.wecube.plugins.alicloud.support.step;
+
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.common.StepExecutorProperties;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class StepGraphTest {
+
+    private final StepExecutor stepExecutor = new StepExecutor(new StepExecutorProperties());
+
+    @After
+    public void tearDown() {
+        stepExecutor.shutdown();
+    }
+
+    @Test
+    public void givenIndependentSteps_run_shouldRunThemConcurrently() {
+        // both branches wait for each other, so they only finish when running at the same time
+        final CountDownLatch bothStarted = new CountDownLatch(2);
+        final StepResults results = stepExecutor.run(StepGraph.of("test")
+                .supplyStep("create", r -> "i-1")
+                .supplyStep("account", r -> meet(bothStarted, r.get("create") + ":account"), "create")
+                .supplyStep("securityGroup", r -> meet(bothStarted, r.get("create") + ":sg"), "create")
+                .supplyStep("result", r -> r.get("account") + "," + r.get("securityGroup"), "account", "securityGroup"));
+
+        assertEquals("i-1:account,i-1:sg", results.get("result"));
+        assertEquals(4, results.getElapsedMillis().size());
+    }
+
+    @Test
+    public void givenFailingStep_run_shouldSkipDependentsAndThrow() {
+        final AtomicBoolean dependentRan = new AtomicBoolean(false);
+        final AtomicBoolean independentRan = new AtomicBoolean(false);
+        try {
+            stepExecutor.run(StepGraph.of("test")
+                    .runStep("create", r -> {
+                        throw new PluginException("out of stock");
+                    })
+                    .runStep("await", r -> dependentRan.set(true), "create")
+                    .runStep("lookup", r -> independentRan.set(true)));
+            fail("Should throw the step's failure");
+        } catch (PluginException ex) {
+            assertEquals("out of stock", ex.getMessage());
+        }
+        assertFalse(dependentRan.get());
+        assertTrue(independentRan.get());
+    }
+
+    @Test
+    public void givenFullQueue_run_shouldFailTheRejectedStep() {
+        final StepExecutorProperties properties = new StepExecutorProperties();
+        properties.setMaxThreads(1);
+        properties.setQueueCapacity(1);
+        final StepExecutor boundedExecutor = new StepExecutor(properties);
+        final CountDownLatch neverReleased = new CountDownLatch(1);
+        try {
+            // the first step holds the only thread, the second one takes the only queue slot
+            boundedExecutor.run(StepGraph.of("test")
+                    .supplyStep("first", r -> {
+                        try {
+                            neverReleased.await(200, TimeUnit.MILLISECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return "first";
+                    })
+                    .supplyStep("second", r -> "second")
+                    .supplyStep("third", r -> "third"));
+            fail("Should reject the step which finds the queue full");
+        } catch (PluginException ex) {
+            assertTrue(ex.getMessage().contains("step executor is full"));
+        } finally {
+            boundedExecutor.shutdown();
+        }
+    }
+
+    @Test(expected = PluginException.class)
+    public void givenUndeclaredDependency_supplyStep_shouldReject() {
+        StepGraph.of("test").supplyStep("account", r -> null, "create");
+    }
+
+    private static String meet(CountDownLatch latch, String value) {
+        latch.countDown();
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new PluginException("The other branch didn't run concurrently.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,57 @@
+package com.webank.wecube.plugins.alicloud.support.timer;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class HashedWheelTimerTest {
+
+    private final HashedWheelTimer timer = new HashedWheelTimer("test-wheel", 10, TimeUnit.MILLISECONDS, 64);
+
+    @After
+    public void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    public void givenConcurrentFirstCalls_newTimeout_shouldNotExpireEarly() throws Exception {
+        final int callers = 16;
+        final long delayMillis = 300;
+        final CountDownLatch ready = new CountDownLatch(1);
+        final CountDownLatch expired = new CountDownLatch(callers);
+        final AtomicLong earliestMillis = new AtomicLong(Long.MAX_VALUE);
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            final Thread thread = new Thread(() -> {
+                try {
+                    ready.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                final long scheduledAt = System.nanoTime();
+                timer.newTimeout(() -> {
+                    earliestMillis.accumulateAndGet(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - scheduledAt), Math::min);
+                    expired.countDown();
+                }, delayMillis, TimeUnit.MILLISECONDS);
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        ready.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(expired.await(5, TimeUnit.SECONDS));
+        // expiry is accurate to one tick
+        assertTrue("expired after " + earliestMillis.get() + " ms", earliestMillis.get() >= delayMillis - 10);
+    }
+}
@@ -0,0 +1,105 @@
+package com.webank.wecube.plugins.alicloud.support.timer;
+
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.common.WaitSchedulerProperties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+public class PluginWaitSchedulerTest {
+
+    private PluginWaitScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = new PluginWaitScheduler(2, 5);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void givenCheckTrueOnThirdCall_waitUntil_shouldComplete() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        Function<?, Boolean> func = o -> calls.incrementAndGet() >= 3;
+
+        scheduler.waitUntil(func, 10, 5000).get(5, TimeUnit.SECONDS);
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void givenConfiguredScheduler_share_shouldBeUsedByPluginTimer() throws Exception {
+        final WaitSchedulerProperties properties = new WaitSchedulerProperties();
+        properties.setCheckThreads(1);
+        properties.setTickMillis(5);
+        final PluginWaitScheduler configured = new PluginWaitScheduler(properties);
+        try {
+            configured.share();
+            assertSame(configured, PluginWaitScheduler.getInstance());
+
+            final AtomicInteger calls = new AtomicInteger();
+            PluginTimer.runTaskAsync(() -> calls.incrementAndGet()).get(5, TimeUnit.SECONDS);
+            assertEquals(1, calls.get());
+        } finally {
+            configured.shutdown();
+        }
+        assertNotSame(configured, PluginWaitScheduler.getInstance());
+    }
+
+    @Test
+    public void givenCheckNeverTrue_waitUntil_shouldTimeout() {
+        Function<?, Boolean> func = o -> false;
+
+        try {
+            scheduler.waitUntil(func, 10, 100).join();
+            fail("Should time out");
+        } catch (CompletionException ex) {
+            assertTrue(ex.getCause() instanceof PluginException);
+        }
+    }
+
+    @Test
+    public void givenThousandsOfWaits_waitUntil_shouldCompleteAllOnFewThreads() throws Exception {
+        final int waits = 2000;
+        final long threadsBefore = Thread.activeCount();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < waits; i++) {
+            final AtomicInteger calls = new AtomicInteger();
+            Function<?, Boolean> func = o -> calls.incrementAndGet() >= 2;
+            futures.add(scheduler.waitUntil(func, 20, 10000));
+        }
+
+        assertTrue(Thread.activeCount() - threadsBefore <= 3);
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void givenCancelledFuture_waitUntil_shouldStopPolling() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        Function<?, Boolean> func = o -> {
+            calls.incrementAndGet();
+            return false;
+        };
+
+        final CompletableFuture<Void> future = scheduler.waitUntil(func, 10, 5000);
+        TimeUnit.MILLISECONDS.sleep(50);
+        future.cancel(true);
+        final int callsAfterCancel = calls.get();
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        assertTrue(calls.get() <= callsAfterCancel + 1);
+    }
+}
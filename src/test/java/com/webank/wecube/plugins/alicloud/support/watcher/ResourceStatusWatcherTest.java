@@ -0,0 +1,102 @@
+package com.webank.wecube.plugins.alicloud.support.watcher;
+
+import com.aliyuncs.IAcsClient;
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.support.StubAcsClient;
+import com.webank.wecube.plugins.alicloud.support.timer.PluginWaitScheduler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ResourceStatusWatcherTest {
+
+    private static final String REGION_ID = "cn-hangzhou";
+    private static final String RUNNING = "Running";
+    private static final String PENDING = "Pending";
+
+    private PluginWaitScheduler scheduler;
+    private ResourceStatusWatcher watcher;
+    private final IAcsClient client = new StubAcsClient((request, callIndex) -> null);
+    private final Map<String, String> cloudStatus = new ConcurrentHashMap<>();
+    private final AtomicInteger fetchCount = new AtomicInteger();
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+    private final ResourceStatusFetcher fetcher = (client, regionId, resourceIds) -> {
+        fetchCount.incrementAndGet();
+        batchSizes.add(resourceIds.size());
+        Map<String, String> result = new HashMap<>();
+        resourceIds.stream().filter(cloudStatus::containsKey).forEach(id -> result.put(id, cloudStatus.get(id)));
+        return result;
+    };
+
+    @Before
+    public void setUp() {
+        scheduler = new PluginWaitScheduler(2, 5);
+        watcher = new ResourceStatusWatcher(scheduler, 30);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void givenManyConcurrentWaits_watch_shouldCoalesceDescribeCalls() throws Exception {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            final String instanceId = "i-" + i;
+            cloudStatus.put(instanceId, PENDING);
+            futures.add(watcher.watch(client, REGION_ID, WatchedResourceType.ECS_INSTANCE, instanceId, RUNNING::equals, fetcher, 10000));
+        }
+
+        TimeUnit.MILLISECONDS.sleep(100);
+        cloudStatus.replaceAll((id, status) -> RUNNING);
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        // one describe call per batch of 50 per tick, rather than one per instance per tick
+        assertTrue(fetchCount.get() < 120);
+        assertTrue(batchSizes.stream().allMatch(size -> size <= WatchedResourceType.ECS_INSTANCE.getMaxBatchSize()));
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertEquals(0, watcher.getGroupCount());
+    }
+
+    @Test
+    public void givenDifferentRegions_watch_shouldPollSeparately() throws Exception {
+        cloudStatus.put("d-1", RUNNING);
+        final CompletableFuture<Void> first = watcher.watch(client, REGION_ID, WatchedResourceType.ECS_DISK, "d-1", RUNNING::equals, fetcher, 10000);
+        final CompletableFuture<Void> second = watcher.watch(client, "cn-beijing", WatchedResourceType.ECS_DISK, "d-1", RUNNING::equals, fetcher, 10000);
+
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+        assertEquals(2, fetchCount.get());
+    }
+
+    @Test
+    public void givenMissingResource_watch_shouldFail() {
+        try {
+            watcher.watch(client, REGION_ID, WatchedResourceType.RDS_INSTANCE, "rm-missing", RUNNING::equals, fetcher, 10000).join();
+            fail("Should fail when the resource cannot be found");
+        } catch (CompletionException ex) {
+            assertTrue(ex.getCause() instanceof PluginException);
+        }
+    }
+
+    @Test
+    public void givenStatusNeverMatches_awaitStatus_shouldTimeout() {
+        cloudStatus.put("eip-1", PENDING);
+        try {
+            watcher.watch(client, REGION_ID, WatchedResourceType.EIP, "eip-1", RUNNING::equals, fetcher, 100).join();
+            fail("Should time out");
+        } catch (CompletionException ex) {
+            assertTrue(ex.getCause() instanceof PluginException);
+        }
+    }
+}
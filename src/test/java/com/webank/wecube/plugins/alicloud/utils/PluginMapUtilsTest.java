@@ -0,0 +1,64 @@
+package com.webank.wecube.plugins.alicloud.utils;
+
+import com.webank.wecube.plugins.alicloud.common.PluginException;
+import com.webank.wecube.plugins.alicloud.dto.IdentityParamDto;
+import com.webank.wecube.plugins.alicloud.dto.cloudParam.CloudParamDto;
+import com.webank.wecube.plugins.alicloud.dto.cloudParam.DBCloudParamDto;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class PluginMapUtilsTest {
+
+    @Test
+    public void givenParamString_fromCoreParamString_shouldParseEntries() {
+        final Map<String, String> expected = new HashMap<>();
+        expected.put("accessKeyId", "LTAI4");
+        expected.put("secret", "c2VjcmV0=");
+
+        assertEquals(expected, PluginMapUtils.fromCoreParamString("accessKeyId=LTAI4;secret=c2VjcmV0="));
+        assertEquals(expected, PluginMapUtils.fromCoreParamString("accessKeyId=LTAI4;secret=c2VjcmV0=;;"));
+        assertEquals("cn-hangzhou", PluginMapUtils.fromCoreParamString("regionId=cn-hangzhou").get("regionId"));
+    }
+
+    @Test
+    public void givenMalformedParamString_fromCoreParamString_shouldThrow() {
+        for (String paramString : Arrays.asList(null, "", ";", "regionId", "regionId=", "a=1;;b=2", "a=1;a=2", "a=1;b")) {
+            try {
+                PluginMapUtils.fromCoreParamString(paramString);
+                fail(String.format("[%s] should be rejected", paramString));
+            } catch (PluginException expected) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void givenSameString_convertFromString_shouldReuseParsedDto() {
+        final IdentityParamDto identity = IdentityParamDto.convertFromString("accessKeyId=LTAI4;secret=secret");
+        assertSame(identity, IdentityParamDto.convertFromString("accessKeyId=LTAI4;secret=secret"));
+        assertEquals("secret", identity.getSecret());
+        assertEquals(64, identity.getSecretDigest().length());
+
+        final CloudParamDto cloudParam = CloudParamDto.convertFromString("regionId=cn-hangzhou;regionGroup=hz");
+        assertSame(cloudParam, CloudParamDto.convertFromString("regionId=cn-hangzhou;regionGroup=hz"));
+        final DBCloudParamDto dbCloudParam = DBCloudParamDto.convertFromString("regionId=cn-hangzhou;regionGroup=hz");
+        assertEquals("hz", dbCloudParam.getRegionGroup());
+        assertNotSame(cloudParam, dbCloudParam);
+    }
+
+    @Test(expected = PluginException.class)
+    public void givenMissingRegionId_convertFromString_shouldThrowEveryTime() {
+        try {
+            CloudParamDto.convertFromString("regionGroup=hz");
+            fail("regionId is mandatory");
+        } catch (PluginException ex) {
+            assertEquals("Cannot get field: [regionId] through the given cloudParams string", ex.getMessage());
+        }
+        CloudParamDto.convertFromString("regionGroup=hz");
+    }
+}